@@ -20,6 +20,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -29,6 +31,7 @@ import javax.xml.transform.TransformerException;
 
 import org.eclipse.core.resources.ISaveContext;
 import org.eclipse.core.resources.ISaveParticipant;
+import org.eclipse.core.resources.ISavedState;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IAdaptable;
@@ -59,15 +62,19 @@ import org.eclipse.debug.core.model.RuntimeProcess;
 import org.eclipse.debug.internal.core.BreakpointManager;
 import org.eclipse.debug.internal.core.DebugCoreMessages;
 import org.eclipse.debug.internal.core.DebugOptions;
+import org.eclipse.debug.internal.core.EventDispatchStatistics;
 import org.eclipse.debug.internal.core.ExpressionManager;
 import org.eclipse.debug.internal.core.IConfigurationElementConstants;
 import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.core.LaunchConfigurationIndex;
 import org.eclipse.debug.internal.core.LaunchManager;
 import org.eclipse.debug.internal.core.LogicalStructureManager;
 import org.eclipse.debug.internal.core.MemoryBlockManager;
 import org.eclipse.debug.internal.core.Preferences;
 import org.eclipse.debug.internal.core.StepFilterManager;
+import org.eclipse.debug.internal.core.StreamPump;
 import org.eclipse.debug.internal.core.commands.CommandAdapterFactory;
+import org.eclipse.debug.internal.core.commands.DebugCommandExecutor;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
 import org.eclipse.osgi.service.environment.Constants;
 import org.osgi.framework.BundleContext;
@@ -349,6 +356,12 @@ public class DebugPlugin extends Plugin {
 	 */
 	private LaunchManager fLaunchManager;
 
+	/**
+	 * State of the last workspace save this plug-in participated in, or
+	 * <code>null</code> if none
+	 */
+	private ISavedState fSavedState;
+
 	/**
 	 * The singleton memory block manager.
 	 * @since 3.1
@@ -390,13 +403,34 @@ public class DebugPlugin extends Plugin {
 	private static final int NOTIFY_FILTERS = 0;
 	private static final int NOTIFY_EVENTS = 1;
 
+	/**
+	 * Upper bound on the number of debug events combined into a single
+	 * delivery to listeners.
+	 */
+	private static final int MAX_COALESCED_EVENTS = 512;
+
 	/**
 	 * Queue of debug events to fire to listeners and asynchronous runnables to execute
-	 * in the order received.
+	 * in the order received. The queue is non-blocking so producers never contend
+	 * on a common monitor; only the event dispatch job removes elements.
 	 *
 	 * @since 3.1
 	 */
-	private List<Object> fEventQueue = new ArrayList<Object>();
+	private Queue<QueuedElement> fEventQueue = new ConcurrentLinkedQueue<QueuedElement>();
+
+	/**
+	 * A debug event set or runnable waiting in the event queue, along with
+	 * the time it was queued.
+	 */
+	static final class QueuedElement {
+		final Object fElement;
+		final long fTimestamp;
+
+		QueuedElement(Object element) {
+			fElement = element;
+			fTimestamp = System.nanoTime();
+		}
+	}
 
 	/**
 	 * Job to fire events to listeners.
@@ -414,6 +448,13 @@ public class DebugPlugin extends Plugin {
 		EventNotifier fNotifier = new EventNotifier();
 		AsynchRunner fRunner = new AsynchRunner();
 
+		/**
+		 * Events drained from the queue that have not yet been delivered, and
+		 * the number of queued event sets they came from.
+		 */
+		private List<DebugEvent> fPendingEvents = new ArrayList<DebugEvent>();
+		private int fPendingSets = 0;
+
 	    /**
          * Creates a new event dispatch job.
          */
@@ -428,22 +469,46 @@ public class DebugPlugin extends Plugin {
         @Override
 		protected IStatus run(IProgressMonitor monitor) {
 
-            while (!fEventQueue.isEmpty()) {
-                Object next = null;
-	            synchronized (fEventQueue) {
-	                if (!fEventQueue.isEmpty()) {
-	                	next = fEventQueue.remove(0);
-	                }
-	            }
-	            if (next instanceof Runnable) {
-	            	fRunner.async((Runnable) next);
-	            } else if (next != null) {
-	                fNotifier.dispatch((DebugEvent[]) next);
-	            }
-            }
+			QueuedElement next = null;
+			while ((next = fEventQueue.poll()) != null) {
+				EventDispatchStatistics.dequeued(next.fTimestamp);
+				if (next.fElement instanceof Runnable) {
+					// runnables execute after all events queued before them
+					flush();
+					fRunner.async((Runnable) next.fElement);
+				} else {
+					DebugEvent[] events = (DebugEvent[]) next.fElement;
+					if (fPendingEvents.size() + events.length > MAX_COALESCED_EVENTS) {
+						flush();
+					}
+					for (int i = 0; i < events.length; i++) {
+						fPendingEvents.add(events[i]);
+					}
+					fPendingSets++;
+				}
+			}
+			flush();
+			if (DebugOptions.DEBUG_EVENTS) {
+				DebugOptions.trace(EventDispatchStatistics.getSummary());
+			}
             return Status.OK_STATUS;
         }
 
+		/**
+		 * Delivers the events collected from consecutive queued event sets
+		 * to listeners as a single event set.
+		 */
+		private void flush() {
+			if (fPendingSets == 0) {
+				return;
+			}
+			DebugEvent[] events = fPendingEvents.toArray(new DebugEvent[fPendingEvents.size()]);
+			EventDispatchStatistics.delivered(fPendingSets);
+			fPendingEvents.clear();
+			fPendingSets = 0;
+			fNotifier.dispatch(events);
+		}
+
         /* (non-Javadoc)
          * @see org.eclipse.core.runtime.jobs.Job#shouldRun()
          */
@@ -518,6 +583,10 @@ public class DebugPlugin extends Plugin {
 	 * Notifies all registered debug event set listeners of the given
 	 * debug events. Events which are filtered by a registered debug event
 	 * filter are not fired.
+	 * <p>
+	 * Events are fired asynchronously. Event sets that are waiting to be fired
+	 * at the same time may be combined, in order, into a single event set.
+	 * </p>
 	 *
 	 * @param events array of debug events to fire
 	 * @see IDebugEventFilter
@@ -528,9 +597,9 @@ public class DebugPlugin extends Plugin {
 		if (isShuttingDown() || events == null || fEventListeners.isEmpty()) {
 			return;
 		}
-		synchronized (fEventQueue) {
-			fEventQueue.add(events);
-		}
+		// count the element before the dispatch job can remove it
+		EventDispatchStatistics.queued();
+		fEventQueue.add(new QueuedElement(events));
 		fEventDispatchJob.schedule();
 	}
 
@@ -544,9 +613,9 @@ public class DebugPlugin extends Plugin {
 	 * @since 2.1
 	 */
 	public void asyncExec(Runnable r) {
-		synchronized (fEventQueue) {
-			fEventQueue.add(r);
-		}
+		// count the element before the dispatch job can remove it
+		EventDispatchStatistics.queued();
+		fEventQueue.add(new QueuedElement(r));
 		fEventDispatchJob.schedule();
 	}
 
@@ -572,6 +641,7 @@ public class DebugPlugin extends Plugin {
 	public synchronized ILaunchManager getLaunchManager() {
 		if (fLaunchManager == null) {
 			fLaunchManager = new LaunchManager();
+			fLaunchManager.setSavedState(fSavedState);
 		}
 		return fLaunchManager;
 	}
@@ -670,6 +740,8 @@ public class DebugPlugin extends Plugin {
             fEventFilters.clear();
 
 			SourceLookupUtils.shutdown();
+			StreamPump.shutdown();
+			DebugCommandExecutor.shutdown();
 			Preferences.savePreferences(DebugPlugin.getUniqueIdentifier());
 			ResourcesPlugin.getWorkspace().removeSaveParticipant(getUniqueIdentifier());
 		} finally {
@@ -685,13 +757,19 @@ public class DebugPlugin extends Plugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		new DebugOptions(context);
-		ResourcesPlugin.getWorkspace().addSaveParticipant(getUniqueIdentifier(),
+		fSavedState = ResourcesPlugin.getWorkspace().addSaveParticipant(getUniqueIdentifier(),
 				new ISaveParticipant() {
 					@Override
 					public void saving(ISaveContext saveContext) throws CoreException {
 						if (fExpressionManager != null) {
 							fExpressionManager.storeWatchExpressions();
 						}
+						if (fLaunchManager != null) {
+							fLaunchManager.saveLaunchConfigurationIndex(saveContext);
+						} else {
+							// without a delta from this save the index can not be verified next session
+							LaunchConfigurationIndex.getIndexFile().delete();
+						}
 						Preferences.savePreferences(DebugPlugin.getUniqueIdentifier());
 					}
 					@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,8 +23,10 @@ import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IDisconnect;
 import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.core.model.ISourceLocator;
+import org.eclipse.debug.core.model.IStreamsProxy;
 import org.eclipse.debug.internal.core.DebugCoreMessages;
 import org.eclipse.debug.internal.core.LaunchManager;
+import org.eclipse.debug.internal.core.StreamsProxy;
 
 /**
  * A launch is the result of launching a debug session
@@ -492,6 +494,13 @@ public class Launch extends PlatformObject implements ILaunch, IDisconnect, ILau
 			removeEventListener();
 			getLaunchManager().removeLaunchListener(this);
 			getLaunchManager().removeLaunchConfigurationListener(this);
+			// the output of the processes is no longer read
+			for (IProcess process : getProcesses()) {
+				IStreamsProxy proxy = process.getStreamsProxy();
+				if (proxy instanceof StreamsProxy) {
+					((StreamsProxy) proxy).dispose();
+				}
+			}
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,7 +10,10 @@
  *******************************************************************************/
 package org.eclipse.debug.core.commands;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -23,6 +26,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.IRequest;
 import org.eclipse.debug.internal.core.DebugOptions;
+import org.eclipse.debug.internal.core.commands.DebugCommandRequest;
 
 /**
  * Abstract implementation of a debug command handler. Handles {@link IDebugCommandRequest}
@@ -49,6 +53,11 @@ public abstract class AbstractDebugCommand implements IDebugCommandHandler {
 		 */
 		private boolean run = false;
 
+		/**
+		 * Key of the requester in the pending updates, or <code>null</code>
+		 */
+		private Object key = null;
+
 		/**
 		 * Creates a new job to update the specified request
 		 *
@@ -68,6 +77,7 @@ public abstract class AbstractDebugCommand implements IDebugCommandHandler {
 		@Override
 		protected IStatus run(IProgressMonitor monitor) {
 			run = true;
+			removePending(this);
 			if (DebugOptions.DEBUG_COMMANDS) {
 				DebugOptions.trace("can execute command: " + AbstractDebugCommand.this); //$NON-NLS-1$
 			}
@@ -118,6 +128,23 @@ public abstract class AbstractDebugCommand implements IDebugCommandHandler {
 			return Status.OK_STATUS;
 		}
 
+		/**
+		 * Cancels this job, unless it is running, for a later update of the
+		 * same requester. The request of this job is reported as superseded.
+		 */
+		void supersede() {
+			DebugCommandRequest commandRequest = (DebugCommandRequest) request;
+			commandRequest.setSuperseded(true);
+			if (cancel()) {
+				if (DebugOptions.DEBUG_COMMANDS) {
+					DebugOptions.trace("can execute command superseded: " + AbstractDebugCommand.this); //$NON-NLS-1$
+				}
+			} else {
+				// already running, the result of the request is reported
+				commandRequest.setSuperseded(false);
+			}
+		}
+
 		/* (non-Javadoc)
 		 * @see org.eclipse.core.runtime.jobs.Job#belongsTo(java.lang.Object)
 		 */
@@ -141,6 +168,7 @@ public abstract class AbstractDebugCommand implements IDebugCommandHandler {
 		@Override
 		public void done(IJobChangeEvent event) {
 			if (event.getJob() == this) {
+				removePending(this);
 				if (!run) {
 					request.cancel();
 					request.done();
@@ -203,6 +231,11 @@ public abstract class AbstractDebugCommand implements IDebugCommandHandler {
 
 	}
 
+	/**
+	 * Enabled state update jobs not yet run, by requester and job family
+	 */
+	private final Map<Object, UpdateJob> fPendingUpdates = new HashMap<Object, UpdateJob>();
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.debug.core.commands.IDebugCommandHandler#execute(org.eclipse.debug.core.commands.IDebugCommandRequest)
 	 */
@@ -264,10 +297,39 @@ public abstract class AbstractDebugCommand implements IDebugCommandHandler {
 	 */
 	@Override
 	public void canExecute(final IEnabledStateRequest request) {
-		Job job = new UpdateJob(request);
+		UpdateJob job = new UpdateJob(request);
+		if (request instanceof DebugCommandRequest) {
+			Object requester = ((DebugCommandRequest) request).getCoalescingKey();
+			if (requester != null) {
+				// only the latest update for a requester needs to run
+				job.key = Arrays.asList(requester, getEnabledStateJobFamily(request));
+				UpdateJob previous;
+				synchronized (fPendingUpdates) {
+					previous = fPendingUpdates.put(job.key, job);
+				}
+				if (previous != null) {
+					previous.supersede();
+				}
+			}
+		}
 		job.schedule();
 	}
 
+	/**
+	 * Removes the given job from the pending updates, unless superseded.
+	 *
+	 * @param job update job that is running or done
+	 */
+	private void removePending(UpdateJob job) {
+		if (job.key != null) {
+			synchronized (fPendingUpdates) {
+				if (fPendingUpdates.get(job.key) == job) {
+					fPendingUpdates.remove(job.key);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Returns the name to use for a job and progress monitor task names when performing
 	 * an {@link IEnabledStateRequest}.
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core.model;
+
+import java.math.BigInteger;
+
+import org.eclipse.debug.core.DebugException;
+
+/**
+ * Extension to {@link IMemoryBlockExtension} that retrieves memory in a packed
+ * representation. The values of the retrieved bytes are held in one array and
+ * their attributes in a parallel array, rather than in one
+ * {@link MemoryByte} per byte.
+ * <p>
+ * Clients may optionally implement this interface when providing
+ * implementations of {@link IMemoryBlockExtension} that can retrieve large
+ * ranges of memory. Memory blocks that do not implement this interface are
+ * adapted by {@link MemoryBuffer#getBuffer(IMemoryBlockExtension, BigInteger, long)}.
+ * </p>
+ * @since 3.10
+ * @see MemoryBuffer
+ */
+public interface IMemoryBlockExtension2 extends IMemoryBlockExtension {
+
+	/**
+	 * Returns bytes from this memory block based on the given address and the
+	 * addressable size of this memory block. The same rules apply as for
+	 * {@link IMemoryBlockExtension#getBytesFromAddress(BigInteger, long)}:
+	 * bytes outside of the accessible range are returned with the
+	 * <code>READABLE</code> attribute turned off.
+	 * <p>
+	 * The buffer returned belongs to the caller, which may change the
+	 * attributes of its bytes. Implementations must not return a buffer they
+	 * retain.
+	 * </p>
+	 *
+	 * @param address address at which to begin retrieving bytes in terms of
+	 *            addressable units
+	 * @param units is the number of addressable units of memory to retrieve
+	 * @return a buffer of bytes from this memory block based on the given
+	 *         address and number of units. The length of the buffer returned
+	 *         must be equal to <code>units</code> *
+	 *         <code>getAddressableSize()</code>.
+	 * @throws DebugException if unable to retrieve the specified bytes due to
+	 *             a failure communicating with the target
+	 */
+	public MemoryBuffer getBufferFromAddress(BigInteger address, long units) throws DebugException;
+}
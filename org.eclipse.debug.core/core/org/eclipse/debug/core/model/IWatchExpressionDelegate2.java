@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core.model;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Extension to a watch expression delegate that evaluates several
+ * expressions in one context at once. When the enabled watch expressions
+ * are given a new context, the expressions for a debug model whose delegate
+ * implements this interface are handed to the delegate in one request
+ * rather than one request per expression.
+ * <p>
+ * Clients should implement this interface, in addition to
+ * <code>IWatchExpressionDelegate</code>, if they can evaluate several
+ * expressions more efficiently than one after the other.
+ * </p>
+ * @since 3.10
+ */
+public interface IWatchExpressionDelegate2 extends IWatchExpressionDelegate {
+
+	/**
+	 * Evaluates the given expressions in the given context asynchronously and
+	 * notifies the given listener as the evaluation of each expression
+	 * finishes. The result of each evaluation must return the text of the
+	 * evaluated expression from
+	 * {@link IWatchExpressionResult#getExpressionText()}.
+	 * <p>
+	 * The monitor is canceled when the context of the expressions changes
+	 * before all results have been reported. Evaluations that have not
+	 * started by then should be abandoned; results reported afterwards are
+	 * ignored.
+	 * </p>
+	 *
+	 * @param expressions the distinct expressions to evaluate
+	 * @param context the context for the evaluations
+	 * @param monitor monitor canceled when the results are no longer needed
+	 * @param listener the listener to notify as each evaluation completes
+	 */
+	public void evaluateExpressions(String[] expressions, IDebugElement context, IProgressMonitor monitor, IWatchExpressionListener listener);
+}
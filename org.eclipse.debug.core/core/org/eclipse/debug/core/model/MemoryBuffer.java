@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core.model;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.eclipse.debug.core.DebugException;
+
+/**
+ * A range of bytes of memory held in packed form: the values of the bytes in
+ * one array and their attributes in a parallel array. The attributes of each
+ * byte are the bit masks defined by {@link MemoryByte}.
+ * <p>
+ * A buffer may be a view of a range of another buffer, see
+ * {@link #slice(int, int)}, in which case changes made to either are visible
+ * in both.
+ * </p>
+ * <p>
+ * Clients may instantiate this class. This class is not intended to be
+ * subclassed.
+ * </p>
+ * @since 3.10
+ * @see IMemoryBlockExtension2
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class MemoryBuffer {
+
+	private final byte[] fValues;
+	private final byte[] fFlags;
+	private final int fOffset;
+	private final int fLength;
+
+	/**
+	 * Constructs a buffer of the given length whose bytes have a value of 0
+	 * and no attributes, that is, are neither readable nor writable and have
+	 * an unknown endianess.
+	 *
+	 * @param length number of bytes
+	 */
+	public MemoryBuffer(int length) {
+		this(new byte[length], new byte[length], 0, length);
+	}
+
+	/**
+	 * Constructs a buffer with the given values that all have the given
+	 * attributes.
+	 *
+	 * @param values values of the bytes, not copied
+	 * @param flags attributes of every byte specified as a bit mask
+	 */
+	public MemoryBuffer(byte[] values, byte flags) {
+		this(values, new byte[values.length], 0, values.length);
+		if (flags != 0) {
+			Arrays.fill(fFlags, flags);
+		}
+	}
+
+	/**
+	 * Constructs a buffer with the given values and attributes.
+	 *
+	 * @param values values of the bytes, not copied
+	 * @param flags attributes of the bytes specified as bit masks, not copied
+	 * @exception IllegalArgumentException if the arrays differ in length
+	 */
+	public MemoryBuffer(byte[] values, byte[] flags) {
+		this(values, flags, 0, values.length);
+		if (flags.length != values.length) {
+			throw new IllegalArgumentException("values and flags differ in length"); //$NON-NLS-1$
+		}
+	}
+
+	private MemoryBuffer(byte[] values, byte[] flags, int offset, int length) {
+		fValues = values;
+		fFlags = flags;
+		fOffset = offset;
+		fLength = length;
+	}
+
+	/**
+	 * Returns a buffer holding the values and attributes of the given memory
+	 * bytes. Attributes that subclasses of {@link MemoryByte} add are not
+	 * retained.
+	 *
+	 * @param bytes memory bytes
+	 * @return a buffer of the same length
+	 */
+	public static MemoryBuffer valueOf(MemoryByte[] bytes) {
+		byte[] values = new byte[bytes.length];
+		byte[] flags = new byte[bytes.length];
+		for (int i = 0; i < bytes.length; i++) {
+			values[i] = bytes[i].getValue();
+			flags[i] = bytes[i].getFlags();
+		}
+		return new MemoryBuffer(values, flags, 0, bytes.length);
+	}
+
+	/**
+	 * Retrieves bytes from the given memory block, in packed form when the
+	 * memory block implements {@link IMemoryBlockExtension2} and by packing
+	 * the memory bytes it returns otherwise.
+	 *
+	 * @param memoryBlock memory block
+	 * @param address address at which to begin retrieving bytes in terms of
+	 *            addressable units
+	 * @param units number of addressable units of memory to retrieve
+	 * @return a buffer of the retrieved bytes, or <code>null</code> if the
+	 *         memory block returned none
+	 * @throws DebugException if unable to retrieve the specified bytes
+	 */
+	public static MemoryBuffer getBuffer(IMemoryBlockExtension memoryBlock, BigInteger address, long units) throws DebugException {
+		if (memoryBlock instanceof IMemoryBlockExtension2) {
+			return ((IMemoryBlockExtension2) memoryBlock).getBufferFromAddress(address, units);
+		}
+		MemoryByte[] bytes = memoryBlock.getBytesFromAddress(address, units);
+		if (bytes == null) {
+			return null;
+		}
+		return valueOf(bytes);
+	}
+
+	/**
+	 * Returns the number of bytes in this buffer.
+	 *
+	 * @return the number of bytes in this buffer
+	 */
+	public int getLength() {
+		return fLength;
+	}
+
+	/**
+	 * Returns the value of the byte at the given index.
+	 *
+	 * @param index zero-based index in this buffer
+	 * @return the value of the byte
+	 */
+	public byte getValue(int index) {
+		return fValues[toArrayIndex(index)];
+	}
+
+	/**
+	 * Sets the value of the byte at the given index.
+	 *
+	 * @param index zero-based index in this buffer
+	 * @param value the new value
+	 */
+	public void setValue(int index, byte value) {
+		fValues[toArrayIndex(index)] = value;
+	}
+
+	/**
+	 * Returns the attributes of the byte at the given index as a bit mask.
+	 *
+	 * @param index zero-based index in this buffer
+	 * @return the attributes of the byte
+	 */
+	public byte getFlags(int index) {
+		return fFlags[toArrayIndex(index)];
+	}
+
+	/**
+	 * Sets the attributes of the byte at the given index.
+	 *
+	 * @param index zero-based index in this buffer
+	 * @param flags the attributes specified as a bit mask
+	 */
+	public void setFlags(int index, byte flags) {
+		fFlags[toArrayIndex(index)] = flags;
+	}
+
+	/**
+	 * Returns whether the byte at the given index has all of the given
+	 * attributes.
+	 *
+	 * @param index zero-based index in this buffer
+	 * @param mask attributes specified as a bit mask
+	 * @return whether all of the attributes are on
+	 */
+	public boolean hasFlags(int index, byte mask) {
+		return (getFlags(index) & mask) == mask;
+	}
+
+	/**
+	 * Turns the given attributes on for the byte at the given index.
+	 *
+	 * @param index zero-based index in this buffer
+	 * @param mask attributes specified as a bit mask
+	 */
+	public void addFlags(int index, byte mask) {
+		fFlags[toArrayIndex(index)] |= mask;
+	}
+
+	/**
+	 * Turns the given attributes on for every byte in this buffer.
+	 *
+	 * @param mask attributes specified as a bit mask
+	 */
+	public void addFlags(byte mask) {
+		for (int i = fOffset; i < fOffset + fLength; i++) {
+			fFlags[i] |= mask;
+		}
+	}
+
+	/**
+	 * Turns the given attributes off for every byte in this buffer.
+	 *
+	 * @param mask attributes specified as a bit mask
+	 */
+	public void clearFlags(byte mask) {
+		for (int i = fOffset; i < fOffset + fLength; i++) {
+			fFlags[i] &= ~mask;
+		}
+	}
+
+	/**
+	 * Returns a read-only view of the values of the bytes in this buffer.
+	 *
+	 * @return the values, positioned at the first byte of this buffer
+	 */
+	public ByteBuffer getValues() {
+		return ByteBuffer.wrap(fValues, fOffset, fLength).slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Returns a read-only view of the attributes of the bytes in this buffer.
+	 *
+	 * @return the attributes, positioned at the first byte of this buffer
+	 */
+	public ByteBuffer getFlags() {
+		return ByteBuffer.wrap(fFlags, fOffset, fLength).slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Returns a buffer that is a view of the given range of this buffer.
+	 *
+	 * @param start zero-based index of the first byte of the range
+	 * @param length number of bytes in the range
+	 * @return a buffer sharing the bytes of this buffer
+	 * @exception IndexOutOfBoundsException if the range is not within this
+	 *                buffer
+	 */
+	public MemoryBuffer slice(int start, int length) {
+		checkRange(start, length);
+		return new MemoryBuffer(fValues, fFlags, fOffset + start, length);
+	}
+
+	/**
+	 * Copies the values and attributes of a range of this buffer into the
+	 * given buffer.
+	 *
+	 * @param start zero-based index of the first byte to copy
+	 * @param destination the buffer to copy to
+	 * @param destinationStart zero-based index in the destination buffer
+	 * @param length number of bytes to copy
+	 * @exception IndexOutOfBoundsException if either range is not within its
+	 *                buffer
+	 */
+	public void copyTo(int start, MemoryBuffer destination, int destinationStart, int length) {
+		checkRange(start, length);
+		destination.checkRange(destinationStart, length);
+		System.arraycopy(fValues, fOffset + start, destination.fValues, destination.fOffset + destinationStart, length);
+		System.arraycopy(fFlags, fOffset + start, destination.fFlags, destination.fOffset + destinationStart, length);
+	}
+
+	/**
+	 * Returns a new memory byte with the value and attributes of the byte at
+	 * the given index.
+	 *
+	 * @param index zero-based index in this buffer
+	 * @return a new memory byte
+	 */
+	public MemoryByte getMemoryByte(int index) {
+		int i = toArrayIndex(index);
+		return new MemoryByte(fValues[i], fFlags[i]);
+	}
+
+	/**
+	 * Returns new memory bytes with the values and attributes of the bytes in
+	 * the given range. Changes made to the memory bytes are not reflected in
+	 * this buffer.
+	 *
+	 * @param start zero-based index of the first byte of the range
+	 * @param length number of bytes in the range
+	 * @return new memory bytes
+	 * @exception IndexOutOfBoundsException if the range is not within this
+	 *                buffer
+	 */
+	public MemoryByte[] getMemoryBytes(int start, int length) {
+		checkRange(start, length);
+		MemoryByte[] bytes = new MemoryByte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = new MemoryByte(fValues[fOffset + start + i], fFlags[fOffset + start + i]);
+		}
+		return bytes;
+	}
+
+	private int toArrayIndex(int index) {
+		if (index < 0 || index >= fLength) {
+			throw new IndexOutOfBoundsException(Integer.toString(index));
+		}
+		return fOffset + index;
+	}
+
+	private void checkRange(int start, int length) {
+		if (start < 0 || length < 0 || start + length > fLength) {
+			throw new IndexOutOfBoundsException(start + ", " + length); //$NON-NLS-1$
+		}
+	}
+}
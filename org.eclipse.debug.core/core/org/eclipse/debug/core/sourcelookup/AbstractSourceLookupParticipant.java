@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2013 IBM Corporation and others.
+ *  Copyright (c) 2000, 2014 IBM Corporation and others.
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v1.0
  *  which accompanies this distribution, and is available at
@@ -17,6 +17,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.internal.core.sourcelookup.ParallelSourceLookup;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 
 
@@ -63,6 +64,13 @@ public abstract class AbstractSourceLookupParticipant implements ISourceLookupPa
 		String name = getSourceName(object);
 		if (name != null) {
 			ISourceContainer[] containers = getSourceContainers();
+			if (containers.length > 1 && ParallelSourceLookup.isEnabled()) {
+				ISourceContainer[] delegates = new ISourceContainer[containers.length];
+				for (int i = 0; i < containers.length; i++) {
+					delegates[i] = getDelegateContainer(containers[i]);
+				}
+				return ParallelSourceLookup.findSourceElements(name, delegates, results != null);
+			}
 			for (int i = 0; i < containers.length; i++) {
 				try {
 					ISourceContainer container = getDelegateContainer(containers[i]);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2013 IBM Corporation and others.
+ * Copyright (c) 2003, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.sourcelookup.ISourceContainer;
+import org.eclipse.debug.internal.core.sourcelookup.ParallelSourceLookup;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 
 /**
@@ -63,6 +64,11 @@ public abstract class CompositeSourceContainer extends AbstractSourceContainer {
 	 * may or may not require names to be fully qualified (i.e. be qualified with directory
 	 * names).
 	 * </p>
+	 * <p>
+	 * When parallel source lookup is enabled the containers are searched
+	 * concurrently, and their results combined in the order of the given
+	 * containers.
+	 * </p>
 	 * @param name the name of the source element to search for
 	 * @param containers the containers to search
 	 * @return a collection of source elements corresponding to the given name
@@ -75,6 +81,9 @@ public abstract class CompositeSourceContainer extends AbstractSourceContainer {
 		if (isFindDuplicates()) {
 			results = new ArrayList<Object>();
 		}
+		if (containers.length > 1 && ParallelSourceLookup.isEnabled()) {
+			return ParallelSourceLookup.findSourceElements(name, containers, results != null);
+		}
 		for (int i = 0; i < containers.length; i++) {
 			ISourceContainer container = containers[i];
 			try {
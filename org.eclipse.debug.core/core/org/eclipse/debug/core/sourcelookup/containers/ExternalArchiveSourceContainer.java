@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,11 +13,7 @@ package org.eclipse.debug.core.sourcelookup.containers;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -26,6 +22,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.sourcelookup.ISourceContainerType;
+import org.eclipse.debug.internal.core.sourcelookup.ArchiveIndex;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
 
@@ -43,7 +40,6 @@ import com.ibm.icu.text.MessageFormat;
 public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 
 	private boolean fDetectRoots = false;
-	private Set<String> fPotentialRoots = null;
 	private List<String> fRoots = new ArrayList<String>();
 	private String fArchivePath = null;
 	/**
@@ -81,36 +77,35 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 	public Object[] findSourceElements(String name) throws CoreException {
 		String newname = name.replace('\\', '/');
 		ZipFile file = getArchive();
-		// NOTE: archive can be closed between get (above) and synchronized block (below)
-		synchronized (file) {
+		try {
+			// the index is immutable, lookups do not need to lock the archive
+			ArchiveIndex index = SourceLookupUtils.getArchiveIndex(fArchivePath, file);
 			boolean isQualfied = newname.indexOf('/') > 0;
 			if (fDetectRoots && isQualfied) {
-				ZipEntry entry = searchRoots(file, newname);
+				ZipEntry entry = searchRoots(file, index, newname);
 				if (entry != null) {
 					return new Object[]{new ZipEntryStorage(file, entry)};
 				}
 			} else {
 				// try exact match
-				ZipEntry entry = null;
-				try {
-					entry = file.getEntry(newname);
-				} catch (IllegalStateException e) {
-					// archive was closed between retrieving and locking
-					throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
-							e.getMessage(), e));
-				}
-				if (entry != null) {
-					// can't be any duplicates if there is an exact match
-					return new Object[]{new ZipEntryStorage(file, entry)};
+				if (index.contains(newname)) {
+					ZipEntry entry = file.getEntry(newname);
+					if (entry != null) {
+						// can't be any duplicates if there is an exact match
+						return new Object[]{new ZipEntryStorage(file, entry)};
+					}
 				}
-				// search
-				Enumeration<? extends ZipEntry> entries = file.entries();
+				// search the entries with the same simple name
+				String[] entryNames = index.getEntries(ArchiveIndex.getSimpleName(newname));
 				List<ZipEntryStorage> matches = null;
-				while (entries.hasMoreElements()) {
-					entry = entries.nextElement();
-					String entryName = entry.getName();
+				for (int i = 0; i < entryNames.length; i++) {
+					String entryName = entryNames[i];
 					if (entryName.endsWith(newname)) {
 						if (isQualfied || entryName.length() == newname.length() || entryName.charAt(entryName.length() - newname.length() - 1) == '/') {
+							ZipEntry entry = file.getEntry(entryName);
+							if (entry == null) {
+								continue;
+							}
 							if (isFindDuplicates()) {
 								if (matches == null) {
 									matches = new ArrayList<ZipEntryStorage>();
@@ -126,6 +121,10 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 					return matches.toArray();
 				}
 			}
+		} catch (IllegalStateException e) {
+			// archive was closed after it was retrieved
+			throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
+					e.getMessage(), e));
 		}
 		return EMPTY;
 	}
@@ -134,76 +133,63 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 	 * Returns the root path in this archive for the given file name, based
 	 * on its type, or <code>null</code> if none. Detects a root if a root has
 	 * not yet been detected for the given file type.
+	 * <p>
+	 * Roots already detected are tried first. Otherwise a new root is derived
+	 * from an entry with the same simple name as the file whose name ends with
+	 * the file name. Roots cannot be nested, so a candidate root within a root
+	 * already detected is not considered.
+	 * </p>
 	 *
 	 * @param file zip file to search in
+	 * @param index index of the zip file's entries
 	 * @param name file name
 	 * @return the {@link ZipEntry} with the given name or <code>null</code>
-	 * @exception CoreException if an exception occurs while detecting the root
 	 */
-	private ZipEntry searchRoots(ZipFile file, String name) throws CoreException {
-		if (fPotentialRoots == null) {
-			fPotentialRoots = new HashSet<String>();
-			fPotentialRoots.add(""); //$NON-NLS-1$
-			// all potential roots are the directories
-			try {
-				Enumeration<? extends ZipEntry> entries = file.entries();
-				while (entries.hasMoreElements()) {
-					ZipEntry entry = entries.nextElement();
-					if (entry.isDirectory()) {
-						fPotentialRoots.add(entry.getName());
-					} else {
-						String entryName = entry.getName();
-						int index = entryName.lastIndexOf("/"); //$NON-NLS-1$
-						while (index > 0) {
-							if (fPotentialRoots.add(entryName.substring(0, index + 1))) {
-								entryName = entryName.substring(0, index);
-								index = entryName.lastIndexOf("/"); //$NON-NLS-1$
-							} else {
-								break;
-							}
-						}
+	private ZipEntry searchRoots(ZipFile file, ArchiveIndex index, String name) {
+		synchronized (fRoots) {
+			for (String root : fRoots) {
+				if (index.contains(root + name)) {
+					ZipEntry entry = file.getEntry(root + name);
+					if (entry != null) {
+						return entry;
 					}
 				}
-			} catch (IllegalStateException e) {
-				// archive was closed between retrieving and locking
-				throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
-					e.getMessage(), e));
 			}
-		}
-		int i = 0;
-		while (i < fRoots.size()) {
-			String root = fRoots.get(i);
-			ZipEntry entry = file.getEntry(root+name);
-			if (entry != null) {
-				return entry;
-			}
-			i++;
-		}
-		if (!fPotentialRoots.isEmpty()) {
-			for (String root : fPotentialRoots) {
-				ZipEntry entry = file.getEntry(root + name);
-				if (entry != null) {
-					if (root != null) {
-						fRoots.add(root);
-						fPotentialRoots.remove(root);
-						// remove any roots that begin with the new root, as
-						// roots
-						// cannot be nested
-						Iterator<String> rs = fPotentialRoots.iterator();
-						while (rs.hasNext()) {
-							String r = rs.next();
-							if (r.startsWith(root)) {
-								rs.remove();
-							}
+			String[] entryNames = index.getEntries(ArchiveIndex.getSimpleName(name));
+			for (int i = 0; i < entryNames.length; i++) {
+				String entryName = entryNames[i];
+				int rootLength = entryName.length() - name.length();
+				if (entryName.endsWith(name) && (rootLength == 0 || entryName.charAt(rootLength - 1) == '/')) {
+					String root = entryName.substring(0, rootLength);
+					if (!isWithinRoot(root)) {
+						ZipEntry entry = file.getEntry(entryName);
+						if (entry != null) {
+							fRoots.add(root);
+							return entry;
 						}
 					}
-					return entry;
 				}
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Returns whether the given path is within a root already detected.
+	 *
+	 * @param path path within the archive, ending with <code>'/'</code> or
+	 *            empty
+	 * @return whether the path is within a detected root
+	 */
+	private boolean isWithinRoot(String path) {
+		for (String root : fRoots) {
+			if (path.startsWith(root)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Returns the archive to search in.
 	 * @return the {@link ZipFile} to search in
@@ -272,9 +258,8 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 	@Override
 	public void dispose() {
 		super.dispose();
-		if (fPotentialRoots != null) {
-			fPotentialRoots.clear();
+		synchronized (fRoots) {
+			fRoots.clear();
 		}
-		fRoots.clear();
 	}
 }
@@ -12,12 +12,16 @@ package org.eclipse.debug.internal.core;
 
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IMarkerDelta;
@@ -75,7 +79,15 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	/**
 	 * A collection of breakpoints registered with this manager.
 	 */
-	private Vector<IBreakpoint> fBreakpoints = null;
+	private BreakpointRegistry fBreakpoints = null;
+
+	/**
+	 * Restores persisted breakpoints in the background, or <code>null</code>
+	 * if breakpoints are restored when the manager is initialized.
+	 *
+	 * @since 3.10
+	 */
+	private volatile BreakpointRestorer fRestorer = null;
 
 	/**
 	 * Map of breakpoint import participants.
@@ -119,14 +131,14 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * key: a marker type
 	 * value: the breakpoint extension which corresponds to that marker type
 	 */
-	private HashMap<String, IConfigurationElement> fBreakpointExtensions;
+	private Map<String, IConfigurationElement> fBreakpointExtensions;
 
 	/**
 	 * Collection of markers that associates markers to breakpoints
 	 * key: a marker
 	 * value: the breakpoint which contains that marker
 	 */
-	private HashMap<IMarker, IBreakpoint> fMarkersToBreakpoints;
+	private Map<IMarker, IBreakpoint> fMarkersToBreakpoints;
 
 	/**
 	 * Collection of breakpoint listeners.
@@ -150,6 +162,14 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 */
 	private ListenerList fBreakpointManagerListeners= new ListenerList();
 
+	/**
+	 * Number of notifications sent for several breakpoints, for a single
+	 * breakpoint, and of repeated marker changes dropped from notifications
+	 */
+	private final AtomicLong fBatchedNotifications = new AtomicLong();
+	private final AtomicLong fIndividualNotifications = new AtomicLong();
+	private final AtomicLong fCoalescedChanges = new AtomicLong();
+
 	/**
 	 * Listens to POST_CHANGE notifications of breakpoint markers to detect when
 	 * a breakpoint is added & changed before the POST_BUILD add notification is
@@ -251,8 +271,9 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * Constructs a new breakpoint manager.
 	 */
 	public BreakpointManager() {
-		fMarkersToBreakpoints = new HashMap<IMarker, IBreakpoint>(10);
-		fBreakpointExtensions = new HashMap<String, IConfigurationElement>(15);
+		// breakpoints may be restored concurrently
+		fMarkersToBreakpoints = new ConcurrentHashMap<IMarker, IBreakpoint>(10);
+		fBreakpointExtensions = new ConcurrentHashMap<String, IConfigurationElement>(15);
 	}
 
 	/**
@@ -264,7 +285,17 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 */
 	private void loadBreakpoints(IResource resource, boolean notify) throws CoreException {
 		initBreakpointExtensions();
-		IMarker[] markers= getPersistedMarkers(resource);
+		loadBreakpoints(getPersistedMarkers(resource), notify);
+	}
+
+	/**
+	 * Creates and registers the breakpoints of the given persisted markers.
+	 *
+	 * @param markers persisted breakpoint markers
+	 * @param notify whether to notify of the breakpoint additions
+	 * @throws CoreException if a problem is encountered
+	 */
+	private void loadBreakpoints(IMarker[] markers, boolean notify) throws CoreException {
 		List<IBreakpoint> added = new ArrayList<IBreakpoint>();
 		for (int i = 0; i < markers.length; i++) {
 			IMarker marker= markers[i];
@@ -283,6 +314,43 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		addBreakpoints(added.toArray(new IBreakpoint[added.size()]), notify);
 	}
 
+	/**
+	 * Creates and registers the breakpoints of the given persisted markers in
+	 * the background, notifying listeners. Markers deleted since they were
+	 * found, including the markers of projects closed since, are skipped.
+	 *
+	 * @param markers persisted breakpoint markers
+	 * @since 3.10
+	 */
+	void restoreBreakpoints(IMarker[] markers) {
+		List<IMarker> existing = new ArrayList<IMarker>(markers.length);
+		for (int i = 0; i < markers.length; i++) {
+			if (markers[i].exists()) {
+				existing.add(markers[i]);
+			}
+		}
+		try {
+			loadBreakpoints(existing.toArray(new IMarker[existing.size()]), true);
+		} catch (CoreException e) {
+			DebugPlugin.log(e);
+		}
+	}
+
+	/**
+	 * Waits until the breakpoints of the given debug model, or all breakpoints
+	 * if <code>null</code>, have been restored when they are restored in the
+	 * background.
+	 *
+	 * @param modelIdentifier debug model identifier or <code>null</code>
+	 * @since 3.10
+	 */
+	private void waitForRestore(String modelIdentifier) {
+		BreakpointRestorer restorer = fRestorer;
+		if (restorer != null) {
+			restorer.waitFor(modelIdentifier);
+		}
+	}
+
 	/**
 	 * Returns the persisted markers associated with the given resource.
 	 *
@@ -351,6 +419,14 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
         	fImportParticipants = null;
         	fDefaultParticipant = null;
         }
+        BreakpointRestorer restorer = fRestorer;
+        if (restorer != null) {
+        	// breakpoints being restored must be registered before the
+        	// registry is cleared, or restoring re-initializes this manager
+        	restorer.cancel();
+        	restorer.join();
+        	fRestorer = null;
+        }
         if(fBreakpoints != null) {
         	fBreakpoints.clear();
         	fBreakpoints = null;
@@ -394,6 +470,28 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	@Override
 	public IBreakpoint getBreakpoint(IMarker marker) {
 		// ensure that breakpoints are initialized
+		getBreakpoints0();
+		IBreakpoint breakpoint = fMarkersToBreakpoints.get(marker);
+		if (breakpoint == null && fRestorer != null) {
+			String modelIdentifier = marker.getAttribute(IBreakpoint.ID, null);
+			if (modelIdentifier != null) {
+				waitForRestore(modelIdentifier);
+				breakpoint = fMarkersToBreakpoints.get(marker);
+			}
+		}
+		return breakpoint;
+	}
+
+	/**
+	 * Returns the breakpoint registered for the given marker, without waiting
+	 * for breakpoints being restored in the background. Used while handling
+	 * resource deltas, which background restoration must not wait for.
+	 *
+	 * @param marker the marker
+	 * @return the registered breakpoint or <code>null</code>
+	 * @since 3.10
+	 */
+	private IBreakpoint findBreakpoint(IMarker marker) {
 		getBreakpoints0();
 		return fMarkersToBreakpoints.get(marker);
 	}
@@ -403,13 +501,9 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 */
 	@Override
 	public IBreakpoint[] getBreakpoints() {
-		IBreakpoint[] temp = new IBreakpoint[0];
-		Vector<IBreakpoint> breakpoints = getBreakpoints0();
-		synchronized (breakpoints) {
-			temp = new IBreakpoint[breakpoints.size()];
-			breakpoints.copyInto(temp);
-		}
-		return temp;
+		BreakpointRegistry breakpoints = getBreakpoints0();
+		waitForRestore(null);
+		return breakpoints.getBreakpoints();
 	}
 
 	/**
@@ -430,9 +524,9 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * The BreakpointManager waits to load the breakpoints
 	 * of the workspace until a request is made to retrieve the
 	 * breakpoints.
-	 * @return the underlying {@link Vector} of breakpoints
+	 * @return the underlying registry of breakpoints
 	 */
-	private synchronized Vector<IBreakpoint> getBreakpoints0() {
+	private synchronized BreakpointRegistry getBreakpoints0() {
 		if (fBreakpoints == null) {
 			initializeBreakpoints();
 		}
@@ -444,32 +538,33 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 */
 	@Override
 	public IBreakpoint[] getBreakpoints(String modelIdentifier) {
-		Vector<IBreakpoint> allBreakpoints = getBreakpoints0();
-		synchronized (allBreakpoints) {
-			ArrayList<IBreakpoint> temp = new ArrayList<IBreakpoint>(allBreakpoints.size());
-			for (IBreakpoint breakpoint : allBreakpoints) {
-				String id= breakpoint.getModelIdentifier();
-				if (id != null && id.equals(modelIdentifier)) {
-					temp.add(breakpoint);
-				}
-			}
-			return temp.toArray(new IBreakpoint[temp.size()]);
+		BreakpointRegistry breakpoints = getBreakpoints0();
+		if (modelIdentifier != null) {
+			waitForRestore(modelIdentifier);
 		}
+		return breakpoints.getBreakpoints(modelIdentifier);
 	}
 
 	/**
 	 * Loads the list of breakpoints from the breakpoint markers in the
-	 * workspace. Start listening to resource deltas.
+	 * workspace, or starts restoring them in the background. Start listening
+	 * to resource deltas.
 	 */
 	private void initializeBreakpoints() {
-		setBreakpoints(new Vector<IBreakpoint>(10));
+		setBreakpoints(new BreakpointRegistry());
 		try {
-			loadBreakpoints(getWorkspace().getRoot(), false);
+			if (BreakpointRestorer.isEnabled()) {
+				initBreakpointExtensions();
+				fRestorer = new BreakpointRestorer(this, getPersistedMarkers(getWorkspace().getRoot()));
+				fRestorer.schedule();
+			} else {
+				loadBreakpoints(getWorkspace().getRoot(), false);
+			}
 			getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_BUILD);
 			getWorkspace().addResourceChangeListener(fPostChangeListener, IResourceChangeEvent.POST_CHANGE);
 		} catch (CoreException ce) {
 			DebugPlugin.log(ce);
-			setBreakpoints(new Vector<IBreakpoint>(0));
+			setBreakpoints(new BreakpointRegistry());
 		}
 	}
 
@@ -478,7 +573,14 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 */
 	@Override
 	public boolean isRegistered(IBreakpoint breakpoint) {
-		return getBreakpoints0().contains(breakpoint);
+		BreakpointRegistry breakpoints = getBreakpoints0();
+		if (!breakpoints.contains(breakpoint) && fRestorer != null) {
+			String modelIdentifier = breakpoint.getModelIdentifier();
+			if (modelIdentifier != null) {
+				waitForRestore(modelIdentifier);
+			}
+		}
+		return breakpoints.contains(breakpoint);
 	}
 
 
@@ -496,18 +598,18 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	@Override
 	public void removeBreakpoints(IBreakpoint[] breakpoints, final boolean delete) throws CoreException {
 		final List<IBreakpoint> remove = new ArrayList<IBreakpoint>(breakpoints.length);
-		List<IBreakpoint> bps = getBreakpoints0();
+		BreakpointRegistry bps = getBreakpoints0();
 		for (int i = 0; i < breakpoints.length; i++) {
 			IBreakpoint breakpoint = breakpoints[i];
-			if (bps.contains(breakpoint)) {
+			if (!bps.contains(breakpoint) && fRestorer != null && breakpoint.getModelIdentifier() != null) {
+				waitForRestore(breakpoint.getModelIdentifier());
+			}
+			if (bps.remove(breakpoint)) {
 				remove.add(breakpoint);
+				fMarkersToBreakpoints.remove(breakpoint.getMarker());
 			}
 		}
 		if (!remove.isEmpty()) {
-			for (IBreakpoint breakpoint : remove) {
-				bps.remove(breakpoint);
-				fMarkersToBreakpoints.remove(breakpoint.getMarker());
-			}
 			fireUpdate(remove, null, REMOVED);
 			IWorkspaceRunnable r = new IWorkspaceRunnable() {
 				@Override
@@ -606,23 +708,22 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 				verifyBreakpoint(breakpoint);
 				if (breakpoint.isRegistered()) {
 				    // If notify == false, the breakpoints are just being added at startup
-					added.add(breakpoint);
-					getBreakpoints0().add(breakpoint);
-					fMarkersToBreakpoints.put(breakpoint.getMarker(), breakpoint);
+					// may have been restored concurrently
+					if (getBreakpoints0().add(breakpoint)) {
+						added.add(breakpoint);
+						fMarkersToBreakpoints.put(breakpoint.getMarker(), breakpoint);
+					}
 				} else {
 					// need to update the 'registered' and/or 'group' attributes
 					update.add(breakpoint);
 				}
 			}
 		}
-		if (notify) {
-		    fireUpdate(added, null, ADDED);
-		}
 		if (!update.isEmpty()) {
 			IWorkspaceRunnable r = new IWorkspaceRunnable() {
 				@Override
 				public void run(IProgressMonitor monitor) throws CoreException {
-					List<IBreakpoint> bps = getBreakpoints0();
+					BreakpointRegistry bps = getBreakpoints0();
 					for (IBreakpoint breakpoint : update) {
 						bps.add(breakpoint);
 						breakpoint.setRegistered(true);
@@ -635,9 +736,11 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 			fSuppressChange.addAll(update);
 			getWorkspace().run(r, null, 0, null);
 			fSuppressChange.removeAll(update);
-			if (notify) {
-			    fireUpdate(update, null, ADDED);
-			}
+			added.addAll(update);
+		}
+		if (notify) {
+			// one notification for the registered and newly registered breakpoints
+		    fireUpdate(added, null, ADDED);
 		}
 	}
 
@@ -704,29 +807,37 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	}
 
 	/**
-	 * Visitor for handling resource deltas
+	 * Visitor for handling resource deltas. The marker changes of a delta are
+	 * accumulated and reported with one notification per kind of change, each
+	 * breakpoint at most once.
 	 */
 	class BreakpointManagerVisitor implements IResourceDeltaVisitor {
 		/**
 		 * Moved markers
 		 */
-		private List<IMarker> fMoved = new ArrayList<IMarker>();
+		private Set<IMarker> fMoved = new LinkedHashSet<IMarker>();
 		/**
 		 * Removed breakpoints
 		 */
-		private List<IBreakpoint> fRemoved = new ArrayList<IBreakpoint>();
+		private Set<IBreakpoint> fRemoved = new LinkedHashSet<IBreakpoint>();
 
 		/**
 		 * Added breakpoints.
 		 * @since 3.7
 		 */
-		private List<IBreakpoint> fAdded = new ArrayList<IBreakpoint>();
+		private Set<IBreakpoint> fAdded = new LinkedHashSet<IBreakpoint>();
+
+		/**
+		 * Changed breakpoints and the first marker delta of each
+		 * @since 3.10
+		 */
+		private Map<IBreakpoint, IMarkerDelta> fChanged = new LinkedHashMap<IBreakpoint, IMarkerDelta>();
 
 		/**
-		 * Changed breakpoints and associated marker deltas
+		 * Projects opened
+		 * @since 3.10
 		 */
-		private List<IBreakpoint> fChanged = new ArrayList<IBreakpoint>();
-		private List<IMarkerDelta> fChangedDeltas = new ArrayList<IMarkerDelta>();
+		private List<IResource> fOpened = new ArrayList<IResource>();
 
 		/**
 		 * Resets the visitor for a delta traversal - empties
@@ -737,7 +848,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 			fRemoved.clear();
 			fAdded.clear();
 			fChanged.clear();
-			fChangedDeltas.clear();
+			fOpened.clear();
 		}
 
 		/**
@@ -745,20 +856,30 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		 * a traversal. Accumulated updates are reset.
 		 */
 		public void update() {
-			if (!fMoved.isEmpty()) {
-				// delete moved markers
-				IWorkspaceRunnable wRunnable= new IWorkspaceRunnable() {
+			if (!fMoved.isEmpty() || !fAdded.isEmpty()) {
+				// delete moved markers and re-register restored breakpoints
+				// in a single workspace operation
+				IWorkspaceRunnable runnable= new IWorkspaceRunnable() {
 					@Override
 					public void run(IProgressMonitor monitor) throws CoreException {
-                        IMarker[] markers = fMoved.toArray(new IMarker[fMoved.size()]);
-						for (int i = 0; i < markers.length; i++) {
-                            markers[i].delete();
-                        }
+						for (IMarker marker : fMoved) {
+							try {
+								marker.delete();
+							} catch (CoreException e) {
+								DebugPlugin.log(e);
+							}
+						}
+						for (IBreakpoint breakpoint : fAdded) {
+							breakpoint.getMarker().setAttribute(DebugPlugin.ATTR_BREAKPOINT_IS_DELETED, false);
+							breakpoint.setRegistered(true);
+						}
 					}
 				};
 				try {
-					getWorkspace().run(wRunnable, null, 0, null);
+					getWorkspace().run(runnable, null, 0, null);
 				} catch (CoreException e) {
+					DebugPlugin.log(e);
+					fAdded.clear();
 				}
 			}
 			if (!fRemoved.isEmpty()) {
@@ -770,23 +891,26 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 			}
 			if (!fAdded.isEmpty()) {
 				try {
-					IWorkspaceRunnable runnable= new IWorkspaceRunnable() {
-						@Override
-						public void run(IProgressMonitor monitor) throws CoreException {
-							for (IBreakpoint breakpoint : fAdded) {
-								breakpoint.getMarker().setAttribute(DebugPlugin.ATTR_BREAKPOINT_IS_DELETED, false);
-								breakpoint.setRegistered(true);
-							}
-						}
-					};
-					getWorkspace().run(runnable, null, 0, null);
 					addBreakpoints(fAdded.toArray(new IBreakpoint[fAdded.size()]), false);
 				} catch (CoreException e) {
 					DebugPlugin.log(e);
 				}
 			}
+			if (!fOpened.isEmpty()) {
+				// the breakpoints of all projects opened are added in one notification
+				try {
+					initBreakpointExtensions();
+					List<IMarker> markers = new ArrayList<IMarker>();
+					for (IResource project : fOpened) {
+						Collections.addAll(markers, getPersistedMarkers(project));
+					}
+					loadBreakpoints(markers.toArray(new IMarker[markers.size()]), true);
+				} catch (CoreException e) {
+					DebugPlugin.log(e);
+				}
+			}
 			if (!fChanged.isEmpty()) {
-				fireUpdate(fChanged, fChangedDeltas, CHANGED);
+				fireUpdate(new ArrayList<IBreakpoint>(fChanged.keySet()), new ArrayList<IMarkerDelta>(fChanged.values()), CHANGED);
 			}
 			reset();
 		}
@@ -837,7 +961,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 				// This breakpoint has actually been moved - already removed
 				// from the Breakpoint manager during the remove callback.
 				// Schedule the marker associated with the new resource for deletion.
-				if (getBreakpoint(marker) == null) {
+				if (findBreakpoint(marker) == null) {
 					fMoved.add(marker);
 				}
 			} else {
@@ -846,7 +970,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 					if (fPostChangMarkersChanged.contains(marker)) {
 						handleChangeBreakpoint(marker, mDelta);
 						fPostChangMarkersChanged.remove(marker);
-					} else if (marker.getAttribute(DebugPlugin.ATTR_BREAKPOINT_IS_DELETED, false) && getBreakpoint(marker) == null) {
+					} else if (marker.getAttribute(DebugPlugin.ATTR_BREAKPOINT_IS_DELETED, false) && findBreakpoint(marker) == null) {
 						try { /*
 							 * There may be breakpoints with matching resource
 							 * and same line number
@@ -873,11 +997,11 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		 * @return matching breakpoint if exists else return <code>null</code>
 		 */
 		private IBreakpoint findMatchingBreakpoint(IMarker marker) {
-			Vector<IBreakpoint> breakpoints = getBreakpoints0();
+			IBreakpoint[] breakpoints = getBreakpoints0().getSnapshot();
 			try {
 				Integer line = (Integer) marker.getAttribute(IMarker.LINE_NUMBER);
-				for (int i = 0; i < breakpoints.size(); i++) {
-					IBreakpoint breakpoint = breakpoints.get(i);
+				for (int i = 0; i < breakpoints.length; i++) {
+					IBreakpoint breakpoint = breakpoints[i];
 					IMarker bpMarker = breakpoint.getMarker();
 					if (bpMarker != null && marker.getResource().equals(bpMarker.getResource()) && bpMarker.getAttribute(IMarker.LINE_NUMBER, -1) == (line == null ? -1 : line.intValue())) {
 						return breakpoint;
@@ -898,7 +1022,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 				fPostChangMarkersChanged.remove(marker);
 				fPostBuildMarkersAdded.remove(marker);
 			}
-			IBreakpoint breakpoint= getBreakpoint(marker);
+			IBreakpoint breakpoint= findBreakpoint(marker);
 			if (breakpoint != null) {
 				fRemoved.add(breakpoint);
 			}
@@ -910,10 +1034,14 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		 * @param delta the {@link IMarkerDelta}
 		 */
 		protected void handleChangeBreakpoint(IMarker marker, IMarkerDelta delta) {
-			IBreakpoint breakpoint= getBreakpoint(marker);
-			if (breakpoint != null && isRegistered(breakpoint) && !isChangeSuppressed(breakpoint)) {
-				fChanged.add(breakpoint);
-				fChangedDeltas.add(delta);
+			IBreakpoint breakpoint= findBreakpoint(marker);
+			if (breakpoint != null && getBreakpoints0().contains(breakpoint) && !isChangeSuppressed(breakpoint)) {
+				if (fChanged.containsKey(breakpoint)) {
+					// keep the first delta, which holds the original attributes
+					fCoalescedChanges.incrementAndGet();
+				} else {
+					fChanged.put(breakpoint, delta);
+				}
 			}
 		}
 
@@ -925,7 +1053,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		private void handleProjectResourceOpenStateChange(final IResource project) {
 			if (!project.isAccessible()) {
 				//closed
-				for (@SuppressWarnings("unchecked") IBreakpoint breakpoint : (Vector<IBreakpoint>) getBreakpoints0().clone()) {
+				for (IBreakpoint breakpoint : getBreakpoints0().getSnapshot()) {
 					IResource markerResource= breakpoint.getMarker().getResource();
 					if (project.getFullPath().isPrefixOf(markerResource.getFullPath())) {
 						fRemoved.add(breakpoint);
@@ -933,11 +1061,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 				}
 				return;
 			}
-			try {
-				loadBreakpoints(project, true);
-			} catch (CoreException e) {
-				DebugPlugin.log(e);
-			}
+			fOpened.add(project);
 		}
 	}
 
@@ -968,6 +1092,14 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		if (breakpoints.isEmpty()) {
 			return;
 		}
+		if (breakpoints.size() == 1) {
+			fIndividualNotifications.incrementAndGet();
+		} else {
+			fBatchedNotifications.incrementAndGet();
+		}
+		if (DebugOptions.DEBUG_BREAKPOINTS) {
+			DebugOptions.trace("Breakpoint notification: kind=" + update + " breakpoints=" + breakpoints.size()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
 		IBreakpoint[] bpArray = breakpoints.toArray(new IBreakpoint[breakpoints.size()]);
 		IMarkerDelta[] deltaArray = new IMarkerDelta[bpArray.length];
 		if (deltas != null) {
@@ -980,7 +1112,40 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		getBreakpointsNotifier().notify(bpArray, deltaArray, update);
 	}
 
-	protected void setBreakpoints(Vector<IBreakpoint> breakpoints) {
+	/**
+	 * Returns the number of notifications sent to breakpoint listeners for
+	 * more than one breakpoint.
+	 *
+	 * @return number of batched notifications
+	 * @since 3.10
+	 */
+	public long getBatchedNotificationCount() {
+		return fBatchedNotifications.get();
+	}
+
+	/**
+	 * Returns the number of notifications sent to breakpoint listeners for a
+	 * single breakpoint.
+	 *
+	 * @return number of individual notifications
+	 * @since 3.10
+	 */
+	public long getIndividualNotificationCount() {
+		return fIndividualNotifications.get();
+	}
+
+	/**
+	 * Returns the number of repeated changes to a breakpoint's marker within
+	 * one resource delta that were not reported separately.
+	 *
+	 * @return number of coalesced marker changes
+	 * @since 3.10
+	 */
+	public long getCoalescedChangeCount() {
+		return fCoalescedChanges.get();
+	}
+
+	protected void setBreakpoints(BreakpointRegistry breakpoints) {
 		fBreakpoints = breakpoints;
 	}
 
@@ -989,7 +1154,11 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 */
 	@Override
 	public boolean hasBreakpoints() {
-		return !getBreakpoints0().isEmpty();
+		BreakpointRegistry breakpoints = getBreakpoints0();
+		if (breakpoints.isEmpty()) {
+			waitForRestore(null);
+		}
+		return !breakpoints.isEmpty();
 	}
 
 	/**
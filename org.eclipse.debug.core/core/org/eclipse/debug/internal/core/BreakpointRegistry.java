@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.debug.core.model.IBreakpoint;
+
+/**
+ * The breakpoints registered with the breakpoint manager, in the order they
+ * were registered, indexed by debug model identifier.
+ * <p>
+ * Membership tests do not lock. The breakpoints, and the breakpoints of each
+ * debug model, are returned from snapshots that are taken on the first
+ * request after a change, so repeated requests do not scan the registry.
+ * Breakpoints are compared with <code>equals</code>, as breakpoints on the
+ * same marker are considered the same breakpoint.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class BreakpointRegistry {
+
+	private static final IBreakpoint[] EMPTY = new IBreakpoint[0];
+
+	/**
+	 * Stands for the model identifier of breakpoints that have none, compared
+	 * by identity
+	 */
+	private static final String NO_MODEL = new String();
+
+	/**
+	 * Model identifier of each breakpoint, as when it was registered.
+	 * Breakpoints without a model identifier are mapped to {@link #NO_MODEL}
+	 * and are not indexed by model.
+	 */
+	private final Map<IBreakpoint, String> fModels = new ConcurrentHashMap<IBreakpoint, String>();
+
+	/**
+	 * Breakpoints in registration order, guarded by this registry
+	 */
+	private final Set<IBreakpoint> fOrdered = new LinkedHashSet<IBreakpoint>();
+
+	/**
+	 * Breakpoints of each model in registration order, guarded by this
+	 * registry
+	 */
+	private final Map<String, Set<IBreakpoint>> fByModel = new ConcurrentHashMap<String, Set<IBreakpoint>>();
+
+	/**
+	 * Snapshot of all breakpoints, or <code>null</code> if stale
+	 */
+	private volatile IBreakpoint[] fSnapshot = null;
+
+	/**
+	 * Snapshots of the breakpoints of each model, removed when stale
+	 */
+	private final Map<String, IBreakpoint[]> fModelSnapshots = new ConcurrentHashMap<String, IBreakpoint[]>();
+
+	/**
+	 * Registers the given breakpoint.
+	 *
+	 * @param breakpoint the breakpoint
+	 * @return whether the breakpoint was not registered yet
+	 */
+	public synchronized boolean add(IBreakpoint breakpoint) {
+		if (!fOrdered.add(breakpoint)) {
+			return false;
+		}
+		String model = breakpoint.getModelIdentifier();
+		if (model == null) {
+			fModels.put(breakpoint, NO_MODEL);
+			fSnapshot = null;
+			return true;
+		}
+		fModels.put(breakpoint, model);
+		Set<IBreakpoint> breakpoints = fByModel.get(model);
+		if (breakpoints == null) {
+			breakpoints = new LinkedHashSet<IBreakpoint>();
+			fByModel.put(model, breakpoints);
+		}
+		breakpoints.add(breakpoint);
+		changed(model);
+		return true;
+	}
+
+	/**
+	 * Unregisters the given breakpoint.
+	 *
+	 * @param breakpoint the breakpoint
+	 * @return whether the breakpoint was registered
+	 */
+	public synchronized boolean remove(IBreakpoint breakpoint) {
+		String model = fModels.remove(breakpoint);
+		if (model == null) {
+			return false;
+		}
+		fOrdered.remove(breakpoint);
+		if (model == NO_MODEL) {
+			fSnapshot = null;
+			return true;
+		}
+		Set<IBreakpoint> breakpoints = fByModel.get(model);
+		if (breakpoints != null) {
+			breakpoints.remove(breakpoint);
+			if (breakpoints.isEmpty()) {
+				fByModel.remove(model);
+			}
+		}
+		changed(model);
+		return true;
+	}
+
+	/**
+	 * Unregisters all breakpoints.
+	 */
+	public synchronized void clear() {
+		fModels.clear();
+		fOrdered.clear();
+		fByModel.clear();
+		fModelSnapshots.clear();
+		fSnapshot = null;
+	}
+
+	/**
+	 * Discards the snapshots including breakpoints of the given model.
+	 *
+	 * @param model model identifier
+	 */
+	private void changed(String model) {
+		fSnapshot = null;
+		fModelSnapshots.remove(model);
+	}
+
+	/**
+	 * Returns whether the given breakpoint is registered.
+	 *
+	 * @param breakpoint the breakpoint
+	 * @return whether the breakpoint is registered
+	 */
+	public boolean contains(IBreakpoint breakpoint) {
+		return breakpoint != null && fModels.containsKey(breakpoint);
+	}
+
+	/**
+	 * @return whether no breakpoint is registered
+	 */
+	public boolean isEmpty() {
+		return fModels.isEmpty();
+	}
+
+	/**
+	 * @return the number of registered breakpoints
+	 */
+	public int size() {
+		return fModels.size();
+	}
+
+	/**
+	 * Returns the registered breakpoints in registration order. The returned
+	 * array is shared and must not be modified.
+	 *
+	 * @return registered breakpoints
+	 */
+	public IBreakpoint[] getSnapshot() {
+		IBreakpoint[] snapshot = fSnapshot;
+		if (snapshot == null) {
+			synchronized (this) {
+				snapshot = fSnapshot;
+				if (snapshot == null) {
+					snapshot = fOrdered.isEmpty() ? EMPTY : fOrdered.toArray(new IBreakpoint[fOrdered.size()]);
+					fSnapshot = snapshot;
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Returns the registered breakpoints in registration order.
+	 *
+	 * @return a new array of the registered breakpoints
+	 */
+	public IBreakpoint[] getBreakpoints() {
+		return copy(getSnapshot());
+	}
+
+	/**
+	 * Returns the registered breakpoints of the given debug model in
+	 * registration order.
+	 *
+	 * @param modelIdentifier debug model identifier
+	 * @return a new array of the registered breakpoints of the model
+	 */
+	public IBreakpoint[] getBreakpoints(String modelIdentifier) {
+		if (modelIdentifier == null) {
+			// breakpoints without a model identifier never match
+			return EMPTY;
+		}
+		IBreakpoint[] snapshot = fModelSnapshots.get(modelIdentifier);
+		if (snapshot == null) {
+			synchronized (this) {
+				snapshot = fModelSnapshots.get(modelIdentifier);
+				if (snapshot == null) {
+					Set<IBreakpoint> breakpoints = fByModel.get(modelIdentifier);
+					if (breakpoints == null) {
+						return EMPTY;
+					}
+					snapshot = breakpoints.toArray(new IBreakpoint[breakpoints.size()]);
+					fModelSnapshots.put(modelIdentifier, snapshot);
+				}
+			}
+		}
+		return copy(snapshot);
+	}
+
+	private static IBreakpoint[] copy(IBreakpoint[] snapshot) {
+		if (snapshot.length == 0) {
+			return EMPTY;
+		}
+		IBreakpoint[] copy = new IBreakpoint[snapshot.length];
+		System.arraycopy(snapshot, 0, copy, 0, snapshot.length);
+		return copy;
+	}
+}
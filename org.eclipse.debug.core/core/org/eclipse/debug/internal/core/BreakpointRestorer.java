@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.model.IBreakpoint;
+
+/**
+ * Restores the persisted breakpoints of the workspace in the background, one
+ * job per project, rather than on the thread that first asks the breakpoint
+ * manager for its breakpoints. The breakpoints of each project are registered
+ * and reported to breakpoint listeners as one batch.
+ * <p>
+ * Callers that need the breakpoints of one debug model wait only for the
+ * projects with breakpoints of that model. A waiting thread restores the
+ * projects that no job has started on itself, so it does not depend on the
+ * job manager to make progress.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class BreakpointRestorer {
+
+	/**
+	 * Breakpoint markers of one project, or of the workspace root.
+	 */
+	class Group {
+
+		final List<IMarker> fMarkers = new ArrayList<IMarker>();
+
+		/**
+		 * Model identifiers of the markers
+		 */
+		final Set<String> fModels = new HashSet<String>();
+
+		/**
+		 * Whether a job or a waiting thread restores this group, guarded by
+		 * the restorer
+		 */
+		boolean fClaimed = false;
+	}
+
+	/**
+	 * Restores one group.
+	 */
+	class RestoreJob extends Job {
+
+		private final Group fGroup;
+
+		RestoreJob(Group group) {
+			super("breakpoint restore job"); //$NON-NLS-1$
+			fGroup = group;
+			setSystem(true);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+		 */
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			if (claim(fGroup)) {
+				restore(fGroup);
+			}
+			return Status.OK_STATUS;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.runtime.jobs.Job#belongsTo(java.lang.Object)
+		 */
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == BreakpointRestorer.this || family == BreakpointRestorer.class;
+		}
+	}
+
+	/**
+	 * Marks the threads restoring breakpoints, which must not wait for other
+	 * groups
+	 */
+	private static final ThreadLocal<Boolean> fgRestoring = new ThreadLocal<Boolean>();
+
+	private final BreakpointManager fManager;
+
+	private final List<Group> fGroups = new ArrayList<Group>();
+
+	/**
+	 * Number of groups not yet restored with breakpoints of each model,
+	 * guarded by this restorer
+	 */
+	private final Map<String, Integer> fPending = new HashMap<String, Integer>();
+
+	/**
+	 * Number of groups not yet restored, guarded by this restorer
+	 */
+	private int fRemaining;
+
+	/**
+	 * Returns whether breakpoints should be restored in the background.
+	 *
+	 * @return whether background restoration is enabled
+	 */
+	public static boolean isEnabled() {
+		return Platform.getPreferencesService().getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_RESTORE_BREAKPOINTS_IN_BACKGROUND, false, null);
+	}
+
+	/**
+	 * Creates a restorer for the given persisted breakpoint markers.
+	 *
+	 * @param manager the breakpoint manager
+	 * @param markers persisted breakpoint markers, each with a model
+	 *            identifier
+	 */
+	public BreakpointRestorer(BreakpointManager manager, IMarker[] markers) {
+		fManager = manager;
+		Map<IProject, Group> groups = new LinkedHashMap<IProject, Group>();
+		Group root = null;
+		for (int i = 0; i < markers.length; i++) {
+			IMarker marker = markers[i];
+			IProject project = marker.getResource().getProject();
+			Group group = project == null ? root : groups.get(project);
+			if (group == null) {
+				group = new Group();
+				if (project == null) {
+					root = group;
+				} else {
+					groups.put(project, group);
+				}
+			}
+			group.fMarkers.add(marker);
+			group.fModels.add(getModelIdentifier(marker));
+		}
+		if (root != null) {
+			fGroups.add(root);
+		}
+		fGroups.addAll(groups.values());
+		fRemaining = fGroups.size();
+		for (Group group : fGroups) {
+			for (String model : group.fModels) {
+				Integer count = fPending.get(model);
+				fPending.put(model, Integer.valueOf(count == null ? 1 : count.intValue() + 1));
+			}
+		}
+	}
+
+	private static String getModelIdentifier(IMarker marker) {
+		return marker.getAttribute(IBreakpoint.ID, ""); //$NON-NLS-1$
+	}
+
+	/**
+	 * Schedules a job for each group.
+	 */
+	public void schedule() {
+		for (Group group : fGroups) {
+			new RestoreJob(group).schedule();
+		}
+	}
+
+	/**
+	 * Restores no further groups. Groups being restored complete, see
+	 * {@link #join()}.
+	 */
+	public synchronized void cancel() {
+		for (Group group : fGroups) {
+			if (!group.fClaimed) {
+				group.fClaimed = true;
+				done(group);
+			}
+		}
+	}
+
+	private synchronized boolean claim(Group group) {
+		if (group.fClaimed) {
+			return false;
+		}
+		group.fClaimed = true;
+		return true;
+	}
+
+	/**
+	 * Restores the breakpoints of a claimed group.
+	 *
+	 * @param group the group
+	 */
+	private void restore(Group group) {
+		Boolean restoring = fgRestoring.get();
+		fgRestoring.set(Boolean.TRUE);
+		try {
+			restore(group.fMarkers.toArray(new IMarker[group.fMarkers.size()]));
+		} finally {
+			fgRestoring.set(restoring);
+			synchronized (this) {
+				done(group);
+			}
+		}
+	}
+
+	/**
+	 * Creates and registers the breakpoints of the given markers of one
+	 * group.
+	 *
+	 * @param markers persisted breakpoint markers
+	 */
+	protected void restore(IMarker[] markers) {
+		fManager.restoreBreakpoints(markers);
+	}
+
+	/**
+	 * Records the given group as restored. Must be called holding the lock
+	 * of this restorer.
+	 *
+	 * @param group the group
+	 */
+	private void done(Group group) {
+		fRemaining--;
+		for (String model : group.fModels) {
+			Integer count = fPending.get(model);
+			if (count.intValue() == 1) {
+				fPending.remove(model);
+			} else {
+				fPending.put(model, Integer.valueOf(count.intValue() - 1));
+			}
+		}
+		notifyAll();
+	}
+
+	/**
+	 * @return whether all groups have been restored
+	 */
+	public synchronized boolean isDone() {
+		return fRemaining == 0;
+	}
+
+	/**
+	 * Waits until the breakpoints of the given debug model have been restored,
+	 * or until all breakpoints have been restored if the identifier is
+	 * <code>null</code>. Returns immediately when called while restoring
+	 * breakpoints.
+	 *
+	 * @param modelIdentifier debug model identifier or <code>null</code>
+	 */
+	public void waitFor(String modelIdentifier) {
+		if (fgRestoring.get() != null || isDone()) {
+			return;
+		}
+		// restore what no job has started on in this thread
+		for (Group group : fGroups) {
+			if ((modelIdentifier == null || group.fModels.contains(modelIdentifier)) && claim(group)) {
+				restore(group);
+			}
+		}
+		boolean interrupted = false;
+		synchronized (this) {
+			while (modelIdentifier == null ? fRemaining > 0 : fPending.containsKey(modelIdentifier)) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Waits until the jobs of this restorer have ended and the groups being
+	 * restored, by jobs or by waiting threads, are complete. Called after
+	 * {@link #cancel()}, so that no breakpoints are registered once this
+	 * method returns. Returns immediately when called while restoring
+	 * breakpoints.
+	 */
+	public void join() {
+		if (fgRestoring.get() != null) {
+			return;
+		}
+		boolean interrupted = false;
+		while (true) {
+			try {
+				Job.getJobManager().join(this, null);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			} catch (OperationCanceledException e) {
+				break;
+			}
+		}
+		synchronized (this) {
+			while (fRemaining > 0) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -23,6 +23,7 @@ public class DebugCoreMessages extends NLS {
 	public static String DebugEvent_illegal_kind;
 	public static String DebugPlugin_0;
 	public static String DebugPlugin_1;
+	public static String DebugCommandExecutor_0;
 	public static String DebugPlugin_2;
 	public static String DebugPlugin_3;
 	public static String DebugPlugin_4;
@@ -87,6 +88,7 @@ public class DebugCoreMessages extends NLS {
 	public static String LaunchConfigurationWorkingCopy_4;
 	public static String LaunchConfigurationWorkingCopy_Specified_container_for_launch_configuration_does_not_exist_2;
 	public static String LaunchConfigurationWorkingCopy_5;
+	public static String LaunchConfigurationLoader_0;
 	public static String LaunchManager__0__occurred_while_reading_launch_configuration_file__1___1;
 	public static String LaunchManager_Invalid_launch_configuration_index__18;
 	public static String LaunchManager_does_not_exist;
@@ -96,6 +98,7 @@ public class DebugCoreMessages extends NLS {
 	public static String LaunchManager_Source_locator_does_not_exist___0__13;
 	public static String LogicalStructureType_0;
 	public static String OutputStreamMonitor_label;
+	public static String StreamPump_label;
 	public static String ProcessMonitorJob_0;
 	public static String RuntimeProcess_terminate_failed;
 	public static String RuntimeProcess_Exit_value_not_available_until_process_terminates__1;
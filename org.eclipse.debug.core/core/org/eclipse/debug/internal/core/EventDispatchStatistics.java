@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing the state of the debug event dispatch queue. Producers
+ * update the counters when debug event sets or runnables are queued, and the
+ * event dispatch job updates them as it drains the queue.
+ *
+ * @since 3.10
+ */
+public final class EventDispatchStatistics {
+
+	private static final AtomicInteger fgDepth = new AtomicInteger();
+	private static final AtomicInteger fgMaxDepth = new AtomicInteger();
+	private static final AtomicLong fgQueued = new AtomicLong();
+	private static final AtomicLong fgEventSets = new AtomicLong();
+	private static final AtomicLong fgDeliveries = new AtomicLong();
+	private static final AtomicLong fgTotalLatency = new AtomicLong();
+	private static final AtomicLong fgMaxLatency = new AtomicLong();
+
+	private EventDispatchStatistics() {
+		// no instances
+	}
+
+	/**
+	 * Records that an element has been added to the queue.
+	 */
+	public static void queued() {
+		fgQueued.incrementAndGet();
+		int depth = fgDepth.incrementAndGet();
+		int max = fgMaxDepth.get();
+		while (depth > max && !fgMaxDepth.compareAndSet(max, depth)) {
+			max = fgMaxDepth.get();
+		}
+	}
+
+	/**
+	 * Records that an element has been removed from the queue.
+	 *
+	 * @param timestamp the value of {@link System#nanoTime()} when the
+	 *            element was queued
+	 */
+	public static void dequeued(long timestamp) {
+		fgDepth.decrementAndGet();
+		long latency = System.nanoTime() - timestamp;
+		fgTotalLatency.addAndGet(latency);
+		long max = fgMaxLatency.get();
+		while (latency > max && !fgMaxLatency.compareAndSet(max, latency)) {
+			max = fgMaxLatency.get();
+		}
+	}
+
+	/**
+	 * Records that the given number of event sets were delivered to listeners
+	 * in a single pass.
+	 *
+	 * @param eventSets number of event sets combined into the delivery
+	 */
+	public static void delivered(int eventSets) {
+		fgEventSets.addAndGet(eventSets);
+		fgDeliveries.incrementAndGet();
+	}
+
+	/**
+	 * @return the number of elements currently waiting in the queue
+	 */
+	public static int getQueueDepth() {
+		return fgDepth.get();
+	}
+
+	/**
+	 * @return the largest queue depth observed
+	 */
+	public static int getMaxQueueDepth() {
+		return fgMaxDepth.get();
+	}
+
+	/**
+	 * @return the total number of event sets and runnables queued
+	 */
+	public static long getQueuedCount() {
+		return fgQueued.get();
+	}
+
+	/**
+	 * @return the total number of event sets delivered to listeners
+	 */
+	public static long getEventSetCount() {
+		return fgEventSets.get();
+	}
+
+	/**
+	 * @return the number of listener passes made to deliver the event sets
+	 */
+	public static long getDeliveryCount() {
+		return fgDeliveries.get();
+	}
+
+	/**
+	 * @return the average time in nanoseconds an element waited in the queue
+	 */
+	public static long getAverageLatency() {
+		long count = fgQueued.get() - fgDepth.get();
+		return count > 0 ? fgTotalLatency.get() / count : 0;
+	}
+
+	/**
+	 * @return the longest time in nanoseconds an element waited in the queue
+	 */
+	public static long getMaxLatency() {
+		return fgMaxLatency.get();
+	}
+
+	/**
+	 * Resets all counters except the current queue depth.
+	 */
+	public static void reset() {
+		fgMaxDepth.set(fgDepth.get());
+		fgQueued.set(fgDepth.get());
+		fgEventSets.set(0);
+		fgDeliveries.set(0);
+		fgTotalLatency.set(0);
+		fgMaxLatency.set(0);
+	}
+
+	/**
+	 * Returns a summary of the counters suitable for tracing.
+	 *
+	 * @return summary of the counters
+	 */
+	public static String getSummary() {
+		StringBuffer buffer = new StringBuffer("Event queue: depth="); //$NON-NLS-1$
+		buffer.append(getQueueDepth());
+		buffer.append(" max depth="); //$NON-NLS-1$
+		buffer.append(getMaxQueueDepth());
+		buffer.append(" event sets="); //$NON-NLS-1$
+		buffer.append(getEventSetCount());
+		buffer.append(" deliveries="); //$NON-NLS-1$
+		buffer.append(getDeliveryCount());
+		buffer.append(" avg latency(us)="); //$NON-NLS-1$
+		buffer.append(getAverageLatency() / 1000);
+		buffer.append(" max latency(us)="); //$NON-NLS-1$
+		buffer.append(getMaxLatency() / 1000);
+		return buffer.toString();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,9 +13,11 @@ package org.eclipse.debug.internal.core;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Vector;
+import java.util.Set;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
@@ -37,6 +39,7 @@ import org.eclipse.debug.core.IExpressionsListener;
 import org.eclipse.debug.core.model.IExpression;
 import org.eclipse.debug.core.model.IWatchExpression;
 import org.eclipse.debug.core.model.IWatchExpressionDelegate;
+import org.eclipse.debug.core.model.IWatchExpressionDelegate2;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -56,7 +59,18 @@ public class ExpressionManager extends PlatformObject implements IExpressionMana
 	/**
 	 * Ordered collection of registered expressions.
 	 */
-	private Vector<IExpression> fExpressions = null;
+	private List<IExpression> fExpressions = null;
+
+	/**
+	 * The registered expressions, for membership tests. Guarded by this
+	 * manager, like the ordered collection.
+	 */
+	private Set<IExpression> fExpressionSet = new HashSet<IExpression>();
+
+	/**
+	 * Evaluates watch expressions given a new context, created on demand
+	 */
+	private WatchExpressionEvaluator fEvaluator = null;
 
 	/**
 	 * List of expression listeners
@@ -74,6 +88,12 @@ public class ExpressionManager extends PlatformObject implements IExpressionMana
 	 */
 	private Map<String, IConfigurationElement> fWatchExpressionDelegates = new HashMap<String, IConfigurationElement>();
 
+	/**
+	 * Whether the delegate of each debug model evaluates expressions in
+	 * batches, determined on demand, guarded by the map
+	 */
+	private Map<String, Boolean> fBatchingDelegates = new HashMap<String, Boolean>();
+
 	// Constants for add/remove/change/insert/move notification
 	private static final int ADDED = 1;
 	private static final int CHANGED = 2;
@@ -134,6 +154,44 @@ public class ExpressionManager extends PlatformObject implements IExpressionMana
 		}
 	}
 
+	/**
+	 * Returns whether the watch expression delegate of the given debug model
+	 * evaluates expressions in batches, i.e. implements
+	 * {@link org.eclipse.debug.core.model.IWatchExpressionDelegate2}.
+	 *
+	 * @param debugModel debug model identifier
+	 * @return whether expressions of the model are evaluated in batches
+	 * @since 3.10
+	 */
+	public boolean isBatchingWatchExpressionDelegate(String debugModel) {
+		Boolean batching = null;
+		synchronized (fBatchingDelegates) {
+			batching = fBatchingDelegates.get(debugModel);
+		}
+		if (batching == null) {
+			// the delegate is created without holding a lock, as plug-in
+			// activation runs client code
+			batching = Boolean.valueOf(newWatchExpressionDelegate(debugModel) instanceof IWatchExpressionDelegate2);
+			synchronized (fBatchingDelegates) {
+				fBatchingDelegates.put(debugModel, batching);
+			}
+		}
+		return batching.booleanValue();
+	}
+
+	/**
+	 * Returns the evaluator of watch expressions given a new context.
+	 *
+	 * @return the watch expression evaluator
+	 * @since 3.10
+	 */
+	public synchronized WatchExpressionEvaluator getWatchExpressionEvaluator() {
+		if (fEvaluator == null) {
+			fEvaluator = new WatchExpressionEvaluator(this);
+		}
+		return fEvaluator;
+	}
+
     /* (non-Javadoc)
      * @see org.eclipse.debug.core.IExpressionManager#hasWatchExpressionDelegate(java.lang.String)
      */
@@ -179,9 +237,10 @@ public class ExpressionManager extends PlatformObject implements IExpressionMana
 					boolean enabled= TRUE_VALUE.equals(element.getAttribute(ENABLED_TAG));
 					IWatchExpression expression= newWatchExpression(expressionText, enabled);
 					if (fExpressions == null) {
-						fExpressions = new Vector<IExpression>(list.getLength());
+						fExpressions = new ArrayList<IExpression>(list.getLength());
 					}
 					fExpressions.add(expression);
+					fExpressionSet.add(expression);
 				} else {
 					DebugPlugin.logMessage("Invalid expression entry encountered while loading watch expressions. Expression text is empty.", null); //$NON-NLS-1$
 				}
@@ -285,15 +344,15 @@ public class ExpressionManager extends PlatformObject implements IExpressionMana
 		List<IExpression> added = new ArrayList<IExpression>(expressions.length);
 		synchronized (this) {
 			if (fExpressions == null) {
-				fExpressions = new Vector<IExpression>(expressions.length);
+				fExpressions = new ArrayList<IExpression>(expressions.length);
 			}
 			for (int i = 0; i < expressions.length; i++) {
 				IExpression expression = expressions[i];
-				if (fExpressions.indexOf(expression) == -1) {
+				if (fExpressionSet.add(expression)) {
 					added.add(expression);
-					fExpressions.add(expression);
 				}
 			}
+			fExpressions.addAll(added);
 		}
 		return added;
 	}
@@ -306,9 +365,7 @@ public class ExpressionManager extends PlatformObject implements IExpressionMana
 		if (fExpressions == null) {
 			return new IExpression[0];
 		}
-		IExpression[] temp= new IExpression[fExpressions.size()];
-		fExpressions.copyInto(temp);
-		return temp;
+		return fExpressions.toArray(new IExpression[fExpressions.size()]);
 	}
 
 	/* (non-Javadoc)
@@ -356,12 +413,12 @@ public class ExpressionManager extends PlatformObject implements IExpressionMana
 				inserted = new ArrayList<IExpression>(expressions.length);
 				for (int i = 0; i < expressions.length; i++) {
 					IExpression expression = expressions[i];
-					if (fExpressions.indexOf(expression) == -1) {
-						//Insert in the same order as the array is passed
-						fExpressions.add(insertionIndex+inserted.size(), expression);
+					if (fExpressionSet.add(expression)) {
 						inserted.add(expression);
 					}
 				}
+				//Insert in the same order as the array is passed
+				fExpressions.addAll(insertionIndex, inserted);
 			}
 		}
 		if (added != null) {
@@ -405,21 +462,33 @@ public class ExpressionManager extends PlatformObject implements IExpressionMana
 				insertionIndex++;
 			}
 
+			Set<IExpression> moved = new LinkedHashSet<IExpression>(expressions.length);
 			for (int i = 0; i < expressions.length; i++) {
-				int removeIndex = fExpressions.indexOf(expressions[i]);
-				if (removeIndex >= 0){
-					movedExpressions.add(expressions[i]);
-					if (removeIndex < insertionIndex){
-						insertionIndex--;
-					}
-					fExpressions.remove(removeIndex);
+				if (fExpressionSet.contains(expressions[i])) {
+					moved.add(expressions[i]);
 				}
 			}
-			movedExpressionsArray = movedExpressions.toArray(new IExpression[movedExpressions.size()]);
-			for (int i = 0; i < movedExpressionsArray.length; i++) {
+			movedExpressions.addAll(moved);
+			if (!moved.isEmpty()) {
+				// remove the moved expressions in one pass, adjusting the
+				// insertion index for those before it
+				List<IExpression> remaining = new ArrayList<IExpression>(fExpressions.size());
+				int index = insertionIndex;
+				for (int i = 0; i < fExpressions.size(); i++) {
+					IExpression expression = fExpressions.get(i);
+					if (moved.contains(expression)) {
+						if (i < index) {
+							insertionIndex--;
+						}
+					} else {
+						remaining.add(expression);
+					}
+				}
 				// Insert the expressions in the same order as the passed array
-				fExpressions.add(insertionIndex+i,movedExpressionsArray[i]);
+				remaining.addAll(insertionIndex, movedExpressions);
+				fExpressions = remaining;
 			}
+			movedExpressionsArray = movedExpressions.toArray(new IExpression[movedExpressions.size()]);
 		}
 
 		if (!movedExpressions.isEmpty()) {
@@ -447,10 +516,13 @@ public class ExpressionManager extends PlatformObject implements IExpressionMana
 			}
 			for (int i = 0; i < expressions.length; i++) {
 				IExpression expression = expressions[i];
-				if (fExpressions.remove(expression)) {
+				if (fExpressionSet.remove(expression)) {
 					removed.add(expression);
 				}
 			}
+			if (!removed.isEmpty()) {
+				fExpressions.removeAll(new HashSet<IExpression>(removed));
+			}
 		}
 		// dispose outside of the synchronized block
 		if (!removed.isEmpty()) {
@@ -492,7 +564,7 @@ public class ExpressionManager extends PlatformObject implements IExpressionMana
 	protected void watchExpressionChanged(IWatchExpression expression) {
 		boolean notify = false;
 		synchronized (this) {
-			if (fExpressions != null && fExpressions.contains(expression)) {
+			if (fExpressionSet.contains(expression)) {
 				notify = true;
 			}
 		}
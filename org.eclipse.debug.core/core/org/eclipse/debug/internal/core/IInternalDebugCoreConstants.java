@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2010 IBM Corporation and others.
+ * Copyright (c) 2007, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -41,4 +41,119 @@ public interface IInternalDebugCoreConstants {
 	 */
 	public static final String PREF_BREAKPOINT_MANAGER_ENABLED_STATE =  DebugPlugin.getUniqueIdentifier() + ".PREF_BREAKPOINT_MANAGER_ENABLED_STATE"; //$NON-NLS-1$
 
+	/**
+	 * Boolean preference controlling whether the streams of system processes
+	 * are serviced by a shared, fixed size pool of threads rather than by
+	 * dedicated threads per stream. Default value is <code>false</code>.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_SHARED_STREAM_PUMP = DebugPlugin.getUniqueIdentifier() + ".PREF_SHARED_STREAM_PUMP"; //$NON-NLS-1$
+
+	/**
+	 * Integer preference for the maximum number of characters of process
+	 * output buffered in memory by each output stream monitor. Default value
+	 * is <code>0</code>, meaning unbounded.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_STREAM_CONTENTS_LIMIT = DebugPlugin.getUniqueIdentifier() + ".PREF_STREAM_CONTENTS_LIMIT"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether process output beyond
+	 * {@link #PREF_STREAM_CONTENTS_LIMIT} is spilled to a temporary file
+	 * rather than discarded. Default value is <code>false</code>.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_STREAM_CONTENTS_SPILL = DebugPlugin.getUniqueIdentifier() + ".PREF_STREAM_CONTENTS_SPILL"; //$NON-NLS-1$
+
+	/**
+	 * Integer preference for the maximum time, in milliseconds, that process
+	 * output may be held back to coalesce notifications to stream listeners.
+	 * Default value is <code>16</code>.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_STREAM_NOTIFY_INTERVAL = DebugPlugin.getUniqueIdentifier() + ".PREF_STREAM_NOTIFY_INTERVAL"; //$NON-NLS-1$
+
+	/**
+	 * Integer preference for the maximum number of characters of process
+	 * output coalesced into a single notification to stream listeners.
+	 * Default value is <code>65536</code>.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_STREAM_NOTIFY_LIMIT = DebugPlugin.getUniqueIdentifier() + ".PREF_STREAM_NOTIFY_LIMIT"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether the entry indexes built for
+	 * external archives during source lookup are persisted in the debug core
+	 * state location and reused across sessions. Default value is
+	 * <code>false</code>.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_PERSIST_ARCHIVE_INDEXES = DebugPlugin.getUniqueIdentifier() + ".PREF_PERSIST_ARCHIVE_INDEXES"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether source lookup searches the
+	 * source containers of a director or composite container concurrently.
+	 * Results are still reported in the order the containers are declared.
+	 * Default value is <code>false</code>.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_PARALLEL_SOURCE_LOOKUP = DebugPlugin.getUniqueIdentifier() + ".PREF_PARALLEL_SOURCE_LOOKUP"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether a summary of all launch
+	 * configurations is persisted when the workspace is saved and used to
+	 * avoid scanning the workspace for launch configurations on startup.
+	 * Default value is <code>true</code>.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_PERSIST_LAUNCH_CONFIGURATION_INDEX = DebugPlugin.getUniqueIdentifier() + ".PREF_PERSIST_LAUNCH_CONFIGURATION_INDEX"; //$NON-NLS-1$
+
+	/**
+	 * Integer preference for the maximum number of launch configurations
+	 * whose attributes are cached by the launch manager, or <code>0</code>
+	 * for no limit. Default value is <code>1000</code>.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_LAUNCH_CONFIGURATION_CACHE_LIMIT = DebugPlugin.getUniqueIdentifier() + ".PREF_LAUNCH_CONFIGURATION_CACHE_LIMIT"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether the launch manager reads and
+	 * validates batches of launch configuration files concurrently, when
+	 * indexing the workspace or importing configurations. Configurations are
+	 * still added in order. Default value is <code>true</code>.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_PARALLEL_LAUNCH_CONFIGURATION_LOADING = DebugPlugin.getUniqueIdentifier() + ".PREF_PARALLEL_LAUNCH_CONFIGURATION_LOADING"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether the breakpoint manager restores
+	 * persisted breakpoints in background jobs, one per project, rather than
+	 * when it is first asked for breakpoints. Default value is
+	 * <code>false</code>.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_RESTORE_BREAKPOINTS_IN_BACKGROUND = DebugPlugin.getUniqueIdentifier() + ".PREF_RESTORE_BREAKPOINTS_IN_BACKGROUND"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether the default terminate,
+	 * disconnect and resume commands act on several targets concurrently.
+	 * The commands then call into the targets from several threads at once,
+	 * so it must only be enabled when the debug models of all targets are
+	 * thread-safe. Default value is <code>false</code>.
+	 *
+	 * @since 3.10
+	 */
+	public static final String PREF_PARALLEL_DEBUG_COMMANDS = DebugPlugin.getUniqueIdentifier() + ".PREF_PARALLEL_DEBUG_COMMANDS"; //$NON-NLS-1$
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -53,6 +53,25 @@ public class InputStreamMonitor {
 	 */
 	private String fEncoding;
 
+	/**
+	 * Whether the stream is written by a thread started only while text is
+	 * queued, rather than by a thread for the life of the process. Guarded by
+	 * <code>fLock</code>.
+	 */
+	private boolean fOnDemand = false;
+
+	/**
+	 * Whether a thread writing the queue is running on demand. Guarded by
+	 * <code>fLock</code>.
+	 */
+	private boolean fWriteScheduled = false;
+
+	/**
+	 * Whether the monitor has been closed while writing on demand. Guarded by
+	 * <code>fLock</code>.
+	 */
+	private boolean fStopped = false;
+
 	/**
 	 * Creates an input stream monitor which writes to system in via the given output stream.
 	 *
@@ -85,7 +104,11 @@ public class InputStreamMonitor {
 	public void write(String text) {
 		synchronized(fLock) {
 			fQueue.add(text);
-			fLock.notifyAll();
+			if (fOnDemand) {
+				scheduleWrite();
+			} else {
+				fLock.notifyAll();
+			}
 		}
 	}
 
@@ -105,11 +128,91 @@ public class InputStreamMonitor {
 		}
 	}
 
+	/**
+	 * Writes the stream with a thread that is started when text is queued and
+	 * ends once the queue is empty, rather than with a thread for the life of
+	 * the process. Used when the output streams of the process are read by
+	 * the shared stream pump. Writes block while the process does not read
+	 * its input, so they are never run on the pump's threads.
+	 */
+	public void startMonitoringOnDemand() {
+		synchronized (fLock) {
+			if (fThread == null && !fOnDemand) {
+				fOnDemand = true;
+				if (!fQueue.isEmpty()) {
+					scheduleWrite();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts a thread to write the queue, unless one is already running. Must
+	 * be called while holding <code>fLock</code>.
+	 */
+	private void scheduleWrite() {
+		if (!fWriteScheduled) {
+			fWriteScheduled = true;
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					writeQueue();
+				}
+			}, DebugCoreMessages.InputStreamMonitor_label);
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Writes the queued text to the stream until the queue is empty, closing
+	 * the stream once the monitor has been closed and the queue is empty.
+	 */
+	private void writeQueue() {
+		while (true) {
+			String text;
+			synchronized (fLock) {
+				if (fQueue.isEmpty() || fClosed) {
+					fWriteScheduled = false;
+					if (fStopped && !fClosed) {
+						fClosed = true;
+						try {
+							fStream.close();
+						} catch (IOException e) {
+							DebugPlugin.log(e);
+						}
+					}
+					return;
+				}
+				text = fQueue.remove(0);
+			}
+			try {
+				if (fEncoding != null) {
+					fStream.write(text.getBytes(fEncoding));
+				} else {
+					fStream.write(text.getBytes());
+				}
+				fStream.flush();
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+			}
+		}
+	}
+
 	/**
 	 * Close all communications between this
 	 * monitor and the underlying stream.
 	 */
 	public void close() {
+		synchronized (fLock) {
+			if (fOnDemand) {
+				if (!fStopped) {
+					fStopped = true;
+					scheduleWrite();
+				}
+				return;
+			}
+		}
 		if (fThread != null) {
 			Thread thread= fThread;
 			fThread= null;
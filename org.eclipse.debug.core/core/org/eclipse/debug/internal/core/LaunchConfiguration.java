@@ -528,8 +528,22 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 			return null;
 		}
 		List<String> types = getAttribute(ATTR_MAPPED_RESOURCE_TYPES, (List<String>) null);
+		return getMappedResources(paths, types);
+	}
+
+	/**
+	 * Returns the resources described by the given values of the mapped
+	 * resource path and type attributes, or <code>null</code> if none.
+	 *
+	 * @param paths portable paths of the mapped resources
+	 * @param types types of the mapped resources, or <code>null</code>
+	 * @return mapped resources or <code>null</code>
+	 * @throws CoreException if the attributes are malformed
+	 * @since 3.10
+	 */
+	static IResource[] getMappedResources(List<String> paths, List<String> types) throws CoreException {
 		if (types == null || types.size() != paths.size()) {
-			throw new CoreException(newStatus(DebugCoreMessages.LaunchConfiguration_0, DebugPlugin.ERROR, null));
+			throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, DebugCoreMessages.LaunchConfiguration_0, null));
 		}
 		ArrayList<IResource> list = new ArrayList<IResource>();
 		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
@@ -540,7 +554,7 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 			try {
 				type = Integer.decode(typeStr).intValue();
 			} catch (NumberFormatException e) {
-				throw new CoreException(newStatus(DebugCoreMessages.LaunchConfiguration_0, DebugPlugin.ERROR, e));
+				throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, DebugCoreMessages.LaunchConfiguration_0, e));
 			}
 			IPath path = Path.fromPortableString(pathStr);
 			IResource res = null;
@@ -561,7 +575,7 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 					res = root;
 					break;
 				default:
-					throw new CoreException(newStatus(DebugCoreMessages.LaunchConfiguration_0, DebugPlugin.ERROR, null));
+					throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, DebugCoreMessages.LaunchConfiguration_0, null));
 			}
 			if(res != null) {
 				list.add(res);
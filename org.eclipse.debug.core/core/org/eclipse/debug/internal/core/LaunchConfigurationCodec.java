@@ -0,0 +1,345 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+
+import com.ibm.icu.text.MessageFormat;
+
+/**
+ * Reads and writes launch configuration files without building a DOM.
+ * <p>
+ * Files are parsed with a streaming {@link XMLStreamReader}, accepting the
+ * same documents as the DOM parser it replaces: element names are not case
+ * sensitive, unknown elements are ignored and missing <code>key</code> and
+ * <code>value</code> attributes read as empty strings.
+ * </p>
+ * <p>
+ * Files are written in the layout produced by serializing a DOM with
+ * {@link LaunchManager#serializeDocument(org.w3c.dom.Document)}, one element
+ * per line with platform line separators. Attribute values are escaped by hand as line
+ * breaks and tabs have to be written as character references to survive
+ * attribute value normalization, which <code>XMLStreamWriter</code> does not
+ * do.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class LaunchConfigurationCodec {
+
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>"; //$NON-NLS-1$
+
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator"); //$NON-NLS-1$
+
+	/**
+	 * Shared factory, configured once
+	 */
+	private static XMLInputFactory fgInputFactory;
+
+	private static synchronized XMLStreamReader createReader(InputStream stream) throws XMLStreamException {
+		if (fgInputFactory == null) {
+			fgInputFactory = XMLInputFactory.newInstance();
+			// same as the default of DocumentBuilderFactory
+			fgInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+			fgInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		}
+		return fgInputFactory.createXMLStreamReader(stream);
+	}
+
+	/**
+	 * Reads a launch configuration from the given stream.
+	 *
+	 * @param stream the stream to read from, not closed
+	 * @return the launch configuration read
+	 * @throws CoreException if the document is not a launch configuration or
+	 *             its type does not exist
+	 * @throws XMLStreamException if the document is not well formed or the
+	 *             stream can not be read
+	 */
+	public static LaunchConfigurationInfo read(InputStream stream) throws CoreException, XMLStreamException {
+		LaunchConfigurationInfo info = new LaunchConfigurationInfo();
+		XMLStreamReader reader = createReader(stream);
+		try {
+			if (!nextElement(reader) || !reader.getLocalName().equalsIgnoreCase(LaunchConfigurationInfo.LAUNCH_CONFIGURATION)) {
+				throw info.getInvalidFormatDebugException();
+			}
+			String id = getAttribute(reader, LaunchConfigurationInfo.TYPE);
+			ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurationType(id);
+			if (type == null) {
+				String message= MessageFormat.format(DebugCoreMessages.LaunchConfigurationInfo_missing_type, new Object[]{id});
+				throw new DebugException(
+						new Status(
+						 IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
+						 DebugException.MISSING_LAUNCH_CONFIGURATION_TYPE, message, null)
+					);
+			}
+			info.setType(type);
+			while (nextChild(reader)) {
+				String name = reader.getLocalName();
+				String key = getAttribute(reader, LaunchConfigurationInfo.KEY);
+				if (name.equalsIgnoreCase(LaunchConfigurationInfo.STRING_ATTRIBUTE)) {
+					info.setAttribute(key, getAttribute(reader, LaunchConfigurationInfo.VALUE));
+					skipElement(reader);
+				} else if (name.equalsIgnoreCase(LaunchConfigurationInfo.INT_ATTRIBUTE)) {
+					info.setAttribute(key, Integer.valueOf(getAttribute(reader, LaunchConfigurationInfo.VALUE)));
+					skipElement(reader);
+				} else if (name.equalsIgnoreCase(LaunchConfigurationInfo.BOOLEAN_ATTRIBUTE)) {
+					info.setAttribute(key, Boolean.valueOf(getAttribute(reader, LaunchConfigurationInfo.VALUE)));
+					skipElement(reader);
+				} else if (name.equalsIgnoreCase(LaunchConfigurationInfo.LIST_ATTRIBUTE)) {
+					List<String> list = new ArrayList<String>();
+					while (nextChild(reader)) {
+						checkEntry(info, reader, LaunchConfigurationInfo.LIST_ENTRY);
+						list.add(getAttribute(reader, LaunchConfigurationInfo.VALUE));
+						skipElement(reader);
+					}
+					info.setAttribute(key, list);
+				} else if (name.equalsIgnoreCase(LaunchConfigurationInfo.MAP_ATTRIBUTE)) {
+					Map<String, String> map = new HashMap<String, String>();
+					while (nextChild(reader)) {
+						checkEntry(info, reader, LaunchConfigurationInfo.MAP_ENTRY);
+						map.put(getAttribute(reader, LaunchConfigurationInfo.KEY), getAttribute(reader, LaunchConfigurationInfo.VALUE));
+						skipElement(reader);
+					}
+					info.setAttribute(key, map);
+				} else if (name.equalsIgnoreCase(LaunchConfigurationInfo.SET_ATTRIBUTE)) {
+					Set<String> set = new HashSet<String>();
+					while (nextChild(reader)) {
+						checkEntry(info, reader, LaunchConfigurationInfo.SET_ENTRY);
+						set.add(getAttribute(reader, LaunchConfigurationInfo.VALUE));
+						skipElement(reader);
+					}
+					info.setAttribute(key, set);
+				} else {
+					skipElement(reader);
+				}
+			}
+			return info;
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Advances to the root element of the document.
+	 *
+	 * @return whether the document has a root element
+	 */
+	private static boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Advances to the next child element of the current element, ignoring
+	 * text and comments.
+	 *
+	 * @return <code>true</code> if positioned on the start of a child element,
+	 *         <code>false</code> if positioned on the end of the current
+	 *         element
+	 */
+	private static boolean nextChild(XMLStreamReader reader) throws XMLStreamException {
+		while (true) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					return true;
+				case XMLStreamConstants.END_ELEMENT:
+					return false;
+				default:
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Advances to the end of the current element, skipping its content.
+	 */
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					depth++;
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					depth--;
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	private static void checkEntry(LaunchConfigurationInfo info, XMLStreamReader reader, String entry) throws DebugException {
+		if (!reader.getLocalName().equalsIgnoreCase(entry)) {
+			throw info.getInvalidFormatDebugException();
+		}
+	}
+
+	/**
+	 * Returns the value of the given attribute of the current element, or an
+	 * empty string if the element has no such attribute.
+	 */
+	private static String getAttribute(XMLStreamReader reader, String name) {
+		String value = reader.getAttributeValue(null, name);
+		if (value == null) {
+			return IInternalDebugCoreConstants.EMPTY_STRING;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the content of the given launch configuration as XML.
+	 *
+	 * @param info the launch configuration to write
+	 * @return the content of the launch configuration as XML
+	 * @throws CoreException if an attribute has been set with a
+	 *             <code>null</code> key
+	 */
+	@SuppressWarnings("unchecked")
+	public static String write(LaunchConfigurationInfo info) throws CoreException {
+		Map<String, Object> attributes = info.getAttributeTable();
+		StringBuilder buffer = new StringBuilder(128 + attributes.size() * 96);
+		buffer.append(XML_DECLARATION).append(LINE_SEPARATOR);
+		buffer.append('<').append(LaunchConfigurationInfo.LAUNCH_CONFIGURATION);
+		appendAttribute(buffer, LaunchConfigurationInfo.TYPE, info.getType().getIdentifier());
+		buffer.append('>').append(LINE_SEPARATOR);
+		for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+			String key = attribute.getKey();
+			if (key == null) {
+				throw new DebugException(
+					new Status(
+						IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
+						DebugException.REQUEST_FAILED, DebugCoreMessages.LaunchConfigurationInfo_36, null
+					)
+				);
+			}
+			Object value = attribute.getValue();
+			if (value instanceof String) {
+				appendKeyValue(buffer, LaunchConfigurationInfo.STRING_ATTRIBUTE, key, (String) value);
+			} else if (value instanceof Integer) {
+				appendKeyValue(buffer, LaunchConfigurationInfo.INT_ATTRIBUTE, key, value.toString());
+			} else if (value instanceof Boolean) {
+				appendKeyValue(buffer, LaunchConfigurationInfo.BOOLEAN_ATTRIBUTE, key, value.toString());
+			} else if (value instanceof List) {
+				appendEntries(buffer, LaunchConfigurationInfo.LIST_ATTRIBUTE, LaunchConfigurationInfo.LIST_ENTRY, key, (List<String>) value);
+			} else if (value instanceof Map) {
+				Map<String, String> map = (Map<String, String>) value;
+				buffer.append('<').append(LaunchConfigurationInfo.MAP_ATTRIBUTE);
+				appendAttribute(buffer, LaunchConfigurationInfo.KEY, key);
+				if (map.isEmpty()) {
+					buffer.append("/>").append(LINE_SEPARATOR); //$NON-NLS-1$
+					continue;
+				}
+				buffer.append('>').append(LINE_SEPARATOR);
+				// persist in sorted order based on keys
+				List<String> keys = new ArrayList<String>(map.keySet());
+				Collections.sort(keys);
+				for (String mapKey : keys) {
+					appendKeyValue(buffer, LaunchConfigurationInfo.MAP_ENTRY, mapKey, map.get(mapKey));
+				}
+				appendEnd(buffer, LaunchConfigurationInfo.MAP_ATTRIBUTE);
+			} else if (value instanceof Set) {
+				// persist in sorted order
+				List<String> list = new ArrayList<String>((Set<String>) value);
+				Collections.sort(list);
+				appendEntries(buffer, LaunchConfigurationInfo.SET_ATTRIBUTE, LaunchConfigurationInfo.SET_ENTRY, key, list);
+			}
+		}
+		appendEnd(buffer, LaunchConfigurationInfo.LAUNCH_CONFIGURATION);
+		return buffer.toString();
+	}
+
+	private static void appendKeyValue(StringBuilder buffer, String element, String key, String value) {
+		buffer.append('<').append(element);
+		appendAttribute(buffer, LaunchConfigurationInfo.KEY, key);
+		appendAttribute(buffer, LaunchConfigurationInfo.VALUE, value);
+		buffer.append("/>").append(LINE_SEPARATOR); //$NON-NLS-1$
+	}
+
+	private static void appendEntries(StringBuilder buffer, String element, String entry, String key, List<String> values) {
+		buffer.append('<').append(element);
+		appendAttribute(buffer, LaunchConfigurationInfo.KEY, key);
+		if (values.isEmpty()) {
+			buffer.append("/>").append(LINE_SEPARATOR); //$NON-NLS-1$
+			return;
+		}
+		buffer.append('>').append(LINE_SEPARATOR);
+		for (String value : values) {
+			buffer.append('<').append(entry);
+			appendAttribute(buffer, LaunchConfigurationInfo.VALUE, value);
+			buffer.append("/>").append(LINE_SEPARATOR); //$NON-NLS-1$
+		}
+		appendEnd(buffer, element);
+	}
+
+	private static void appendEnd(StringBuilder buffer, String element) {
+		buffer.append("</").append(element).append('>').append(LINE_SEPARATOR); //$NON-NLS-1$
+	}
+
+	/**
+	 * Appends an attribute with the given name and value to the start tag
+	 * being written, escaping the value as the DOM serializer does.
+	 */
+	private static void appendAttribute(StringBuilder buffer, String name, String value) {
+		buffer.append(' ').append(name).append("=\""); //$NON-NLS-1$
+		int length = value == null ? 0 : value.length();
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '&':
+					buffer.append("&amp;"); //$NON-NLS-1$
+					break;
+				case '<':
+					buffer.append("&lt;"); //$NON-NLS-1$
+					break;
+				case '>':
+					buffer.append("&gt;"); //$NON-NLS-1$
+					break;
+				case '"':
+					buffer.append("&quot;"); //$NON-NLS-1$
+					break;
+				default:
+					if (c < 0x20) {
+						// line breaks and tabs are normalized to spaces otherwise
+						buffer.append("&#").append((int) c).append(';'); //$NON-NLS-1$
+					} else {
+						buffer.append(c);
+					}
+					break;
+			}
+		}
+		buffer.append('"');
+	}
+}
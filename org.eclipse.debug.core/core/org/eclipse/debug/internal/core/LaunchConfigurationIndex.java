@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+
+/**
+ * Compact summary of the launch configurations known to the launch manager,
+ * persisted in the debug core state location when the workspace is saved.
+ * On startup the summary replaces the scan of the workspace for launch
+ * configuration files: entries whose files are unchanged are trusted without
+ * parsing them, and only stale entries and files changed since the save are
+ * read.
+ * <p>
+ * An index is only valid for the workspace save it was written for. A resource
+ * delta from that save to the current state of the workspace is required to
+ * detect shared configurations added since.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class LaunchConfigurationIndex {
+
+	/**
+	 * Version of the persisted format, written at the start of the file
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Name of the index file in the debug core state location
+	 */
+	private static final String INDEX_FILE = ".launchIndex"; //$NON-NLS-1$
+
+	private static final String[] NO_STRINGS = new String[0];
+
+	/**
+	 * Summary of a single launch configuration.
+	 */
+	public static class Entry {
+
+		/**
+		 * Name of the configuration
+		 */
+		public final String name;
+
+		/**
+		 * Workspace relative path of the file of a shared configuration, or
+		 * <code>null</code> for a local configuration
+		 */
+		public final String path;
+
+		/**
+		 * Identifier of the configuration's type
+		 */
+		public final String typeId;
+
+		/**
+		 * Paths and types of the resources mapped to the configuration, as
+		 * stored in its attributes
+		 */
+		public final String[] mappedPaths;
+		public final String[] mappedTypes;
+
+		/**
+		 * Modification time of the configuration's file when it was read
+		 */
+		public final long timestamp;
+
+		Entry(String name, String path, String typeId, String[] mappedPaths, String[] mappedTypes, long timestamp) {
+			this.name = name;
+			this.path = path;
+			this.typeId = typeId;
+			this.mappedPaths = mappedPaths;
+			this.mappedTypes = mappedTypes;
+			this.timestamp = timestamp;
+		}
+
+		/**
+		 * @return whether the entry describes a local configuration
+		 */
+		public boolean isLocal() {
+			return path == null;
+		}
+	}
+
+	/**
+	 * Returns whether the launch configuration index is persisted and used on
+	 * startup.
+	 *
+	 * @return whether the persisted index is enabled
+	 */
+	public static boolean isEnabled() {
+		return Platform.getPreferencesService().getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_PERSIST_LAUNCH_CONFIGURATION_INDEX, true, null);
+	}
+
+	/**
+	 * @return the file the index is persisted in
+	 */
+	public static File getIndexFile() {
+		return DebugPlugin.getDefault().getStateLocation().append(INDEX_FILE).toFile();
+	}
+
+	/**
+	 * Returns the modification time of the file of the given configuration,
+	 * or 0 if unknown.
+	 *
+	 * @param config launch configuration
+	 * @return modification time of the configuration's file
+	 */
+	public static long getTimestamp(ILaunchConfiguration config) {
+		IFile file = config.getFile();
+		if (file != null) {
+			return file.getLocalTimeStamp();
+		}
+		return getLocalFile(config.getName()).lastModified();
+	}
+
+	/**
+	 * Returns the file of the local configuration with the given name.
+	 *
+	 * @param name configuration name
+	 * @return file of the local configuration
+	 */
+	public static File getLocalFile(String name) {
+		IPath path = LaunchManager.LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH.append(name + '.' + ILaunchConfiguration.LAUNCH_CONFIGURATION_FILE_EXTENSION);
+		return path.toFile();
+	}
+
+	/**
+	 * Creates an entry describing the given configuration. The type and
+	 * mapped resources are read from the configuration's attributes.
+	 *
+	 * @param config launch configuration
+	 * @return entry describing the configuration
+	 * @throws CoreException if the configuration's attributes can not be read
+	 */
+	public static Entry createEntry(ILaunchConfiguration config) throws CoreException {
+		IFile file = config.getFile();
+		String path = file == null ? null : file.getFullPath().toPortableString();
+		List<String> paths = config.getAttribute(LaunchConfiguration.ATTR_MAPPED_RESOURCE_PATHS, (List<String>) null);
+		List<String> types = config.getAttribute(LaunchConfiguration.ATTR_MAPPED_RESOURCE_TYPES, (List<String>) null);
+		String[] mappedPaths = paths == null ? NO_STRINGS : paths.toArray(new String[paths.size()]);
+		String[] mappedTypes = types == null ? NO_STRINGS : types.toArray(new String[types.size()]);
+		return new Entry(config.getName(), path, config.getType().getIdentifier(), mappedPaths, mappedTypes, getTimestamp(config));
+	}
+
+	/**
+	 * Reads the index written for the given workspace save, or returns
+	 * <code>null</code> if there is no index or it was written for another
+	 * save.
+	 *
+	 * @param file file to read from
+	 * @param saveNumber number of the workspace save the index must have been
+	 *            written for
+	 * @return entries of the index or <code>null</code>
+	 */
+	public static List<Entry> read(File file, int saveNumber) {
+		if (!file.isFile()) {
+			return null;
+		}
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (in.readInt() != VERSION || in.readInt() != saveNumber) {
+				return null;
+			}
+			int size = in.readInt();
+			List<Entry> entries = new ArrayList<Entry>(size);
+			for (int i = 0; i < size; i++) {
+				String name = in.readUTF();
+				String path = in.readBoolean() ? in.readUTF() : null;
+				String typeId = in.readUTF();
+				String[] mappedPaths = readStrings(in);
+				String[] mappedTypes = readStrings(in);
+				long timestamp = in.readLong();
+				entries.add(new Entry(name, path, typeId, mappedPaths, mappedTypes, timestamp));
+			}
+			return entries;
+		} catch (IOException e) {
+			// a damaged index is rebuilt by scanning the workspace
+			return null;
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException e) {
+					DebugPlugin.log(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the given entries as the index for the given workspace save.
+	 *
+	 * @param file file to write to
+	 * @param saveNumber number of the workspace save
+	 * @param entries entries to write
+	 * @throws IOException if the file can not be written
+	 */
+	public static void write(File file, int saveNumber, Collection<Entry> entries) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			out.writeInt(VERSION);
+			out.writeInt(saveNumber);
+			out.writeInt(entries.size());
+			for (Entry entry : entries) {
+				out.writeUTF(entry.name);
+				out.writeBoolean(entry.path != null);
+				if (entry.path != null) {
+					out.writeUTF(entry.path);
+				}
+				out.writeUTF(entry.typeId);
+				writeStrings(out, entry.mappedPaths);
+				writeStrings(out, entry.mappedTypes);
+				out.writeLong(entry.timestamp);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	private static String[] readStrings(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length == 0) {
+			return NO_STRINGS;
+		}
+		String[] strings = new String[length];
+		for (int i = 0; i < length; i++) {
+			strings[i] = in.readUTF();
+		}
+		return strings;
+	}
+
+	private static void writeStrings(DataOutputStream out, String[] strings) throws IOException {
+		out.writeInt(strings.length);
+		for (int i = 0; i < strings.length; i++) {
+			out.writeUTF(strings[i]);
+		}
+	}
+}
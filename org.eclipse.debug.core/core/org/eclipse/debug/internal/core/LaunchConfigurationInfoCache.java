@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.PreferenceChangeEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+
+/**
+ * Cache of the attributes read from launch configuration files. The cache
+ * holds at most a configurable number of entries and evicts the least
+ * recently used entry when full. Entries are softly referenced so that the
+ * garbage collector can reclaim them under memory pressure. Evicted and
+ * reclaimed entries are read again from their files on demand.
+ * <p>
+ * Hits, misses, evictions and reclaimed entries are counted. A summary is
+ * traced on eviction when the <code>debug/launchconfigurations</code> option
+ * is enabled.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class LaunchConfigurationInfoCache {
+
+	/**
+	 * Default maximum number of cached entries
+	 */
+	public static final int DEFAULT_LIMIT = 1000;
+
+	/**
+	 * Entries in access order, least recently used first
+	 */
+	private final LinkedHashMap<ILaunchConfiguration, SoftReference<LaunchConfigurationInfo>> fEntries;
+
+	/**
+	 * Maximum number of entries, or 0 if unbounded
+	 */
+	private int fLimit;
+
+	private long fHits = 0;
+	private long fMisses = 0;
+	private long fEvictions = 0;
+	private long fReclaimed = 0;
+
+	/**
+	 * Applies changes of the limit preference, or <code>null</code> if the
+	 * limit is not read from the preferences
+	 */
+	private IPreferenceChangeListener fPreferenceListener;
+
+	/**
+	 * Creates a cache bounded by the limit set in the preferences. The limit
+	 * follows changes of the preference until the cache is disposed.
+	 */
+	public LaunchConfigurationInfoCache() {
+		this(getPreferredLimit());
+		fPreferenceListener = new IPreferenceChangeListener() {
+			@Override
+			public void preferenceChange(PreferenceChangeEvent event) {
+				if (IInternalDebugCoreConstants.PREF_LAUNCH_CONFIGURATION_CACHE_LIMIT.equals(event.getKey())) {
+					setLimit(getPreferredLimit());
+				}
+			}
+		};
+		Preferences.addPreferenceListener(DebugPlugin.getUniqueIdentifier(), fPreferenceListener);
+	}
+
+	/**
+	 * Creates a cache holding at most the given number of entries.
+	 *
+	 * @param limit maximum number of entries, or 0 if unbounded
+	 */
+	public LaunchConfigurationInfoCache(int limit) {
+		fLimit = Math.max(0, limit);
+		fEntries = new LinkedHashMap<ILaunchConfiguration, SoftReference<LaunchConfigurationInfo>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ILaunchConfiguration, SoftReference<LaunchConfigurationInfo>> eldest) {
+				if (fLimit > 0 && size() > fLimit) {
+					fEvictions++;
+					if (DebugOptions.DEBUG_LAUNCH_CONFIGURATIONS) {
+						DebugOptions.trace(getSummary());
+					}
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * @return the limit set in the preferences
+	 */
+	private static int getPreferredLimit() {
+		return Platform.getPreferencesService().getInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_LAUNCH_CONFIGURATION_CACHE_LIMIT, DEFAULT_LIMIT, null);
+	}
+
+	/**
+	 * Stops following changes of the limit preference.
+	 */
+	public void dispose() {
+		if (fPreferenceListener != null) {
+			Preferences.removePreferenceListener(DebugPlugin.getUniqueIdentifier(), fPreferenceListener);
+			fPreferenceListener = null;
+		}
+	}
+
+	/**
+	 * Returns the cached attributes of the given configuration, or
+	 * <code>null</code> if they have to be read.
+	 *
+	 * @param config launch configuration
+	 * @return cached attributes or <code>null</code>
+	 */
+	public synchronized LaunchConfigurationInfo get(ILaunchConfiguration config) {
+		SoftReference<LaunchConfigurationInfo> reference = fEntries.get(config);
+		if (reference != null) {
+			LaunchConfigurationInfo info = reference.get();
+			if (info != null) {
+				fHits++;
+				return info;
+			}
+			fEntries.remove(config);
+			fReclaimed++;
+		}
+		fMisses++;
+		return null;
+	}
+
+	/**
+	 * Caches the attributes read for the given configuration, possibly
+	 * evicting the least recently used entry.
+	 *
+	 * @param config launch configuration
+	 * @param info attributes read from the configuration's file
+	 */
+	public synchronized void put(ILaunchConfiguration config, LaunchConfigurationInfo info) {
+		fEntries.put(config, new SoftReference<LaunchConfigurationInfo>(info));
+	}
+
+	/**
+	 * Removes the entry of the given configuration.
+	 *
+	 * @param config launch configuration
+	 * @return whether the cache had an entry for the configuration
+	 */
+	public synchronized boolean remove(ILaunchConfiguration config) {
+		return fEntries.remove(config) != null;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public synchronized void clear() {
+		fEntries.clear();
+	}
+
+	/**
+	 * Sets the maximum number of entries, evicting the least recently used
+	 * entries as required.
+	 *
+	 * @param limit maximum number of entries, or 0 if unbounded
+	 */
+	public synchronized void setLimit(int limit) {
+		fLimit = Math.max(0, limit);
+		if (fLimit > 0) {
+			while (fEntries.size() > fLimit) {
+				fEntries.remove(fEntries.keySet().iterator().next());
+				fEvictions++;
+			}
+		}
+	}
+
+	/**
+	 * @return the maximum number of entries, or 0 if unbounded
+	 */
+	public synchronized int getLimit() {
+		return fLimit;
+	}
+
+	/**
+	 * @return the number of entries
+	 */
+	public synchronized int size() {
+		return fEntries.size();
+	}
+
+	/**
+	 * @return the number of lookups answered from the cache
+	 */
+	public synchronized long getHitCount() {
+		return fHits;
+	}
+
+	/**
+	 * @return the number of lookups that required reading a file
+	 */
+	public synchronized long getMissCount() {
+		return fMisses;
+	}
+
+	/**
+	 * @return the number of entries evicted to stay within the limit
+	 */
+	public synchronized long getEvictionCount() {
+		return fEvictions;
+	}
+
+	/**
+	 * @return the number of entries reclaimed by the garbage collector
+	 */
+	public synchronized long getReclaimedCount() {
+		return fReclaimed;
+	}
+
+	/**
+	 * Returns a summary of the counters suitable for tracing.
+	 *
+	 * @return summary of the counters
+	 */
+	public synchronized String getSummary() {
+		StringBuffer buffer = new StringBuffer("Launch configuration cache: size="); //$NON-NLS-1$
+		buffer.append(fEntries.size());
+		buffer.append(" limit="); //$NON-NLS-1$
+		buffer.append(fLimit);
+		buffer.append(" hits="); //$NON-NLS-1$
+		buffer.append(fHits);
+		buffer.append(" misses="); //$NON-NLS-1$
+		buffer.append(fMisses);
+		buffer.append(" evictions="); //$NON-NLS-1$
+		buffer.append(fEvictions);
+		buffer.append(" reclaimed="); //$NON-NLS-1$
+		buffer.append(fReclaimed);
+		return buffer.toString();
+	}
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+
+/**
+ * Reads and validates batches of launch configuration files concurrently on a
+ * bounded pool of threads. Callers collect the results in the order of the
+ * batch, so configurations are added and listeners are notified exactly as
+ * when the files are read one after the other.
+ * <p>
+ * The calling thread runs any task that has not been picked up by the pool by
+ * the time its result is needed. Tasks must not acquire the launch manager's
+ * lock, which the calling thread may hold, so callers initialize the launch
+ * configuration types before handing out tasks that read configurations.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class LaunchConfigurationLoader {
+
+	/**
+	 * Smallest batch read concurrently, smaller batches are read by the
+	 * calling thread
+	 */
+	static final int THRESHOLD = 4;
+
+	/**
+	 * Shared pool
+	 */
+	private static final ParallelExecutor fgExecutor = new ParallelExecutor(DebugCoreMessages.LaunchConfigurationLoader_0);
+
+	/**
+	 * Returns whether a batch of the given size should be read concurrently.
+	 *
+	 * @param count number of files in the batch
+	 * @return whether to read the batch concurrently
+	 */
+	public static boolean isEnabled(int count) {
+		return count >= THRESHOLD && Platform.getPreferencesService().getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_PARALLEL_LAUNCH_CONFIGURATION_LOADING, true, null);
+	}
+
+	/**
+	 * Stops the shared pool, if it has been created.
+	 */
+	public static void shutdown() {
+		fgExecutor.shutdown();
+	}
+
+	/**
+	 * Hands the given tasks to the pool. The first task is left to the
+	 * calling thread, which collects the results with
+	 * {@link ParallelExecutor#get(FutureTask)}.
+	 *
+	 * @param tasks tasks to run
+	 */
+	static <T> void execute(List<FutureTask<T>> tasks) {
+		fgExecutor.execute(tasks);
+	}
+
+	/**
+	 * Cancels the given tasks that have not started.
+	 *
+	 * @param tasks tasks to cancel
+	 */
+	static <T> void cancel(List<FutureTask<T>> tasks) {
+		fgExecutor.cancel(tasks);
+	}
+
+	/**
+	 * Validates the given configurations concurrently, as done by
+	 * {@link LaunchManager#isValid(ILaunchConfiguration)}. Configurations
+	 * already in the given collection are not validated.
+	 *
+	 * @param manager the launch manager
+	 * @param verify configurations to validate
+	 * @param valid configurations known to be valid
+	 * @return whether each configuration is valid, in the order of the list
+	 */
+	static boolean[] validate(final LaunchManager manager, List<ILaunchConfiguration> verify, Collection<ILaunchConfiguration> valid) {
+		boolean[] results = new boolean[verify.size()];
+		List<FutureTask<Boolean>> tasks = new ArrayList<FutureTask<Boolean>>(verify.size());
+		List<Integer> indexes = new ArrayList<Integer>(verify.size());
+		for (int i = 0; i < results.length; i++) {
+			final ILaunchConfiguration config = verify.get(i);
+			if (!valid.contains(config)) {
+				tasks.add(new FutureTask<Boolean>(new Callable<Boolean>() {
+					@Override
+					public Boolean call() {
+						return Boolean.valueOf(manager.isValid(config));
+					}
+				}));
+				indexes.add(Integer.valueOf(i));
+			}
+		}
+		execute(tasks);
+		try {
+			for (int i = 0; i < tasks.size(); i++) {
+				results[indexes.get(i).intValue()] = ParallelExecutor.get(tasks.get(i)).booleanValue();
+			}
+		} catch (ExecutionException e) {
+			ParallelExecutor.rethrow(e);
+		} finally {
+			cancel(tasks);
+		}
+		return results;
+	}
+}
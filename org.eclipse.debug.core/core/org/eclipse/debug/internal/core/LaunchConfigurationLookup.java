@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+
+/**
+ * Hash indexes over the launch configurations known to the launch manager,
+ * answering queries by type, name, project and mapped resource in time
+ * proportional to the size of the result. The indexes are built from the
+ * summary of each configuration (see {@link LaunchConfigurationIndex.Entry}),
+ * so no configuration has to be read to answer a query.
+ * <p>
+ * Configurations that could not be summarized are kept aside and must be
+ * checked individually by clients. This class is not thread safe, the launch
+ * manager accesses it while holding its own lock.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class LaunchConfigurationLookup {
+
+	/**
+	 * Summaries of the indexed configurations
+	 */
+	private Map<ILaunchConfiguration, LaunchConfigurationIndex.Entry> fEntries = new HashMap<ILaunchConfiguration, LaunchConfigurationIndex.Entry>(20);
+
+	/**
+	 * Resources each indexed configuration is mapped to, as they were when
+	 * it was indexed
+	 */
+	private Map<ILaunchConfiguration, IResource[]> fMappedResources = new HashMap<ILaunchConfiguration, IResource[]>(20);
+
+	private Map<String, Set<ILaunchConfiguration>> fByType = new HashMap<String, Set<ILaunchConfiguration>>();
+	private Map<String, Set<ILaunchConfiguration>> fByName = new HashMap<String, Set<ILaunchConfiguration>>(20);
+	private Map<IProject, Set<ILaunchConfiguration>> fByProject = new HashMap<IProject, Set<ILaunchConfiguration>>();
+	private Map<IResource, Set<ILaunchConfiguration>> fByResource = new HashMap<IResource, Set<ILaunchConfiguration>>(20);
+
+	/**
+	 * Configurations without a summary
+	 */
+	private Set<ILaunchConfiguration> fUnindexed = new LinkedHashSet<ILaunchConfiguration>();
+
+	/**
+	 * Indexes the given configuration by the given summary, replacing any
+	 * previous summary of the configuration.
+	 *
+	 * @param config launch configuration
+	 * @param entry summary of the configuration or <code>null</code> if it
+	 *            could not be summarized
+	 */
+	public void put(ILaunchConfiguration config, LaunchConfigurationIndex.Entry entry) {
+		LaunchConfigurationIndex.Entry previous = fEntries.get(config);
+		if (previous != null && entry != null && isSameKeys(previous, entry)) {
+			// keep the position of the configuration in its buckets
+			fEntries.put(config, entry);
+			return;
+		}
+		remove(config);
+		if (entry == null) {
+			fUnindexed.add(config);
+			return;
+		}
+		fEntries.put(config, entry);
+		add(fByType, entry.typeId, config);
+		add(fByName, entry.name, config);
+		IFile file = config.getFile();
+		if (file != null) {
+			add(fByProject, file.getProject(), config);
+		}
+		IResource[] resources = getMappedResources(entry);
+		if (resources != null) {
+			fMappedResources.put(config, resources);
+			for (int i = 0; i < resources.length; i++) {
+				add(fByResource, resources[i], config);
+			}
+		}
+	}
+
+	/**
+	 * Removes the given configuration from the indexes.
+	 *
+	 * @param config launch configuration
+	 */
+	public void remove(ILaunchConfiguration config) {
+		LaunchConfigurationIndex.Entry entry = fEntries.remove(config);
+		if (entry == null) {
+			fUnindexed.remove(config);
+			return;
+		}
+		remove(fByType, entry.typeId, config);
+		remove(fByName, entry.name, config);
+		IFile file = config.getFile();
+		if (file != null) {
+			remove(fByProject, file.getProject(), config);
+		}
+		IResource[] resources = fMappedResources.remove(config);
+		if (resources != null) {
+			for (int i = 0; i < resources.length; i++) {
+				remove(fByResource, resources[i], config);
+			}
+		}
+	}
+
+	/**
+	 * Removes all configurations from the indexes.
+	 */
+	public void clear() {
+		fEntries.clear();
+		fMappedResources.clear();
+		fByType.clear();
+		fByName.clear();
+		fByProject.clear();
+		fByResource.clear();
+		fUnindexed.clear();
+	}
+
+	/**
+	 * Returns the summary the given configuration is indexed by.
+	 *
+	 * @param config launch configuration
+	 * @return summary or <code>null</code> if the configuration is not indexed
+	 */
+	public LaunchConfigurationIndex.Entry getEntry(ILaunchConfiguration config) {
+		return fEntries.get(config);
+	}
+
+	/**
+	 * @return configurations without a summary, which are not in any index
+	 */
+	public List<ILaunchConfiguration> getUnindexedConfigurations() {
+		return new ArrayList<ILaunchConfiguration>(fUnindexed);
+	}
+
+	/**
+	 * @param typeId launch configuration type identifier
+	 * @return indexed configurations of the given type
+	 */
+	public List<ILaunchConfiguration> getConfigurationsOfType(String typeId) {
+		return get(fByType, typeId);
+	}
+
+	/**
+	 * @param name launch configuration name
+	 * @return indexed configurations with the given name
+	 */
+	public List<ILaunchConfiguration> getConfigurationsNamed(String name) {
+		return get(fByName, name);
+	}
+
+	/**
+	 * @param project project
+	 * @return indexed configurations stored in the given project
+	 */
+	public List<ILaunchConfiguration> getConfigurationsIn(IProject project) {
+		return get(fByProject, project);
+	}
+
+	/**
+	 * @param resource resource
+	 * @return indexed configurations mapped to the given resource
+	 */
+	public List<ILaunchConfiguration> getConfigurationsMappedTo(IResource resource) {
+		return get(fByResource, resource);
+	}
+
+	/**
+	 * Returns the resources described by the mapped resource attributes of
+	 * the given summary, or <code>null</code> if none. Malformed attributes
+	 * are logged.
+	 *
+	 * @param entry summary of a configuration
+	 * @return mapped resources or <code>null</code>
+	 */
+	private IResource[] getMappedResources(LaunchConfigurationIndex.Entry entry) {
+		if (entry.mappedPaths.length == 0) {
+			return null;
+		}
+		try {
+			return LaunchConfiguration.getMappedResources(Arrays.asList(entry.mappedPaths), Arrays.asList(entry.mappedTypes));
+		} catch (CoreException e) {
+			DebugPlugin.log(e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns whether the given summaries put a configuration in the same
+	 * buckets of every index.
+	 */
+	private boolean isSameKeys(LaunchConfigurationIndex.Entry entry1, LaunchConfigurationIndex.Entry entry2) {
+		return entry1.typeId.equals(entry2.typeId)
+				&& entry1.name.equals(entry2.name)
+				&& Arrays.equals(entry1.mappedPaths, entry2.mappedPaths)
+				&& Arrays.equals(entry1.mappedTypes, entry2.mappedTypes);
+	}
+
+	private static <K> void add(Map<K, Set<ILaunchConfiguration>> index, K key, ILaunchConfiguration config) {
+		Set<ILaunchConfiguration> configs = index.get(key);
+		if (configs == null) {
+			configs = new LinkedHashSet<ILaunchConfiguration>(4);
+			index.put(key, configs);
+		}
+		configs.add(config);
+	}
+
+	private static <K> void remove(Map<K, Set<ILaunchConfiguration>> index, K key, ILaunchConfiguration config) {
+		Set<ILaunchConfiguration> configs = index.get(key);
+		if (configs != null) {
+			configs.remove(config);
+			if (configs.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
+
+	private static <K> List<ILaunchConfiguration> get(Map<K, Set<ILaunchConfiguration>> index, K key) {
+		Collection<ILaunchConfiguration> configs = index.get(key);
+		if (configs == null) {
+			configs = Collections.emptySet();
+		}
+		return new ArrayList<ILaunchConfiguration>(configs);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -271,7 +271,7 @@ public class LaunchConfigurationWorkingCopy extends LaunchConfiguration implemen
 	protected void writeNewFile(IProgressMonitor monitor) throws CoreException {
 		String xml = null;
 		try {
-			xml = getInfo().getAsXML();
+			xml = LaunchConfigurationCodec.write(getInfo());
 		} catch (Exception e) {
 			throw new DebugException(
 					new Status(
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -34,16 +34,22 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -63,6 +69,9 @@ import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IResourceProxy;
 import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -79,6 +88,7 @@ import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.variables.VariablesPlugin;
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
@@ -96,6 +106,7 @@ import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IDisconnect;
 import org.eclipse.debug.core.model.IPersistableSourceLocator;
 import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.debug.core.model.IStreamsProxy;
 import org.eclipse.debug.core.sourcelookup.AbstractSourceLookupDirector;
 import org.eclipse.debug.core.sourcelookup.ISourceContainerType;
 import org.eclipse.debug.core.sourcelookup.ISourcePathComputer;
@@ -106,9 +117,6 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
 
 import com.ibm.icu.text.MessageFormat;
 
@@ -355,6 +363,122 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		}
 	}
 
+	/**
+	 * Collects the launch configuration files changed and the projects opened
+	 * since the launch configuration index was persisted, from the saved state
+	 * and from the changes made until the index is restored. The changes are
+	 * applied when the index is restored, without calling into the workspace
+	 * while the launch manager is locked.
+	 *
+	 * @since 3.10
+	 */
+	class SavedStateCollector implements IResourceChangeListener, IResourceDeltaVisitor {
+
+		/**
+		 * Changed launch configuration files and opened projects, guarded by
+		 * the collector
+		 */
+		private final Set<IResource> fChanges = new LinkedHashSet<IResource>();
+
+		/**
+		 * Whether the changes in the saved state have been collected, guarded
+		 * by the collector
+		 */
+		private boolean fComplete = false;
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.resources.IResourceChangeListener#resourceChanged(org.eclipse.core.resources.IResourceChangeEvent)
+		 */
+		@Override
+		public void resourceChanged(IResourceChangeEvent event) {
+			IResourceDelta delta = event.getDelta();
+			if (delta != null) {
+				try {
+					delta.accept(this);
+				} catch (CoreException e) {
+					DebugPlugin.log(e.getStatus());
+				}
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.resources.IResourceDeltaVisitor#visit(org.eclipse.core.resources.IResourceDelta)
+		 */
+		@Override
+		public boolean visit(IResourceDelta delta) {
+			IResource resource = delta.getResource();
+			if (0 != (delta.getFlags() & IResourceDelta.OPEN)) {
+				if (resource instanceof IProject) {
+					add(resource);
+				}
+				return false;
+			}
+			if (resource instanceof IFile) {
+				if (ILaunchConfiguration.LAUNCH_CONFIGURATION_FILE_EXTENSION.equals(resource.getFileExtension())) {
+					add(resource);
+				}
+				return false;
+			}
+			return true;
+		}
+
+		private synchronized void add(IResource resource) {
+			fChanges.add(resource);
+		}
+
+		/**
+		 * Marks the changes in the saved state as collected.
+		 */
+		synchronized void setComplete() {
+			fComplete = true;
+		}
+
+		/**
+		 * Returns the resources changed since the save, or <code>null</code>
+		 * if the changes in the saved state have not been collected (yet).
+		 *
+		 * @return changed launch configuration files and opened projects or
+		 *         <code>null</code>
+		 */
+		synchronized List<IResource> getChanges() {
+			return fComplete ? new ArrayList<IResource>(fChanges) : null;
+		}
+	}
+
+	/**
+	 * Collects the changes in the saved state of the debug plug-in without
+	 * holding the launch manager lock, as the workspace is locked meanwhile.
+	 *
+	 * @since 3.10
+	 */
+	class SavedStateJob extends Job {
+
+		private final ISavedState fState;
+		private final SavedStateCollector fCollector;
+
+		SavedStateJob(ISavedState state, SavedStateCollector collector) {
+			super("launch configuration saved state job"); //$NON-NLS-1$
+			fState = state;
+			fCollector = collector;
+			setSystem(true);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+		 */
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			try {
+				fState.processResourceChangeEvents(fCollector);
+				fCollector.setComplete();
+			} catch (CoreException e) {
+				// the changes since the save are unknown, the workspace is scanned
+				DebugPlugin.log(e.getStatus());
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
 	/**
 	 * Visitor for handling resource deltas.
 	 */
@@ -576,15 +700,17 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 
 	/**
 	 * Collection of defined launch configuration type
-	 * extensions.
+	 * extensions. Published once fully initialized, such that types can be
+	 * looked up without the lock of the launch manager while launch
+	 * configurations are read concurrently.
 	 */
-	private List<ILaunchConfigurationType> fLaunchConfigurationTypes = null;
+	private volatile List<ILaunchConfigurationType> fLaunchConfigurationTypes = null;
 
 	/**
-	 * Launch configuration cache. Keys are <code>LaunchConfiguration</code>,
-	 * values are <code>LaunchConfigurationInfo</code>.
+	 * Launch configuration cache. Bounded in size, entries evicted from the
+	 * cache are read again from their files on demand.
 	 */
-	private Map<ILaunchConfiguration, LaunchConfigurationInfo> fLaunchConfigurations = new HashMap<ILaunchConfiguration, LaunchConfigurationInfo>(10);
+	private LaunchConfigurationInfoCache fLaunchConfigurations = new LaunchConfigurationInfoCache();
 
 	/**
 	 * A cache of launch configuration names currently in the workspace.
@@ -592,10 +718,36 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	private String[] fSortedConfigNames = null;
 
 	/**
-	 * Collection of all launch configurations in the workspace.
-	 * <code>List</code> of <code>ILaunchConfiguration</code>.
+	 * Collection of all launch configurations in the workspace, in the order
+	 * they were found.
+	 * <code>Set</code> of <code>ILaunchConfiguration</code>.
 	 */
-	private List<ILaunchConfiguration> fLaunchConfigurationIndex = null;
+	private Set<ILaunchConfiguration> fLaunchConfigurationIndex = null;
+
+	/**
+	 * Summaries of the configurations in the index, persisted when the
+	 * workspace is saved, and the indexes by type, name, project and mapped
+	 * resource built from them.
+	 *
+	 * @since 3.10
+	 */
+	private LaunchConfigurationLookup fLookup = new LaunchConfigurationLookup();
+
+	/**
+	 * State of the last workspace save the debug plug-in participated in, or
+	 * <code>null</code> if none.
+	 *
+	 * @since 3.10
+	 */
+	private ISavedState fSavedState = null;
+
+	/**
+	 * Collector of the changes since the last workspace save, or
+	 * <code>null</code> once the launch configuration index is built.
+	 *
+	 * @since 3.10
+	 */
+	private SavedStateCollector fSavedStateCollector = null;
 
 	/**
 	 * Launch configuration comparator extensions,
@@ -883,6 +1035,7 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		if (fLaunchConfigurationIndex != null) {
 			fLaunchConfigurationIndex.clear();
 		}
+		fLookup.clear();
 	}
 
 	/* (non-Javadoc)
@@ -931,32 +1084,6 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 				);
 	}
 
-	/**
-	 * Return a LaunchConfigurationInfo object initialized from XML contained in
-	 * the specified stream.  Simply pass out any exceptions encountered so that
-	 * caller can deal with them.  This is important since caller may need access to the
-	 * actual exception.
-	 *
-	 * @param stream the {@link InputStream} to read from
-	 * @return the new {@link LaunchConfigurationInfo}
-	 * @throws CoreException if a problem is encountered
-	 * @throws ParserConfigurationException if the stream fails to parse
-	 * @throws IOException if there is a problem handling the given stream or writing the new info file
-	 * @throws SAXException if there is a SAX parse exception
-	 */
-	protected LaunchConfigurationInfo createInfoFromXML(InputStream stream) throws CoreException,
-																			 ParserConfigurationException,
-																			 IOException,
-																			 SAXException {
-		Element root = null;
-		DocumentBuilder parser = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-		parser.setErrorHandler(new DefaultHandler());
-		root = parser.parse(new InputSource(stream)).getDocumentElement();
-		LaunchConfigurationInfo info = new LaunchConfigurationInfo();
-		info.initializeFromXML(root);
-		return info;
-	}
-
 	/**
 	 * Finds and returns all launch configurations in the given
 	 * container (and sub-containers)
@@ -991,12 +1118,16 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @return the {@link ILaunchConfiguration} with the given name or <code>null</code>
 	 * @since 3.8
 	 */
-	public ILaunchConfiguration findLaunchConfiguration(String name) {
+	public synchronized ILaunchConfiguration findLaunchConfiguration(String name) {
 		if(name != null) {
-			ILaunchConfiguration[] configs = getLaunchConfigurations();
-			for (int i = 0; i < configs.length; i++) {
-				if(name.equals(configs[i].getName())) {
-					return configs[i];
+			getAllLaunchConfigurations();
+			List<ILaunchConfiguration> configs = fLookup.getConfigurationsNamed(name);
+			if (!configs.isEmpty()) {
+				return configs.get(0);
+			}
+			for (ILaunchConfiguration config : fLookup.getUnindexedConfigurations()) {
+				if(name.equals(config.getName())) {
+					return config;
 				}
 			}
 		}
@@ -1138,21 +1269,184 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 *
 	 * @return all launch configuration handles
 	 */
-	private synchronized List<ILaunchConfiguration> getAllLaunchConfigurations() {
+	private synchronized Set<ILaunchConfiguration> getAllLaunchConfigurations() {
 		if (fLaunchConfigurationIndex == null) {
 			try {
-				fLaunchConfigurationIndex = new ArrayList<ILaunchConfiguration>(20);
-				List<ILaunchConfiguration> configs = findLocalLaunchConfigurations();
-				verifyConfigurations(configs, fLaunchConfigurationIndex);
-				configs = findLaunchConfigurations(ResourcesPlugin.getWorkspace().getRoot());
-				verifyConfigurations(configs, fLaunchConfigurationIndex);
+				fLaunchConfigurationIndex = new LinkedHashSet<ILaunchConfiguration>(20);
+				if (!restoreLaunchConfigurationIndex()) {
+					List<ILaunchConfiguration> configs = findLocalLaunchConfigurations();
+					verifyConfigurations(configs, fLaunchConfigurationIndex);
+					configs = findLaunchConfigurations(ResourcesPlugin.getWorkspace().getRoot());
+					verifyConfigurations(configs, fLaunchConfigurationIndex);
+				}
 			} finally {
 				hookResourceChangeListener();
+				if (fSavedStateCollector != null) {
+					ResourcesPlugin.getWorkspace().removeResourceChangeListener(fSavedStateCollector);
+					fSavedStateCollector = null;
+				}
 			}
 		}
 		return fLaunchConfigurationIndex;
 	}
 
+	/**
+	 * Sets the state of the last workspace save the debug plug-in
+	 * participated in, used to restore the launch configuration index.
+	 * The changes since the save are collected in a job, as processing them
+	 * locks the workspace.
+	 *
+	 * @param state saved state or <code>null</code> if none
+	 * @since 3.10
+	 */
+	public synchronized void setSavedState(ISavedState state) {
+		fSavedState = state;
+		if (state != null && fLaunchConfigurationIndex == null && fSavedStateCollector == null && LaunchConfigurationIndex.isEnabled()) {
+			// changes made meanwhile are collected until the index is restored
+			fSavedStateCollector = new SavedStateCollector();
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(fSavedStateCollector, IResourceChangeEvent.POST_CHANGE);
+			new SavedStateJob(state, fSavedStateCollector).schedule();
+		}
+	}
+
+	/**
+	 * Restores the index of all launch configurations from the summary
+	 * persisted at the last workspace save, rather than scanning the
+	 * workspace. Configurations whose files are unchanged are added without
+	 * being read. Stale entries, new local configurations and shared
+	 * configurations changed since the save are verified as during a scan.
+	 *
+	 * @return whether the index was restored, <code>false</code> if there is
+	 *         no usable summary and the workspace has to be scanned
+	 * @since 3.10
+	 */
+	private synchronized boolean restoreLaunchConfigurationIndex() {
+		if (fSavedState == null || fSavedStateCollector == null || !LaunchConfigurationIndex.isEnabled()) {
+			return false;
+		}
+		List<IResource> changes = fSavedStateCollector.getChanges();
+		if (changes == null) {
+			// the saved state is still being processed, do not wait for the
+			// workspace while locked
+			return false;
+		}
+		List<LaunchConfigurationIndex.Entry> entries = LaunchConfigurationIndex.read(LaunchConfigurationIndex.getIndexFile(), fSavedState.getSaveNumber());
+		if (entries == null) {
+			return false;
+		}
+		Set<ILaunchConfiguration> locals = new HashSet<ILaunchConfiguration>(findLocalLaunchConfigurations());
+		List<ILaunchConfiguration> stale = new ArrayList<ILaunchConfiguration>();
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		for (LaunchConfigurationIndex.Entry entry : entries) {
+			ILaunchConfiguration config = null;
+			if (entry.isLocal()) {
+				config = new LaunchConfiguration(entry.name, null);
+				if (!locals.remove(config)) {
+					// deleted since the index was written
+					continue;
+				}
+			} else {
+				IFile file = root.getFile(Path.fromPortableString(entry.path));
+				if (!file.getProject().isOpen() || !file.exists()) {
+					continue;
+				}
+				config = new LaunchConfiguration(file);
+			}
+			if (entry.timestamp == LaunchConfigurationIndex.getTimestamp(config) && getLaunchConfigurationType(entry.typeId) != null) {
+				if (fLaunchConfigurationIndex.add(config)) {
+					fLookup.put(config, entry);
+				}
+			} else {
+				stale.add(config);
+			}
+		}
+		// local configurations created since the index was written
+		stale.addAll(locals);
+		verifyConfigurations(stale, fLaunchConfigurationIndex);
+		// shared configurations changed since the workspace was saved, changes
+		// made from now on are reported to the resource change listener
+		for (IResource resource : changes) {
+			if (resource instanceof IProject) {
+				if (((IProject) resource).isOpen()) {
+					verifyConfigurations(findLaunchConfigurations((IProject) resource), fLaunchConfigurationIndex);
+				}
+			} else {
+				ILaunchConfiguration config = new LaunchConfiguration((IFile) resource);
+				fLaunchConfigurationIndex.remove(config);
+				fLookup.remove(config);
+				fLaunchConfigurations.remove(config);
+				if (resource.exists()) {
+					verifyConfigurations(Collections.singletonList(config), fLaunchConfigurationIndex);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Records a summary of the given configuration for the persisted launch
+	 * configuration index and indexes the configuration by type, name,
+	 * project and mapped resource.
+	 *
+	 * @param config a valid launch configuration in the index
+	 * @since 3.10
+	 */
+	private synchronized void indexConfiguration(ILaunchConfiguration config) {
+		try {
+			fLookup.put(config, LaunchConfigurationIndex.createEntry(config));
+		} catch (CoreException e) {
+			// the configuration is summarized again when the index is saved,
+			// queries check it individually until then
+			fLookup.put(config, null);
+		}
+	}
+
+	/**
+	 * Persists a summary of all launch configurations for the given workspace
+	 * save, to be restored in the next session. A resource delta from this
+	 * save is requested so that shared configurations changed in the meantime
+	 * can be detected.
+	 *
+	 * @param context the save context
+	 * @since 3.10
+	 */
+	public void saveLaunchConfigurationIndex(ISaveContext context) {
+		if (context.getKind() != ISaveContext.FULL_SAVE && context.getKind() != ISaveContext.SNAPSHOT) {
+			return;
+		}
+		context.needDelta();
+		context.needSaveNumber();
+		File file = LaunchConfigurationIndex.getIndexFile();
+		synchronized (this) {
+			if (fLaunchConfigurationIndex == null || !LaunchConfigurationIndex.isEnabled()) {
+				// an index that is not maintained in this session becomes stale
+				file.delete();
+				return;
+			}
+			List<LaunchConfigurationIndex.Entry> entries = new ArrayList<LaunchConfigurationIndex.Entry>(fLaunchConfigurationIndex.size());
+			for (ILaunchConfiguration config : fLaunchConfigurationIndex) {
+				LaunchConfigurationIndex.Entry entry = fLookup.getEntry(config);
+				if (entry == null) {
+					try {
+						entry = LaunchConfigurationIndex.createEntry(config);
+						fLookup.put(config, entry);
+					} catch (CoreException e) {
+						// an incomplete index would hide the configuration
+						file.delete();
+						return;
+					}
+				}
+				entries.add(entry);
+			}
+			try {
+				LaunchConfigurationIndex.write(file, context.getSaveNumber(), entries);
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+				file.delete();
+			}
+		}
+	}
+
 	/**
 	 * Return a sorted array of the names of all <code>ILaunchConfiguration</code>s in
 	 * the workspace.  These are cached, and cache is cleared when a new config is added,
@@ -1369,15 +1663,11 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 				BufferedInputStream stream = null;
 				try {
 					stream = new BufferedInputStream(store.openInputStream(EFS.NONE, null));
-					info = createInfoFromXML(stream);
-					synchronized (this) {
-						fLaunchConfigurations.put(config, info);
-					}
+					info = LaunchConfigurationCodec.read(stream);
+					fLaunchConfigurations.put(config, info);
 				} catch (FileNotFoundException e) {
 					throwException(config, e);
-				} catch (SAXException e) {
-					throwException(config, e);
-				} catch (ParserConfigurationException e) {
+				} catch (XMLStreamException e) {
 					throwException(config, e);
 				} catch (IOException e) {
 					throwException(config, e);
@@ -1426,7 +1716,7 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 */
 	@Override
 	public synchronized ILaunchConfiguration[] getLaunchConfigurations() {
-		List<ILaunchConfiguration> allConfigs = getAllLaunchConfigurations();
+		Set<ILaunchConfiguration> allConfigs = getAllLaunchConfigurations();
 		return allConfigs.toArray(new ILaunchConfiguration[allConfigs.size()]);
 	}
 
@@ -1435,8 +1725,9 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 */
 	@Override
 	public synchronized ILaunchConfiguration[] getLaunchConfigurations(ILaunchConfigurationType type) throws CoreException {
-		List<ILaunchConfiguration> configs = new ArrayList<ILaunchConfiguration>();
-		for (ILaunchConfiguration config : getAllLaunchConfigurations()) {
+		getAllLaunchConfigurations();
+		List<ILaunchConfiguration> configs = fLookup.getConfigurationsOfType(type.getIdentifier());
+		for (ILaunchConfiguration config : fLookup.getUnindexedConfigurations()) {
 			if (config.getType().equals(type)) {
 				configs.add(config);
 			}
@@ -1453,8 +1744,9 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 *  in the given project
 	 */
 	protected synchronized List<ILaunchConfiguration> getLaunchConfigurations(IProject project) {
-		List<ILaunchConfiguration> configs = new ArrayList<ILaunchConfiguration>();
-		for (ILaunchConfiguration config : getAllLaunchConfigurations()) {
+		getAllLaunchConfigurations();
+		List<ILaunchConfiguration> configs = fLookup.getConfigurationsIn(project);
+		for (ILaunchConfiguration config : fLookup.getUnindexedConfigurations()) {
 			IFile file = config.getFile();
 			if (file != null && file.getProject().equals(project)) {
 				configs.add(config);
@@ -1738,8 +2030,14 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @since 3.2
 	 */
 	public ILaunchConfiguration[] getMappedConfigurations(IResource resource) {
-		List<ILaunchConfiguration> configurations = new ArrayList<ILaunchConfiguration>();
-		for (ILaunchConfiguration config : getAllLaunchConfigurations()) {
+		List<ILaunchConfiguration> configurations = null;
+		List<ILaunchConfiguration> unindexed = null;
+		synchronized (this) {
+			getAllLaunchConfigurations();
+			configurations = fLookup.getConfigurationsMappedTo(resource);
+			unindexed = fLookup.getUnindexedConfigurations();
+		}
+		for (ILaunchConfiguration config : unindexed) {
 			try {
 				IResource[] resources = config.getMappedResources();
 				if(resources != null) {
@@ -1923,14 +2221,20 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	/**
 	 * Initializes the listing of <code>LaunchConfigurationType</code>s.
 	 */
-	private synchronized void initializeLaunchConfigurationTypes() {
-		if (fLaunchConfigurationTypes == null) {
-			hookResourceChangeListener();
-			IExtensionPoint extensionPoint= Platform.getExtensionRegistry().getExtensionPoint(DebugPlugin.getUniqueIdentifier(), DebugPlugin.EXTENSION_POINT_LAUNCH_CONFIGURATION_TYPES);
-			IConfigurationElement[] infos = extensionPoint.getConfigurationElements();
-			fLaunchConfigurationTypes = new ArrayList<ILaunchConfigurationType>(infos.length);
-			for (int i= 0; i < infos.length; i++) {
-				fLaunchConfigurationTypes.add(new LaunchConfigurationType(infos[i]));
+	private void initializeLaunchConfigurationTypes() {
+		if (fLaunchConfigurationTypes != null) {
+			return;
+		}
+		synchronized (this) {
+			if (fLaunchConfigurationTypes == null) {
+				hookResourceChangeListener();
+				IExtensionPoint extensionPoint= Platform.getExtensionRegistry().getExtensionPoint(DebugPlugin.getUniqueIdentifier(), DebugPlugin.EXTENSION_POINT_LAUNCH_CONFIGURATION_TYPES);
+				IConfigurationElement[] infos = extensionPoint.getConfigurationElements();
+				List<ILaunchConfigurationType> types = new ArrayList<ILaunchConfigurationType>(infos.length);
+				for (int i= 0; i < infos.length; i++) {
+					types.add(new LaunchConfigurationType(infos[i]));
+				}
+				fLaunchConfigurationTypes = types;
 			}
 		}
 	}
@@ -2125,11 +2429,8 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		if (isValid(config)) {
 			boolean added = false;
 			synchronized (this) {
-				List<ILaunchConfiguration> allConfigs = getAllLaunchConfigurations();
-				if (!allConfigs.contains(config)) {
-					allConfigs.add(config);
-					added = true;
-				}
+				added = getAllLaunchConfigurations().add(config);
+				indexConfiguration(config);
 			}
 			if (added) {
 				getConfigurationNotifier().notify(config, ADDED);
@@ -2150,9 +2451,18 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @param config the launch configuration that was changed
 	 */
 	protected void launchConfigurationChanged(ILaunchConfiguration config) {
-		synchronized(this) {
-			fLaunchConfigurations.remove(config);
-		}
+		fLaunchConfigurations.remove(config);
+		configurationChanged(config);
+	}
+
+	/**
+	 * Notifies the launch manager that a launch configuration has been
+	 * changed, once the cached info of the configuration has been discarded
+	 * or read again.
+	 *
+	 * @param config the launch configuration that was changed
+	 */
+	private void configurationChanged(ILaunchConfiguration config) {
 		clearConfigNameCache();
 		if (isValid(config)) {
 			// in case the config has been refreshed and it was removed from the
@@ -2176,9 +2486,10 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	protected void launchConfigurationDeleted(ILaunchConfiguration config) {
 		boolean removed = false;
 		synchronized (this) {
-			Object key = fLaunchConfigurations.remove(config);
-			removed = key != null;
-			getAllLaunchConfigurations().remove(config);
+			// the info may have been evicted from the cache, or never read
+			removed = fLaunchConfigurations.remove(config);
+			removed |= getAllLaunchConfigurations().remove(config);
+			fLookup.remove(config);
 		}
 		if (removed) {
 			getConfigurationNotifier().notify(config, REMOVED);
@@ -2361,6 +2672,11 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * Clears launch configuration types.
 	 */
 	public void shutdown() {
+		if (DebugOptions.DEBUG_LAUNCH_CONFIGURATIONS) {
+			DebugOptions.trace(fLaunchConfigurations.getSummary());
+		}
+		fLaunchConfigurations.dispose();
+		LaunchConfigurationLoader.shutdown();
 		fListeners = new ListenerList();
         fLaunchesListeners = new ListenerList();
         fLaunchConfigurationListeners = new ListenerList();
@@ -2382,6 +2698,14 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 				} catch (DebugException e) {
 					DebugPlugin.log(e);
 				}
+				// release the contents of the streams spilled to files
+				IProcess[] processes = launch.getProcesses();
+				for (int j = 0; j < processes.length; j++) {
+					IStreamsProxy proxy = processes[j].getStreamsProxy();
+					if (proxy instanceof StreamsProxy) {
+						((StreamsProxy) proxy).dispose();
+					}
+				}
 			}
 		}
 
@@ -2482,13 +2806,24 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * Exceptions are logged for invalid configurations.
 	 *
 	 * @param verify the list of configurations to verify
-	 * @param valid the list to place valid configurations in
-	 */
-	protected void verifyConfigurations(List<ILaunchConfiguration> verify, List<ILaunchConfiguration> valid) {
+	 * @param valid the collection to place valid configurations in
+	 */
+	protected void verifyConfigurations(List<ILaunchConfiguration> verify, Collection<ILaunchConfiguration> valid) {
+		// read the files concurrently, add the valid configurations in order
+		boolean[] validity = null;
+		if (LaunchConfigurationLoader.isEnabled(verify.size())) {
+			// the tasks look up types and must not wait for the lock this
+			// thread may hold to initialize them
+			initializeLaunchConfigurationTypes();
+			validity = LaunchConfigurationLoader.validate(this, verify, valid);
+		}
+		int i = 0;
 		for (ILaunchConfiguration config : verify) {
-			if (!valid.contains(config) && isValid(config)) {
+			if (!valid.contains(config) && (validity == null ? isValid(config) : validity[i])) {
 				valid.add(config);
+				indexConfiguration(config);
 			}
+			i++;
 		}
 	}
 
@@ -2570,42 +2905,92 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 				sharedConfigs.put(buf.toString(), config);
 			}
 		}
-		List<Status> stati = null;
-		SubMonitor lmonitor = SubMonitor.convert(monitor, DebugCoreMessages.LaunchManager_29, files.length);
+		File[] targets = new File[files.length];
+		boolean[] added = new boolean[files.length];
+		Set<String> names = new HashSet<String>();
+		Set<String> folded = new HashSet<String>();
+		boolean duplicates = false;
 		for (int i = 0; i < files.length; i++) {
-			if (lmonitor.isCanceled()) {
-				break;
-			}
-			File source = files[i];
-			lmonitor.subTask(MessageFormat.format(DebugCoreMessages.LaunchManager_28, new Object[] { source.getName() }));
-			IPath location = new Path(LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH.toOSString()).append(source.getName());
-			File target = location.toFile();
+			IPath location = new Path(LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH.toOSString()).append(files[i].getName());
+			targets[i] = location.toFile();
 			IPath locationdir = location.removeLastSegments(1);
 			if(!locationdir.toFile().exists()) {
 				locationdir.toFile().mkdirs();
 			}
-			boolean added = !target.exists();
-			try {
-				copyFile(source, target);
-				ILaunchConfiguration configuration = new LaunchConfiguration(LaunchConfiguration.getSimpleName(source.getName()), null);
-				ILaunchConfiguration shared = sharedConfigs.get(target.getName());
-				if (shared != null) {
-					setMovedFromTo(shared, configuration);
-					shared.delete();
-					launchConfigurationChanged(configuration);
-				} else if (added) {
-					launchConfigurationAdded(configuration);
+			// a later file with the same name overwrites an earlier one
+			added[i] = names.add(targets[i].getName()) && !targets[i].exists();
+			duplicates |= !folded.add(targets[i].getName().toLowerCase());
+		}
+		// copy and read the files concurrently, unless the same file is
+		// written more than once, and notify listeners in order
+		final AtomicBoolean canceled = new AtomicBoolean();
+		List<FutureTask<LaunchConfiguration>> tasks = new ArrayList<FutureTask<LaunchConfiguration>>(files.length);
+		for (int i = 0; i < files.length; i++) {
+			final File source = files[i];
+			final File target = targets[i];
+			tasks.add(new FutureTask<LaunchConfiguration>(new Callable<LaunchConfiguration>() {
+				@Override
+				public LaunchConfiguration call() throws IOException {
+					if (canceled.get()) {
+						return null;
+					}
+					copyFile(source, target);
+					LaunchConfiguration configuration = new LaunchConfiguration(LaunchConfiguration.getSimpleName(source.getName()), null);
+					fLaunchConfigurations.remove(configuration);
+					try {
+						getInfo(configuration);
+					} catch (CoreException e) {
+						// reported when the configuration is verified
+					}
+					return configuration;
+				}
+			}));
+		}
+		if (!duplicates && LaunchConfigurationLoader.isEnabled(files.length)) {
+			initializeLaunchConfigurationTypes();
+			LaunchConfigurationLoader.execute(tasks);
+		}
+		List<Status> stati = null;
+		SubMonitor lmonitor = SubMonitor.convert(monitor, DebugCoreMessages.LaunchManager_29, files.length);
+		try {
+			for (int i = 0; i < files.length; i++) {
+				File source = files[i];
+				if (lmonitor.isCanceled()) {
+					// files already copied are still reported
+					canceled.set(true);
 				} else {
-					launchConfigurationChanged(configuration);
+					lmonitor.subTask(MessageFormat.format(DebugCoreMessages.LaunchManager_28, new Object[] { source.getName() }));
 				}
-			} catch (IOException e) {
-				if (stati == null) {
-					stati = new ArrayList<Status>();
+				try {
+					LaunchConfiguration configuration = ParallelExecutor.get(tasks.get(i));
+					if (configuration == null) {
+						continue;
+					}
+					ILaunchConfiguration shared = sharedConfigs.get(targets[i].getName());
+					if (shared != null) {
+						setMovedFromTo(shared, configuration);
+						shared.delete();
+						configurationChanged(configuration);
+					} else if (added[i]) {
+						launchConfigurationAdded(configuration);
+					} else {
+						configurationChanged(configuration);
+					}
+				} catch (ExecutionException e) {
+					if (!(e.getCause() instanceof IOException)) {
+						ParallelExecutor.rethrow(e);
+					}
+					if (stati == null) {
+						stati = new ArrayList<Status>();
+					}
+					stati.add(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR,
+ MessageFormat.format(DebugCoreMessages.LaunchManager_27, new Object[] { source.getPath() }), e.getCause()));
 				}
-				stati.add(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR,
- MessageFormat.format(DebugCoreMessages.LaunchManager_27, new Object[] { source.getPath() }), e));
+				lmonitor.worked(1);
 			}
-			lmonitor.worked(1);
+		} finally {
+			canceled.set(true);
+			LaunchConfigurationLoader.cancel(tasks);
 		}
 		if (!lmonitor.isCanceled()) {
 			lmonitor.done();
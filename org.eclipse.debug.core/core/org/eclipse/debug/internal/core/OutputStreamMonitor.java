@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,16 @@ package org.eclipse.debug.internal.core;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.ListenerList;
@@ -48,7 +58,7 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 	/**
 	 * The local copy of the stream contents
 	 */
-	private StringBuffer fContents;
+	private StreamContents fContents;
 
 	/**
 	 * The thread which reads from the stream
@@ -69,7 +79,53 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 
     private long lastSleep;
 
-	private String fEncoding;
+	/**
+	 * Decoder for the stream encoding. Decoding is stateful so that multi-byte
+	 * sequences split across reads are decoded correctly.
+	 */
+	private CharsetDecoder fDecoder;
+
+	/**
+	 * Bytes waiting to be decoded, including the start of any incomplete
+	 * multi-byte sequence left over from the previous read
+	 */
+	private ByteBuffer fDecodeInput;
+
+	/**
+	 * Characters decoded from the most recent read
+	 */
+	private CharBuffer fDecodeOutput;
+
+	/**
+	 * Default maximum time in milliseconds, and maximum number of characters,
+	 * that output is held back to coalesce notifications
+	 */
+	public static final long DEFAULT_NOTIFY_INTERVAL = 16;
+	public static final int DEFAULT_NOTIFY_LIMIT = 64 * 1024;
+
+	/**
+	 * Decoded characters not yet appended to the contents or sent to
+	 * listeners. While more input is immediately available, consecutive
+	 * reads are coalesced into a single notification until the notification
+	 * interval elapses or the size limit is reached.
+	 */
+	private char[] fPending = new char[BUFFER_SIZE];
+	private int fPendingLength = 0;
+	private long fPendingSince;
+	private long fNotifyInterval = DEFAULT_NOTIFY_INTERVAL;
+	private int fNotifyLimit = DEFAULT_NOTIFY_LIMIT;
+
+	/**
+	 * Signals that the shared stream pump has finished reading the stream,
+	 * or <code>null</code> if the stream is read by a dedicated thread
+	 */
+	private CountDownLatch fPumpDone;
+
+	/**
+	 * Maximum time in milliseconds {@link #close()} waits for the end of a
+	 * stream read with the shared stream pump
+	 */
+	private static final long PUMP_CLOSE_TIMEOUT = 5000;
 
 	/**
 	 * Creates an output stream monitor on the
@@ -80,8 +136,32 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 	 */
 	public OutputStreamMonitor(InputStream stream, String encoding) {
         fStream = new BufferedInputStream(stream, 8192);
-        fEncoding = encoding;
-		fContents= new StringBuffer();
+        fDecoder = getCharset(encoding).newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		fDecodeInput = ByteBuffer.allocate(BUFFER_SIZE);
+		fDecodeOutput = CharBuffer.allocate(BUFFER_SIZE);
+		fContents= new StreamContents();
+	}
+
+	/**
+	 * Returns the character set for the given encoding, or the platform default
+	 * if the encoding is <code>null</code> or not supported.
+	 *
+	 * @param encoding encoding name or <code>null</code>
+	 * @return character set to decode the stream with
+	 */
+	private static Charset getCharset(String encoding) {
+		if (encoding != null) {
+			try {
+				return Charset.forName(encoding);
+			} catch (IllegalCharsetNameException e) {
+				DebugPlugin.log(e);
+			} catch (UnsupportedCharsetException e) {
+				DebugPlugin.log(e);
+			}
+		}
+		return Charset.defaultCharset();
 	}
 
 	/* (non-Javadoc)
@@ -96,9 +176,19 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 	 * Causes the monitor to close all
 	 * communications between it and the
 	 * underlying stream by waiting for the thread to terminate.
+	 * The contents remain available until the monitor is disposed.
 	 */
 	protected void close() {
-		if (fThread != null) {
+		if (fPumpDone != null) {
+			try {
+				// the stream stays open while processes that inherited it run
+				if (!fPumpDone.await(PUMP_CLOSE_TIMEOUT, TimeUnit.MILLISECONDS) && DebugOptions.DEBUG_STREAMS) {
+					DebugOptions.trace("Stream still open after process exit"); //$NON-NLS-1$
+				}
+			} catch (InterruptedException ie) {
+			}
+			fListeners = new ListenerList();
+		} else if (fThread != null) {
 			Thread thread= fThread;
 			fThread= null;
 			try {
@@ -109,6 +199,14 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 		}
 	}
 
+	/**
+	 * Releases the temporary file holding spilled contents, if any. Contents
+	 * that were spilled are discarded, contents in memory are retained.
+	 */
+	protected synchronized void dispose() {
+		fContents.dispose();
+	}
+
 	/**
 	 * Notifies the listeners that text has
 	 * been appended to the stream.
@@ -123,7 +221,64 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 	 */
 	@Override
 	public synchronized String getContents() {
-		return fContents.toString();
+		return fContents.getContents();
+	}
+
+	/**
+	 * Returns a range of the buffered contents without copying the rest of
+	 * the contents.
+	 *
+	 * @param offset offset of the first character, relative to the start of
+	 *            the buffered contents
+	 * @param length number of characters
+	 * @return the requested range of the contents, shortened if it extends
+	 *         beyond the end of the contents
+	 */
+	public synchronized String getContents(long offset, int length) {
+		return fContents.getContents(offset, length);
+	}
+
+	/**
+	 * @return the number of characters currently buffered
+	 */
+	public synchronized long getContentsLength() {
+		return fContents.getLength();
+	}
+
+	/**
+	 * @return the number of characters removed from the head of the buffered
+	 *         contents because the contents limit was exceeded
+	 */
+	public synchronized long getTruncatedLength() {
+		return fContents.getTruncatedLength();
+	}
+
+	/**
+	 * Bounds the buffered contents. Once more than <code>limit</code>
+	 * characters are buffered the oldest characters are discarded, or spilled
+	 * to a temporary file if <code>spill</code> is <code>true</code>. A limit
+	 * of 0 buffers all contents in memory.
+	 *
+	 * @param limit maximum number of characters buffered in memory, or 0
+	 * @param spill whether to spill characters beyond the limit to a file
+	 */
+	public synchronized void setContentsLimit(int limit, boolean spill) {
+		fContents.setLimit(limit, spill);
+	}
+
+	/**
+	 * Sets how long, and how much, output may be held back to coalesce
+	 * notifications to listeners. Output is only held back while more input
+	 * is immediately available from the stream. Must be called before
+	 * monitoring starts.
+	 *
+	 * @param interval maximum time in milliseconds output is held back, 0 to
+	 *            notify listeners of every read
+	 * @param limit maximum number of characters held back
+	 */
+	public synchronized void setNotificationWindow(long interval, int limit) {
+		fNotifyInterval = Math.max(0, interval);
+		fNotifyLimit = Math.max(1, limit);
 	}
 
 	/**
@@ -146,23 +301,14 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 				}
 				read= fStream.read(bytes);
 				if (read > 0) {
-					String text;
-					if (fEncoding != null) {
-						text = new String(bytes, 0, read, fEncoding);
-					} else {
-						text = new String(bytes, 0, read);
-					}
-					synchronized (this) {
-						if (isBuffered()) {
-							fContents.append(text);
-						}
-						fireStreamAppended(text);
-					}
+					appendBytes(bytes, read);
+					notifyPending(fStream.available() > 0);
 				}
 			} catch (IOException ioe) {
 				if (!fKilled) {
 					DebugPlugin.log(ioe);
 				}
+				flushPending();
 				return;
 			} catch (NullPointerException e) {
 				// killing the stream monitor while reading can cause an NPE
@@ -170,6 +316,7 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 				if (!fKilled && fThread != null) {
 					DebugPlugin.log(e);
 				}
+				flushPending();
 				return;
 			}
 
@@ -182,6 +329,13 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
                 }
             }
 		}
+		if (!fKilled) {
+			flushDecoder();
+		}
+		flushPending();
+		if (DebugOptions.DEBUG_STREAMS) {
+			DebugOptions.trace(StreamStatistics.getSummary());
+		}
 		try {
 			fStream.close();
 		} catch (IOException e) {
@@ -189,6 +343,106 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 		}
 	}
 
+	/**
+	 * Decodes bytes read from the stream, records them in the contents if
+	 * buffered and notifies listeners. Bytes at the end of the buffer that do
+	 * not form a complete character are retained until the next read.
+	 *
+	 * @param bytes buffer containing the bytes read
+	 * @param length number of bytes read
+	 */
+	private void appendBytes(byte[] bytes, int length) {
+		StreamStatistics.read(length);
+		int offset = 0;
+		while (offset < length) {
+			int count = Math.min(fDecodeInput.remaining(), length - offset);
+			fDecodeInput.put(bytes, offset, count);
+			offset += count;
+			fDecodeInput.flip();
+			while (fDecoder.decode(fDecodeInput, fDecodeOutput, false).isOverflow()) {
+				appendDecoded();
+			}
+			fDecodeInput.compact();
+		}
+		appendDecoded();
+	}
+
+	/**
+	 * Decodes any bytes remaining at the end of the stream.
+	 */
+	private void flushDecoder() {
+		fDecodeInput.flip();
+		CoderResult result = fDecoder.decode(fDecodeInput, fDecodeOutput, true);
+		while (result.isOverflow()) {
+			appendDecoded();
+			result = fDecoder.decode(fDecodeInput, fDecodeOutput, true);
+		}
+		while (fDecoder.flush(fDecodeOutput).isOverflow()) {
+			appendDecoded();
+		}
+		fDecodeInput.clear();
+		appendDecoded();
+	}
+
+	/**
+	 * Moves the characters in the decode buffer to the pending characters,
+	 * notifying listeners if the size limit has been reached.
+	 */
+	private void appendDecoded() {
+		int length = fDecodeOutput.position();
+		if (length == 0) {
+			return;
+		}
+		if (fPendingLength == 0) {
+			fPendingSince = System.currentTimeMillis();
+		}
+		if (fPendingLength + length > fPending.length) {
+			char[] pending = new char[Math.max(fPendingLength + length, fPending.length * 2)];
+			System.arraycopy(fPending, 0, pending, 0, fPendingLength);
+			fPending = pending;
+		}
+		System.arraycopy(fDecodeOutput.array(), 0, fPending, fPendingLength, length);
+		fPendingLength += length;
+		fDecodeOutput.clear();
+		if (fPendingLength >= fNotifyLimit) {
+			flushPending();
+		}
+	}
+
+	/**
+	 * Notifies listeners of pending characters unless more input is
+	 * available and the notification interval has not yet elapsed.
+	 *
+	 * @param moreAvailable whether more input can be read without blocking
+	 */
+	private void notifyPending(boolean moreAvailable) {
+		if (!moreAvailable || System.currentTimeMillis() - fPendingSince >= fNotifyInterval) {
+			flushPending();
+		}
+	}
+
+	/**
+	 * Appends the pending characters to the contents and notifies listeners.
+	 * Both happen while holding this monitor's lock, so clients that read the
+	 * contents and then add a listener neither miss nor duplicate output. A
+	 * string is only created when there are listeners to notify.
+	 */
+	private void flushPending() {
+		if (fPendingLength == 0) {
+			return;
+		}
+		StreamStatistics.notified(fPendingLength);
+		synchronized (this) {
+			if (isBuffered()) {
+				fContents.append(fPending, 0, fPendingLength);
+			}
+			if (!fListeners.isEmpty()) {
+				fireStreamAppended(new String(fPending, 0, fPendingLength));
+			}
+		}
+		fPendingLength = 0;
+	}
+
 	protected void kill() {
 		fKilled= true;
 	}
@@ -218,6 +472,21 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 		}
 	}
 
+	/**
+	 * Starts reading from the stream using the given shared stream pump
+	 * rather than a dedicated thread.
+	 *
+	 * @param pump the pump to read the stream with
+	 * @param process the process the stream belongs to, used to detect the
+	 *            end of the stream without blocking
+	 */
+	protected void startMonitoring(StreamPump pump, Process process) {
+		if (fThread == null && fPumpDone == null) {
+			fPumpDone = new CountDownLatch(1);
+			pump.register(new PumpSource(process));
+		}
+	}
+
 	/**
 	 * @see org.eclipse.debug.core.model.IFlushableStreamMonitor#setBuffered(boolean)
 	 */
@@ -231,7 +500,7 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 	 */
 	@Override
 	public synchronized void flushContents() {
-		fContents.setLength(0);
+		fContents.clear();
 	}
 
 	/**
@@ -246,6 +515,110 @@ public class OutputStreamMonitor implements IFlushableStreamMonitor {
 		return new ContentNotifier();
 	}
 
+	/**
+	 * Reads whatever is available from the stream each time it is serviced
+	 * by the stream pump. Once the process has exited and its buffered output
+	 * has been read, the stream is handed to a dedicated thread that reads it
+	 * to its end, since processes started by the process may still write to
+	 * it.
+	 */
+	class PumpSource implements StreamPump.IPumpable {
+
+		private Process fProcess;
+		private byte[] fBytes = new byte[BUFFER_SIZE];
+
+		/**
+		 * Whether reading the stream failed, in which case it is not read to
+		 * its end
+		 */
+		private boolean fFailed = false;
+
+		PumpSource(Process process) {
+			fProcess = process;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.internal.core.StreamPump.IPumpable#pump()
+		 */
+		@Override
+		public int pump() {
+			if (fKilled) {
+				return StreamPump.DONE;
+			}
+			// check for exit before reading, so all output is available when exited
+			boolean exited = hasExited();
+			try {
+				int available = fStream.available();
+				if (available <= 0) {
+					flushPending();
+					return exited ? StreamPump.DONE : StreamPump.IDLE;
+				}
+				int read = fStream.read(fBytes, 0, Math.min(available, fBytes.length));
+				if (read < 0) {
+					return StreamPump.DONE;
+				}
+				if (read > 0) {
+					appendBytes(fBytes, read);
+					notifyPending(fStream.available() > 0);
+				}
+				return StreamPump.PROGRESS;
+			} catch (IOException ioe) {
+				if (!fKilled && !exited) {
+					DebugPlugin.log(ioe);
+				}
+				fFailed = true;
+				return StreamPump.DONE;
+			}
+		}
+
+		private boolean hasExited() {
+			try {
+				fProcess.exitValue();
+				return true;
+			} catch (IllegalThreadStateException e) {
+				return false;
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.internal.core.StreamPump.IPumpable#done()
+		 */
+		@Override
+		public void done() {
+			if (!fKilled && !fFailed) {
+				// read until the end of the stream without blocking the pump
+				Thread thread = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							read();
+						} finally {
+							fPumpDone.countDown();
+						}
+					}
+				}, DebugCoreMessages.OutputStreamMonitor_label);
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				thread.start();
+				return;
+			}
+			try {
+				if (!fKilled) {
+					flushDecoder();
+				}
+				flushPending();
+				if (DebugOptions.DEBUG_STREAMS) {
+					DebugOptions.trace(StreamStatistics.getSummary());
+				}
+				fStream.close();
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+			} finally {
+				fPumpDone.countDown();
+			}
+		}
+	}
+
 	class ContentNotifier implements ISafeRunnable {
 
 		private IStreamListener fListener;
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs batches of independent tasks on a bounded pool of daemon threads,
+ * created on demand. The calling thread runs the first task of a batch, and
+ * any other task that has not been picked up by the pool by the time its
+ * result is needed, so callers never wait for a pool thread to become
+ * available and nested batches can not exhaust the pool.
+ *
+ * @since 3.10
+ */
+public class ParallelExecutor {
+
+	/**
+	 * Name of the pool threads
+	 */
+	private final String fName;
+
+	/**
+	 * Pool, created on demand
+	 */
+	private ThreadPoolExecutor fExecutor;
+
+	/**
+	 * Constructs an executor whose threads have the given name.
+	 *
+	 * @param name name of the pool threads
+	 */
+	public ParallelExecutor(String name) {
+		fName = name;
+	}
+
+	/**
+	 * Stops the pool, if it has been created. Batches executed afterwards
+	 * start a new pool.
+	 */
+	public synchronized void shutdown() {
+		if (fExecutor != null) {
+			fExecutor.shutdown();
+			fExecutor = null;
+		}
+	}
+
+	private synchronized ThreadPoolExecutor getExecutor() {
+		if (fExecutor == null) {
+			int threads = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+			fExecutor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+				private final AtomicInteger fCount = new AtomicInteger();
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, fName + " " + fCount.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			fExecutor.allowCoreThreadTimeOut(true);
+		}
+		return fExecutor;
+	}
+
+	/**
+	 * Hands the given tasks to the pool. The first task is left to the
+	 * calling thread.
+	 *
+	 * @param tasks tasks to run
+	 */
+	public <T> void execute(List<FutureTask<T>> tasks) {
+		ThreadPoolExecutor executor = getExecutor();
+		for (int i = 1; i < tasks.size(); i++) {
+			try {
+				executor.execute(tasks.get(i));
+			} catch (RejectedExecutionException e) {
+				// the pool has been shut down, run by the calling thread
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Cancels the given tasks that have not started.
+	 *
+	 * @param tasks tasks to cancel
+	 */
+	public <T> void cancel(List<FutureTask<T>> tasks) {
+		ThreadPoolExecutor executor = null;
+		synchronized (this) {
+			executor = fExecutor;
+		}
+		for (int i = 0; i < tasks.size(); i++) {
+			FutureTask<T> task = tasks.get(i);
+			if (task.cancel(false) && executor != null) {
+				executor.remove(task);
+			}
+		}
+	}
+
+	/**
+	 * Returns the result of the given task, running it in the calling thread
+	 * if the pool has not started it. Waits for the task to complete even if
+	 * interrupted, as if it had been run by the calling thread; the interrupt
+	 * status is restored.
+	 *
+	 * @param task the task
+	 * @return the result of the task
+	 * @throws ExecutionException if the task failed
+	 */
+	public static <T> T get(FutureTask<T> task) throws ExecutionException {
+		task.run();
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return task.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Rethrows the unchecked cause of the given exception.
+	 *
+	 * @param e exception thrown by a task
+	 */
+	public static void rethrow(ExecutionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		} else if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		throw new IllegalStateException(cause);
+	}
+}
@@ -0,0 +1,420 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.eclipse.debug.core.DebugPlugin;
+
+/**
+ * Contents of a stream stored in fixed size chunks held in a ring. When a limit
+ * is set, the oldest characters are removed from the head of the contents once
+ * the limit is exceeded. Removed characters are discarded, or optionally
+ * spilled to a temporary file and remain readable from that file.
+ * <p>
+ * Offsets are relative to the first character still retained. This class is
+ * not thread safe, callers are responsible for synchronization.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class StreamContents {
+
+	/**
+	 * Number of characters in each chunk
+	 */
+	static final int CHUNK_SIZE = 8192;
+
+	/**
+	 * Maximum number of characters returned at once, the largest array size
+	 * virtual machines reliably allocate
+	 */
+	static final int MAX_CONTENTS_LENGTH = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Ring of chunks. The chunk at <code>fHead</code> holds the oldest
+	 * characters in memory, the last chunk is only filled up to
+	 * <code>fTailLength</code>.
+	 */
+	private char[][] fRing = new char[4][];
+	private int fHead = 0;
+	private int fCount = 0;
+
+	/**
+	 * Index of the first retained character in the head chunk
+	 */
+	private int fHeadStart = 0;
+
+	/**
+	 * Number of characters used in the last chunk
+	 */
+	private int fTailLength = 0;
+
+	/**
+	 * A chunk removed from the ring kept for reuse
+	 */
+	private char[] fSpare;
+
+	/**
+	 * Maximum number of characters kept in memory, or 0 if unbounded
+	 */
+	private int fLimit = 0;
+
+	/**
+	 * Number of characters removed from the head and discarded
+	 */
+	private long fTruncated = 0;
+
+	/**
+	 * File holding characters removed from the head, or <code>null</code> if
+	 * removed characters are discarded
+	 */
+	private SpillFile fSpill;
+
+	/**
+	 * Whether removed characters should be spilled to a file
+	 */
+	private boolean fSpillEnabled = false;
+
+	/**
+	 * Sets the maximum number of characters kept in memory and whether
+	 * characters beyond the limit are spilled to a temporary file rather than
+	 * discarded. A limit of 0 keeps all contents in memory.
+	 *
+	 * @param limit maximum number of characters kept in memory, or 0
+	 * @param spill whether to spill characters beyond the limit to a file
+	 */
+	public void setLimit(int limit, boolean spill) {
+		fLimit = Math.max(0, limit);
+		if (spill && fLimit > 0) {
+			fSpillEnabled = true;
+		} else {
+			disableSpill();
+		}
+		truncate();
+	}
+
+	/**
+	 * @return the maximum number of characters kept in memory, or 0 if
+	 *         unbounded
+	 */
+	public int getLimit() {
+		return fLimit;
+	}
+
+	/**
+	 * Appends characters to the contents.
+	 *
+	 * @param chars characters to append
+	 * @param offset offset of the first character to append
+	 * @param length number of characters to append
+	 */
+	public void append(char[] chars, int offset, int length) {
+		while (length > 0) {
+			if (fCount == 0 || fTailLength == CHUNK_SIZE) {
+				addChunk();
+			}
+			int count = Math.min(length, CHUNK_SIZE - fTailLength);
+			System.arraycopy(chars, offset, chunk(fCount - 1), fTailLength, count);
+			fTailLength += count;
+			offset += count;
+			length -= count;
+		}
+		truncate();
+	}
+
+	/**
+	 * Appends a string to the contents.
+	 *
+	 * @param text text to append
+	 */
+	public void append(String text) {
+		append(text.toCharArray(), 0, text.length());
+	}
+
+	/**
+	 * @return the number of characters retained, in memory and spilled to a
+	 *         file
+	 */
+	public long getLength() {
+		return getSpilledLength() + getMemoryLength();
+	}
+
+	/**
+	 * @return the number of characters removed from the head of the contents
+	 *         and discarded
+	 */
+	public long getTruncatedLength() {
+		return fTruncated;
+	}
+
+	/**
+	 * Returns all retained contents. When more than
+	 * {@link #MAX_CONTENTS_LENGTH} characters are retained, only the most
+	 * recent ones are returned.
+	 *
+	 * @return retained contents
+	 */
+	public String getContents() {
+		long length = getLength();
+		if (length > MAX_CONTENTS_LENGTH) {
+			return getContents(length - MAX_CONTENTS_LENGTH, MAX_CONTENTS_LENGTH);
+		}
+		return getContents(0, (int) length);
+	}
+
+	/**
+	 * Returns a range of the retained contents.
+	 *
+	 * @param offset offset of the first character relative to the start of the
+	 *            retained contents
+	 * @param length number of characters
+	 * @return the requested range, shortened if it extends beyond the end of
+	 *         the contents or is longer than {@link #MAX_CONTENTS_LENGTH}
+	 */
+	public String getContents(long offset, int length) {
+		long total = getLength();
+		if (offset < 0 || offset >= total || length <= 0) {
+			return IInternalDebugCoreConstants.EMPTY_STRING;
+		}
+		length = (int) Math.min(Math.min(length, MAX_CONTENTS_LENGTH), total - offset);
+		char[] result = new char[length];
+		int done = 0;
+		long spilled = getSpilledLength();
+		if (offset < spilled) {
+			int count = (int) Math.min(length, spilled - offset);
+			if (!fSpill.read(offset, result, 0, count)) {
+				// the file could not be read, return the contents in memory only
+				disableSpill();
+				return getContents(Math.max(0, offset - spilled), length);
+			}
+			done = count;
+		}
+		int position = fHeadStart + (int) (offset + done - spilled);
+		while (done < length) {
+			int index = position / CHUNK_SIZE;
+			int start = position % CHUNK_SIZE;
+			int count = Math.min(length - done, CHUNK_SIZE - start);
+			System.arraycopy(chunk(index), start, result, done, count);
+			done += count;
+			position += count;
+		}
+		return new String(result);
+	}
+
+	/**
+	 * Removes all contents and any spill file.
+	 */
+	public void clear() {
+		for (int i = 0; i < fRing.length; i++) {
+			fRing[i] = null;
+		}
+		fHead = 0;
+		fCount = 0;
+		fHeadStart = 0;
+		fTailLength = 0;
+		fTruncated = 0;
+		if (fSpill != null) {
+			fSpill.dispose();
+			fSpill = null;
+		}
+	}
+
+	/**
+	 * Deletes the spill file, if any, and stops spilling. Characters that
+	 * were spilled are discarded, contents in memory are retained. Called
+	 * when the contents are released, the spill file is not deleted on exit.
+	 */
+	public void dispose() {
+		disableSpill();
+	}
+
+	private char[] chunk(int index) {
+		return fRing[(fHead + index) % fRing.length];
+	}
+
+	private int getMemoryLength() {
+		if (fCount == 0) {
+			return 0;
+		}
+		return (fCount - 1) * CHUNK_SIZE + fTailLength - fHeadStart;
+	}
+
+	private long getSpilledLength() {
+		return fSpill == null ? 0 : fSpill.getLength();
+	}
+
+	private void addChunk() {
+		if (fCount == fRing.length) {
+			char[][] ring = new char[fRing.length * 2][];
+			for (int i = 0; i < fCount; i++) {
+				ring[i] = chunk(i);
+			}
+			fRing = ring;
+			fHead = 0;
+		}
+		char[] chunk = fSpare;
+		fSpare = null;
+		if (chunk == null) {
+			chunk = new char[CHUNK_SIZE];
+		}
+		fRing[(fHead + fCount) % fRing.length] = chunk;
+		fCount++;
+		fTailLength = 0;
+	}
+
+	/**
+	 * Removes characters from the head of the memory contents until the
+	 * limit is satisfied.
+	 */
+	private void truncate() {
+		if (fLimit == 0) {
+			return;
+		}
+		int excess = getMemoryLength() - fLimit;
+		while (excess > 0) {
+			char[] head = fRing[fHead];
+			int end = fCount == 1 ? fTailLength : CHUNK_SIZE;
+			int count = Math.min(excess, end - fHeadStart);
+			spill(head, fHeadStart, count);
+			fHeadStart += count;
+			excess -= count;
+			if (fHeadStart == CHUNK_SIZE) {
+				fRing[fHead] = null;
+				fHead = (fHead + 1) % fRing.length;
+				fCount--;
+				fHeadStart = 0;
+				fSpare = head;
+			}
+		}
+	}
+
+	private void spill(char[] chars, int offset, int length) {
+		if (fSpillEnabled) {
+			if (fSpill == null) {
+				try {
+					fSpill = new SpillFile();
+				} catch (IOException e) {
+					DebugPlugin.log(e);
+					fSpillEnabled = false;
+				}
+			}
+			if (fSpill != null && fSpill.write(chars, offset, length)) {
+				return;
+			}
+			// writing failed, discard all spilled contents
+			disableSpill();
+		}
+		fTruncated += length;
+	}
+
+	/**
+	 * Stops spilling removed characters to a file, discarding any characters
+	 * already spilled.
+	 */
+	private void disableSpill() {
+		fSpillEnabled = false;
+		if (fSpill != null) {
+			fTruncated += fSpill.getLength();
+			fSpill.dispose();
+			fSpill = null;
+		}
+	}
+
+	/**
+	 * Temporary file holding characters removed from the head of the
+	 * contents, stored as UTF-16 code units.
+	 */
+	static class SpillFile {
+
+		private File fFile;
+		private RandomAccessFile fAccess;
+		private FileChannel fChannel;
+		private ByteBuffer fWriteBuffer = ByteBuffer.allocate(CHUNK_SIZE * 2);
+		private ByteBuffer fReadBuffer = ByteBuffer.allocate(CHUNK_SIZE * 2);
+		private long fLength = 0;
+
+		SpillFile() throws IOException {
+			fFile = File.createTempFile("stream", ".tmp"); //$NON-NLS-1$ //$NON-NLS-2$
+			fAccess = new RandomAccessFile(fFile, "rw"); //$NON-NLS-1$
+			fChannel = fAccess.getChannel();
+		}
+
+		long getLength() {
+			return fLength;
+		}
+
+		boolean write(char[] chars, int offset, int length) {
+			try {
+				while (length > 0) {
+					int count = Math.min(length, CHUNK_SIZE);
+					fWriteBuffer.clear();
+					fWriteBuffer.asCharBuffer().put(chars, offset, count);
+					fWriteBuffer.limit(count * 2);
+					long position = fLength * 2;
+					while (fWriteBuffer.hasRemaining()) {
+						position += fChannel.write(fWriteBuffer, position);
+					}
+					fLength += count;
+					offset += count;
+					length -= count;
+				}
+				return true;
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+				return false;
+			}
+		}
+
+		boolean read(long offset, char[] dest, int destOffset, int length) {
+			try {
+				while (length > 0) {
+					int count = Math.min(length, CHUNK_SIZE);
+					fReadBuffer.clear();
+					fReadBuffer.limit(count * 2);
+					long position = offset * 2;
+					while (fReadBuffer.hasRemaining()) {
+						int read = fChannel.read(fReadBuffer, position);
+						if (read < 0) {
+							throw new EOFException();
+						}
+						position += read;
+					}
+					fReadBuffer.flip();
+					fReadBuffer.asCharBuffer().get(dest, destOffset, count);
+					offset += count;
+					destOffset += count;
+					length -= count;
+				}
+				return true;
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+				return false;
+			}
+		}
+
+		void dispose() {
+			try {
+				fAccess.close();
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+			}
+			if (!fFile.delete() && fFile.exists()) {
+				DebugPlugin.logMessage("Unable to delete " + fFile, null); //$NON-NLS-1$
+			}
+		}
+	}
+}
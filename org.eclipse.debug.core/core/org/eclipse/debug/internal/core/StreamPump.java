@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.debug.core.DebugPlugin;
+
+/**
+ * Services the streams of many processes with a small, fixed number of
+ * threads. Each registered {@link IPumpable} is asked in turn to perform a
+ * bounded amount of non-blocking work. Sources that had nothing to do are
+ * polled again after a short delay which grows while they stay idle.
+ * <p>
+ * Process streams can not be multiplexed with selectors, so readiness is
+ * determined with {@link java.io.InputStream#available()} rather than by
+ * blocking in a read.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class StreamPump {
+
+	/**
+	 * Result of {@link IPumpable#pump()} indicating that data was
+	 * transferred and the source should be serviced again immediately.
+	 */
+	public static final int PROGRESS = 0;
+
+	/**
+	 * Result of {@link IPumpable#pump()} indicating that no data was
+	 * available.
+	 */
+	public static final int IDLE = 1;
+
+	/**
+	 * Result of {@link IPumpable#pump()} indicating that the source is
+	 * exhausted and should no longer be serviced.
+	 */
+	public static final int DONE = 2;
+
+	/**
+	 * A source of work serviced by the pump.
+	 */
+	public interface IPumpable {
+
+		/**
+		 * Performs a bounded amount of work without blocking.
+		 *
+		 * @return one of {@link StreamPump#PROGRESS}, {@link StreamPump#IDLE}
+		 *         or {@link StreamPump#DONE}
+		 */
+		public int pump();
+
+		/**
+		 * Notification that the pump will no longer service this source,
+		 * either because it returned {@link StreamPump#DONE} or because the
+		 * pump has been shut down.
+		 */
+		public void done();
+	}
+
+	/**
+	 * Initial and maximum delay, in milliseconds, before an idle source is
+	 * polled again.
+	 */
+	private static final long MIN_IDLE_DELAY = 1;
+	private static final long MAX_IDLE_DELAY = 32;
+
+	/**
+	 * Shared instance, created on demand
+	 */
+	private static StreamPump fgDefault;
+
+	private final ScheduledThreadPoolExecutor fExecutor;
+
+	/**
+	 * Number of sources currently being serviced
+	 */
+	private final AtomicInteger fActiveCount = new AtomicInteger();
+
+	/**
+	 * Returns the shared stream pump.
+	 *
+	 * @return the shared stream pump
+	 */
+	public static synchronized StreamPump getDefault() {
+		if (fgDefault == null) {
+			int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+			fgDefault = new StreamPump(threads);
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Stops the shared stream pump, if it has been created.
+	 */
+	public static synchronized void shutdown() {
+		if (fgDefault != null) {
+			fgDefault.dispose();
+			fgDefault = null;
+		}
+	}
+
+	/**
+	 * Returns whether process streams should be serviced by the shared pump
+	 * rather than by dedicated threads.
+	 *
+	 * @return whether the shared stream pump is enabled
+	 */
+	public static boolean isEnabled() {
+		return Platform.getPreferencesService().getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_SHARED_STREAM_PUMP, false, null);
+	}
+
+	/**
+	 * Creates a stream pump serviced by the given number of threads.
+	 *
+	 * @param threads number of threads
+	 */
+	public StreamPump(int threads) {
+		fExecutor = new ScheduledThreadPoolExecutor(threads, new ThreadFactory() {
+			private final AtomicInteger fCount = new AtomicInteger();
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, DebugCoreMessages.StreamPump_label + " " + fCount.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Starts servicing the given source.
+	 *
+	 * @param pumpable the source to service
+	 */
+	public void register(IPumpable pumpable) {
+		fActiveCount.incrementAndGet();
+		new PumpTask(pumpable).schedule(0);
+	}
+
+	/**
+	 * @return the number of sources currently being serviced
+	 */
+	public int getActiveCount() {
+		return fActiveCount.get();
+	}
+
+	/**
+	 * @return the number of threads servicing the sources
+	 */
+	public int getThreadCount() {
+		return fExecutor.getPoolSize();
+	}
+
+	/**
+	 * Stops servicing all sources. Sources that are waiting to be serviced are
+	 * serviced one last time and then notified that they are done.
+	 */
+	public void dispose() {
+		fExecutor.shutdown();
+	}
+
+	/**
+	 * Services a single source, rescheduling itself until the source is
+	 * exhausted. At most one task per source is ever queued, so a source is
+	 * never serviced by two threads at once.
+	 */
+	class PumpTask implements Runnable {
+
+		private final IPumpable fPumpable;
+		private long fDelay = MIN_IDLE_DELAY;
+
+		PumpTask(IPumpable pumpable) {
+			fPumpable = pumpable;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			int result;
+			try {
+				result = fPumpable.pump();
+			} catch (RuntimeException e) {
+				DebugPlugin.log(e);
+				result = DONE;
+			}
+			switch (result) {
+				case PROGRESS:
+					fDelay = MIN_IDLE_DELAY;
+					schedule(0);
+					break;
+				case IDLE:
+					schedule(fDelay);
+					fDelay = Math.min(fDelay * 2, MAX_IDLE_DELAY);
+					break;
+				default:
+					finish();
+					break;
+			}
+		}
+
+		void schedule(long delay) {
+			try {
+				if (delay == 0) {
+					fExecutor.execute(this);
+				} else {
+					fExecutor.schedule(this, delay, TimeUnit.MILLISECONDS);
+				}
+			} catch (RejectedExecutionException e) {
+				finish();
+			}
+		}
+
+		private void finish() {
+			fActiveCount.decrementAndGet();
+			fPumpable.done();
+		}
+	}
+}
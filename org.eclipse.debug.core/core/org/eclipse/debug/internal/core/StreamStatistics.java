@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing how process output is read by output stream monitors
+ * and delivered to stream listeners.
+ *
+ * @since 3.10
+ */
+public final class StreamStatistics {
+
+	private static final AtomicLong fgReads = new AtomicLong();
+	private static final AtomicLong fgBytesRead = new AtomicLong();
+	private static final AtomicLong fgNotifications = new AtomicLong();
+	private static final AtomicLong fgCharsNotified = new AtomicLong();
+	private static volatile long fgStartTime = System.currentTimeMillis();
+
+	private StreamStatistics() {
+		// no instances
+	}
+
+	/**
+	 * Records a read from a process stream.
+	 *
+	 * @param bytes number of bytes read
+	 */
+	public static void read(int bytes) {
+		fgReads.incrementAndGet();
+		fgBytesRead.addAndGet(bytes);
+	}
+
+	/**
+	 * Records a notification of appended text sent to stream listeners.
+	 *
+	 * @param chars number of characters in the notification
+	 */
+	public static void notified(int chars) {
+		fgNotifications.incrementAndGet();
+		fgCharsNotified.addAndGet(chars);
+	}
+
+	/**
+	 * @return the number of reads from process streams
+	 */
+	public static long getReadCount() {
+		return fgReads.get();
+	}
+
+	/**
+	 * @return the number of bytes read from process streams
+	 */
+	public static long getBytesRead() {
+		return fgBytesRead.get();
+	}
+
+	/**
+	 * @return the number of notifications sent to stream listeners
+	 */
+	public static long getNotificationCount() {
+		return fgNotifications.get();
+	}
+
+	/**
+	 * @return the average number of notifications per second since the
+	 *         counters were reset
+	 */
+	public static double getNotificationsPerSecond() {
+		long elapsed = Math.max(1, System.currentTimeMillis() - fgStartTime);
+		return fgNotifications.get() * 1000d / elapsed;
+	}
+
+	/**
+	 * @return the average number of bytes read per notification
+	 */
+	public static long getBytesPerNotification() {
+		long notifications = fgNotifications.get();
+		return notifications > 0 ? fgBytesRead.get() / notifications : 0;
+	}
+
+	/**
+	 * @return the average number of characters per notification
+	 */
+	public static long getCharsPerNotification() {
+		long notifications = fgNotifications.get();
+		return notifications > 0 ? fgCharsNotified.get() / notifications : 0;
+	}
+
+	/**
+	 * Resets all counters.
+	 */
+	public static void reset() {
+		fgReads.set(0);
+		fgBytesRead.set(0);
+		fgNotifications.set(0);
+		fgCharsNotified.set(0);
+		fgStartTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Returns a summary of the counters suitable for tracing.
+	 *
+	 * @return summary of the counters
+	 */
+	public static String getSummary() {
+		StringBuffer buffer = new StringBuffer("Streams: reads="); //$NON-NLS-1$
+		buffer.append(getReadCount());
+		buffer.append(" bytes="); //$NON-NLS-1$
+		buffer.append(getBytesRead());
+		buffer.append(" notifications="); //$NON-NLS-1$
+		buffer.append(getNotificationCount());
+		buffer.append(" notifications/s="); //$NON-NLS-1$
+		buffer.append(Math.round(getNotificationsPerSecond()));
+		buffer.append(" bytes/notification="); //$NON-NLS-1$
+		buffer.append(getBytesPerNotification());
+		return buffer.toString();
+	}
+}
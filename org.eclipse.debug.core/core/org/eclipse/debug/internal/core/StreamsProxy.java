@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,9 @@ package org.eclipse.debug.internal.core;
 
 import java.io.IOException;
 
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IPreferencesService;
+import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.model.IStreamMonitor;
 import org.eclipse.debug.core.model.IStreamsProxy;
 import org.eclipse.debug.core.model.IStreamsProxy2;
@@ -48,15 +51,46 @@ public class StreamsProxy implements IStreamsProxy, IStreamsProxy2 {
 	 * @param encoding the process's encoding or <code>null</code> if default
 	 */
 	public StreamsProxy(Process process, String encoding) {
+		this(process, encoding, process != null && StreamPump.isEnabled() ? StreamPump.getDefault() : null);
+	}
+
+	/**
+	 * Creates a <code>StreamsProxy</code> on the streams
+	 * of the given system process.
+	 *
+	 * @param process system process to create a streams proxy on
+	 * @param encoding the process's encoding or <code>null</code> if default
+	 * @param pump the stream pump used to service the process's streams, or
+	 *  <code>null</code> to service each stream with a dedicated thread
+	 * @since 3.10
+	 */
+	public StreamsProxy(Process process, String encoding, StreamPump pump) {
 		if (process == null) {
 			return;
 		}
 		fOutputMonitor= new OutputStreamMonitor(process.getInputStream(), encoding);
 		fErrorMonitor= new OutputStreamMonitor(process.getErrorStream(), encoding);
 		fInputMonitor= new InputStreamMonitor(process.getOutputStream(), encoding);
-		fOutputMonitor.startMonitoring();
-		fErrorMonitor.startMonitoring();
-		fInputMonitor.startMonitoring();
+		IPreferencesService service = Platform.getPreferencesService();
+		int limit = service.getInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_STREAM_CONTENTS_LIMIT, 0, null);
+		if (limit > 0) {
+			boolean spill = service.getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_STREAM_CONTENTS_SPILL, false, null);
+			fOutputMonitor.setContentsLimit(limit, spill);
+			fErrorMonitor.setContentsLimit(limit, spill);
+		}
+		int interval = service.getInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_STREAM_NOTIFY_INTERVAL, (int) OutputStreamMonitor.DEFAULT_NOTIFY_INTERVAL, null);
+		int notifyLimit = service.getInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_STREAM_NOTIFY_LIMIT, OutputStreamMonitor.DEFAULT_NOTIFY_LIMIT, null);
+		fOutputMonitor.setNotificationWindow(interval, notifyLimit);
+		fErrorMonitor.setNotificationWindow(interval, notifyLimit);
+		if (pump != null) {
+			fOutputMonitor.startMonitoring(pump, process);
+			fErrorMonitor.startMonitoring(pump, process);
+			fInputMonitor.startMonitoringOnDemand();
+		} else {
+			fOutputMonitor.startMonitoring();
+			fErrorMonitor.startMonitoring();
+			fInputMonitor.startMonitoring();
+		}
 	}
 
 	/**
@@ -105,6 +139,16 @@ public class StreamsProxy implements IStreamsProxy, IStreamsProxy2 {
 		fInputMonitor.close();
 	}
 
+	/**
+	 * Releases the contents of the output and error monitors that were
+	 * spilled to temporary files. Called once the process is released, as
+	 * the contents remain readable after the streams are closed.
+	 */
+	public void dispose() {
+		fOutputMonitor.dispose();
+		fErrorMonitor.dispose();
+	}
+
 	/**
 	 * @see IStreamsProxy#getErrorStreamMonitor()
 	 */
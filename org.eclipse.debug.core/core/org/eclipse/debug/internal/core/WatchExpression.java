@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2013 IBM Corporation and others.
+ *  Copyright (c) 2000, 2014 IBM Corporation and others.
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v1.0
  *  which accompanies this distribution, and is available at
@@ -37,6 +37,12 @@ public class WatchExpression implements IWatchExpression {
 	private boolean fEnabled= true;
 	private boolean fPending= false;
 
+	/**
+	 * Batch evaluation whose result this expression waits for, or
+	 * <code>null</code>, guarded by this expression
+	 */
+	private WatchExpressionEvaluator.Batch fBatch= null;
+
 	/**
 	 * Creates a new watch expression with the given expression
 	 * text.
@@ -67,6 +73,7 @@ public class WatchExpression implements IWatchExpression {
 		if (context == null) {
 			return;
 		}
+		releaseBatch();
 
 		IWatchExpressionListener listener= new IWatchExpressionListener() {
 			/* (non-Javadoc)
@@ -116,6 +123,7 @@ public class WatchExpression implements IWatchExpression {
 		synchronized (this) {
 			fCurrentContext= context;
 		}
+		releaseBatch();
 		if (context == null) {
 			setResult(null);
 			return;
@@ -124,7 +132,81 @@ public class WatchExpression implements IWatchExpression {
 			return;
 		}
 
-		evaluate();
+		ExpressionManager manager= (ExpressionManager)DebugPlugin.getDefault().getExpressionManager();
+		if (manager.isBatchingWatchExpressionDelegate(context.getModelIdentifier())) {
+			// evaluated together with the other expressions given this context
+			setPending(true);
+			manager.getWatchExpressionEvaluator().schedule(this, context);
+		} else {
+			evaluate();
+		}
+	}
+
+	/**
+	 * Returns the context this expression is evaluated in.
+	 *
+	 * @return the current context or <code>null</code>
+	 * @since 3.10
+	 */
+	synchronized IDebugElement getExpressionContext() {
+		return fCurrentContext;
+	}
+
+	/**
+	 * Records that this expression waits for the result of the given batch,
+	 * unless its context is no longer the given context.
+	 *
+	 * @param batch batch evaluating this expression
+	 * @param context context of the batch
+	 * @return whether this expression waits for the batch
+	 * @since 3.10
+	 */
+	boolean setBatch(WatchExpressionEvaluator.Batch batch, IDebugElement context) {
+		WatchExpressionEvaluator.Batch previous;
+		synchronized (this) {
+			if (fCurrentContext != context) {
+				return false;
+			}
+			previous= fBatch;
+			fBatch= batch;
+		}
+		if (previous != null) {
+			previous.release();
+		}
+		return true;
+	}
+
+	/**
+	 * Stops waiting for the result of a batch evaluation, if any.
+	 */
+	private void releaseBatch() {
+		WatchExpressionEvaluator.Batch batch;
+		synchronized (this) {
+			batch= fBatch;
+			fBatch= null;
+		}
+		if (batch != null) {
+			batch.release();
+		}
+	}
+
+	/**
+	 * Sets the result of a batch evaluation, unless this expression no longer
+	 * waits for the batch.
+	 *
+	 * @param batch the batch
+	 * @param result result of this expression
+	 * @since 3.10
+	 */
+	void setResult(WatchExpressionEvaluator.Batch batch, IWatchExpressionResult result) {
+		synchronized (this) {
+			if (fBatch != batch) {
+				return;
+			}
+			fBatch= null;
+		}
+		batch.release();
+		setResult(result);
 	}
 
 	/**
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IWatchExpressionDelegate;
+import org.eclipse.debug.core.model.IWatchExpressionDelegate2;
+import org.eclipse.debug.core.model.IWatchExpressionListener;
+import org.eclipse.debug.core.model.IWatchExpressionResult;
+
+/**
+ * Evaluates watch expressions that have been given a new context in batches.
+ * Expressions of debug models whose watch expression delegate implements
+ * {@link IWatchExpressionDelegate2} are queued as their context is set,
+ * typically for every watch expression in turn when the debug context
+ * changes, and are evaluated by a job. The expressions queued for the same
+ * context are handed to the delegate at once. Expressions of other debug
+ * models are evaluated as soon as their context is set, and are not queued.
+ * <p>
+ * A batch is canceled once all of its expressions have been given another
+ * context.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class WatchExpressionEvaluator {
+
+	/**
+	 * Evaluations of several expressions in one context.
+	 */
+	class Batch implements IWatchExpressionListener {
+
+		private final IProgressMonitor fMonitor = new NullProgressMonitor();
+
+		/**
+		 * Expressions by expression text
+		 */
+		private final Map<String, List<WatchExpression>> fExpressions;
+
+		/**
+		 * Number of expressions still waiting for a result of this batch,
+		 * guarded by this batch
+		 */
+		private int fWaiting;
+
+		Batch(Map<String, List<WatchExpression>> expressions, int count) {
+			fExpressions = expressions;
+			fWaiting = count;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.core.model.IWatchExpressionListener#watchEvaluationFinished(org.eclipse.debug.core.model.IWatchExpressionResult)
+		 */
+		@Override
+		public void watchEvaluationFinished(IWatchExpressionResult result) {
+			if (fMonitor.isCanceled() || result == null) {
+				return;
+			}
+			List<WatchExpression> expressions = fExpressions.get(result.getExpressionText());
+			if (expressions != null) {
+				for (WatchExpression expression : expressions) {
+					expression.setResult(this, result);
+				}
+			}
+		}
+
+		/**
+		 * Notes that an expression no longer waits for this batch, canceling
+		 * it when no expression does.
+		 */
+		synchronized void release() {
+			if (--fWaiting == 0) {
+				fMonitor.setCanceled(true);
+			}
+		}
+
+		boolean isCanceled() {
+			return fMonitor.isCanceled();
+		}
+	}
+
+	private final ExpressionManager fManager;
+
+	/**
+	 * Expressions to evaluate and the context each was given, guarded by this
+	 * evaluator
+	 */
+	private Map<WatchExpression, IDebugElement> fQueue = new LinkedHashMap<WatchExpression, IDebugElement>();
+
+	private final Job fJob = new Job("watch expression evaluator") { //$NON-NLS-1$
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			Map<WatchExpression, IDebugElement> queue;
+			synchronized (WatchExpressionEvaluator.this) {
+				queue = fQueue;
+				fQueue = new LinkedHashMap<WatchExpression, IDebugElement>();
+			}
+			evaluate(queue);
+			return Status.OK_STATUS;
+		}
+	};
+
+	/**
+	 * Number of batches and of expressions evaluated in batches
+	 */
+	private long fBatches = 0;
+	private long fBatched = 0;
+
+	/**
+	 * Creates an evaluator for the expressions of the given manager.
+	 *
+	 * @param manager expression manager providing the delegates
+	 */
+	WatchExpressionEvaluator(ExpressionManager manager) {
+		fManager = manager;
+		fJob.setSystem(true);
+	}
+
+	/**
+	 * Queues the given expression for evaluation in the given context.
+	 *
+	 * @param expression the expression
+	 * @param context its new context
+	 */
+	synchronized void schedule(WatchExpression expression, IDebugElement context) {
+		fQueue.put(expression, context);
+		fJob.schedule();
+	}
+
+	/**
+	 * Evaluates the queued expressions, grouped by context.
+	 *
+	 * @param queue expressions and their contexts in the order queued
+	 */
+	private void evaluate(Map<WatchExpression, IDebugElement> queue) {
+		Map<IDebugElement, List<WatchExpression>> contexts = new LinkedHashMap<IDebugElement, List<WatchExpression>>();
+		for (Entry<WatchExpression, IDebugElement> entry : queue.entrySet()) {
+			WatchExpression expression = entry.getKey();
+			// skip expressions given another context or disabled since
+			if (expression.isEnabled() && expression.getExpressionContext() == entry.getValue()) {
+				List<WatchExpression> expressions = contexts.get(entry.getValue());
+				if (expressions == null) {
+					expressions = new ArrayList<WatchExpression>();
+					contexts.put(entry.getValue(), expressions);
+				}
+				expressions.add(expression);
+			}
+		}
+		for (Entry<IDebugElement, List<WatchExpression>> entry : contexts.entrySet()) {
+			evaluate(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Evaluates the given expressions in the given context.
+	 *
+	 * @param context the context
+	 * @param expressions the expressions
+	 */
+	private void evaluate(IDebugElement context, List<WatchExpression> expressions) {
+		IWatchExpressionDelegate delegate = null;
+		if (expressions.size() > 1) {
+			delegate = fManager.newWatchExpressionDelegate(context.getModelIdentifier());
+		}
+		if (!(delegate instanceof IWatchExpressionDelegate2)) {
+			for (WatchExpression expression : expressions) {
+				expression.evaluate();
+			}
+			return;
+		}
+		Map<String, List<WatchExpression>> texts = new LinkedHashMap<String, List<WatchExpression>>();
+		for (WatchExpression expression : expressions) {
+			List<WatchExpression> same = texts.get(expression.getExpressionText());
+			if (same == null) {
+				same = new ArrayList<WatchExpression>(1);
+				texts.put(expression.getExpressionText(), same);
+			}
+			same.add(expression);
+		}
+		Batch batch = new Batch(texts, expressions.size());
+		int waiting = 0;
+		for (WatchExpression expression : expressions) {
+			if (expression.setBatch(batch, context)) {
+				waiting++;
+			}
+		}
+		// expressions given another context in the meantime do not wait
+		for (int i = waiting; i < expressions.size(); i++) {
+			batch.release();
+		}
+		if (batch.isCanceled()) {
+			return;
+		}
+		synchronized (this) {
+			fBatches++;
+			fBatched += expressions.size();
+		}
+		if (DebugOptions.DEBUG) {
+			DebugOptions.trace("Watch expression batch: expressions=" + expressions.size() + " distinct=" + texts.size()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		((IWatchExpressionDelegate2) delegate).evaluateExpressions(texts.keySet().toArray(new String[texts.size()]), context, batch.fMonitor, batch);
+	}
+
+	/**
+	 * @return the number of batches handed to delegates
+	 */
+	public synchronized long getBatchCount() {
+		return fBatches;
+	}
+
+	/**
+	 * @return the number of expressions evaluated in batches
+	 */
+	public synchronized long getBatchedExpressionCount() {
+		return fBatched;
+	}
+}
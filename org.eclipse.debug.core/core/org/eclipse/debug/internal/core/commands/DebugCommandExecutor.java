@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IRequest;
+import org.eclipse.debug.internal.core.DebugCoreMessages;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.core.ParallelExecutor;
+
+/**
+ * Executes a command on independent targets concurrently, on a bounded pool
+ * of threads shared by all commands. The calling thread executes the targets
+ * that no pool thread has started on, and reports progress as the targets
+ * complete. All targets are executed even if some fail; the failures are
+ * reported together.
+ *
+ * @since 3.10
+ */
+public class DebugCommandExecutor {
+
+	/**
+	 * Shared pool
+	 */
+	private static final ParallelExecutor fgExecutor = new ParallelExecutor(DebugCoreMessages.DebugCommandExecutor_0);
+
+	/**
+	 * Returns whether commands may execute on several targets concurrently.
+	 * Disabled by default, as the debug models of the targets are then called
+	 * from several threads at once and have to be thread-safe.
+	 *
+	 * @return whether parallel execution is enabled
+	 * @see IInternalDebugCoreConstants#PREF_PARALLEL_DEBUG_COMMANDS
+	 */
+	public static boolean isEnabled() {
+		return Platform.getPreferencesService().getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_PARALLEL_DEBUG_COMMANDS, false, null);
+	}
+
+	/**
+	 * Stops the shared pool, if it has been created.
+	 */
+	public static void shutdown() {
+		fgExecutor.shutdown();
+	}
+
+	/**
+	 * Executes the given command on each of the given targets. Targets not
+	 * started when the request is canceled are skipped.
+	 *
+	 * @param command the command
+	 * @param targets independent targets
+	 * @param monitor progress monitor, worked once per target
+	 * @param request the request being executed
+	 * @throws CoreException if the command fails on any target, with the
+	 *             status of each failure
+	 */
+	static void execute(final ForEachCommand command, Object[] targets, IProgressMonitor monitor, final IRequest request) throws CoreException {
+		List<FutureTask<Object>> tasks = new ArrayList<FutureTask<Object>>(targets.length);
+		for (int i = 0; i < targets.length; i++) {
+			final Object target = targets[i];
+			tasks.add(new FutureTask<Object>(new Callable<Object>() {
+				@Override
+				public Object call() throws CoreException {
+					if (!request.isCanceled()) {
+						command.execute(target);
+					}
+					return null;
+				}
+			}));
+		}
+		// the first target is left to the calling thread
+		fgExecutor.execute(tasks);
+		List<IStatus> failures = new ArrayList<IStatus>();
+		for (int i = 0; i < tasks.size(); i++) {
+			try {
+				ParallelExecutor.get(tasks.get(i));
+			} catch (ExecutionException e) {
+				if (!(e.getCause() instanceof CoreException)) {
+					ParallelExecutor.rethrow(e);
+				}
+				failures.add(((CoreException) e.getCause()).getStatus());
+			}
+			monitor.worked(1);
+		}
+		if (failures.size() == 1) {
+			throw new CoreException(failures.get(0));
+		} else if (!failures.isEmpty()) {
+			IStatus[] children = failures.toArray(new IStatus[failures.size()]);
+			throw new CoreException(new MultiStatus(DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, children, children[0].getMessage(), null));
+		}
+	}
+}
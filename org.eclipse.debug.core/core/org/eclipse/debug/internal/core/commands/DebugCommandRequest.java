@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -19,6 +19,12 @@ public class DebugCommandRequest extends Request implements IDebugCommandRequest
 
 	private Object[] fElements;
 
+	/**
+	 * Whether a later request with an equal coalescing key superseded this
+	 * request
+	 */
+	private volatile boolean fSuperseded = false;
+
 	public DebugCommandRequest(Object[] elements) {
 		fElements = elements;
 	}
@@ -31,5 +37,41 @@ public class DebugCommandRequest extends Request implements IDebugCommandRequest
 		return fElements;
 	}
 
+	/**
+	 * Returns a key identifying the requester when this is an enabled state
+	 * request, or <code>null</code> if none. A command that has not started
+	 * to compute its enabled state for a request abandons it when it receives
+	 * a later request with an equal key; the abandoned request is canceled.
+	 *
+	 * @return key identifying the requester or <code>null</code>
+	 * @since 3.10
+	 */
+	public Object getCoalescingKey() {
+		return null;
+	}
+
+	/**
+	 * Returns whether this request was abandoned for a later request with an
+	 * equal coalescing key. A superseded request is canceled, and the later
+	 * request reports the enabled state in its place.
+	 *
+	 * @return whether this request was superseded
+	 * @since 3.10
+	 */
+	public boolean isSuperseded() {
+		return fSuperseded;
+	}
+
+	/**
+	 * Sets whether this request was abandoned for a later request with an
+	 * equal coalescing key.
+	 *
+	 * @param superseded whether this request was superseded
+	 * @since 3.10
+	 */
+	public void setSuperseded(boolean superseded) {
+		fSuperseded = superseded;
+	}
+
 
 }
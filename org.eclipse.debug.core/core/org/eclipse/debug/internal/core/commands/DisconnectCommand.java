@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -43,6 +43,14 @@ public class DisconnectCommand extends ForEachCommand implements IDisconnectHand
 		return ((IDisconnect)target).canDisconnect();
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.internal.core.commands.ForEachCommand#isParallel()
+	 */
+	@Override
+	protected boolean isParallel() {
+		return true;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.debug.core.commands.AbstractDebugCommand#getEnabledStateJobFamily(org.eclipse.debug.core.commands.IDebugCommandRequest)
 	 */
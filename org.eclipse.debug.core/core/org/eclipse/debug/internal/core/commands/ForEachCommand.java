@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 IBM Corporation and others.
+ * Copyright (c) 2007, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -28,6 +28,10 @@ public abstract class ForEachCommand extends AbstractDebugCommand {
 	 */
 	@Override
 	protected void doExecute(Object[] targets, IProgressMonitor monitor, IRequest request) throws CoreException {
+		if (targets.length > 1 && isParallel() && DebugCommandExecutor.isEnabled()) {
+			DebugCommandExecutor.execute(this, targets, monitor, request);
+			return;
+		}
 		for (int i = 0; i < targets.length; i++) {
 			execute(targets[i]);
 			monitor.worked(1);
@@ -36,6 +40,19 @@ public abstract class ForEachCommand extends AbstractDebugCommand {
 
 	protected abstract void execute(Object target) throws CoreException;
 
+	/**
+	 * Returns whether this command may execute on several targets
+	 * concurrently, which requires that executing it on one target does not
+	 * depend on executing it on another. When several targets fail, the
+	 * failures are reported together. Default is <code>false</code>.
+	 *
+	 * @return whether targets may be executed concurrently
+	 * @since 3.10
+	 */
+	protected boolean isParallel() {
+		return false;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.debug.internal.core.commands.DebugCommand#isExecutable(java.lang.Object[], org.eclipse.core.runtime.IProgressMonitor, org.eclipse.debug.core.commands.IEnabledStateRequest)
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -32,6 +32,14 @@ public class ResumeCommand extends SuspendCommand implements IResumeHandler {
 		return ((ISuspendResume)target).canResume();
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.internal.core.commands.ForEachCommand#isParallel()
+	 */
+	@Override
+	protected boolean isParallel() {
+		return true;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.debug.internal.core.commands.SuspendCommand#getEnabledStateJobFamily(org.eclipse.debug.core.commands.IDebugCommandRequest)
 	 */
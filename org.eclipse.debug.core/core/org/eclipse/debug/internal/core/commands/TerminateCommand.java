@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -37,6 +37,14 @@ public class TerminateCommand extends ForEachCommand implements ITerminateHandle
 		return ((ITerminate)target).canTerminate();
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.internal.core.commands.ForEachCommand#isParallel()
+	 */
+	@Override
+	protected boolean isParallel() {
+		return true;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.debug.core.commands.AbstractDebugCommand#getEnabledStateJobFamily(org.eclipse.debug.core.commands.IDebugCommandRequest)
 	 */
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.sourcelookup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Index of the entries in an archive by simple name, the segment of an entry
+ * name following its last <code>'/'</code>. Entries with the same simple name
+ * are kept in the order they appear in the archive.
+ * <p>
+ * An index is immutable once built and may be shared by any number of
+ * threads.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class ArchiveIndex {
+
+	/**
+	 * Version of the persisted format, written at the start of index files
+	 */
+	private static final int VERSION = 1;
+
+	private static final String[] NO_ENTRIES = new String[0];
+
+	/**
+	 * Map of simple name to entry names, either a single
+	 * <code>String</code> or a <code>String[]</code>
+	 */
+	private final HashMap<String, Object> fEntries;
+
+	private final int fSize;
+
+	private ArchiveIndex(List<String> names) {
+		fSize = names.size();
+		fEntries = new HashMap<String, Object>(fSize * 4 / 3 + 1);
+		for (String name : names) {
+			String simpleName = getSimpleName(name);
+			Object existing = fEntries.get(simpleName);
+			if (existing == null) {
+				fEntries.put(simpleName, name);
+			} else if (existing instanceof String) {
+				fEntries.put(simpleName, new String[] {(String) existing, name});
+			} else {
+				String[] entries = (String[]) existing;
+				String[] grown = new String[entries.length + 1];
+				System.arraycopy(entries, 0, grown, 0, entries.length);
+				grown[entries.length] = name;
+				fEntries.put(simpleName, grown);
+			}
+		}
+	}
+
+	/**
+	 * Builds an index of the entries in the given archive.
+	 *
+	 * @param file archive to index
+	 * @return index of the archive's entries
+	 * @exception IllegalStateException if the archive has been closed
+	 */
+	public static ArchiveIndex create(ZipFile file) {
+		List<String> names = new ArrayList<String>(file.size());
+		Enumeration<? extends ZipEntry> entries = file.entries();
+		while (entries.hasMoreElements()) {
+			names.add(entries.nextElement().getName());
+		}
+		return new ArchiveIndex(names);
+	}
+
+	/**
+	 * Returns the simple name of the given entry or file name, the segment
+	 * following its last <code>'/'</code>.
+	 *
+	 * @param name entry or file name
+	 * @return simple name
+	 */
+	public static String getSimpleName(String name) {
+		return name.substring(name.lastIndexOf('/') + 1);
+	}
+
+	/**
+	 * Returns the names of all entries with the given simple name, in the
+	 * order they appear in the archive.
+	 *
+	 * @param simpleName simple name
+	 * @return names of the entries with the given simple name, possibly empty
+	 */
+	public String[] getEntries(String simpleName) {
+		Object entries = fEntries.get(simpleName);
+		if (entries == null) {
+			return NO_ENTRIES;
+		}
+		if (entries instanceof String) {
+			return new String[] {(String) entries};
+		}
+		return (String[]) entries;
+	}
+
+	/**
+	 * Returns whether the archive contains an entry with the given name.
+	 *
+	 * @param name entry name
+	 * @return whether the archive contains the entry
+	 */
+	public boolean contains(String name) {
+		Object entries = fEntries.get(getSimpleName(name));
+		if (entries instanceof String) {
+			return entries.equals(name);
+		}
+		if (entries != null) {
+			String[] names = (String[]) entries;
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equals(name)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the number of entries in the archive
+	 */
+	public int size() {
+		return fSize;
+	}
+
+	/**
+	 * Writes this index to the given file. The archive's size and modification
+	 * time are recorded so that a stale index is not read back.
+	 *
+	 * @param file file to write to
+	 * @param archive the indexed archive
+	 * @throws IOException if the file can not be written
+	 */
+	public void write(File file, File archive) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			out.writeInt(VERSION);
+			out.writeUTF(archive.getAbsolutePath());
+			out.writeLong(archive.length());
+			out.writeLong(archive.lastModified());
+			out.writeInt(fSize);
+			for (Object entries : fEntries.values()) {
+				if (entries instanceof String) {
+					out.writeUTF((String) entries);
+				} else {
+					String[] names = (String[]) entries;
+					for (int i = 0; i < names.length; i++) {
+						out.writeUTF(names[i]);
+					}
+				}
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Reads an index previously written for the given archive, or returns
+	 * <code>null</code> if the file does not exist or was written for a
+	 * different version of the archive.
+	 *
+	 * @param file file to read from
+	 * @param archive the indexed archive
+	 * @return index or <code>null</code>
+	 * @throws IOException if the file can not be read
+	 */
+	public static ArchiveIndex read(File file, File archive) throws IOException {
+		if (!file.isFile()) {
+			return null;
+		}
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if (in.readInt() != VERSION || !in.readUTF().equals(archive.getAbsolutePath()) || in.readLong() != archive.length() || in.readLong() != archive.lastModified()) {
+				return null;
+			}
+			int size = in.readInt();
+			List<String> names = new ArrayList<String>(size);
+			for (int i = 0; i < size; i++) {
+				names.add(in.readUTF());
+			}
+			return new ArchiveIndex(names);
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.sourcelookup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.sourcelookup.ISourceContainer;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.core.ParallelExecutor;
+
+/**
+ * Searches a number of source containers concurrently on a bounded pool of
+ * threads. Results are combined in the order the containers are declared, as
+ * if they had been searched one after the other: when duplicates are not
+ * requested the result of the first container with a match is returned, and
+ * containers after it that have not started yet are not searched.
+ * <p>
+ * The calling thread searches any container that has not been picked up by
+ * the pool by the time its result is needed, so nested composite containers
+ * can fan out again without exhausting the pool.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class ParallelSourceLookup {
+
+	private static final Object[] EMPTY = new Object[0];
+
+	/**
+	 * Shared pool
+	 */
+	private static final ParallelExecutor fgExecutor = new ParallelExecutor(SourceLookupMessages.ParallelSourceLookup_label);
+
+	/**
+	 * Returns whether source containers should be searched concurrently.
+	 *
+	 * @return whether parallel source lookup is enabled
+	 */
+	public static boolean isEnabled() {
+		return Platform.getPreferencesService().getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_PARALLEL_SOURCE_LOOKUP, false, null);
+	}
+
+	/**
+	 * Stops the shared pool, if it has been created.
+	 */
+	public static void shutdown() {
+		fgExecutor.shutdown();
+	}
+
+	/**
+	 * Returns the source elements found in the given containers for the
+	 * given name, in the order of the containers. Containers that are
+	 * <code>null</code> are skipped.
+	 *
+	 * @param name the name of the source element to search for
+	 * @param containers the containers to search
+	 * @param duplicates whether to search all containers or stop at the first
+	 *            container with a match
+	 * @return source elements found, or an empty array
+	 * @exception CoreException if no source element is found and one or more
+	 *                containers failed
+	 */
+	public static Object[] findSourceElements(final String name, ISourceContainer[] containers, boolean duplicates) throws CoreException {
+		List<FutureTask<Object[]>> tasks = new ArrayList<FutureTask<Object[]>>(containers.length);
+		for (int i = 0; i < containers.length; i++) {
+			final ISourceContainer container = containers[i];
+			if (container == null) {
+				continue;
+			}
+			tasks.add(new FutureTask<Object[]>(new Callable<Object[]>() {
+				@Override
+				public Object[] call() throws Exception {
+					return container.findSourceElements(name);
+				}
+			}));
+		}
+		// the calling thread searches the first container itself
+		fgExecutor.execute(tasks);
+		List<Object> results = null;
+		CoreException single = null;
+		MultiStatus multiStatus = null;
+		if (duplicates) {
+			results = new ArrayList<Object>();
+		}
+		try {
+			for (int i = 0; i < tasks.size(); i++) {
+				try {
+					// searched in this thread if the pool has not started the task
+					Object[] objects = ParallelExecutor.get(tasks.get(i));
+					if (objects.length > 0) {
+						if (results != null) {
+							for (int j = 0; j < objects.length; j++) {
+								results.add(objects[j]);
+							}
+						} else {
+							if (objects.length == 1) {
+								return objects;
+							}
+							return new Object[]{objects[0]};
+						}
+					}
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof CoreException) {
+						CoreException ce = (CoreException) cause;
+						if (single == null) {
+							single = ce;
+						} else if (multiStatus == null) {
+							multiStatus = new MultiStatus(DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, new IStatus[]{single.getStatus()}, SourceLookupMessages.Source_Lookup_Error, null);
+							multiStatus.add(ce.getStatus());
+						} else {
+							multiStatus.add(ce.getStatus());
+						}
+					} else if (cause instanceof RuntimeException || cause instanceof Error) {
+						ParallelExecutor.rethrow(e);
+					} else {
+						throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, SourceLookupMessages.Source_Lookup_Error, cause));
+					}
+				}
+			}
+		} finally {
+			// containers after a match, or all containers after a failure,
+			// are no longer needed
+			fgExecutor.cancel(tasks);
+		}
+		if (results == null) {
+			if (multiStatus != null) {
+				throw new CoreException(multiStatus);
+			} else if (single != null) {
+				throw single;
+			}
+			return EMPTY;
+		}
+		return results.toArray();
+	}
+}
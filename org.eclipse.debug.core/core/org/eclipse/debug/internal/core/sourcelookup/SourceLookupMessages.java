@@ -44,6 +44,8 @@ public class SourceLookupMessages extends NLS {
 
 	public static String LocalFileStorage_0;
 
+	public static String ParallelSourceLookup_label;
+
 	public static String ProjectSourceContainerType_10;
 	public static String ProjectSourceContainerType_11;
 	public static String ProjectSourceContainerType_12;
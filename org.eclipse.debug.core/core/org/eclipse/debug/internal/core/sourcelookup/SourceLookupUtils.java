@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2013 IBM Corporation and others.
+ * Copyright (c) 2003, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.debug.internal.core.sourcelookup;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.zip.ZipFile;
@@ -17,9 +18,11 @@ import java.util.zip.ZipFile;
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchesListener2;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
 
 /**
  * Utility and supporting methods for source location. Most of these
@@ -40,6 +43,18 @@ public class SourceLookupUtils {
 	private static HashMap<String, ZipFile> fgZipFileCache = new HashMap<String, ZipFile>(5);
 	private static ArchiveCleaner fgCleaner = null;
 
+	/**
+	 * Cache of entry indexes of shared zip files, keyed by the zip file they
+	 * were built for. Indexes are discarded when zip files are closed.
+	 */
+	private static HashMap<ZipFile, ArchiveIndex> fgIndexCache = new HashMap<ZipFile, ArchiveIndex>(5);
+
+	/**
+	 * Name of the directory in the debug core state location holding persisted
+	 * archive indexes
+	 */
+	private static final String INDEX_DIRECTORY = ".archiveIndexes"; //$NON-NLS-1$
+
 	/**
 	 * Returns a zip file with the given name
 	 *
@@ -64,6 +79,80 @@ public class SourceLookupUtils {
 		}
 	}
 
+	/**
+	 * Returns the entry index of the given zip file, previously obtained from
+	 * {@link #getZipFile(String)} with the given name. The index is built on
+	 * first access and shared until the zip file is closed. When enabled by
+	 * preference, indexes are also persisted in the debug core state location
+	 * and reused while the archive's size and modification time are
+	 * unchanged.
+	 * <p>
+	 * The index is built without holding the lock on the zip file cache, so
+	 * other archives remain accessible while a large archive is indexed.
+	 * </p>
+	 *
+	 * @param name zip file name
+	 * @param zip the zip file with the given name
+	 * @return index of the zip file's entries
+	 * @exception IllegalStateException if the zip file has been closed
+	 */
+	public static ArchiveIndex getArchiveIndex(String name, ZipFile zip) {
+		synchronized (fgZipFileCache) {
+			ArchiveIndex index = fgIndexCache.get(zip);
+			if (index != null) {
+				return index;
+			}
+		}
+		boolean persist = Platform.getPreferencesService().getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_PERSIST_ARCHIVE_INDEXES, false, null);
+		File archive = new File(name);
+		File indexFile = null;
+		ArchiveIndex index = null;
+		if (persist) {
+			indexFile = getIndexFile(archive);
+			try {
+				index = ArchiveIndex.read(indexFile, archive);
+			} catch (IOException e) {
+				// rebuild a damaged index
+				index = null;
+			}
+		}
+		if (index == null) {
+			index = ArchiveIndex.create(zip);
+			if (indexFile != null) {
+				try {
+					indexFile.getParentFile().mkdirs();
+					index.write(indexFile, archive);
+				} catch (IOException e) {
+					DebugPlugin.log(e);
+				}
+			}
+		}
+		synchronized (fgZipFileCache) {
+			// only cache the index while the zip file is still open and shared
+			if (fgZipFileCache.get(name) == zip) {
+				ArchiveIndex existing = fgIndexCache.get(zip);
+				if (existing != null) {
+					return existing;
+				}
+				fgIndexCache.put(zip, index);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the file in the debug core state location an index of the given
+	 * archive is persisted in.
+	 *
+	 * @param archive archive
+	 * @return index file
+	 */
+	private static File getIndexFile(File archive) {
+		String path = archive.getAbsolutePath();
+		String fileName = Integer.toHexString(path.hashCode()) + '_' + archive.getName() + ".idx"; //$NON-NLS-1$
+		return DebugPlugin.getDefault().getStateLocation().append(INDEX_DIRECTORY).append(fileName).toFile();
+	}
+
 	/**
 	 * Closes all zip files that have been opened,
 	 * and removes them from the zip file cache.
@@ -82,6 +171,7 @@ public class SourceLookupUtils {
 				}
 			}
 			fgZipFileCache.clear();
+			fgIndexCache.clear();
 		}
 	}
 
@@ -90,6 +180,7 @@ public class SourceLookupUtils {
 	 */
 	public static void shutdown() {
 		closeArchives();
+		ParallelSourceLookup.shutdown();
 		if (fgCleaner != null) {
 			DebugPlugin.getDefault().getLaunchManager().removeLaunchListener(fgCleaner);
 			ResourcesPlugin.getWorkspace().removeResourceChangeListener(fgCleaner);
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.examples.core.tests;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.debug.examples.core.tests.pda.PDACommandPipelineTests;
+import org.eclipse.debug.examples.core.tests.pda.PDAVirtualMachineTests;
+
+/**
+ * Tests of the debug examples for integration and nightly builds.
+ */
+public class AutomatedSuite extends TestSuite {
+
+	/**
+	 * Returns the suite.  This is required to use the JUnit Launcher.
+	 *
+	 * @return the test suite
+	 */
+	public static Test suite() {
+		return new AutomatedSuite();
+	}
+
+	/**
+	 * Constructs the automated test suite. Adds all tests.
+	 */
+	public AutomatedSuite() {
+		// PDA debug protocol
+		addTest(new TestSuite(PDACommandPipelineTests.class));
+		addTest(new TestSuite(PDAVirtualMachineTests.class));
+	}
+}
@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.examples.core.tests;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.debug.examples.core.tests.pda.PDACommandPipelinePerformanceTests;
+
+/**
+ * Performance tests of the debug examples for release builds.
+ */
+public class PerformanceSuite extends TestSuite {
+
+	/**
+	 * Returns the suite.  This is required to use the JUnit Launcher.
+	 *
+	 * @return the test suite
+	 */
+	public static Test suite() {
+		return new PerformanceSuite();
+	}
+
+	/**
+	 * Constructs the performance test suite. Adds all tests.
+	 */
+	public PerformanceSuite() {
+		// PDA debug protocol tests
+		addTest(new TestSuite(PDACommandPipelinePerformanceTests.class));
+	}
+}
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.examples.core.tests.pda;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.util.StringTokenizer;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.examples.core.pda.protocol.PDACommand;
+import org.eclipse.debug.examples.core.pda.protocol.PDACommandFuture;
+import org.eclipse.debug.examples.core.pda.protocol.PDACommandPipeline;
+import org.eclipse.debug.examples.core.pda.protocol.PDACommandResult;
+import org.eclipse.debug.examples.core.pda.protocol.PDAStackCommand;
+import org.eclipse.debug.examples.core.pda.protocol.PDATerminateCommand;
+import org.eclipse.debug.examples.core.pda.protocol.PDAVMResumeCommand;
+import org.eclipse.debug.examples.core.pda.protocol.PDAVMSuspendCommand;
+import org.eclipse.debug.examples.core.pda.protocol.PDAVarCommand;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+
+/**
+ * Retrieves the stack and a variable of each thread of a PDA program running
+ * many threads, one round-trip at a time and with all requests pipelined.
+ */
+public class PDACommandPipelinePerformanceTests extends TestCase {
+
+	/**
+	 * Number of threads in the PDA program
+	 */
+	private static final int THREADS = 100;
+
+	/**
+	 * Identifier of the thread PDA runs the program in
+	 */
+	private static final int MAIN_THREAD_ID = 1;
+
+	/**
+	 * Retrievals of all stacks and variables per run
+	 */
+	private static final int ROUNDS = 20;
+
+	private File fProgram;
+	private PDAProcess fProcess;
+	private PDACommandPipeline fPipeline;
+	private int[] fThreadIds;
+
+	/**
+	 * Returns the threads of the PDA program.
+	 */
+	static class ThreadsCommand extends PDACommand {
+
+		ThreadsCommand() {
+			super("threads"); //$NON-NLS-1$
+		}
+
+		@Override
+		public PDACommandResult createResult(String resultText) {
+			return new PDACommandResult(resultText);
+		}
+	}
+
+	public PDACommandPipelinePerformanceTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fProgram = File.createTempFile("threads", ".pda"); //$NON-NLS-1$ //$NON-NLS-2$
+		PrintWriter program = new PrintWriter(new FileWriter(fProgram));
+		try {
+			for (int i = 0; i < THREADS; i++) {
+				program.println("exec worker"); //$NON-NLS-1$
+			}
+			program.println("halt"); //$NON-NLS-1$
+			program.println(":worker"); //$NON-NLS-1$
+			program.println("var a"); //$NON-NLS-1$
+			program.println(":loop"); //$NON-NLS-1$
+			program.println("push 1"); //$NON-NLS-1$
+			program.println("branch_not_zero loop"); //$NON-NLS-1$
+		} finally {
+			program.close();
+		}
+
+		fProcess = new PDAProcess(fProgram);
+		fPipeline = new PDACommandPipeline(fProcess.getRequestWriter(), fProcess.getResponseReader());
+		fPipeline.start();
+
+		// run until the main thread has started all threads and exited
+		fPipeline.sendCommand(new PDAVMResumeCommand());
+		long timeout = System.currentTimeMillis() + 10000;
+		do {
+			assertTrue("PDA threads did not start", System.currentTimeMillis() < timeout); //$NON-NLS-1$
+			fThreadIds = getThreadIds();
+		} while (fThreadIds == null);
+		fPipeline.sendCommand(new PDAVMSuspendCommand());
+	}
+
+	/**
+	 * Returns the identifiers of the worker threads, or <code>null</code> if
+	 * the main thread is still running.
+	 */
+	private int[] getThreadIds() throws Exception {
+		StringTokenizer threads = new StringTokenizer(fPipeline.sendCommand(new ThreadsCommand()).fResponseText);
+		if (threads.countTokens() != THREADS) {
+			return null;
+		}
+		int[] ids = new int[THREADS];
+		for (int i = 0; i < THREADS; i++) {
+			ids[i] = Integer.parseInt(threads.nextToken());
+			if (ids[i] == MAIN_THREAD_ID) {
+				return null;
+			}
+		}
+		return ids;
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		try {
+			if (fPipeline != null) {
+				fPipeline.send(new PDATerminateCommand());
+				fPipeline.dispose();
+			}
+			if (fProcess != null) {
+				fProcess.dispose();
+			}
+			if (fProgram != null) {
+				fProgram.delete();
+			}
+		} finally {
+			super.tearDown();
+		}
+	}
+
+	public void testRoundTrips() throws Exception {
+		measure(new Retrieval() {
+			@Override
+			public void run() throws Exception {
+				for (int i = 0; i < THREADS; i++) {
+					check(fPipeline.sendCommand(new PDAStackCommand(fThreadIds[i])));
+					check(fPipeline.sendCommand(new PDAVarCommand(fThreadIds[i], 0, "a"))); //$NON-NLS-1$
+				}
+			}
+		});
+	}
+
+	public void testPipelined() throws Exception {
+		final PDACommandFuture[] futures = new PDACommandFuture[THREADS * 2];
+		measure(new Retrieval() {
+			@Override
+			public void run() throws Exception {
+				for (int i = 0; i < THREADS; i++) {
+					futures[i * 2] = fPipeline.send(new PDAStackCommand(fThreadIds[i]));
+					futures[i * 2 + 1] = fPipeline.send(new PDAVarCommand(fThreadIds[i], 0, "a")); //$NON-NLS-1$
+				}
+				for (int i = 0; i < futures.length; i++) {
+					check(futures[i].getResult());
+				}
+			}
+		});
+	}
+
+	/**
+	 * Retrieves the stack and a variable of every thread.
+	 */
+	interface Retrieval {
+		void run() throws Exception;
+	}
+
+	private void measure(Retrieval retrieval) throws Exception {
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(perf.getDefaultScenarioId(this));
+		try {
+			// warm up
+			retrieval.run();
+			for (int pass = 0; pass < 5; pass++) {
+				meter.start();
+				for (int i = 0; i < ROUNDS; i++) {
+					retrieval.run();
+				}
+				meter.stop();
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	private void check(PDACommandResult result) {
+		assertFalse(result.fResponseText, result.fResponseText.startsWith("error")); //$NON-NLS-1$
+	}
+}
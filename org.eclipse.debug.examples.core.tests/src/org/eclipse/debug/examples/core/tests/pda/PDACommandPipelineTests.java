@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.examples.core.tests.pda;
+
+import java.io.BufferedReader;
+import java.io.PipedReader;
+import java.io.PipedWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.examples.core.pda.protocol.PDACommand;
+import org.eclipse.debug.examples.core.pda.protocol.PDACommandFuture;
+import org.eclipse.debug.examples.core.pda.protocol.PDACommandPipeline;
+import org.eclipse.debug.examples.core.pda.protocol.PDACommandResult;
+
+/**
+ * Tests the request identifiers of the PDA debug protocol and the matching of
+ * responses to the commands pending in a pipeline.
+ */
+public class PDACommandPipelineTests extends TestCase {
+
+	/**
+	 * Command whose result is the response text.
+	 */
+	static class TestCommand extends PDACommand {
+
+		TestCommand(String request) {
+			super(request);
+		}
+
+		@Override
+		public PDACommandResult createResult(String resultText) {
+			return new PDACommandResult(resultText);
+		}
+	}
+
+	private StringWriter fRequests;
+	private PipedWriter fResponses;
+	private PDACommandPipeline fPipeline;
+
+	public PDACommandPipelineTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fRequests = new StringWriter();
+		fResponses = new PipedWriter();
+		fPipeline = new PDACommandPipeline(new PrintWriter(fRequests), new BufferedReader(new PipedReader(fResponses)));
+		fPipeline.start();
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		fPipeline.dispose();
+		fResponses.close();
+		super.tearDown();
+	}
+
+	private void respond(String response) throws Exception {
+		fResponses.write(response + '\n');
+		fResponses.flush();
+	}
+
+	private String getResponseText(PDACommandFuture future) throws Exception {
+		return future.get(10, TimeUnit.SECONDS).fResponseText;
+	}
+
+	private void assertFailed(PDACommandFuture future) throws Exception {
+		try {
+			future.get(10, TimeUnit.SECONDS);
+			fail("Command should have failed"); //$NON-NLS-1$
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof DebugException);
+		}
+	}
+
+	/**
+	 * Requests are prefixed with their identifier, and the identifier and text
+	 * of a response are told apart.
+	 */
+	public void testParseResponse() {
+		assertEquals("#4 stack 1", new TestCommand("stack 1").getRequest(4)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(12, PDACommandResult.getRequestId("#12 1 2 3")); //$NON-NLS-1$
+		assertEquals("1 2 3", PDACommandResult.getResponseText("#12 1 2 3")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(7, PDACommandResult.getRequestId("#7")); //$NON-NLS-1$
+		assertEquals("", PDACommandResult.getResponseText("#7")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(-1, PDACommandResult.getRequestId("ok")); //$NON-NLS-1$
+		assertEquals("ok", PDACommandResult.getResponseText("ok")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(-1, PDACommandResult.getRequestId("#x ok")); //$NON-NLS-1$
+		assertEquals("#x ok", PDACommandResult.getResponseText("#x ok")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Each response completes the command with its identifier, whatever the
+	 * order the responses arrive in.
+	 */
+	public void testOutOfOrderCompletion() throws Exception {
+		PDACommandFuture first = fPipeline.send(new TestCommand("first")); //$NON-NLS-1$
+		PDACommandFuture second = fPipeline.send(new TestCommand("second")); //$NON-NLS-1$
+		assertEquals("#1 first\n#2 second\n", fRequests.toString().replaceAll("\r\n", "\n")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		respond("#2 two"); //$NON-NLS-1$
+		assertEquals("two", getResponseText(second)); //$NON-NLS-1$
+		assertFalse(first.isDone());
+		respond("#1 one"); //$NON-NLS-1$
+		assertEquals("one", getResponseText(first)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Closing the connection fails the pending commands and the commands sent
+	 * afterwards.
+	 */
+	public void testCloseFailsPending() throws Exception {
+		PDACommandFuture pending = fPipeline.send(new TestCommand("pending")); //$NON-NLS-1$
+		fResponses.close();
+		assertFailed(pending);
+		PDACommandFuture after = fPipeline.send(new TestCommand("after")); //$NON-NLS-1$
+		assertTrue(after.isDone());
+		assertFailed(after);
+	}
+
+	/**
+	 * A response without an identifier fails the earliest pending command
+	 * rather than leaving it waiting.
+	 */
+	public void testResponseWithoutId() throws Exception {
+		PDACommandFuture first = fPipeline.send(new TestCommand("first")); //$NON-NLS-1$
+		PDACommandFuture second = fPipeline.send(new TestCommand("second")); //$NON-NLS-1$
+		respond("ok"); //$NON-NLS-1$
+		assertFailed(first);
+		assertFalse(second.isDone());
+		respond("#2 ok"); //$NON-NLS-1$
+		assertEquals("ok", getResponseText(second)); //$NON-NLS-1$
+	}
+}
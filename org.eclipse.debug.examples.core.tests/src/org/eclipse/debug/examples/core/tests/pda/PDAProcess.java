@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.examples.core.tests.pda;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.net.URL;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.URIUtil;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.examples.core.pda.DebugCorePlugin;
+import org.eclipse.debug.examples.core.pda.launcher.PDALaunchDelegate;
+
+/**
+ * A PDA virtual machine running a program in debug mode in its own process,
+ * connected to over its request and event sockets. Events are discarded.
+ */
+class PDAProcess {
+
+	private final Process fProcess;
+	private final Socket fRequestSocket;
+	private final Socket fEventSocket;
+
+	/**
+	 * Starts PDA on the given program and connects to it. The program is
+	 * suspended until resumed.
+	 */
+	PDAProcess(File program) throws Exception {
+		int requestPort = PDALaunchDelegate.findFreePort();
+		int eventPort = PDALaunchDelegate.findFreePort();
+		fProcess = DebugPlugin.exec(new String[] {
+				new Path(System.getProperty("java.home")).append("bin/java").toOSString(), //$NON-NLS-1$ //$NON-NLS-2$
+				"-cp", //$NON-NLS-1$
+				getClassPath(),
+				"org.eclipse.debug.examples.pdavm.PDAVirtualMachine", //$NON-NLS-1$
+				program.getAbsolutePath(),
+				"-debug", //$NON-NLS-1$
+				Integer.toString(requestPort),
+				Integer.toString(eventPort) }, null);
+		fRequestSocket = connect(requestPort);
+		fRequestSocket.setTcpNoDelay(true);
+		fEventSocket = connect(eventPort);
+		startEventReader(fEventSocket);
+	}
+
+	/**
+	 * @return a writer to send requests with
+	 */
+	PrintWriter getRequestWriter() throws IOException {
+		return new PrintWriter(fRequestSocket.getOutputStream());
+	}
+
+	/**
+	 * @return a reader to receive responses from
+	 */
+	BufferedReader getResponseReader() throws IOException {
+		return new BufferedReader(new InputStreamReader(fRequestSocket.getInputStream()));
+	}
+
+	/**
+	 * Closes the connection and ends the process.
+	 */
+	void dispose() throws IOException {
+		try {
+			fRequestSocket.close();
+			fEventSocket.close();
+		} finally {
+			fProcess.destroy();
+		}
+	}
+
+	private static String getClassPath() throws IOException {
+		URL classPathUrl = FileLocator.find(Platform.getBundle(DebugCorePlugin.PLUGIN_ID), new Path("bin/"), null); //$NON-NLS-1$
+		if (classPathUrl == null) { // not running from the workspace, but from the built bundle
+			classPathUrl = FileLocator.find(Platform.getBundle(DebugCorePlugin.PLUGIN_ID), Path.ROOT, null);
+		}
+		classPathUrl = FileLocator.toFileURL(classPathUrl);
+		try {
+			return URIUtil.toFile(URIUtil.toURI(classPathUrl)).getAbsolutePath();
+		} catch (Exception e) {
+			throw new IOException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Connects to the given port of the PDA VM, waiting for it to listen.
+	 */
+	private static Socket connect(int port) throws Exception {
+		long timeout = System.currentTimeMillis() + 10000;
+		while (true) {
+			try {
+				return new Socket("localhost", port); //$NON-NLS-1$
+			} catch (IOException e) {
+				if (System.currentTimeMillis() > timeout) {
+					throw e;
+				}
+				Thread.sleep(100);
+			}
+		}
+	}
+
+	/**
+	 * Discards the events of the PDA VM.
+	 */
+	private static void startEventReader(Socket eventSocket) throws IOException {
+		final BufferedReader events = new BufferedReader(new InputStreamReader(eventSocket.getInputStream()));
+		Thread reader = new Thread("PDA events") { //$NON-NLS-1$
+			@Override
+			public void run() {
+				try {
+					while (events.readLine() != null) {
+						// discard
+					}
+				} catch (IOException e) {
+					// closed
+				}
+			}
+		};
+		reader.setDaemon(true);
+		reader.start();
+	}
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.examples.core.tests.pda;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that the PDA virtual machine answers requests without an identifier
+ * as before, and prefixes the responses to the other requests with their
+ * identifier.
+ */
+public class PDAVirtualMachineTests extends TestCase {
+
+	/**
+	 * Identifier of the thread PDA runs the program in
+	 */
+	private static final String MAIN_THREAD_ID = "1"; //$NON-NLS-1$
+
+	private File fProgram;
+	private PDAProcess fProcess;
+	private PrintWriter fRequests;
+	private BufferedReader fResponses;
+
+	public PDAVirtualMachineTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fProgram = File.createTempFile("requests", ".pda"); //$NON-NLS-1$ //$NON-NLS-2$
+		PrintWriter program = new PrintWriter(new FileWriter(fProgram));
+		try {
+			program.println("push 1"); //$NON-NLS-1$
+			program.println("halt"); //$NON-NLS-1$
+		} finally {
+			program.close();
+		}
+		// the program is suspended before its first instruction
+		fProcess = new PDAProcess(fProgram);
+		fRequests = fProcess.getRequestWriter();
+		fResponses = fProcess.getResponseReader();
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		try {
+			if (fProcess != null) {
+				fRequests.println("terminate"); //$NON-NLS-1$
+				fRequests.flush();
+				fProcess.dispose();
+			}
+			if (fProgram != null) {
+				fProgram.delete();
+			}
+		} finally {
+			super.tearDown();
+		}
+	}
+
+	private String request(String request) throws Exception {
+		fRequests.println(request);
+		fRequests.flush();
+		return fResponses.readLine();
+	}
+
+	public void testUnprefixedRequest() throws Exception {
+		assertEquals(MAIN_THREAD_ID, request("threads")); //$NON-NLS-1$
+	}
+
+	public void testPrefixedRequest() throws Exception {
+		assertEquals("#5 " + MAIN_THREAD_ID, request("#5 threads")); //$NON-NLS-1$ //$NON-NLS-2$
+		// the identifier does not carry over to the next request
+		assertEquals(MAIN_THREAD_ID, request("threads")); //$NON-NLS-1$
+	}
+
+	public void testIdentifierWithoutRequest() throws Exception {
+		assertEquals("#6 error: invalid command", request("#6")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2013 Wind River Systems and others.
+ * Copyright (c) 2005, 2014 Wind River Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -314,6 +314,12 @@ public class PDAVirtualMachine {
     /** Command socket write stream. */
     OutputStream fCommandResponseStream;
 
+    /**
+     * Identifier of the request being processed, with which its response is
+     * prefixed, or <code>null</code> if the request has none.
+     */
+    String fRequestId;
+
     /** The port to send debug events to */
     final int fEventPort;
 
@@ -429,6 +435,9 @@ public class PDAVirtualMachine {
     }
 
     void sendCommandResponse(String response) {
+        if (fRequestId != null) {
+            response = "#" + fRequestId + " " + response; //$NON-NLS-1$ //$NON-NLS-2$
+        }
         try {
             fCommandResponseStream.write(response.getBytes());
             fCommandResponseStream.flush();
@@ -458,6 +467,8 @@ public class PDAVirtualMachine {
 
         ServerSocket commandServerSocket = new ServerSocket(fCommandPort);
         fCommandSocket = commandServerSocket.accept();
+        // send each response without waiting for earlier ones to be acknowledged
+        fCommandSocket.setTcpNoDelay(true);
         fCommandReceiveStream = new BufferedReader(new InputStreamReader(fCommandSocket.getInputStream()));
         fCommandResponseStream = new PrintStream(fCommandSocket.getOutputStream());
         commandServerSocket.close();
@@ -701,6 +712,17 @@ public class PDAVirtualMachine {
         }
 
         String command = tokenizer.nextToken();
+        // requests may be prefixed with an identifier: #{request_id} {request}
+        fRequestId = null;
+        if (command.startsWith("#")) { //$NON-NLS-1$
+            fRequestId = command.substring(1);
+            if (!tokenizer.hasMoreTokens()) {
+                sendCommandResponse("error: invalid command\n"); //$NON-NLS-1$
+                fRequestId = null;
+                return;
+            }
+            command = tokenizer.nextToken();
+        }
 		List<String> tokens = new LinkedList<String>();
         while (tokenizer.hasMoreTokens()) {
             tokens.add(tokenizer.nextToken());
@@ -766,6 +788,7 @@ public class PDAVirtualMachine {
 		} else {
             sendCommandResponse("error: invalid command\n"); //$NON-NLS-1$
         }
+        fRequestId = null;
     }
 
     void debugChildren(Args args) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2009 IBM Corporation and others.
+ * Copyright (c) 2005, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials 
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -19,6 +19,7 @@ import org.eclipse.debug.core.model.DebugElement;
 import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.examples.core.pda.DebugCorePlugin;
 import org.eclipse.debug.examples.core.pda.protocol.PDACommand;
+import org.eclipse.debug.examples.core.pda.protocol.PDACommandFuture;
 import org.eclipse.debug.examples.core.pda.protocol.PDACommandResult;
 
 
@@ -89,6 +90,19 @@ public class PDADebugElement extends DebugElement {
 	public PDACommandResult sendCommand(PDACommand command) throws DebugException {
         return getPDADebugTarget().sendCommand(command);
     }
+
+	/**
+	 * Sends a request to the PDA interpreter and returns without waiting for 
+	 * the reply.  Many requests may be outstanding at the same time.
+	 * 
+	 * @param command command
+	 * @return the pending reply
+	 * 
+	 * @see #sendCommand(PDACommand)
+	 */
+	public PDACommandFuture sendCommandAsync(PDACommand command) {
+	    return getPDADebugTarget().sendCommandAsync(command);
+	}
 	
 	/**
 	 * Returns the debug target as a PDA target.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2013 IBM Corporation and others.
+ * Copyright (c) 2005, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -48,6 +48,8 @@ import org.eclipse.debug.examples.core.pda.DebugCorePlugin;
 import org.eclipse.debug.examples.core.pda.breakpoints.PDALineBreakpoint;
 import org.eclipse.debug.examples.core.pda.breakpoints.PDARunToLineBreakpoint;
 import org.eclipse.debug.examples.core.pda.protocol.PDACommand;
+import org.eclipse.debug.examples.core.pda.protocol.PDACommandFuture;
+import org.eclipse.debug.examples.core.pda.protocol.PDACommandPipeline;
 import org.eclipse.debug.examples.core.pda.protocol.PDACommandResult;
 import org.eclipse.debug.examples.core.pda.protocol.PDAEvent;
 import org.eclipse.debug.examples.core.pda.protocol.PDAEventStopCommand;
@@ -78,6 +80,7 @@ public class PDADebugTarget extends PDADebugElement implements IDebugTarget, IBr
 	private Socket fRequestSocket;
 	private PrintWriter fRequestWriter;
 	private BufferedReader fRequestReader;
+	private PDACommandPipeline fRequestPipeline;
 	private Socket fEventSocket;
 	private BufferedReader fEventReader;
 
@@ -187,6 +190,8 @@ public class PDADebugTarget extends PDADebugElement implements IDebugTarget, IBr
 			} catch (InterruptedException e) {
 			}
 			fRequestSocket = new Socket("localhost", requestPort); //$NON-NLS-1$
+			// requests are pipelined, send each without waiting for earlier ones to be acknowledged
+			fRequestSocket.setTcpNoDelay(true);
 			fRequestWriter = new PrintWriter(fRequestSocket.getOutputStream());
 			fRequestReader = new BufferedReader(new InputStreamReader(fRequestSocket.getInputStream()));
 			// give interpreter a chance to open next socket
@@ -201,6 +206,8 @@ public class PDADebugTarget extends PDADebugElement implements IDebugTarget, IBr
 		} catch (IOException e) {
 			requestFailed("Unable to connect to PDA VM", e); //$NON-NLS-1$
 		}
+		fRequestPipeline = new PDACommandPipeline(fRequestWriter, fRequestReader);
+		fRequestPipeline.start();
 		fEventDispatch = new EventDispatchJob();
 		fEventDispatch.schedule();
 		IBreakpointManager breakpointManager = getBreakpointManager();
@@ -512,32 +519,17 @@ public class PDADebugTarget extends PDADebugElement implements IDebugTarget, IBr
         fTerminated = terminated;
     }
 
-	/* (non-Javadoc)
-	 * @see org.eclipse.debug.examples.core.pda.model.PDADebugElement#sendRequest(java.lang.String)
-	 */
-	private String sendRequest(String request) throws DebugException {
-		synchronized (fRequestSocket) {
-			fRequestWriter.println(request);
-			fRequestWriter.flush();
-			try {
-				// wait for reply
-				String retVal = fRequestReader.readLine();
-				if (retVal == null) {
-	                requestFailed("Request failed: " + request + ".  Debugger connection closed.", null);				     //$NON-NLS-1$ //$NON-NLS-2$
-				}
-				return retVal;
-			} catch (IOException e) {
-				requestFailed("Request failed: " + request, e); //$NON-NLS-1$
-			}
-		}
-		// Should never reach this satement.
-		return null;
+	@Override
+	public PDACommandResult sendCommand(PDACommand command) throws DebugException {
+	    return sendCommandAsync(command).getResult();
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.examples.core.pda.model.PDADebugElement#sendCommandAsync(org.eclipse.debug.examples.core.pda.protocol.PDACommand)
+	 */
 	@Override
-	public PDACommandResult sendCommand(PDACommand command) throws DebugException {
-	    String response = sendRequest(command.getRequest());
-	    return command.createResult(response);
+	public PDACommandFuture sendCommandAsync(PDACommand command) {
+	    return fRequestPipeline.send(command);
 	}
 
 	/**
@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.examples.core.pda.protocol;
+
+/**
+ * Listeners are notified when PDA has answered a command sent through a 
+ * {@link PDACommandPipeline}, or when the command failed.
+ * 
+ * @see PDACommandFuture#addListener(IPDACommandListener)
+ */
+public interface IPDACommandListener {
+
+    /**
+     * Notification the given command has completed.  Called on the thread 
+     * that reads PDA responses, which is blocked until this method returns.
+     * 
+     * @param future the completed command
+     */
+    public void commandCompleted(PDACommandFuture future);
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 Wind River Systems and others.
+ * Copyright (c) 2007, 2014 Wind River Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,9 +14,23 @@ package org.eclipse.debug.examples.core.pda.protocol;
 /**
  * Base class for PDA commands.  Sub-classes should format the request string 
  * and implement the method to create the proper result object.
+ * <p>
+ * A request may be prefixed with an identifier, in which case PDA prefixes 
+ * its response with the same identifier.  This allows many requests to be 
+ * outstanding at the same time.
+ * <pre>
+ *    C: #{request_id} {request}
+ *    R: #{request_id} {response}
+ * </pre>
+ * </p>
  */
 abstract public class PDACommand {
 
+    /**
+     * Prefix of the identifier of a request and of its response.
+     */
+    public static final String REQUEST_ID_PREFIX = "#"; //$NON-NLS-1$
+
     final private String fRequest;
     
     public PDACommand(String request) {
@@ -30,6 +44,14 @@ abstract public class PDACommand {
         return fRequest;
     }
 
+    /**
+     * Returns the request to be sent to PDA, prefixed with the given request 
+     * identifier.
+     */
+    public String getRequest(int requestId) {
+        return REQUEST_ID_PREFIX + requestId + ' ' + fRequest;
+    }
+
     /**
      * Returns the command result based on the given PDA response.  This command 
      * uses the class type parameter as the return type to allow the compiler to 
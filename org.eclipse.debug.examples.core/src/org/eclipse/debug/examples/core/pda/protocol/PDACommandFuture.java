@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.examples.core.pda.protocol;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.debug.core.DebugException;
+
+/**
+ * The pending result of a command sent through a {@link PDACommandPipeline}.
+ * Clients may wait for the result or register listeners to be notified when 
+ * it is available.  A command that has been sent cannot be cancelled.
+ */
+public class PDACommandFuture implements Future<PDACommandResult> {
+
+    final private PDACommand fCommand;
+    final private int fRequestId;
+
+    private boolean fDone = false;
+    private PDACommandResult fResult;
+    private DebugException fException;
+    private List<IPDACommandListener> fListeners = new ArrayList<IPDACommandListener>(1);
+
+    PDACommandFuture(PDACommand command, int requestId) {
+        fCommand = command;
+        fRequestId = requestId;
+    }
+
+    /**
+     * Returns the command.
+     */
+    public PDACommand getCommand() {
+        return fCommand;
+    }
+
+    /**
+     * Returns the identifier the request was sent with.
+     */
+    public int getRequestId() {
+        return fRequestId;
+    }
+
+    /**
+     * Registers the given listener to be notified when the command completes.
+     * The listener is notified immediately, in the calling thread, if the 
+     * command has already completed.
+     * 
+     * @param listener command listener
+     */
+    public void addListener(IPDACommandListener listener) {
+        synchronized (this) {
+            if (!fDone) {
+                fListeners.add(listener);
+                return;
+            }
+        }
+        listener.commandCompleted(this);
+    }
+
+    /**
+     * Waits for PDA to answer the command and returns the result.  Interrupting
+     * the calling thread does not end the wait; the interrupt is preserved.
+     * 
+     * @return the command result
+     * @throws DebugException if the command failed
+     */
+    public PDACommandResult getResult() throws DebugException {
+        boolean interrupted = false;
+        try {
+            synchronized (this) {
+                while (!fDone) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (fException != null) {
+                    throw fException;
+                }
+                return fResult;
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.concurrent.Future#get()
+     */
+    @Override
+    public synchronized PDACommandResult get() throws InterruptedException, ExecutionException {
+        while (!fDone) {
+            wait();
+        }
+        return getDoneResult();
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.concurrent.Future#get(long, java.util.concurrent.TimeUnit)
+     */
+    @Override
+    public synchronized PDACommandResult get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        long end = System.nanoTime() + unit.toNanos(timeout);
+        while (!fDone) {
+            long remaining = end - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException();
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return getDoneResult();
+    }
+
+    private PDACommandResult getDoneResult() throws ExecutionException {
+        if (fException != null) {
+            throw new ExecutionException(fException);
+        }
+        return fResult;
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.concurrent.Future#isDone()
+     */
+    @Override
+    public synchronized boolean isDone() {
+        return fDone;
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.concurrent.Future#cancel(boolean)
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.concurrent.Future#isCancelled()
+     */
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    /**
+     * Completes the command with the given result.
+     */
+    void done(PDACommandResult result) {
+        complete(result, null);
+    }
+
+    /**
+     * Completes the command with the given failure.
+     */
+    void failed(DebugException exception) {
+        complete(null, exception);
+    }
+
+    private void complete(PDACommandResult result, DebugException exception) {
+        List<IPDACommandListener> listeners;
+        synchronized (this) {
+            if (fDone) {
+                return;
+            }
+            fDone = true;
+            fResult = result;
+            fException = exception;
+            listeners = fListeners;
+            fListeners = null;
+            notifyAll();
+        }
+        for (IPDACommandListener listener : listeners) {
+            listener.commandCompleted(this);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return fCommand.getRequest(fRequestId);
+    }
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.examples.core.pda.protocol;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.examples.core.pda.DebugCorePlugin;
+
+/**
+ * Sends commands to PDA over its request socket without waiting for the
+ * responses to earlier commands.  Each request is sent with an identifier
+ * and a job matches the responses to the pending requests by their
+ * identifiers, completing the future of each command.
+ * <p>
+ * PDA answers requests in the order they are sent.  A response without an
+ * identifier fails the earliest pending command, rather than leaving it
+ * waiting for a response that will not come.  When the connection closes,
+ * all pending commands fail, as do the commands sent afterwards.
+ * </p>
+ *
+ * @see PDACommand#getRequest(int)
+ */
+public class PDACommandPipeline {
+
+    final private PrintWriter fRequestWriter;
+    final private BufferedReader fRequestReader;
+
+    // commands sent, by request identifier, in the order they were sent
+    final private Map<Integer, PDACommandFuture> fPending = new LinkedHashMap<Integer, PDACommandFuture>();
+
+    private int fNextRequestId = 1;
+
+    // whether the connection has closed
+    private boolean fClosed = false;
+
+    // reason the connection closed, if it failed
+    private IOException fCloseCause;
+
+    final private ResponseDispatchJob fResponseDispatch = new ResponseDispatchJob();
+
+    /**
+     * Reads the responses from PDA and completes the commands they answer.
+     */
+    class ResponseDispatchJob extends Job {
+
+        public ResponseDispatchJob() {
+            super("PDA Response Dispatch"); //$NON-NLS-1$
+            setSystem(true);
+        }
+
+        /* (non-Javadoc)
+         * @see org.eclipse.core.runtime.jobs.Job#run(org.eclipse.core.runtime.IProgressMonitor)
+         */
+        @Override
+        protected IStatus run(IProgressMonitor monitor) {
+            while (true) {
+                String response;
+                try {
+                    response = fRequestReader.readLine();
+                } catch (IOException e) {
+                    close(e);
+                    break;
+                }
+                if (response == null) {
+                    close(null);
+                    break;
+                }
+                dispatch(response);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    /**
+     * Constructs a pipeline over the given request socket streams.  No other
+     * client may use the streams.
+     *
+     * @param requestWriter writer to send requests with
+     * @param requestReader reader to receive responses from
+     */
+    public PDACommandPipeline(PrintWriter requestWriter, BufferedReader requestReader) {
+        fRequestWriter = requestWriter;
+        fRequestReader = requestReader;
+    }
+
+    /**
+     * Starts reading responses.
+     */
+    public void start() {
+        fResponseDispatch.schedule();
+    }
+
+    /**
+     * Sends the given command to PDA and returns without waiting for the
+     * response.
+     *
+     * @param command the command
+     * @return the pending result of the command
+     */
+    public PDACommandFuture send(PDACommand command) {
+        PDACommandFuture future;
+        boolean error;
+        // register and write under one lock, so pending commands are in the
+        // order PDA receives them
+        synchronized (fRequestWriter) {
+            synchronized (fPending) {
+                future = new PDACommandFuture(command, fNextRequestId++);
+                if (fClosed) {
+                    future.failed(newRequestFailedException(command, fCloseCause));
+                    return future;
+                }
+                fPending.put(new Integer(future.getRequestId()), future);
+            }
+            fRequestWriter.println(command.getRequest(future.getRequestId()));
+            fRequestWriter.flush();
+            error = fRequestWriter.checkError();
+        }
+        if (error) {
+            close(new IOException("Unable to write to PDA request socket")); //$NON-NLS-1$
+        }
+        return future;
+    }
+
+    /**
+     * Sends the given command to PDA, waits for and returns the result.
+     *
+     * @param command the command
+     * @return the command result
+     * @throws DebugException if the command fails
+     */
+    public PDACommandResult sendCommand(PDACommand command) throws DebugException {
+        return send(command).getResult();
+    }
+
+    /**
+     * Fails all pending commands and the commands sent afterwards.
+     */
+    public void dispose() {
+        close(null);
+    }
+
+    private void dispatch(String response) {
+        int requestId = PDACommandResult.getRequestId(response);
+        PDACommandFuture future;
+        synchronized (fPending) {
+            if (requestId < 0) {
+                // the response answers the earliest pending command, which
+                // cannot be told its result
+                future = null;
+                Iterator<PDACommandFuture> pending = fPending.values().iterator();
+                if (pending.hasNext()) {
+                    future = pending.next();
+                    pending.remove();
+                }
+            } else {
+                future = fPending.remove(new Integer(requestId));
+            }
+        }
+        if (future == null) {
+            DebugCorePlugin.getDefault().getLog().log(
+                new Status(IStatus.ERROR, DebugCorePlugin.PLUGIN_ID, "Unexpected PDA response: " + response)); //$NON-NLS-1$
+            return;
+        }
+        if (requestId < 0) {
+            future.failed(new DebugException(new Status(IStatus.ERROR, DebugCorePlugin.PLUGIN_ID, DebugException.TARGET_REQUEST_FAILED,
+                "PDA response without request identifier: " + response, null))); //$NON-NLS-1$
+            return;
+        }
+        PDACommandResult result;
+        try {
+            result = future.getCommand().createResult(PDACommandResult.getResponseText(response));
+        } catch (RuntimeException e) {
+            future.failed(new DebugException(new Status(IStatus.ERROR, DebugCorePlugin.PLUGIN_ID, DebugException.TARGET_REQUEST_FAILED,
+                "Error parsing PDA response: " + response, e))); //$NON-NLS-1$
+            return;
+        }
+        future.done(result);
+    }
+
+    private void close(IOException cause) {
+        PDACommandFuture[] pending;
+        synchronized (fPending) {
+            if (fClosed) {
+                return;
+            }
+            fClosed = true;
+            fCloseCause = cause;
+            pending = fPending.values().toArray(new PDACommandFuture[fPending.size()]);
+            fPending.clear();
+        }
+        for (int i = 0; i < pending.length; i++) {
+            pending[i].failed(newRequestFailedException(pending[i].getCommand(), cause));
+        }
+    }
+
+    private DebugException newRequestFailedException(PDACommand command, IOException cause) {
+        String message = cause == null ?
+            "Request failed: " + command.getRequest() + ".  Debugger connection closed." : //$NON-NLS-1$ //$NON-NLS-2$
+            "Request failed: " + command.getRequest(); //$NON-NLS-1$
+        return new DebugException(new Status(IStatus.ERROR, DebugCorePlugin.PLUGIN_ID, DebugException.TARGET_REQUEST_FAILED, message, cause));
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2009 Wind River Systems and others.
+ * Copyright (c) 2008, 2014 Wind River Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,4 +24,34 @@ public class PDACommandResult {
     public PDACommandResult(String response) {
         fResponseText = response;
     }
+
+    /**
+     * Returns the identifier of the request the given PDA response answers, 
+     * or <code>-1</code> if the response has no identifier.
+     */
+    public static int getRequestId(String response) {
+        if (!response.startsWith(PDACommand.REQUEST_ID_PREFIX)) {
+            return -1;
+        }
+        int end = response.indexOf(' ');
+        if (end < 0) {
+            end = response.length();
+        }
+        try {
+            return Integer.parseInt(response.substring(PDACommand.REQUEST_ID_PREFIX.length(), end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the given PDA response without its request identifier.
+     */
+    public static String getResponseText(String response) {
+        if (getRequestId(response) < 0) {
+            return response;
+        }
+        int start = response.indexOf(' ');
+        return start < 0 ? "" : response.substring(start + 1); //$NON-NLS-1$
+    }
 }
@@ -15,18 +15,38 @@ package org.eclipse.debug.tests;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import org.eclipse.debug.tests.breakpoint.BreakpointNotificationTests;
 import org.eclipse.debug.tests.breakpoint.BreakpointOrderingTests;
+import org.eclipse.debug.tests.breakpoint.BreakpointRegistryTests;
+import org.eclipse.debug.tests.breakpoint.BreakpointRestorerTests;
+import org.eclipse.debug.tests.console.ConsolePatternMatcherTests;
+import org.eclipse.debug.tests.console.IOConsolePartitionerTests;
+import org.eclipse.debug.tests.core.DebugCommandTests;
+import org.eclipse.debug.tests.core.EventDispatchTests;
+import org.eclipse.debug.tests.core.OutputStreamMonitorTests;
+import org.eclipse.debug.tests.core.StreamContentsTests;
 import org.eclipse.debug.tests.launching.AcceleratorSubstitutionTests;
 import org.eclipse.debug.tests.launching.ArgumentParsingTests;
 import org.eclipse.debug.tests.launching.LaunchConfigurationTests;
+import org.eclipse.debug.tests.launching.LaunchConfigurationCodecTests;
+import org.eclipse.debug.tests.launching.LaunchConfigurationIndexTests;
+import org.eclipse.debug.tests.launching.LaunchConfigurationInfoCacheTests;
+import org.eclipse.debug.tests.launching.LaunchConfigurationLoaderTests;
+import org.eclipse.debug.tests.launching.LaunchConfigurationLookupTests;
 import org.eclipse.debug.tests.launching.LaunchFavoriteTests;
 import org.eclipse.debug.tests.launching.LaunchHistoryTests;
 import org.eclipse.debug.tests.launching.LaunchManagerTests;
 import org.eclipse.debug.tests.launching.RefreshTabTests;
+import org.eclipse.debug.tests.sourcelookup.ExternalArchiveSourceContainerTests;
+import org.eclipse.debug.tests.sourcelookup.ParallelSourceLookupTests;
 import org.eclipse.debug.tests.sourcelookup.SourceLookupFacilityTests;
 import org.eclipse.debug.tests.statushandlers.StatusHandlerTests;
 import org.eclipse.debug.tests.stepfilters.StepFiltersTests;
+import org.eclipse.debug.tests.view.memory.MemoryBlockCacheTests;
+import org.eclipse.debug.tests.view.memory.MemoryBufferDiffTests;
+import org.eclipse.debug.tests.view.memory.MemoryBufferTests;
 import org.eclipse.debug.tests.view.memory.MemoryRenderingTests;
+import org.eclipse.debug.tests.view.memory.RenderingsUtilTests;
 import org.eclipse.debug.tests.viewer.model.ChildrenUpdateTests;
 import org.eclipse.debug.tests.viewer.model.FilterTransformTests;
 import org.eclipse.debug.tests.viewer.model.PresentationContextTests;
@@ -60,8 +80,13 @@ public class AutomatedSuite extends TestSuite {
 	public AutomatedSuite() {
 		// Source lookup tests
 		addTest(new TestSuite(SourceLookupFacilityTests.class));
+		addTest(new TestSuite(ExternalArchiveSourceContainerTests.class));
+		addTest(new TestSuite(ParallelSourceLookupTests.class));
 		// BP tests
 		addTest(new TestSuite(BreakpointOrderingTests.class));
+		addTest(new TestSuite(BreakpointRegistryTests.class));
+		addTest(new TestSuite(BreakpointRestorerTests.class));
+		addTest(new TestSuite(BreakpointNotificationTests.class));
 	    // Note: jface viewer tests were moved out of nightly tests
 	    // due to frequent problems on nightly build machines.
 	    // (Bug 343308).
@@ -82,6 +107,10 @@ public class AutomatedSuite extends TestSuite {
 
 		// Memory view
 		addTest(new TestSuite(MemoryRenderingTests.class));
+		addTest(new TestSuite(MemoryBufferTests.class));
+		addTest(new TestSuite(MemoryBufferDiffTests.class));
+		addTest(new TestSuite(MemoryBlockCacheTests.class));
+		addTest(new TestSuite(RenderingsUtilTests.class));
 
 		// Launch framework
 		addTest(new TestSuite(LaunchConfigurationTests.class));
@@ -89,9 +118,26 @@ public class AutomatedSuite extends TestSuite {
 		addTest(new TestSuite(LaunchHistoryTests.class));
 		addTest(new TestSuite(LaunchFavoriteTests.class));
 		addTest(new TestSuite(LaunchManagerTests.class));
+		addTest(new TestSuite(LaunchConfigurationIndexTests.class));
+		addTest(new TestSuite(LaunchConfigurationLookupTests.class));
+		addTest(new TestSuite(LaunchConfigurationCodecTests.class));
+		addTest(new TestSuite(LaunchConfigurationInfoCacheTests.class));
+		addTest(new TestSuite(LaunchConfigurationLoaderTests.class));
 		addTest(new TestSuite(RefreshTabTests.class));
 		addTest(new TestSuite(ArgumentParsingTests.class));
 
+		// Process output
+		addTest(new TestSuite(StreamContentsTests.class));
+		addTest(new TestSuite(OutputStreamMonitorTests.class));
+		addTest(new TestSuite(ConsolePatternMatcherTests.class));
+		addTest(new TestSuite(IOConsolePartitionerTests.class));
+
+		// Debug events
+		addTest(new TestSuite(EventDispatchTests.class));
+
+		// Debug commands
+		addTest(new TestSuite(DebugCommandTests.class));
+
 		// Status handlers
 		addTest(new TestSuite(StatusHandlerTests.class));
 
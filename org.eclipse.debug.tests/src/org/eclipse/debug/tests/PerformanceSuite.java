@@ -13,6 +13,11 @@ package org.eclipse.debug.tests;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import org.eclipse.debug.tests.breakpoint.BreakpointRegistryPerformanceTests;
+import org.eclipse.debug.tests.console.IOConsolePartitionerPerformanceTests;
+import org.eclipse.debug.tests.launching.LaunchConfigurationCodecPerformanceTests;
+import org.eclipse.debug.tests.launching.StreamPumpPerformanceTests;
+import org.eclipse.debug.tests.view.memory.RenderingsUtilPerformanceTests;
 import org.eclipse.debug.tests.viewer.model.JFaceViewerPerformanceTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerPerformanceTests;
 
@@ -41,6 +46,21 @@ public class PerformanceSuite extends TestSuite {
         
         // Virtual viewer tests
         addTest(new TestSuite(VirtualViewerPerformanceTests.class));
+
+        // Process stream tests
+        addTest(new TestSuite(StreamPumpPerformanceTests.class));
+
+        // Launch configuration tests
+        addTest(new TestSuite(LaunchConfigurationCodecPerformanceTests.class));
+
+        // Console tests
+        addTest(new TestSuite(IOConsolePartitionerPerformanceTests.class));
+
+        // Breakpoint tests
+        addTest(new TestSuite(BreakpointRegistryPerformanceTests.class));
+
+        // Memory rendering tests
+        addTest(new TestSuite(RenderingsUtilPerformanceTests.class));
     }
 
 }
@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.breakpoint;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IMarkerDelta;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IBreakpointsListener;
+import org.eclipse.debug.core.model.IBreakpoint;
+import org.eclipse.debug.core.model.LineBreakpoint;
+import org.eclipse.debug.internal.core.BreakpointManager;
+import org.eclipse.debug.tests.TestsPlugin;
+
+/**
+ * Tests that the breakpoint changes of a resource delta are reported with one
+ * notification per kind of change, and the counters of notifications sent.
+ */
+public class BreakpointNotificationTests extends TestCase {
+
+	/**
+	 * Number of breakpoints changed together
+	 */
+	private static final int COUNT = 3;
+
+	/**
+	 * Test only line breakpoint, not persisted.
+	 */
+	static class TestLineBreakpoint extends LineBreakpoint {
+
+		TestLineBreakpoint(final IResource resource, final int lineNumber) throws CoreException {
+			run(getMarkerRule(resource), new IWorkspaceRunnable() {
+				@Override
+				public void run(IProgressMonitor monitor) throws CoreException {
+					IMarker marker = resource.createMarker(IBreakpoint.LINE_BREAKPOINT_MARKER);
+					setMarker(marker);
+					marker.setAttribute(IBreakpoint.ENABLED, Boolean.TRUE);
+					marker.setAttribute(IBreakpoint.PERSISTED, Boolean.FALSE);
+					marker.setAttribute(IMarker.LINE_NUMBER, lineNumber);
+					marker.setAttribute(IBreakpoint.ID, getModelIdentifier());
+				}
+			});
+		}
+
+		@Override
+		public String getModelIdentifier() {
+			return TestsPlugin.PLUGIN_ID;
+		}
+	}
+
+	/**
+	 * Records the notifications for the breakpoints of the test.
+	 */
+	class Recorder implements IBreakpointsListener {
+
+		final List<String> fKinds = new ArrayList<String>();
+		final List<IBreakpoint[]> fBreakpoints = new ArrayList<IBreakpoint[]>();
+		final List<IMarkerDelta[]> fDeltas = new ArrayList<IMarkerDelta[]>();
+
+		void clear() {
+			fKinds.clear();
+			fBreakpoints.clear();
+			fDeltas.clear();
+		}
+
+		private void record(String kind, IBreakpoint[] breakpoints, IMarkerDelta[] deltas) {
+			if (fList.contains(breakpoints[0])) {
+				fKinds.add(kind);
+				fBreakpoints.add(breakpoints);
+				fDeltas.add(deltas);
+			}
+		}
+
+		@Override
+		public void breakpointsAdded(IBreakpoint[] breakpoints) {
+			record("added", breakpoints, null); //$NON-NLS-1$
+		}
+
+		@Override
+		public void breakpointsRemoved(IBreakpoint[] breakpoints, IMarkerDelta[] deltas) {
+			record("removed", breakpoints, deltas); //$NON-NLS-1$
+		}
+
+		@Override
+		public void breakpointsChanged(IBreakpoint[] breakpoints, IMarkerDelta[] deltas) {
+			record("changed", breakpoints, deltas); //$NON-NLS-1$
+		}
+	}
+
+	private BreakpointManager fManager;
+	private IProject fProject;
+	private IBreakpoint[] fBreakpoints;
+	private List<IBreakpoint> fList;
+	private Recorder fRecorder;
+
+	public BreakpointNotificationTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fManager = (BreakpointManager) DebugPlugin.getDefault().getBreakpointManager();
+		fProject = ResourcesPlugin.getWorkspace().getRoot().getProject("BreakpointNotification"); //$NON-NLS-1$
+		if (!fProject.exists()) {
+			fProject.create(null);
+		}
+		fProject.open(null);
+		IFile file = fProject.getFile("test.txt"); //$NON-NLS-1$
+		if (!file.exists()) {
+			file.create(new ByteArrayInputStream("1\n2\n3\n".getBytes()), true, null); //$NON-NLS-1$
+		}
+		fBreakpoints = new IBreakpoint[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			fBreakpoints[i] = new TestLineBreakpoint(file, i + 1);
+		}
+		fList = Arrays.asList(fBreakpoints);
+		fRecorder = new Recorder();
+		fManager.addBreakpointListener(fRecorder);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		fManager.removeBreakpointListener(fRecorder);
+		fManager.removeBreakpoints(fBreakpoints, true);
+		fProject.delete(true, null);
+		super.tearDown();
+	}
+
+	/**
+	 * Changes the markers of the given breakpoints the given number of times
+	 * each in one workspace operation, so the changes are in one delta.
+	 */
+	private void change(final IBreakpoint[] breakpoints, final int times) throws CoreException {
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+			@Override
+			public void run(IProgressMonitor monitor) throws CoreException {
+				for (int i = 0; i < times; i++) {
+					for (int j = 0; j < breakpoints.length; j++) {
+						breakpoints[j].getMarker().setAttribute(IMarker.MESSAGE, "change " + i); //$NON-NLS-1$
+					}
+				}
+			}
+		}, null);
+	}
+
+	/**
+	 * Breakpoints added together are reported in one notification.
+	 */
+	public void testAddBatched() throws Exception {
+		long batched = fManager.getBatchedNotificationCount();
+		fManager.addBreakpoints(fBreakpoints);
+		assertEquals(Arrays.asList(new String[] { "added" }), fRecorder.fKinds); //$NON-NLS-1$
+		assertEquals(fList, Arrays.asList(fRecorder.fBreakpoints.get(0)));
+		assertEquals(batched + 1, fManager.getBatchedNotificationCount());
+	}
+
+	/**
+	 * Repeated changes to several breakpoints in one delta are reported in one
+	 * notification, each breakpoint once with the delta of its first change.
+	 */
+	public void testChangesCoalesced() throws Exception {
+		fManager.addBreakpoints(fBreakpoints);
+		fRecorder.clear();
+		long batched = fManager.getBatchedNotificationCount();
+		long individual = fManager.getIndividualNotificationCount();
+		long coalesced = fManager.getCoalescedChangeCount();
+		change(fBreakpoints, 3);
+		assertEquals(Arrays.asList(new String[] { "changed" }), fRecorder.fKinds); //$NON-NLS-1$
+		assertEquals(fList, Arrays.asList(fRecorder.fBreakpoints.get(0)));
+		IMarkerDelta[] deltas = fRecorder.fDeltas.get(0);
+		assertEquals(COUNT, deltas.length);
+		for (int i = 0; i < COUNT; i++) {
+			assertEquals(fBreakpoints[i].getMarker(), deltas[i].getMarker());
+		}
+		assertEquals("One batched notification per delta", batched + 1, fManager.getBatchedNotificationCount()); //$NON-NLS-1$
+		assertEquals(individual, fManager.getIndividualNotificationCount());
+		assertEquals(coalesced + 2 * COUNT, fManager.getCoalescedChangeCount());
+	}
+
+	/**
+	 * A single change to one breakpoint is reported as an individual
+	 * notification and is not counted as coalesced.
+	 */
+	public void testSingleChange() throws Exception {
+		fManager.addBreakpoints(fBreakpoints);
+		fRecorder.clear();
+		long batched = fManager.getBatchedNotificationCount();
+		long individual = fManager.getIndividualNotificationCount();
+		long coalesced = fManager.getCoalescedChangeCount();
+		change(new IBreakpoint[] { fBreakpoints[0] }, 1);
+		assertEquals(Arrays.asList(new String[] { "changed" }), fRecorder.fKinds); //$NON-NLS-1$
+		assertEquals(1, fRecorder.fBreakpoints.get(0).length);
+		assertEquals(batched, fManager.getBatchedNotificationCount());
+		assertEquals(individual + 1, fManager.getIndividualNotificationCount());
+		assertEquals(coalesced, fManager.getCoalescedChangeCount());
+	}
+
+	/**
+	 * Breakpoints whose markers are deleted in one delta are reported in one
+	 * notification.
+	 */
+	public void testRemovesBatched() throws Exception {
+		fManager.addBreakpoints(fBreakpoints);
+		fRecorder.clear();
+		long batched = fManager.getBatchedNotificationCount();
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+			@Override
+			public void run(IProgressMonitor monitor) throws CoreException {
+				for (int i = 0; i < COUNT; i++) {
+					fBreakpoints[i].getMarker().delete();
+				}
+			}
+		}, null);
+		assertEquals(Arrays.asList(new String[] { "removed" }), fRecorder.fKinds); //$NON-NLS-1$
+		assertEquals(fList, Arrays.asList(fRecorder.fBreakpoints.get(0)));
+		assertEquals(batched + 1, fManager.getBatchedNotificationCount());
+	}
+}
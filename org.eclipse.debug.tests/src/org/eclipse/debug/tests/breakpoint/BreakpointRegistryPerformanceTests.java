@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.breakpoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.model.IBreakpoint;
+import org.eclipse.debug.internal.core.BreakpointRegistry;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+
+/**
+ * Compares the {@link BreakpointRegistry} used by the breakpoint manager with
+ * the synchronized vector it replaces, for the queries debug models make on
+ * suspend and class load: membership tests and breakpoints of a model.
+ */
+public class BreakpointRegistryPerformanceTests extends TestCase {
+
+	/**
+	 * Number of registered breakpoints
+	 */
+	private static final int BREAKPOINTS = 50000;
+
+	/**
+	 * Number of debug models the breakpoints belong to
+	 */
+	private static final int MODELS = 5;
+
+	/**
+	 * Queries of each kind per run
+	 */
+	private static final int QUERIES = 200;
+
+	private IBreakpoint[] fBreakpoints;
+
+	/**
+	 * @param name
+	 */
+	public BreakpointRegistryPerformanceTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fBreakpoints = new IBreakpoint[BREAKPOINTS];
+		for (int i = 0; i < BREAKPOINTS; i++) {
+			fBreakpoints[i] = new BreakpointRegistryTests.RegistryBreakpoint("model" + (i % MODELS)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Queries a synchronized vector, as the breakpoint manager did.
+	 */
+	public void testVector() {
+		Vector<IBreakpoint> breakpoints = new Vector<IBreakpoint>();
+		for (int i = 0; i < BREAKPOINTS; i++) {
+			breakpoints.add(fBreakpoints[i]);
+		}
+		PerformanceMeter meter = startMeter();
+		try {
+			for (int pass = 0; pass < 5; pass++) {
+				meter.start();
+				long start = System.currentTimeMillis();
+				for (int i = 0; i < QUERIES; i++) {
+					assertTrue(breakpoints.contains(fBreakpoints[(i * 7919) % BREAKPOINTS]));
+					synchronized (breakpoints) {
+						List<IBreakpoint> temp = new ArrayList<IBreakpoint>(breakpoints.size());
+						String model = "model" + (i % MODELS); //$NON-NLS-1$
+						for (IBreakpoint breakpoint : breakpoints) {
+							if (model.equals(breakpoint.getModelIdentifier())) {
+								temp.add(breakpoint);
+							}
+						}
+						assertEquals(BREAKPOINTS / MODELS, temp.toArray(new IBreakpoint[temp.size()]).length);
+					}
+				}
+				report(start);
+				meter.stop();
+			}
+			meter.commit();
+			Performance.getDefault().assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	/**
+	 * Queries the registry.
+	 */
+	public void testRegistry() {
+		BreakpointRegistry breakpoints = new BreakpointRegistry();
+		for (int i = 0; i < BREAKPOINTS; i++) {
+			breakpoints.add(fBreakpoints[i]);
+		}
+		PerformanceMeter meter = startMeter();
+		try {
+			for (int pass = 0; pass < 5; pass++) {
+				meter.start();
+				long start = System.currentTimeMillis();
+				for (int i = 0; i < QUERIES; i++) {
+					assertTrue(breakpoints.contains(fBreakpoints[(i * 7919) % BREAKPOINTS]));
+					assertEquals(BREAKPOINTS / MODELS, breakpoints.getBreakpoints("model" + (i % MODELS)).length); //$NON-NLS-1$
+				}
+				report(start);
+				meter.stop();
+			}
+			meter.commit();
+			Performance.getDefault().assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	private PerformanceMeter startMeter() {
+		Performance perf = Performance.getDefault();
+		return perf.createPerformanceMeter(perf.getDefaultScenarioId(this));
+	}
+
+	private void report(long start) {
+		long elapsed = Math.max(1, System.currentTimeMillis() - start);
+		System.out.println(getName() + ": breakpoints=" + BREAKPOINTS //$NON-NLS-1$
+				+ " queries/s=" + (QUERIES * 1000L / elapsed)); //$NON-NLS-1$
+	}
+}
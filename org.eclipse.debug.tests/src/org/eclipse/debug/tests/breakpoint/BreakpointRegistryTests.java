@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.breakpoint;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.debug.core.model.IBreakpoint;
+import org.eclipse.debug.internal.core.BreakpointRegistry;
+
+/**
+ * Tests the registry of breakpoints kept by the breakpoint manager.
+ */
+public class BreakpointRegistryTests extends TestCase {
+
+	/**
+	 * Breakpoint of a given model without a marker, only usable with the
+	 * registry.
+	 */
+	static class RegistryBreakpoint implements IBreakpoint {
+
+		private final String fModel;
+
+		RegistryBreakpoint(String model) {
+			fModel = model;
+		}
+
+		@Override
+		public Object getAdapter(@SuppressWarnings("rawtypes") Class adapter) {
+			return null;
+		}
+
+		@Override
+		public void delete() {
+		}
+
+		@Override
+		public IMarker getMarker() {
+			return null;
+		}
+
+		@Override
+		public void setMarker(IMarker marker) {
+		}
+
+		@Override
+		public String getModelIdentifier() {
+			return fModel;
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return true;
+		}
+
+		@Override
+		public void setEnabled(boolean enabled) {
+		}
+
+		@Override
+		public boolean isRegistered() {
+			return true;
+		}
+
+		@Override
+		public void setRegistered(boolean registered) {
+		}
+
+		@Override
+		public boolean isPersisted() {
+			return false;
+		}
+
+		@Override
+		public void setPersisted(boolean registered) {
+		}
+	}
+
+	/**
+	 * @param name
+	 */
+	public BreakpointRegistryTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Breakpoints are returned in registration order, per model.
+	 */
+	public void testOrderAndModels() {
+		BreakpointRegistry registry = new BreakpointRegistry();
+		IBreakpoint a1 = new RegistryBreakpoint("a"); //$NON-NLS-1$
+		IBreakpoint b1 = new RegistryBreakpoint("b"); //$NON-NLS-1$
+		IBreakpoint a2 = new RegistryBreakpoint("a"); //$NON-NLS-1$
+		IBreakpoint none = new RegistryBreakpoint(null);
+		assertTrue(registry.isEmpty());
+		assertTrue(registry.add(a1));
+		assertTrue(registry.add(b1));
+		assertTrue(registry.add(a2));
+		assertTrue(registry.add(none));
+		assertFalse("Breakpoint should be registered once", registry.add(a1)); //$NON-NLS-1$
+		assertEquals(4, registry.size());
+		assertEquals(Arrays.asList(new IBreakpoint[] {a1, b1, a2, none}), Arrays.asList(registry.getBreakpoints()));
+		assertEquals(Arrays.asList(new IBreakpoint[] {a1, a2}), Arrays.asList(registry.getBreakpoints("a"))); //$NON-NLS-1$
+		assertEquals(Arrays.asList(new IBreakpoint[] {b1}), Arrays.asList(registry.getBreakpoints("b"))); //$NON-NLS-1$
+		assertEquals(0, registry.getBreakpoints("c").length); //$NON-NLS-1$
+		assertEquals(0, registry.getBreakpoints(null).length);
+		assertTrue(registry.contains(none));
+	}
+
+	/**
+	 * Snapshots reflect removals and returned arrays are copies.
+	 */
+	public void testRemove() {
+		BreakpointRegistry registry = new BreakpointRegistry();
+		IBreakpoint a1 = new RegistryBreakpoint("a"); //$NON-NLS-1$
+		IBreakpoint a2 = new RegistryBreakpoint("a"); //$NON-NLS-1$
+		registry.add(a1);
+		registry.add(a2);
+		IBreakpoint[] breakpoints = registry.getBreakpoints("a"); //$NON-NLS-1$
+		breakpoints[0] = null;
+		assertSame("Returned arrays should be copies", a1, registry.getBreakpoints("a")[0]); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue(registry.remove(a1));
+		assertFalse(registry.remove(a1));
+		assertFalse(registry.contains(a1));
+		assertTrue(registry.contains(a2));
+		assertEquals(Arrays.asList(new IBreakpoint[] {a2}), Arrays.asList(registry.getBreakpoints("a"))); //$NON-NLS-1$
+		assertEquals(Arrays.asList(new IBreakpoint[] {a2}), Arrays.asList(registry.getBreakpoints()));
+		registry.add(a1);
+		assertEquals("Re-registered breakpoint should be last", a1, registry.getBreakpoints()[1]); //$NON-NLS-1$
+		registry.clear();
+		assertTrue(registry.isEmpty());
+		assertEquals(0, registry.getBreakpoints("a").length); //$NON-NLS-1$
+		assertEquals(0, registry.getBreakpoints().length);
+	}
+}
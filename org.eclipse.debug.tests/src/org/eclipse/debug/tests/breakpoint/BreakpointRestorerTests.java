@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.breakpoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.model.IBreakpoint;
+import org.eclipse.debug.internal.core.BreakpointManager;
+import org.eclipse.debug.internal.core.BreakpointRestorer;
+
+/**
+ * Tests the order in which breakpoints are restored in the background, the
+ * threads waiting for them, and cancelling restoration while breakpoints are
+ * being restored.
+ */
+public class BreakpointRestorerTests extends TestCase {
+
+	private static final String MODEL_A = "org.eclipse.debug.tests.modelA"; //$NON-NLS-1$
+	private static final String MODEL_B = "org.eclipse.debug.tests.modelB"; //$NON-NLS-1$
+
+	/**
+	 * Records the markers restored and holds back the restoration of the
+	 * groups of the given markers until released.
+	 */
+	class TestRestorer extends BreakpointRestorer {
+
+		final List<IMarker> fRestored = new ArrayList<IMarker>();
+		final Map<IMarker, CountDownLatch> fStarted = new HashMap<IMarker, CountDownLatch>();
+		final CountDownLatch fRelease = new CountDownLatch(1);
+
+		TestRestorer(IMarker[] markers, IMarker[] blocked) {
+			super((BreakpointManager) DebugPlugin.getDefault().getBreakpointManager(), markers);
+			for (int i = 0; i < blocked.length; i++) {
+				fStarted.put(blocked[i], new CountDownLatch(1));
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.internal.core.BreakpointRestorer#restore(org.eclipse.core.resources.IMarker[])
+		 */
+		@Override
+		protected void restore(IMarker[] markers) {
+			CountDownLatch started = fStarted.get(markers[0]);
+			if (started != null) {
+				started.countDown();
+				try {
+					fRelease.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					// proceed
+				}
+			}
+			synchronized (fRestored) {
+				fRestored.addAll(Arrays.asList(markers));
+			}
+		}
+
+		void awaitStarted(IMarker marker) throws InterruptedException {
+			assertTrue("Restoring did not start", fStarted.get(marker).await(10, TimeUnit.SECONDS)); //$NON-NLS-1$
+		}
+
+		List<IMarker> getRestored() {
+			synchronized (fRestored) {
+				return new ArrayList<IMarker>(fRestored);
+			}
+		}
+	}
+
+	private IProject fFirst;
+	private IProject fSecond;
+
+	public BreakpointRestorerTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		fFirst = createProject(root.getProject("RestorerFirst")); //$NON-NLS-1$
+		fSecond = createProject(root.getProject("RestorerSecond")); //$NON-NLS-1$
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		fFirst.delete(true, null);
+		fSecond.delete(true, null);
+		super.tearDown();
+	}
+
+	private IProject createProject(IProject project) throws Exception {
+		if (!project.exists()) {
+			project.create(null);
+		}
+		project.open(null);
+		return project;
+	}
+
+	private IMarker createMarker(IProject project, String modelIdentifier) throws Exception {
+		IMarker marker = project.createMarker(IBreakpoint.BREAKPOINT_MARKER);
+		marker.setAttribute(IBreakpoint.ID, modelIdentifier);
+		return marker;
+	}
+
+	/**
+	 * A thread waiting for all breakpoints restores the groups no job has
+	 * started on, in the order of the projects, each in the order of its
+	 * markers.
+	 */
+	public void testOrder() throws Exception {
+		IMarker a1 = createMarker(fFirst, MODEL_A);
+		IMarker b1 = createMarker(fSecond, MODEL_B);
+		IMarker a2 = createMarker(fFirst, MODEL_A);
+		IMarker b2 = createMarker(fSecond, MODEL_A);
+		TestRestorer restorer = new TestRestorer(new IMarker[] { a1, b1, a2, b2 }, new IMarker[0]);
+		assertFalse(restorer.isDone());
+		restorer.waitFor(null);
+		assertTrue(restorer.isDone());
+		assertEquals(Arrays.asList(new IMarker[] { a1, a2, b1, b2 }), restorer.getRestored());
+	}
+
+	/**
+	 * A thread waiting for the breakpoints of one model waits for the groups
+	 * with breakpoints of that model only.
+	 */
+	public void testWaiters() throws Exception {
+		IMarker a = createMarker(fFirst, MODEL_A);
+		IMarker b = createMarker(fSecond, MODEL_B);
+		final TestRestorer restorer = new TestRestorer(new IMarker[] { a, b }, new IMarker[] { a });
+		restorer.schedule();
+		restorer.awaitStarted(a);
+		// the second group is restored by this thread or a job
+		restorer.waitFor(MODEL_B);
+		assertTrue(restorer.getRestored().contains(b));
+		assertFalse(restorer.getRestored().contains(a));
+		Thread waiter = new Thread("Breakpoint waiter") { //$NON-NLS-1$
+			@Override
+			public void run() {
+				restorer.waitFor(MODEL_A);
+			}
+		};
+		waiter.start();
+		waiter.join(200);
+		assertTrue("Waiter did not wait for the group being restored", waiter.isAlive()); //$NON-NLS-1$
+		restorer.fRelease.countDown();
+		waiter.join(10000);
+		assertFalse("Waiter was not released", waiter.isAlive()); //$NON-NLS-1$
+		assertTrue(restorer.getRestored().contains(a));
+		assertTrue(restorer.isDone());
+	}
+
+	/**
+	 * Cancelling restores no further groups, and joining waits for the group
+	 * being restored to complete.
+	 */
+	public void testCancelWhileRestoring() throws Exception {
+		IMarker a = createMarker(fFirst, MODEL_A);
+		IMarker b = createMarker(fSecond, MODEL_B);
+		final TestRestorer restorer = new TestRestorer(new IMarker[] { a, b }, new IMarker[] { a });
+		// only the first group is started, the second is left to the cancel
+		final CountDownLatch joined = new CountDownLatch(1);
+		Thread restoring = new Thread("Breakpoint restore") { //$NON-NLS-1$
+			@Override
+			public void run() {
+				restorer.waitFor(MODEL_A);
+			}
+		};
+		restoring.start();
+		restorer.awaitStarted(a);
+		restorer.cancel();
+		Thread shutdown = new Thread("Breakpoint shutdown") { //$NON-NLS-1$
+			@Override
+			public void run() {
+				restorer.join();
+				joined.countDown();
+			}
+		};
+		shutdown.start();
+		assertFalse("Join did not wait for the group being restored", joined.await(200, TimeUnit.MILLISECONDS)); //$NON-NLS-1$
+		restorer.fRelease.countDown();
+		assertTrue("Join did not return", joined.await(10, TimeUnit.SECONDS)); //$NON-NLS-1$
+		// nothing is registered once joined
+		assertEquals(Arrays.asList(new IMarker[] { a }), restorer.getRestored());
+		assertTrue(restorer.isDone());
+		restoring.join(10000);
+		assertFalse(restoring.isAlive());
+	}
+}
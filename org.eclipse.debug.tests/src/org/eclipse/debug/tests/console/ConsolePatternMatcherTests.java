@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.ui.console.IConsoleDocumentPartitioner;
+import org.eclipse.ui.console.IPatternMatchListener;
+import org.eclipse.ui.console.PatternMatchEvent;
+import org.eclipse.ui.console.TextConsole;
+import org.eclipse.ui.internal.console.ConsolePatternMatcher;
+import org.eclipse.ui.internal.console.PatternMatchStatistics;
+
+/**
+ * Tests that the console pattern matcher reports the same matches for all of
+ * its listeners as a search of the complete text, when text is appended
+ * incrementally.
+ */
+public class ConsolePatternMatcherTests extends TestCase {
+
+	/**
+	 * Console without partitioner, text is added to its document directly.
+	 */
+	class TestConsole extends TextConsole {
+		TestConsole() {
+			super("Pattern Test Console", null, null, false); //$NON-NLS-1$
+		}
+
+		@Override
+		protected IConsoleDocumentPartitioner getPartitioner() {
+			return null;
+		}
+	}
+
+	/**
+	 * Records the matches it is notified of.
+	 */
+	class MatchRecorder implements IPatternMatchListener {
+		private String fPattern;
+		private String fQualifier;
+		List<String> fMatches = new ArrayList<String>();
+
+		MatchRecorder(String pattern, String qualifier) {
+			fPattern = pattern;
+			fQualifier = qualifier;
+		}
+
+		@Override
+		public String getPattern() {
+			return fPattern;
+		}
+
+		@Override
+		public int getCompilerFlags() {
+			return 0;
+		}
+
+		@Override
+		public String getLineQualifier() {
+			return fQualifier;
+		}
+
+		@Override
+		public void connect(TextConsole console) {
+		}
+
+		@Override
+		public void disconnect() {
+		}
+
+		@Override
+		public void matchFound(PatternMatchEvent event) {
+			fMatches.add(event.getOffset() + ":" + event.getLength()); //$NON-NLS-1$
+		}
+	}
+
+	public ConsolePatternMatcherTests(String name) {
+		super(name);
+	}
+
+	private List<String> search(String pattern, String text) {
+		List<String> matches = new ArrayList<String>();
+		Matcher matcher = Pattern.compile(pattern).matcher(text);
+		while (matcher.find()) {
+			matches.add(matcher.start() + ":" + (matcher.end() - matcher.start())); //$NON-NLS-1$
+		}
+		return matches;
+	}
+
+	/**
+	 * Appends lines to a console in several steps and checks the matches of
+	 * listeners with literal, regular expression and no qualifiers.
+	 *
+	 * @throws Exception
+	 */
+	public void testIncrementalMatching() throws Exception {
+		TestConsole console = new TestConsole();
+		MatchRecorder[] recorders = new MatchRecorder[] {
+				new MatchRecorder("\\w+\\.java:\\d+", "\\.java:"), //$NON-NLS-1$ //$NON-NLS-2$
+				new MatchRecorder("at [\\w.]+", "at\\s"), //$NON-NLS-1$ //$NON-NLS-2$
+				new MatchRecorder("Exception", null) }; //$NON-NLS-1$
+		for (int i = 0; i < recorders.length; i++) {
+			console.addPatternMatchListener(recorders[i]);
+		}
+		IDocument document = console.getDocument();
+		StringBuffer text = new StringBuffer();
+		for (int i = 0; i < 200; i++) {
+			String line;
+			switch (i % 4) {
+				case 0:
+					line = "java.lang.IllegalStateException: " + i + "\n"; //$NON-NLS-1$ //$NON-NLS-2$
+					break;
+				case 1:
+					line = "\tat org.example.Type.method(Type.java:" + i + ")\n"; //$NON-NLS-1$ //$NON-NLS-2$
+					break;
+				case 2:
+					line = "plain output without matches "; //$NON-NLS-1$
+					break;
+				default:
+					line = "continued on the same line\r\n"; //$NON-NLS-1$
+					break;
+			}
+			document.replace(document.getLength(), 0, line);
+			text.append(line);
+			if (i % 10 == 0) {
+				Job.getJobManager().join(console, null);
+			}
+		}
+		Job.getJobManager().join(console, null);
+		for (int i = 0; i < recorders.length; i++) {
+			assertEquals("Wrong matches for " + recorders[i].getPattern(), search(recorders[i].getPattern(), text.toString()), recorders[i].fMatches); //$NON-NLS-1$
+		}
+		console.destroy();
+	}
+
+	/**
+	 * Checks statistics are collected for each listener.
+	 *
+	 * @throws Exception
+	 */
+	public void testStatistics() throws Exception {
+		TestConsole console = new TestConsole();
+		ConsolePatternMatcher matcher = new ConsolePatternMatcher(console);
+		console.getDocument().addDocumentListener(matcher);
+		MatchRecorder literal = new MatchRecorder("\\w+\\.java", "\\.java"); //$NON-NLS-1$ //$NON-NLS-2$
+		MatchRecorder regex = new MatchRecorder("[0-9]+", "\\d"); //$NON-NLS-1$ //$NON-NLS-2$
+		matcher.addPatternMatchListener(literal);
+		matcher.addPatternMatchListener(regex);
+		console.getDocument().set("Type.java 12\nno match\nOther.java 3\n"); //$NON-NLS-1$
+		Job.getJobManager().join(console, null);
+		PatternMatchStatistics[] statistics = matcher.getStatistics();
+		assertEquals(2, statistics.length);
+		assertSame(literal, statistics[0].getListener());
+		assertTrue("Qualifier should be searched as a literal", statistics[0].isLiteralQualifier()); //$NON-NLS-1$
+		assertEquals(2, statistics[0].getMatchCount());
+		assertEquals(2, statistics[0].getQualifiedLineCount());
+		assertSame(regex, statistics[1].getListener());
+		assertFalse("Qualifier should be searched as a regular expression", statistics[1].isLiteralQualifier()); //$NON-NLS-1$
+		assertEquals(2, statistics[1].getMatchCount());
+		matcher.disconnect();
+		console.destroy();
+	}
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentPartitioner;
+import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.console.IConsoleDocumentPartitioner;
+import org.eclipse.ui.console.IOConsole;
+import org.eclipse.ui.console.IOConsoleOutputStream;
+
+/**
+ * Measures partition queries on an IO console document holding a large
+ * number of partitions created by interleaving two output streams.
+ */
+public class IOConsolePartitionerPerformanceTests extends TestCase {
+
+	/**
+	 * Number of partitions written to the console
+	 */
+	private static final int PARTITIONS = 1000000;
+
+	/**
+	 * Text written for each partition
+	 */
+	private static final String LINE = "output\n"; //$NON-NLS-1$
+
+	private IOConsole fConsole;
+
+	public IOConsolePartitionerPerformanceTests(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fConsole = new IOConsole("Partitioner Performance", null); //$NON-NLS-1$
+		IOConsoleOutputStream out = fConsole.newOutputStream();
+		IOConsoleOutputStream err = fConsole.newOutputStream();
+		for (int i = 0; i < PARTITIONS; i++) {
+			(i % 2 == 0 ? out : err).write(LINE);
+		}
+		out.close();
+		err.close();
+		Display display = PlatformUI.getWorkbench().getDisplay();
+		IDocument document = fConsole.getDocument();
+		while (document.getLength() < PARTITIONS * LINE.length()) {
+			if (!display.readAndDispatch()) {
+				Thread.sleep(0);
+			}
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fConsole.destroy();
+		super.tearDown();
+	}
+
+	public void testGetPartition() {
+		IDocumentPartitioner partitioner = fConsole.getDocument().getDocumentPartitioner();
+		int length = fConsole.getDocument().getLength();
+		Random random = new Random(1);
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(perf.getDefaultScenarioId(this));
+		try {
+			for (int pass = 0; pass < 10; pass++) {
+				meter.start();
+				for (int i = 0; i < 100000; i++) {
+					int offset = random.nextInt(length);
+					ITypedRegion partition = partitioner.getPartition(offset);
+					assertTrue(partition.getOffset() <= offset && offset < partition.getOffset() + partition.getLength());
+				}
+				meter.stop();
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	public void testComputeStyleRanges() {
+		IConsoleDocumentPartitioner partitioner = (IConsoleDocumentPartitioner) fConsole.getDocument().getDocumentPartitioner();
+		int length = fConsole.getDocument().getLength();
+		Random random = new Random(1);
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(perf.getDefaultScenarioId(this));
+		try {
+			for (int pass = 0; pass < 10; pass++) {
+				meter.start();
+				for (int i = 0; i < 10000; i++) {
+					// roughly one screen of text
+					int offset = random.nextInt(length - 4000);
+					assertTrue(partitioner.getStyleRanges(offset, 4000).length > 0);
+				}
+				meter.stop();
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+}
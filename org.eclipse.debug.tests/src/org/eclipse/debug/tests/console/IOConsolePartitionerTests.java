@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.console.IOConsole;
+import org.eclipse.ui.console.IOConsoleOutputStream;
+import org.eclipse.ui.internal.console.IOConsolePartitioner;
+
+/**
+ * Tests that threads writing to an IO console are held back once too much
+ * output is waiting to be appended to the document.
+ */
+public class IOConsolePartitionerTests extends TestCase {
+
+	/**
+	 * Pending characters at which writers block
+	 */
+	private static final int LIMIT = 1000;
+
+	/**
+	 * Number of lines written, each of {@link #LINE_LENGTH} characters
+	 */
+	private static final int LINES = 50;
+	private static final int LINE_LENGTH = 100;
+
+	private IOConsole fConsole;
+	private IOConsoleOutputStream fStream;
+
+	public IOConsolePartitionerTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fConsole = new IOConsole("Back Pressure", null); //$NON-NLS-1$
+		fStream = fConsole.newOutputStream();
+		assertEquals(IOConsolePartitioner.DEFAULT_BACK_PRESSURE_LIMIT, fConsole.getBackPressureLimit());
+		fConsole.setBackPressureLimit(LIMIT);
+		assertEquals(LIMIT, fConsole.getBackPressureLimit());
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		fStream.close();
+		fConsole.destroy();
+		super.tearDown();
+	}
+
+	private static String getLine(int i) {
+		StringBuffer line = new StringBuffer(Integer.toString(i + 10000));
+		while (line.length() < LINE_LENGTH - 1) {
+			line.append('x');
+		}
+		return line.append('\n').toString();
+	}
+
+	private static String getExpectedText() {
+		StringBuffer text = new StringBuffer();
+		for (int i = 0; i < LINES; i++) {
+			text.append(getLine(i));
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Processes UI events until the document holds all lines or the given
+	 * thread, if any, has ended.
+	 */
+	private void waitForDocument(Thread writer) throws Exception {
+		Display display = PlatformUI.getWorkbench().getDisplay();
+		IDocument document = fConsole.getDocument();
+		long timeout = System.currentTimeMillis() + 10000;
+		while ((writer != null && writer.isAlive()) || document.getLength() < LINES * LINE_LENGTH) {
+			assertTrue("Output was not appended to the document", System.currentTimeMillis() < timeout); //$NON-NLS-1$
+			if (!display.readAndDispatch()) {
+				Thread.sleep(10);
+			}
+		}
+	}
+
+	/**
+	 * A writer other than the UI thread blocks once more than the limit is
+	 * pending, and resumes as the document is updated.
+	 */
+	public void testWriterBlocks() throws Exception {
+		final int[] written = new int[1];
+		final IOException[] failure = new IOException[1];
+		Thread writer = new Thread("Console writer") { //$NON-NLS-1$
+			@Override
+			public void run() {
+				try {
+					for (int i = 0; i < LINES; i++) {
+						fStream.write(getLine(i));
+						synchronized (written) {
+							written[0]++;
+						}
+					}
+				} catch (IOException e) {
+					failure[0] = e;
+				}
+			}
+		};
+		writer.start();
+		// the document is not updated while this UI thread does not process events
+		writer.join(500);
+		assertTrue("Writer was not blocked", writer.isAlive()); //$NON-NLS-1$
+		synchronized (written) {
+			assertTrue("Wrote " + written[0] + " lines", written[0] <= LIMIT / LINE_LENGTH + 1); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		waitForDocument(writer);
+		assertNull(failure[0]);
+		assertEquals(getExpectedText(), fConsole.getDocument().get());
+	}
+
+	/**
+	 * The UI thread is never blocked, it appends pending output to the
+	 * document itself until less than the limit is pending.
+	 */
+	public void testUIThreadAppends() throws Exception {
+		IDocument document = fConsole.getDocument();
+		for (int i = 0; i < LINES; i++) {
+			fStream.write(getLine(i));
+			assertTrue("Too much output pending", (i + 1) * LINE_LENGTH - document.getLength() <= LIMIT); //$NON-NLS-1$
+		}
+		waitForDocument(null);
+		assertEquals(getExpectedText(), document.get());
+	}
+}
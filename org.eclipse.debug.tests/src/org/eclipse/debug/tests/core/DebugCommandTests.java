@@ -0,0 +1,413 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.commands.IDebugCommandRequest;
+import org.eclipse.debug.core.commands.IEnabledStateRequest;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.core.Preferences;
+import org.eclipse.debug.internal.core.commands.DebugCommandRequest;
+import org.eclipse.debug.internal.core.commands.ForEachCommand;
+import org.eclipse.debug.internal.ui.commands.actions.ActionsUpdater;
+import org.eclipse.debug.internal.ui.commands.actions.IEnabledTarget;
+import org.eclipse.debug.internal.ui.commands.actions.UpdateHandlerRequest;
+
+/**
+ * Tests executing debug commands on several targets concurrently and
+ * coalescing the updates of their enabled state.
+ */
+public class DebugCommandTests extends TestCase {
+
+	/**
+	 * Number of targets of a command, no more than the calling thread and the
+	 * smallest pool execute at once
+	 */
+	private static final int TARGETS = 3;
+
+	/**
+	 * Rule that holds back the enabled state updates until released
+	 */
+	private static final ISchedulingRule RULE = new ISchedulingRule() {
+		@Override
+		public boolean contains(ISchedulingRule rule) {
+			return rule == this;
+		}
+
+		@Override
+		public boolean isConflicting(ISchedulingRule rule) {
+			return rule == this;
+		}
+	};
+
+	/**
+	 * Command recording the threads executing it. Targets are integers, and
+	 * negative targets fail.
+	 */
+	class TestCommand extends ForEachCommand {
+
+		final boolean fParallel;
+		final Set<Thread> fThreads = Collections.synchronizedSet(new HashSet<Thread>());
+		final List<Object> fExecuted = Collections.synchronizedList(new ArrayList<Object>());
+		final List<Object> fChecked = Collections.synchronizedList(new ArrayList<Object>());
+		CyclicBarrier fBarrier;
+
+		TestCommand(boolean parallel) {
+			fParallel = parallel;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.internal.core.commands.ForEachCommand#execute(java.lang.Object)
+		 */
+		@Override
+		protected void execute(Object target) throws CoreException {
+			fThreads.add(Thread.currentThread());
+			fExecuted.add(target);
+			if (fBarrier != null) {
+				// all targets must execute at the same time to pass
+				try {
+					fBarrier.await(10, TimeUnit.SECONDS);
+				} catch (Exception e) {
+					throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), "Targets not executed concurrently", e)); //$NON-NLS-1$
+				}
+			}
+			if (((Integer) target).intValue() < 0) {
+				throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), "Failed " + target)); //$NON-NLS-1$
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.internal.core.commands.ForEachCommand#isParallel()
+		 */
+		@Override
+		protected boolean isParallel() {
+			return fParallel;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.internal.core.commands.ForEachCommand#isExecutable(java.lang.Object)
+		 */
+		@Override
+		protected boolean isExecutable(Object target) {
+			fChecked.add(target);
+			return true;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.core.commands.AbstractDebugCommand#getTarget(java.lang.Object)
+		 */
+		@Override
+		protected Object getTarget(Object element) {
+			return element;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.core.commands.AbstractDebugCommand#getEnabledStateSchedulingRule(org.eclipse.debug.core.commands.IDebugCommandRequest)
+		 */
+		@Override
+		protected ISchedulingRule getEnabledStateSchedulingRule(IDebugCommandRequest request) {
+			return RULE;
+		}
+	}
+
+	/**
+	 * Request that can be waited for.
+	 */
+	static class TestRequest extends DebugCommandRequest {
+
+		final CountDownLatch fDone = new CountDownLatch(1);
+
+		TestRequest(Object[] elements) {
+			super(elements);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.internal.core.commands.Request#done()
+		 */
+		@Override
+		public void done() {
+			fDone.countDown();
+		}
+
+		void await() throws InterruptedException {
+			assertTrue("Request not done", fDone.await(10, TimeUnit.SECONDS)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Enabled state request with the given coalescing key.
+	 */
+	static class TestEnabledRequest extends TestRequest implements IEnabledStateRequest {
+
+		final Object fKey;
+		boolean fEnabled = false;
+
+		TestEnabledRequest(Object[] elements, Object key) {
+			super(elements);
+			fKey = key;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.core.commands.IEnabledStateRequest#setEnabled(boolean)
+		 */
+		@Override
+		public void setEnabled(boolean result) {
+			fEnabled = result;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.internal.core.commands.DebugCommandRequest#getCoalescingKey()
+		 */
+		@Override
+		public Object getCoalescingKey() {
+			return fKey;
+		}
+	}
+
+	/**
+	 * Action recording the enabled states it is given.
+	 */
+	static class TestAction implements IEnabledTarget {
+
+		final List<Boolean> fStates = Collections.synchronizedList(new ArrayList<Boolean>());
+
+		/* (non-Javadoc)
+		 * @see org.eclipse.debug.internal.ui.commands.actions.IEnabledTarget#setEnabled(boolean)
+		 */
+		@Override
+		public void setEnabled(boolean enabled) {
+			fStates.add(Boolean.valueOf(enabled));
+		}
+	}
+
+	/**
+	 * Releases the job holding the rule of the enabled state updates
+	 */
+	private CountDownLatch fRelease;
+
+	public DebugCommandTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		setParallel(true);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		release();
+		Preferences.setToDefault(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_PARALLEL_DEBUG_COMMANDS);
+		super.tearDown();
+	}
+
+	private void setParallel(boolean parallel) {
+		Preferences.setBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_PARALLEL_DEBUG_COMMANDS, parallel, InstanceScope.INSTANCE);
+	}
+
+	private Object[] getTargets(int failing) {
+		Object[] targets = new Object[TARGETS];
+		for (int i = 0; i < TARGETS; i++) {
+			targets[i] = Integer.valueOf(i < failing ? -1 - i : i);
+		}
+		return targets;
+	}
+
+	/**
+	 * Holds back the enabled state updates until {@link #release()}.
+	 */
+	private void block() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		fRelease = new CountDownLatch(1);
+		Job blocker = new Job("Blocker") { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				started.countDown();
+				try {
+					fRelease.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					// proceed
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		blocker.setSystem(true);
+		blocker.setRule(RULE);
+		blocker.schedule();
+		assertTrue("Blocker did not start", started.await(10, TimeUnit.SECONDS)); //$NON-NLS-1$
+	}
+
+	private void release() {
+		if (fRelease != null) {
+			fRelease.countDown();
+			fRelease = null;
+		}
+	}
+
+	/**
+	 * A parallel command executes its targets concurrently.
+	 */
+	public void testParallel() throws Exception {
+		TestCommand command = new TestCommand(true);
+		command.fBarrier = new CyclicBarrier(TARGETS);
+		TestRequest request = new TestRequest(getTargets(0));
+		command.execute(request);
+		request.await();
+		assertTrue(request.getStatus() == null || request.getStatus().isOK());
+		assertEquals(TARGETS, command.fExecuted.size());
+		assertEquals(TARGETS, command.fThreads.size());
+	}
+
+	/**
+	 * A command that is not parallel executes its targets one after the
+	 * other, in order, on one thread.
+	 */
+	public void testNotParallel() throws Exception {
+		TestCommand command = new TestCommand(false);
+		Object[] targets = getTargets(0);
+		TestRequest request = new TestRequest(targets);
+		command.execute(request);
+		request.await();
+		assertEquals(1, command.fThreads.size());
+		for (int i = 0; i < TARGETS; i++) {
+			assertEquals(targets[i], command.fExecuted.get(i));
+		}
+	}
+
+	/**
+	 * Parallel execution is disabled by the preference.
+	 */
+	public void testPreferenceDisablesParallel() throws Exception {
+		setParallel(false);
+		TestCommand command = new TestCommand(true);
+		TestRequest request = new TestRequest(getTargets(0));
+		command.execute(request);
+		request.await();
+		assertEquals(TARGETS, command.fExecuted.size());
+		assertEquals(1, command.fThreads.size());
+	}
+
+	/**
+	 * All targets of a parallel command are executed when some fail, and the
+	 * failures are reported together.
+	 */
+	public void testFailuresReportedTogether() throws Exception {
+		TestCommand command = new TestCommand(true);
+		TestRequest request = new TestRequest(getTargets(2));
+		command.execute(request);
+		request.await();
+		assertEquals(TARGETS, command.fExecuted.size());
+		IStatus status = request.getStatus();
+		assertNotNull(status);
+		assertTrue(status.isMultiStatus());
+		assertEquals(2, status.getChildren().length);
+	}
+
+	/**
+	 * A pending enabled state update is canceled by a later update with an
+	 * equal key, and only the later one is computed.
+	 */
+	public void testUpdatesCoalesced() throws Exception {
+		TestCommand command = new TestCommand(false);
+		block();
+		TestEnabledRequest first = new TestEnabledRequest(new Object[] { Integer.valueOf(1) }, "key"); //$NON-NLS-1$
+		TestEnabledRequest second = new TestEnabledRequest(new Object[] { Integer.valueOf(2) }, "key"); //$NON-NLS-1$
+		command.canExecute(first);
+		command.canExecute(second);
+		first.await();
+		assertTrue(first.isCanceled());
+		assertTrue(first.isSuperseded());
+		release();
+		second.await();
+		assertFalse(second.isCanceled());
+		assertFalse(second.isSuperseded());
+		assertTrue(second.fEnabled);
+		assertEquals(1, command.fChecked.size());
+		assertEquals(Integer.valueOf(2), command.fChecked.get(0));
+	}
+
+	/**
+	 * Pending updates with different keys, or without a key, are all
+	 * computed.
+	 */
+	public void testUpdatesNotCoalesced() throws Exception {
+		TestCommand command = new TestCommand(false);
+		block();
+		TestEnabledRequest first = new TestEnabledRequest(new Object[] { Integer.valueOf(1) }, "first"); //$NON-NLS-1$
+		TestEnabledRequest second = new TestEnabledRequest(new Object[] { Integer.valueOf(2) }, "second"); //$NON-NLS-1$
+		TestEnabledRequest third = new TestEnabledRequest(new Object[] { Integer.valueOf(3) }, null);
+		TestEnabledRequest fourth = new TestEnabledRequest(new Object[] { Integer.valueOf(4) }, null);
+		command.canExecute(first);
+		command.canExecute(second);
+		command.canExecute(third);
+		command.canExecute(fourth);
+		release();
+		first.await();
+		second.await();
+		third.await();
+		fourth.await();
+		assertTrue(first.fEnabled && second.fEnabled && third.fEnabled && fourth.fEnabled);
+		assertEquals(4, command.fChecked.size());
+	}
+
+	/**
+	 * Handler requests for several elements updating the same actions are
+	 * coalesced, and a superseded request does not vote.
+	 */
+	public void testHandlerRequestsCoalesced() throws Exception {
+		TestCommand command = new TestCommand(false);
+		TestAction action = new TestAction();
+		IEnabledTarget[] actions = new IEnabledTarget[] { action };
+		Object[] elements = new Object[] { Integer.valueOf(1), Integer.valueOf(2) };
+		block();
+		UpdateHandlerRequest first = new UpdateHandlerRequest(elements, new ActionsUpdater(actions, 1));
+		UpdateHandlerRequest second = new UpdateHandlerRequest(elements, new ActionsUpdater(actions, 1));
+		assertEquals(first.getCoalescingKey(), second.getCoalescingKey());
+		command.canExecute(first);
+		command.canExecute(second);
+		assertTrue(first.isSuperseded());
+		assertTrue("Superseded request should not vote", action.fStates.isEmpty()); //$NON-NLS-1$
+		release();
+		long end = System.currentTimeMillis() + 10000;
+		while (action.fStates.isEmpty()) {
+			assertTrue("Action not updated", System.currentTimeMillis() < end); //$NON-NLS-1$
+			Thread.sleep(10);
+		}
+		assertEquals(1, action.fStates.size());
+		assertEquals(Boolean.TRUE, action.fStates.get(0));
+		assertEquals(elements.length, command.fChecked.size());
+	}
+}
@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.internal.core.EventDispatchStatistics;
+
+/**
+ * Tests the order and coalescing of debug events fired through the debug
+ * plug-in's event queue.
+ */
+public class EventDispatchTests extends TestCase {
+
+	/**
+	 * Detail of the event that blocks the dispatch job until released
+	 */
+	private static final int BLOCK = -1;
+
+	/**
+	 * Source of the events fired by the tests, other events are ignored
+	 */
+	private final Object fSource = new Object();
+
+	/**
+	 * Deliveries of the test events, as arrays of event details, and the
+	 * runnables executed, as strings
+	 */
+	private final List<Object> fLog = new ArrayList<Object>();
+
+	private CountDownLatch fBlocked;
+	private CountDownLatch fRelease;
+	private volatile boolean fNegativeDepth = false;
+
+	private final IDebugEventSetListener fListener = new IDebugEventSetListener() {
+		@Override
+		public void handleDebugEvents(DebugEvent[] events) {
+			List<Integer> details = new ArrayList<Integer>();
+			for (int i = 0; i < events.length; i++) {
+				if (events[i].getSource() == fSource) {
+					details.add(new Integer(events[i].getDetail()));
+				}
+			}
+			if (details.isEmpty()) {
+				return;
+			}
+			if (EventDispatchStatistics.getQueueDepth() < 0) {
+				fNegativeDepth = true;
+			}
+			log(details);
+			if (details.contains(new Integer(BLOCK))) {
+				fBlocked.countDown();
+				try {
+					fRelease.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					// proceed
+				}
+			}
+		}
+	};
+
+	public EventDispatchTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fBlocked = new CountDownLatch(1);
+		fRelease = new CountDownLatch(1);
+		DebugPlugin.getDefault().addDebugEventListener(fListener);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		fRelease.countDown();
+		DebugPlugin.getDefault().removeDebugEventListener(fListener);
+		super.tearDown();
+	}
+
+	private void log(Object entry) {
+		synchronized (fLog) {
+			fLog.add(entry);
+			fLog.notifyAll();
+		}
+	}
+
+	private void fire(int detail) {
+		DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] { new DebugEvent(fSource, DebugEvent.CHANGE, detail) });
+	}
+
+	/**
+	 * Fires an event that blocks the dispatch job, so that the events fired
+	 * next wait in the queue.
+	 */
+	private void block() throws InterruptedException {
+		fire(BLOCK);
+		assertTrue("Event dispatch did not start", fBlocked.await(10, TimeUnit.SECONDS)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Waits for the given number of log entries and returns the log.
+	 */
+	private List<Object> waitForLog(int entries) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 10000;
+		synchronized (fLog) {
+			while (fLog.size() < entries) {
+				long wait = timeout - System.currentTimeMillis();
+				assertTrue("Expected " + entries + " deliveries, received " + fLog, wait > 0); //$NON-NLS-1$ //$NON-NLS-2$
+				fLog.wait(wait);
+			}
+			return new ArrayList<Object>(fLog);
+		}
+	}
+
+	/**
+	 * Returns the details of all delivered events in delivery order.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Integer> getDetails(List<Object> log) {
+		List<Integer> details = new ArrayList<Integer>();
+		for (Object entry : log) {
+			if (entry instanceof List) {
+				details.addAll((List<Integer>) entry);
+			}
+		}
+		return details;
+	}
+
+	/**
+	 * Event sets waiting in the queue are delivered together, in order.
+	 */
+	public void testCoalescing() throws Exception {
+		block();
+		fire(1);
+		fire(2);
+		fire(3);
+		fRelease.countDown();
+		List<Object> log = waitForLog(2);
+		assertEquals(2, log.size());
+		List<Integer> combined = new ArrayList<Integer>();
+		combined.add(new Integer(1));
+		combined.add(new Integer(2));
+		combined.add(new Integer(3));
+		assertEquals(combined, log.get(1));
+	}
+
+	/**
+	 * A runnable executes after the events queued before it are delivered and
+	 * before the events queued after it.
+	 */
+	public void testRunnableOrder() throws Exception {
+		block();
+		fire(1);
+		DebugPlugin.getDefault().asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				log("runnable"); //$NON-NLS-1$
+			}
+		});
+		fire(2);
+		fRelease.countDown();
+		List<Object> log = waitForLog(4);
+		assertEquals(4, log.size());
+		assertEquals("[1]", log.get(1).toString()); //$NON-NLS-1$
+		assertEquals("runnable", log.get(2)); //$NON-NLS-1$
+		assertEquals("[2]", log.get(3).toString()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Events fired concurrently are delivered in the order each producer
+	 * fired them.
+	 */
+	public void testConcurrentProducers() throws Exception {
+		final int producers = 4;
+		final int eventsPerProducer = 2000;
+		Thread[] threads = new Thread[producers];
+		for (int i = 0; i < producers; i++) {
+			final int producer = i;
+			threads[i] = new Thread("Event producer " + i) { //$NON-NLS-1$
+				@Override
+				public void run() {
+					for (int j = 0; j < eventsPerProducer; j++) {
+						fire(producer * eventsPerProducer + j);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (int i = 0; i < producers; i++) {
+			threads[i].join();
+		}
+		long timeout = System.currentTimeMillis() + 10000;
+		List<Integer> details;
+		do {
+			assertTrue("Events were not delivered", System.currentTimeMillis() < timeout); //$NON-NLS-1$
+			details = getDetails(waitForLog(1));
+			Thread.sleep(10);
+		} while (details.size() < producers * eventsPerProducer);
+		assertEquals(producers * eventsPerProducer, details.size());
+		int[] last = new int[producers];
+		for (int i = 0; i < producers; i++) {
+			last[i] = i * eventsPerProducer - 1;
+		}
+		for (Integer detail : details) {
+			int producer = detail.intValue() / eventsPerProducer;
+			assertEquals("Events of producer " + producer + " out of order", last[producer] + 1, detail.intValue()); //$NON-NLS-1$ //$NON-NLS-2$
+			last[producer] = detail.intValue();
+		}
+		assertFalse("Queue depth went negative", fNegativeDepth); //$NON-NLS-1$
+	}
+}
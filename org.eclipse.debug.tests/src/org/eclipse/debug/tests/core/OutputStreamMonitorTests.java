@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.IStreamListener;
+import org.eclipse.debug.core.model.IStreamMonitor;
+import org.eclipse.debug.internal.core.OutputStreamMonitor;
+import org.eclipse.debug.internal.core.StreamsProxy;
+
+/**
+ * Tests decoding the output of a process read by an output stream monitor,
+ * and the lifetime of the contents it spills to a file.
+ */
+public class OutputStreamMonitorTests extends TestCase {
+
+	/**
+	 * Text with characters encoded in one to four bytes in UTF-8
+	 */
+	private static final String TEXT = "a\u00e9\u20ac\ud834\udd1e b\u00e9\u20ac\ud834\udd1e\n"; //$NON-NLS-1$
+
+	/**
+	 * Stream that returns the given chunks of bytes, one chunk per read.
+	 */
+	static class ChunkedInputStream extends InputStream {
+
+		private final List<byte[]> fChunks;
+
+		ChunkedInputStream(List<byte[]> chunks) {
+			fChunks = chunks;
+		}
+
+		@Override
+		public int read() {
+			byte[] b = new byte[1];
+			return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len) {
+			if (fChunks.isEmpty()) {
+				return -1;
+			}
+			byte[] chunk = fChunks.get(0);
+			int count = Math.min(len, chunk.length);
+			System.arraycopy(chunk, 0, b, off, count);
+			if (count == chunk.length) {
+				fChunks.remove(0);
+			} else {
+				byte[] rest = new byte[chunk.length - count];
+				System.arraycopy(chunk, count, rest, 0, rest.length);
+				fChunks.set(0, rest);
+			}
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return 0;
+		}
+	}
+
+	/**
+	 * Process whose standard output is the given stream and that has exited.
+	 */
+	static class TestProcess extends Process {
+
+		private final InputStream fOutput;
+
+		TestProcess(InputStream output) {
+			fOutput = output;
+		}
+
+		@Override
+		public OutputStream getOutputStream() {
+			return new ByteArrayOutputStream();
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return fOutput;
+		}
+
+		@Override
+		public InputStream getErrorStream() {
+			return new ByteArrayInputStream(new byte[0]);
+		}
+
+		@Override
+		public int waitFor() {
+			return 0;
+		}
+
+		@Override
+		public int exitValue() {
+			return 0;
+		}
+
+		@Override
+		public void destroy() {
+		}
+	}
+
+	public OutputStreamMonitorTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Reads the given bytes in chunks of the given size with the given
+	 * encoding, and returns the contents of the monitor after checking that
+	 * listeners were notified of the same text.
+	 */
+	private String read(byte[] bytes, int chunkSize, String encoding) {
+		List<byte[]> chunks = new ArrayList<byte[]>();
+		for (int i = 0; i < bytes.length; i += chunkSize) {
+			byte[] chunk = new byte[Math.min(chunkSize, bytes.length - i)];
+			System.arraycopy(bytes, i, chunk, 0, chunk.length);
+			chunks.add(chunk);
+		}
+		final StringBuffer notified = new StringBuffer();
+		StreamsProxy proxy = new StreamsProxy(new TestProcess(new ChunkedInputStream(chunks)), encoding, null);
+		IStreamMonitor monitor = proxy.getOutputStreamMonitor();
+		monitor.addListener(new IStreamListener() {
+			@Override
+			public void streamAppended(String text, IStreamMonitor m) {
+				notified.append(text);
+			}
+		});
+		proxy.close();
+		String contents = monitor.getContents();
+		assertTrue("Listeners not notified of all contents", contents.endsWith(notified.toString())); //$NON-NLS-1$
+		return contents;
+	}
+
+	/**
+	 * Multi-byte characters split across reads are decoded as the characters
+	 * they encode.
+	 */
+	public void testSplitMultiByteCharacters() throws Exception {
+		byte[] bytes = TEXT.getBytes("UTF-8"); //$NON-NLS-1$
+		for (int chunkSize = 1; chunkSize <= 4; chunkSize++) {
+			assertEquals("Wrong contents reading " + chunkSize + " bytes at a time", TEXT, read(bytes, chunkSize, "UTF-8")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	/**
+	 * Bytes that do not form a character are replaced, without losing the
+	 * characters that follow.
+	 */
+	public void testMalformedInput() throws Exception {
+		byte[] text = TEXT.getBytes("UTF-8"); //$NON-NLS-1$
+		byte[] bytes = new byte[text.length + 1];
+		bytes[0] = (byte) 0xC3; // first byte of a two byte sequence, with no second byte
+		System.arraycopy(text, 0, bytes, 1, text.length);
+		assertEquals("\ufffd" + TEXT, read(bytes, 1, "UTF-8")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * An incomplete sequence at the end of the stream is not lost.
+	 */
+	public void testIncompleteSequenceAtEnd() throws Exception {
+		byte[] text = TEXT.getBytes("UTF-8"); //$NON-NLS-1$
+		byte[] bytes = new byte[text.length + 1];
+		System.arraycopy(text, 0, bytes, 0, text.length);
+		bytes[text.length] = (byte) 0xE2; // first byte of a three byte sequence
+		assertEquals(TEXT + "\ufffd", read(bytes, 3, "UTF-8")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Contents spilled to a file remain readable after the streams are closed,
+	 * until the streams proxy is disposed.
+	 */
+	public void testSpilledContentsKeptAfterClose() throws Exception {
+		StringBuffer buffer = new StringBuffer();
+		for (int i = 0; i < 100; i++) {
+			buffer.append("line ").append(i).append('\n'); //$NON-NLS-1$
+		}
+		String text = buffer.toString();
+		List<byte[]> chunks = new ArrayList<byte[]>();
+		chunks.add(text.getBytes("UTF-8")); //$NON-NLS-1$
+		final CountDownLatch started = new CountDownLatch(1);
+		InputStream output = new ChunkedInputStream(chunks) {
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				try {
+					// hold the output back until the limit is set
+					started.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					// read
+				}
+				return super.read(b, off, len);
+			}
+		};
+		StreamsProxy proxy = new StreamsProxy(new TestProcess(output), "UTF-8", null); //$NON-NLS-1$
+		OutputStreamMonitor monitor = (OutputStreamMonitor) proxy.getOutputStreamMonitor();
+		monitor.setContentsLimit(100, true);
+		started.countDown();
+		proxy.close();
+		assertEquals(text, monitor.getContents());
+		assertEquals(0, monitor.getTruncatedLength());
+
+		proxy.dispose();
+		assertTrue("Spilled contents were not released", monitor.getTruncatedLength() > 0); //$NON-NLS-1$
+		assertTrue(text.endsWith(monitor.getContents()));
+		assertEquals(text.length(), monitor.getTruncatedLength() + monitor.getContentsLength());
+	}
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.core;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.internal.core.StreamContents;
+
+/**
+ * Tests the chunked, optionally bounded, contents store used by output stream
+ * monitors.
+ */
+public class StreamContentsTests extends TestCase {
+
+	private static final int LIMIT = 20000;
+
+	public StreamContentsTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Appends random text to the given contents and returns everything
+	 * appended.
+	 */
+	private String fill(StreamContents contents) {
+		StringBuffer appended = new StringBuffer();
+		Random random = new Random(1);
+		for (int i = 0; i < 1000; i++) {
+			char[] chars = new char[random.nextInt(300)];
+			for (int j = 0; j < chars.length; j++) {
+				chars[j] = (char) ('a' + random.nextInt(26));
+			}
+			contents.append(chars, 0, chars.length);
+			appended.append(chars);
+		}
+		return appended.toString();
+	}
+
+	private void assertRanges(StreamContents contents, String expected) {
+		Random random = new Random(2);
+		for (int i = 0; i < 200; i++) {
+			int offset = random.nextInt(expected.length());
+			int length = random.nextInt(3 * LIMIT);
+			String range = expected.substring(offset, Math.min(expected.length(), offset + length));
+			assertEquals("Wrong range at " + offset, range, contents.getContents(offset, length)); //$NON-NLS-1$
+		}
+	}
+
+	public void testUnbounded() {
+		StreamContents contents = new StreamContents();
+		String expected = fill(contents);
+		assertEquals(expected.length(), contents.getLength());
+		assertEquals(0, contents.getTruncatedLength());
+		assertEquals(expected, contents.getContents());
+		assertRanges(contents, expected);
+	}
+
+	public void testHeadTruncation() {
+		StreamContents contents = new StreamContents();
+		contents.setLimit(LIMIT, false);
+		String appended = fill(contents);
+		String expected = appended.substring(appended.length() - LIMIT);
+		assertEquals(LIMIT, contents.getLength());
+		assertEquals(appended.length() - LIMIT, contents.getTruncatedLength());
+		assertEquals(expected, contents.getContents());
+		assertRanges(contents, expected);
+	}
+
+	public void testSpill() {
+		StreamContents contents = new StreamContents();
+		contents.setLimit(LIMIT, true);
+		try {
+			String expected = fill(contents);
+			assertEquals(expected.length(), contents.getLength());
+			assertEquals(0, contents.getTruncatedLength());
+			assertEquals(expected, contents.getContents());
+			assertRanges(contents, expected);
+		} finally {
+			contents.dispose();
+		}
+	}
+
+	public void testDispose() {
+		StreamContents contents = new StreamContents();
+		contents.setLimit(LIMIT, true);
+		String appended = fill(contents);
+		contents.dispose();
+		// spilled characters are discarded, those in memory retained
+		String expected = appended.substring(appended.length() - LIMIT);
+		assertEquals(LIMIT, contents.getLength());
+		assertEquals(appended.length() - LIMIT, contents.getTruncatedLength());
+		assertEquals(expected, contents.getContents());
+		// no longer spills
+		contents.append("abc"); //$NON-NLS-1$
+		assertEquals(LIMIT, contents.getLength());
+		assertEquals(appended.length() - LIMIT + 3, contents.getTruncatedLength());
+	}
+
+	public void testClear() {
+		StreamContents contents = new StreamContents();
+		contents.setLimit(LIMIT, true);
+		fill(contents);
+		contents.clear();
+		assertEquals(0, contents.getLength());
+		assertEquals("", contents.getContents()); //$NON-NLS-1$
+		contents.append("abc"); //$NON-NLS-1$
+		assertEquals("abc", contents.getContents()); //$NON-NLS-1$
+		contents.dispose();
+	}
+}
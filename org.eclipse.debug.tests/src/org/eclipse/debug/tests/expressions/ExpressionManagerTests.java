@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2013 IBM Corporation and others.
+ * Copyright (c) 2010, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import java.util.List;
 
 import junit.framework.TestCase;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.IExpressionListener;
 import org.eclipse.debug.core.IExpressionManager;
@@ -23,6 +24,8 @@ import org.eclipse.debug.core.model.IExpression;
 import org.eclipse.debug.core.model.IWatchExpression;
 import org.eclipse.debug.internal.core.ExpressionManager;
 import org.eclipse.debug.internal.core.IExpressionsListener2;
+import org.eclipse.debug.internal.core.WatchExpressionEvaluator;
+import org.eclipse.debug.tests.sourcelookup.TestStackFrame;
 
 /**
  * Tests expression manager and listener call backs
@@ -162,6 +165,47 @@ public class ExpressionManagerTests extends TestCase {
 		// remove all expressions from the manager
 		super.tearDown();
 		getManager().removeExpressions(getManager().getExpressions());
+		TestWatchExpressionDelegate.reset();
+	}
+
+	/**
+	 * Waits until none of the given expressions is pending.
+	 *
+	 * @param expressions expressions being evaluated
+	 * @throws InterruptedException if interrupted
+	 */
+	private void waitForResults(IWatchExpression[] expressions) throws InterruptedException {
+		long end = System.currentTimeMillis() + 10000;
+		for (int i = 0; i < expressions.length; i++) {
+			while (expressions[i].isPending()) {
+				assertTrue("Evaluation timed out", System.currentTimeMillis() < end); //$NON-NLS-1$
+				Thread.sleep(10);
+			}
+		}
+	}
+
+	/**
+	 * Sets the given context on the given expressions and waits for the
+	 * evaluations to be handed to the delegate.
+	 *
+	 * @param expressions the expressions
+	 * @param context the context
+	 * @throws InterruptedException if interrupted
+	 */
+	private void setContext(IWatchExpression[] expressions, TestStackFrame context) throws InterruptedException {
+		WatchExpressionEvaluator evaluator = ((ExpressionManager) getManager()).getWatchExpressionEvaluator();
+		long batches = evaluator.getBatchCount();
+		// queue all expressions before the evaluator runs
+		synchronized (evaluator) {
+			for (int i = 0; i < expressions.length; i++) {
+				expressions[i].setExpressionContext(context);
+			}
+		}
+		long end = System.currentTimeMillis() + 10000;
+		while (evaluator.getBatchCount() == batches) {
+			assertTrue("Evaluation timed out", System.currentTimeMillis() < end); //$NON-NLS-1$
+			Thread.sleep(10);
+		}
 	}
 
 	/**
@@ -577,4 +621,110 @@ public class ExpressionManagerTests extends TestCase {
 		assertNull(ex[0]);
 	}
 
+	/**
+	 * Tests that expressions given the same context are handed to the
+	 * delegate in one batch, each distinct expression once.
+	 *
+	 * @throws InterruptedException
+	 */
+	public void testBatchedEvaluation() throws InterruptedException {
+		IExpressionManager manager = getManager();
+		IWatchExpression[] expressions = new IWatchExpression[] {
+				manager.newWatchExpression("exp1"), //$NON-NLS-1$
+				manager.newWatchExpression("exp2"), //$NON-NLS-1$
+				manager.newWatchExpression("exp1"), //$NON-NLS-1$
+				manager.newWatchExpression("exp3") }; //$NON-NLS-1$
+		manager.addExpressions(expressions);
+		TestWatchExpressionDelegate.reset();
+		setContext(expressions, new TestStackFrame(null));
+		waitForResults(expressions);
+		assertEquals(0, TestWatchExpressionDelegate.fgSingle.size());
+		assertEquals(1, TestWatchExpressionDelegate.fgBatches.size());
+		assertEquals("Each distinct expression should be evaluated once", 3, TestWatchExpressionDelegate.fgBatches.get(0).length); //$NON-NLS-1$
+		for (int i = 0; i < expressions.length; i++) {
+			assertEquals(expressions[i].getExpressionText(), expressions[i].getErrorMessages()[0]);
+		}
+	}
+
+	/**
+	 * Tests that a batch is canceled and its late results ignored when the
+	 * expressions are given another context.
+	 *
+	 * @throws InterruptedException
+	 */
+	public void testBatchCanceledOnContextChange() throws InterruptedException {
+		IExpressionManager manager = getManager();
+		IWatchExpression[] expressions = new IWatchExpression[] {
+				manager.newWatchExpression("exp1"), //$NON-NLS-1$
+				manager.newWatchExpression("exp2") }; //$NON-NLS-1$
+		manager.addExpressions(expressions);
+		TestWatchExpressionDelegate.reset();
+		TestWatchExpressionDelegate.fgDefer = true;
+		setContext(expressions, new TestStackFrame(null));
+		IProgressMonitor first = TestWatchExpressionDelegate.fgMonitor;
+		assertNotNull(first);
+		assertFalse(first.isCanceled());
+		TestWatchExpressionDelegate.fgDefer = false;
+		setContext(expressions, new TestStackFrame(null));
+		assertTrue("First batch should be canceled", first.isCanceled()); //$NON-NLS-1$
+		waitForResults(expressions);
+		assertEquals(2, TestWatchExpressionDelegate.fgBatches.size());
+		for (int i = 0; i < expressions.length; i++) {
+			assertEquals(expressions[i].getExpressionText(), expressions[i].getErrorMessages()[0]);
+		}
+	}
+
+	/**
+	 * Tests that expressions of a debug model whose delegate does not evaluate
+	 * in batches are evaluated as soon as their context is set.
+	 */
+	public void testNonBatchingEvaluatedImmediately() {
+		IExpressionManager manager = getManager();
+		IWatchExpression expression = manager.newWatchExpression("exp1"); //$NON-NLS-1$
+		manager.addExpression(expression);
+		WatchExpressionEvaluator evaluator = ((ExpressionManager) manager).getWatchExpressionEvaluator();
+		long batches = evaluator.getBatchCount();
+		TestStackFrame context = new TestStackFrame(null) {
+			@Override
+			public String getModelIdentifier() {
+				return "no.delegate.model"; //$NON-NLS-1$
+			}
+		};
+		assertFalse(((ExpressionManager) manager).isBatchingWatchExpressionDelegate(context.getModelIdentifier()));
+		expression.setExpressionContext(context);
+		assertFalse("Expression should be evaluated right away", expression.isPending()); //$NON-NLS-1$
+		assertTrue("Missing delegate should be reported", expression.hasErrors()); //$NON-NLS-1$
+		assertEquals(batches, evaluator.getBatchCount());
+	}
+
+	/**
+	 * Tests that moving many expressions keeps the order of the others.
+	 */
+	public void testMoveManyExpressions() {
+		IExpressionManager manager = getManager();
+		IExpression[] all = new IExpression[200];
+		for (int i = 0; i < all.length; i++) {
+			all[i] = manager.newWatchExpression(Integer.toString(i));
+		}
+		manager.addExpressions(all);
+		IExpression[] odd = new IExpression[all.length / 2];
+		for (int i = 0; i < odd.length; i++) {
+			odd[i] = all[2 * i + 1];
+		}
+		((ExpressionManager) manager).moveExpressions(odd, all[100], true);
+		IExpression[] expressions = manager.getExpressions();
+		assertEquals(all.length, expressions.length);
+		// even expressions before 100, the odd ones, the remaining even ones
+		int index = 0;
+		for (int i = 0; i < 100; i += 2) {
+			assertSame(all[i], expressions[index++]);
+		}
+		for (int i = 0; i < odd.length; i++) {
+			assertSame(odd[i], expressions[index++]);
+		}
+		for (int i = 100; i < all.length; i += 2) {
+			assertSame(all[i], expressions[index++]);
+		}
+	}
+
 }
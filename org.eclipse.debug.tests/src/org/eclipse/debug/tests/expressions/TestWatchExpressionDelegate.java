@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.expressions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IValue;
+import org.eclipse.debug.core.model.IWatchExpressionDelegate2;
+import org.eclipse.debug.core.model.IWatchExpressionListener;
+import org.eclipse.debug.core.model.IWatchExpressionResult;
+
+/**
+ * Watch expression delegate for the test debug model that answers each
+ * expression with a result carrying the expression text as its message, and
+ * records the requests it receives.
+ */
+public class TestWatchExpressionDelegate implements IWatchExpressionDelegate2 {
+
+	/**
+	 * Expressions of each batch request
+	 */
+	static final List<String[]> fgBatches = new ArrayList<String[]>();
+
+	/**
+	 * Expressions of single requests
+	 */
+	static final List<String> fgSingle = new ArrayList<String>();
+
+	/**
+	 * Monitor of the last batch request
+	 */
+	static IProgressMonitor fgMonitor;
+
+	/**
+	 * Whether to hold back results of batch requests
+	 */
+	static boolean fgDefer = false;
+
+	static synchronized void reset() {
+		fgBatches.clear();
+		fgSingle.clear();
+		fgMonitor = null;
+		fgDefer = false;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.core.model.IWatchExpressionDelegate#evaluateExpression(java.lang.String, org.eclipse.debug.core.model.IDebugElement, org.eclipse.debug.core.model.IWatchExpressionListener)
+	 */
+	@Override
+	public void evaluateExpression(String expression, IDebugElement context, IWatchExpressionListener listener) {
+		synchronized (TestWatchExpressionDelegate.class) {
+			fgSingle.add(expression);
+		}
+		listener.watchEvaluationFinished(newResult(expression));
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.core.model.IWatchExpressionDelegate2#evaluateExpressions(java.lang.String[], org.eclipse.debug.core.model.IDebugElement, org.eclipse.core.runtime.IProgressMonitor, org.eclipse.debug.core.model.IWatchExpressionListener)
+	 */
+	@Override
+	public void evaluateExpressions(String[] expressions, IDebugElement context, IProgressMonitor monitor, IWatchExpressionListener listener) {
+		boolean defer;
+		synchronized (TestWatchExpressionDelegate.class) {
+			fgBatches.add(expressions);
+			fgMonitor = monitor;
+			defer = fgDefer;
+		}
+		if (!defer) {
+			for (int i = 0; i < expressions.length && !monitor.isCanceled(); i++) {
+				listener.watchEvaluationFinished(newResult(expressions[i]));
+			}
+		}
+	}
+
+	private IWatchExpressionResult newResult(final String expression) {
+		return new IWatchExpressionResult() {
+			@Override
+			public IValue getValue() {
+				return null;
+			}
+			@Override
+			public boolean hasErrors() {
+				return false;
+			}
+			@Override
+			public String[] getErrorMessages() {
+				return new String[] { expression };
+			}
+			@Override
+			public String getExpressionText() {
+				return expression;
+			}
+			@Override
+			public DebugException getException() {
+				return null;
+			}
+		};
+	}
+}
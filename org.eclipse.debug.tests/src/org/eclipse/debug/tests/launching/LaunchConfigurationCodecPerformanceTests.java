@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import java.io.ByteArrayInputStream;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.internal.core.LaunchConfigurationCodec;
+import org.eclipse.debug.internal.core.LaunchConfigurationInfo;
+import org.eclipse.debug.internal.core.LaunchManager;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.w3c.dom.Document;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Compares reading and writing launch configuration files with the streaming
+ * {@link LaunchConfigurationCodec} and with a DOM, as done before the codec
+ * was introduced. Reports the throughput of each run; the performance meter
+ * records elapsed time and heap usage.
+ */
+public class LaunchConfigurationCodecPerformanceTests extends TestCase {
+
+	/**
+	 * Attributes of each kind in the measured configuration
+	 */
+	private static final int ATTRIBUTES = 40;
+
+	/**
+	 * Files read or written per run
+	 */
+	private static final int OPERATIONS = 2000;
+
+	private byte[] fContent;
+
+	public LaunchConfigurationCodecPerformanceTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		StringBuffer buffer = new StringBuffer();
+		buffer.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n"); //$NON-NLS-1$
+		buffer.append("<launchConfiguration type=\"").append(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE).append("\">\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		for (int i = 0; i < ATTRIBUTES; i++) {
+			buffer.append("<booleanAttribute key=\"bool").append(i).append("\" value=\"true\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			buffer.append("<intAttribute key=\"int").append(i).append("\" value=\"").append(i).append("\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			buffer.append("<stringAttribute key=\"string").append(i).append("\" value=\"-Dvalue=").append(i).append("&#10;&lt;arg&gt;\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			buffer.append("<listAttribute key=\"list").append(i).append("\">\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			buffer.append("<listEntry value=\"/project/src/entry").append(i).append("\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			buffer.append("<listEntry value=\"/project/lib/entry").append(i).append(".jar\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			buffer.append("</listAttribute>\n"); //$NON-NLS-1$
+			buffer.append("<mapAttribute key=\"map").append(i).append("\">\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			buffer.append("<mapEntry key=\"NAME").append(i).append("\" value=\"value").append(i).append("\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			buffer.append("</mapAttribute>\n"); //$NON-NLS-1$
+		}
+		buffer.append("</launchConfiguration>\n"); //$NON-NLS-1$
+		fContent = buffer.toString().getBytes("UTF8"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Parses with a new DOM builder per file, as the launch manager did.
+	 *
+	 * @throws Exception
+	 */
+	public void testParseDOM() throws Exception {
+		PerformanceMeter meter = startMeter();
+		try {
+			for (int pass = 0; pass < 5; pass++) {
+				meter.start();
+				long start = System.currentTimeMillis();
+				for (int i = 0; i < OPERATIONS; i++) {
+					DocumentBuilder parser = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+					parser.setErrorHandler(new DefaultHandler());
+					assertNotNull(parser.parse(new ByteArrayInputStream(fContent)).getDocumentElement());
+				}
+				report(start);
+				meter.stop();
+			}
+			meter.commit();
+			Performance.getDefault().assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	/**
+	 * Parses with the streaming codec.
+	 *
+	 * @throws Exception
+	 */
+	public void testParseStreaming() throws Exception {
+		PerformanceMeter meter = startMeter();
+		try {
+			for (int pass = 0; pass < 5; pass++) {
+				meter.start();
+				long start = System.currentTimeMillis();
+				for (int i = 0; i < OPERATIONS; i++) {
+					assertNotNull(LaunchConfigurationCodec.read(new ByteArrayInputStream(fContent)));
+				}
+				report(start);
+				meter.stop();
+			}
+			meter.commit();
+			Performance.getDefault().assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	/**
+	 * Serializes a DOM built from the configuration, as the working copy did.
+	 *
+	 * @throws Exception
+	 */
+	public void testSerializeDOM() throws Exception {
+		Document source = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(fContent));
+		PerformanceMeter meter = startMeter();
+		try {
+			for (int pass = 0; pass < 5; pass++) {
+				meter.start();
+				long start = System.currentTimeMillis();
+				for (int i = 0; i < OPERATIONS; i++) {
+					Document doc = LaunchManager.getDocument();
+					doc.appendChild(doc.importNode(source.getDocumentElement(), true));
+					assertNotNull(LaunchManager.serializeDocument(doc));
+				}
+				report(start);
+				meter.stop();
+			}
+			meter.commit();
+			Performance.getDefault().assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	/**
+	 * Serializes with the streaming codec.
+	 *
+	 * @throws Exception
+	 */
+	public void testSerializeStreaming() throws Exception {
+		LaunchConfigurationInfo info = LaunchConfigurationCodec.read(new ByteArrayInputStream(fContent));
+		PerformanceMeter meter = startMeter();
+		try {
+			for (int pass = 0; pass < 5; pass++) {
+				meter.start();
+				long start = System.currentTimeMillis();
+				for (int i = 0; i < OPERATIONS; i++) {
+					assertNotNull(LaunchConfigurationCodec.write(info));
+				}
+				report(start);
+				meter.stop();
+			}
+			meter.commit();
+			Performance.getDefault().assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	private PerformanceMeter startMeter() {
+		Performance perf = Performance.getDefault();
+		return perf.createPerformanceMeter(perf.getDefaultScenarioId(this));
+	}
+
+	private void report(long start) {
+		long elapsed = Math.max(1, System.currentTimeMillis() - start);
+		System.out.println(getName() + ": files=" + OPERATIONS //$NON-NLS-1$
+				+ " bytes=" + fContent.length //$NON-NLS-1$
+				+ " files/s=" + (OPERATIONS * 1000L / elapsed)); //$NON-NLS-1$
+	}
+}
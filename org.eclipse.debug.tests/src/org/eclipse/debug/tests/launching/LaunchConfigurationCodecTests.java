@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.debug.internal.core.LaunchConfiguration;
+import org.eclipse.debug.internal.core.LaunchConfigurationCodec;
+import org.eclipse.debug.internal.core.LaunchConfigurationInfo;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Tests {@link LaunchConfigurationCodec} reads the files written by the DOM
+ * serializer and writes files the DOM parser reads back unchanged.
+ */
+public class LaunchConfigurationCodecTests extends AbstractLaunchTest {
+
+	/**
+	 * Value exercising the characters that have to be escaped
+	 */
+	private static final String SPECIAL = "a<b>&c\"d'e\r\nf\tg \u00e9\u4e2d\ud83d\ude00"; //$NON-NLS-1$
+
+	/**
+	 * Files as written by the DOM serializer of previous releases, with and
+	 * without indentation, and variations the DOM reader accepted
+	 */
+	private static final String[] CORPUS = new String[] {
+			"<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" + //$NON-NLS-1$
+			"<launchConfiguration type=\"" + LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE + "\">\n" + //$NON-NLS-1$ //$NON-NLS-2$
+			"<booleanAttribute key=\"bool\" value=\"true\"/>\n" + //$NON-NLS-1$
+			"<intAttribute key=\"int\" value=\"42\"/>\n" + //$NON-NLS-1$
+			"<listAttribute key=\"list\">\n" + //$NON-NLS-1$
+			"<listEntry value=\"b\"/>\n" + //$NON-NLS-1$
+			"<listEntry value=\"a\"/>\n" + //$NON-NLS-1$
+			"</listAttribute>\n" + //$NON-NLS-1$
+			"<listAttribute key=\"empty\"/>\n" + //$NON-NLS-1$
+			"<mapAttribute key=\"map\">\n" + //$NON-NLS-1$
+			"<mapEntry key=\"k1\" value=\"v1\"/>\n" + //$NON-NLS-1$
+			"<mapEntry key=\"k2\" value=\"line1&#13;&#10;line2&#9;tab\"/>\n" + //$NON-NLS-1$
+			"</mapAttribute>\n" + //$NON-NLS-1$
+			"<setAttribute key=\"set\">\n" + //$NON-NLS-1$
+			"<setEntry value=\"x\"/>\n" + //$NON-NLS-1$
+			"<setEntry value=\"y\"/>\n" + //$NON-NLS-1$
+			"</setAttribute>\n" + //$NON-NLS-1$
+			"<stringAttribute key=\"string\" value=\"&lt;&amp;&gt;&quot;'\"/>\n" + //$NON-NLS-1$
+			"</launchConfiguration>\n", //$NON-NLS-1$
+
+			"<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\r\n" + //$NON-NLS-1$
+			"<launchConfiguration type=\"" + LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE + "\">\r\n" + //$NON-NLS-1$ //$NON-NLS-2$
+			"    <listAttribute key=\"list\">\r\n" + //$NON-NLS-1$
+			"        <listEntry value=\"&#128512;\"/>\r\n" + //$NON-NLS-1$
+			"    </listAttribute>\r\n" + //$NON-NLS-1$
+			"    <stringAttribute key=\"string\" value=\"\u00e9\"/>\r\n" + //$NON-NLS-1$
+			"</launchConfiguration>\r\n", //$NON-NLS-1$
+
+			"<!-- comment --><LAUNCHCONFIGURATION type=\"" + LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE + "\">" + //$NON-NLS-1$ //$NON-NLS-2$
+			"<unknown><stringAttribute key=\"hidden\" value=\"1\"/></unknown>" + //$NON-NLS-1$
+			"<StringAttribute key=\"noValue\"/>" + //$NON-NLS-1$
+			"<stringAttribute key=\"dup\" value=\"1\"/><stringAttribute key=\"dup\" value=\"2\"/>" + //$NON-NLS-1$
+			"</LAUNCHCONFIGURATION>" }; //$NON-NLS-1$
+
+	/**
+	 * @param name
+	 */
+	public LaunchConfigurationCodecTests(String name) {
+		super(name);
+	}
+
+	private LaunchConfigurationInfo read(String xml) throws Exception {
+		return LaunchConfigurationCodec.read(new ByteArrayInputStream(xml.getBytes("UTF8"))); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the value of the first element in the given document with the
+	 * given key.
+	 */
+	private String getValue(Document doc, String key) {
+		NodeList elements = doc.getElementsByTagName("*"); //$NON-NLS-1$
+		for (int i = 0; i < elements.getLength(); i++) {
+			Element element = (Element) elements.item(i);
+			if (key.equals(element.getAttribute("key"))) { //$NON-NLS-1$
+				return element.getAttribute("value"); //$NON-NLS-1$
+			}
+		}
+		return null;
+	}
+
+	private Document parse(String xml) throws Exception {
+		return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(xml.getBytes("UTF8"))); //$NON-NLS-1$
+	}
+
+	/**
+	 * Each file of the corpus reads the same after being written again, and
+	 * the written file is read the same by the DOM parser.
+	 *
+	 * @throws Exception
+	 */
+	public void testCorpusRoundTrip() throws Exception {
+		for (int i = 0; i < CORPUS.length; i++) {
+			LaunchConfigurationInfo info = read(CORPUS[i]);
+			String xml = LaunchConfigurationCodec.write(info);
+			assertEquals("Round trip of file " + i, info, read(xml)); //$NON-NLS-1$
+			Document original = parse(CORPUS[i]);
+			Document written = parse(xml);
+			assertEquals(getValue(original, "string"), getValue(written, "string")); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals(getValue(original, "k2"), getValue(written, "k2")); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		Document written = parse(LaunchConfigurationCodec.write(read(CORPUS[2])));
+		assertEquals("2", getValue(written, "dup")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("", getValue(written, "noValue")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull("Unknown elements are ignored", getValue(written, "hidden")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Invalid files are rejected as by the DOM reader.
+	 *
+	 * @throws Exception
+	 */
+	public void testInvalidFiles() throws Exception {
+		try {
+			read("<launchConfiguration type=\"missing.type\"/>"); //$NON-NLS-1$
+			fail("Missing type should be reported"); //$NON-NLS-1$
+		} catch (CoreException e) {
+			assertEquals(DebugException.MISSING_LAUNCH_CONFIGURATION_TYPE, e.getStatus().getCode());
+		}
+		try {
+			read("<launchConfiguration type=\"" + LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE + "\"><listAttribute key=\"list\"><setEntry value=\"a\"/></listAttribute></launchConfiguration>"); //$NON-NLS-1$ //$NON-NLS-2$
+			fail("Unexpected entry should be reported"); //$NON-NLS-1$
+		} catch (CoreException e) {
+			assertEquals(DebugException.REQUEST_FAILED, e.getStatus().getCode());
+		}
+		try {
+			read("<otherRoot/>"); //$NON-NLS-1$
+			fail("Unexpected root should be reported"); //$NON-NLS-1$
+		} catch (CoreException e) {
+			assertEquals(DebugException.REQUEST_FAILED, e.getStatus().getCode());
+		}
+	}
+
+	/**
+	 * Attributes of all kinds saved through a working copy read back the
+	 * same through the launch configuration and the DOM parser.
+	 *
+	 * @throws Exception
+	 */
+	public void testSaveAndRead() throws Exception {
+		ILaunchConfigurationType type = getLaunchManager().getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE);
+		ILaunchConfigurationWorkingCopy wc = type.newInstance(null, "CodecConfiguration"); //$NON-NLS-1$
+		List<String> list = new ArrayList<String>();
+		list.add(SPECIAL);
+		list.add(""); //$NON-NLS-1$
+		Set<String> set = new HashSet<String>(list);
+		Map<String, String> map = new HashMap<String, String>();
+		map.put(SPECIAL, SPECIAL);
+		map.put("empty", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		wc.setAttribute("special", SPECIAL); //$NON-NLS-1$
+		wc.setAttribute("int", -7); //$NON-NLS-1$
+		wc.setAttribute("bool", false); //$NON-NLS-1$
+		wc.setAttribute("list", list); //$NON-NLS-1$
+		wc.setAttribute("set", set); //$NON-NLS-1$
+		wc.setAttribute("map", map); //$NON-NLS-1$
+		ILaunchConfiguration config = wc.doSave();
+		try {
+			assertEquals(wc.getAttributes(), config.getAttributes());
+			InputStream stream = ((LaunchConfiguration) config).getFileStore().openInputStream(EFS.NONE, null);
+			try {
+				Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(stream);
+				assertEquals(SPECIAL, getValue(doc, "special")); //$NON-NLS-1$
+				assertEquals("-7", getValue(doc, "int")); //$NON-NLS-1$ //$NON-NLS-2$
+				assertEquals(SPECIAL, getValue(doc, SPECIAL));
+			} finally {
+				stream.close();
+			}
+		} finally {
+			config.delete();
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.debug.internal.core.LaunchConfiguration;
+import org.eclipse.debug.internal.core.LaunchConfigurationIndex;
+
+/**
+ * Tests the persisted {@link LaunchConfigurationIndex}.
+ */
+public class LaunchConfigurationIndexTests extends AbstractLaunchTest {
+
+	private File fFile;
+
+	/**
+	 * @param name
+	 */
+	public LaunchConfigurationIndexTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fFile = File.createTempFile("launch", ".idx"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		fFile.delete();
+		super.tearDown();
+	}
+
+	/**
+	 * Tests an entry is written and read back for the same workspace save.
+	 *
+	 * @throws Exception
+	 */
+	public void testRoundTrip() throws Exception {
+		ILaunchConfiguration config = getLaunchConfiguration("IndexedConfiguration"); //$NON-NLS-1$
+		try {
+			ILaunchConfigurationWorkingCopy wc = config.getWorkingCopy();
+			List<String> paths = new ArrayList<String>();
+			paths.add("/Project/File.txt"); //$NON-NLS-1$
+			List<String> types = new ArrayList<String>();
+			types.add("1"); //$NON-NLS-1$
+			wc.setAttribute(LaunchConfiguration.ATTR_MAPPED_RESOURCE_PATHS, paths);
+			wc.setAttribute(LaunchConfiguration.ATTR_MAPPED_RESOURCE_TYPES, types);
+			config = wc.doSave();
+			LaunchConfigurationIndex.Entry entry = LaunchConfigurationIndex.createEntry(config);
+			assertTrue(entry.isLocal());
+			assertEquals(LaunchConfigurationIndex.getTimestamp(config), entry.timestamp);
+
+			LaunchConfigurationIndex.write(fFile, 42, Collections.singletonList(entry));
+			List<LaunchConfigurationIndex.Entry> entries = LaunchConfigurationIndex.read(fFile, 42);
+			assertNotNull("Index should be read", entries); //$NON-NLS-1$
+			assertEquals(1, entries.size());
+			LaunchConfigurationIndex.Entry read = entries.get(0);
+			assertEquals(entry.name, read.name);
+			assertNull(read.path);
+			assertEquals(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE, read.typeId);
+			assertEquals(1, read.mappedPaths.length);
+			assertEquals("/Project/File.txt", read.mappedPaths[0]); //$NON-NLS-1$
+			assertEquals("1", read.mappedTypes[0]); //$NON-NLS-1$
+			assertEquals(entry.timestamp, read.timestamp);
+		} finally {
+			config.delete();
+		}
+	}
+
+	/**
+	 * Tests an index written for another workspace save is rejected.
+	 *
+	 * @throws Exception
+	 */
+	public void testSaveNumberMismatch() throws Exception {
+		List<LaunchConfigurationIndex.Entry> empty = Collections.emptyList();
+		LaunchConfigurationIndex.write(fFile, 3, empty);
+		assertNotNull(LaunchConfigurationIndex.read(fFile, 3));
+		assertNull("Index of another save should be rejected", LaunchConfigurationIndex.read(fFile, 4)); //$NON-NLS-1$
+		fFile.delete();
+		assertNull("Missing index should not be read", LaunchConfigurationIndex.read(fFile, 3)); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationListener;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.core.LaunchConfigurationCodec;
+import org.eclipse.debug.internal.core.LaunchConfigurationInfo;
+import org.eclipse.debug.internal.core.LaunchConfigurationInfoCache;
+import org.eclipse.debug.internal.core.LaunchManager;
+import org.eclipse.debug.internal.core.Preferences;
+
+/**
+ * Tests the bounded cache of launch configuration attributes evicts the least
+ * recently used entries and counts hits, misses and evictions.
+ */
+public class LaunchConfigurationInfoCacheTests extends AbstractLaunchTest {
+
+	/**
+	 * @param name
+	 */
+	public LaunchConfigurationInfoCacheTests(String name) {
+		super(name);
+	}
+
+	private LaunchConfigurationInfo newInfo() throws Exception {
+		String xml = "<launchConfiguration type=\"" + LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE + "\"/>"; //$NON-NLS-1$ //$NON-NLS-2$
+		return LaunchConfigurationCodec.read(new ByteArrayInputStream(xml.getBytes("UTF8"))); //$NON-NLS-1$
+	}
+
+	private ILaunchConfiguration[] newConfigurations(int count) throws Exception {
+		ILaunchConfigurationType type = getLaunchManager().getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE);
+		ILaunchConfiguration[] configs = new ILaunchConfiguration[count];
+		for (int i = 0; i < count; i++) {
+			configs[i] = type.newInstance(null, "CacheConfiguration" + i); //$NON-NLS-1$
+		}
+		return configs;
+	}
+
+	/**
+	 * The least recently used entry is evicted when the limit is exceeded.
+	 *
+	 * @throws Exception
+	 */
+	public void testEviction() throws Exception {
+		ILaunchConfiguration[] configs = newConfigurations(3);
+		LaunchConfigurationInfoCache cache = new LaunchConfigurationInfoCache(2);
+		LaunchConfigurationInfo info = newInfo();
+		cache.put(configs[0], info);
+		cache.put(configs[1], info);
+		assertSame(info, cache.get(configs[0]));
+		cache.put(configs[2], info);
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertNull("Least recently used entry should be evicted", cache.get(configs[1])); //$NON-NLS-1$
+		assertSame(info, cache.get(configs[0]));
+		assertSame(info, cache.get(configs[2]));
+		assertEquals(3, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	/**
+	 * Lowering the limit evicts entries, a limit of 0 leaves the cache
+	 * unbounded.
+	 *
+	 * @throws Exception
+	 */
+	public void testLimit() throws Exception {
+		ILaunchConfiguration[] configs = newConfigurations(4);
+		LaunchConfigurationInfoCache cache = new LaunchConfigurationInfoCache(0);
+		LaunchConfigurationInfo info = newInfo();
+		for (int i = 0; i < configs.length; i++) {
+			cache.put(configs[i], info);
+		}
+		assertEquals(4, cache.size());
+		cache.setLimit(1);
+		assertEquals(1, cache.size());
+		assertEquals(3, cache.getEvictionCount());
+		assertSame(info, cache.get(configs[3]));
+		assertTrue(cache.remove(configs[3]));
+		assertFalse(cache.remove(configs[3]));
+	}
+
+	/**
+	 * The limit of a cache created from the preferences follows changes of
+	 * the preference until the cache is disposed.
+	 *
+	 * @throws Exception
+	 */
+	public void testPreferenceLimit() throws Exception {
+		String qualifier = DebugPlugin.getUniqueIdentifier();
+		String key = IInternalDebugCoreConstants.PREF_LAUNCH_CONFIGURATION_CACHE_LIMIT;
+		LaunchConfigurationInfoCache cache = new LaunchConfigurationInfoCache();
+		try {
+			ILaunchConfiguration[] configs = newConfigurations(4);
+			LaunchConfigurationInfo info = newInfo();
+			for (int i = 0; i < configs.length; i++) {
+				cache.put(configs[i], info);
+			}
+			Preferences.setInt(qualifier, key, 2, InstanceScope.INSTANCE);
+			assertEquals(2, cache.getLimit());
+			assertEquals(2, cache.size());
+			Preferences.setToDefault(qualifier, key);
+			assertEquals(LaunchConfigurationInfoCache.DEFAULT_LIMIT, cache.getLimit());
+			cache.dispose();
+			Preferences.setInt(qualifier, key, 1, InstanceScope.INSTANCE);
+			assertEquals(LaunchConfigurationInfoCache.DEFAULT_LIMIT, cache.getLimit());
+		} finally {
+			cache.dispose();
+			Preferences.setToDefault(qualifier, key);
+		}
+	}
+
+	/**
+	 * A deleted configuration is reported removed whether or not its
+	 * attributes are cached.
+	 *
+	 * @throws Exception
+	 */
+	public void testDeleteNotifiesRemoved() throws Exception {
+		ILaunchConfigurationType type = getLaunchManager().getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE);
+		ILaunchConfiguration config = type.newInstance(null, "CacheConfiguration").doSave(); //$NON-NLS-1$
+		final List<ILaunchConfiguration> removed = new ArrayList<ILaunchConfiguration>();
+		ILaunchConfigurationListener listener = new ILaunchConfigurationListener() {
+			@Override
+			public void launchConfigurationAdded(ILaunchConfiguration configuration) {
+			}
+			@Override
+			public void launchConfigurationChanged(ILaunchConfiguration configuration) {
+			}
+			@Override
+			public void launchConfigurationRemoved(ILaunchConfiguration configuration) {
+				removed.add(configuration);
+			}
+		};
+		getLaunchManager().addLaunchConfigurationListener(listener);
+		try {
+			config.delete();
+		} finally {
+			getLaunchManager().removeLaunchConfigurationListener(listener);
+		}
+		assertTrue(removed.contains(config));
+		assertNull(((LaunchManager) getLaunchManager()).findLaunchConfiguration("CacheConfiguration")); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationListener;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.core.LaunchManager;
+import org.eclipse.debug.internal.core.Preferences;
+
+/**
+ * Tests launch configurations imported concurrently are reported exactly as
+ * when they are imported one after the other.
+ */
+public class LaunchConfigurationLoaderTests extends AbstractLaunchTest {
+
+	/**
+	 * Number of files imported
+	 */
+	private static final int COUNT = 12;
+
+	/**
+	 * Records notifications in the order they are received.
+	 */
+	class Recorder implements ILaunchConfigurationListener {
+
+		final List<String> fEvents = new ArrayList<String>();
+
+		@Override
+		public void launchConfigurationAdded(ILaunchConfiguration configuration) {
+			fEvents.add("added " + configuration.getName()); //$NON-NLS-1$
+		}
+
+		@Override
+		public void launchConfigurationChanged(ILaunchConfiguration configuration) {
+			fEvents.add("changed " + configuration.getName()); //$NON-NLS-1$
+		}
+
+		@Override
+		public void launchConfigurationRemoved(ILaunchConfiguration configuration) {
+			fEvents.add("removed " + configuration.getName()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Counts the work reported.
+	 */
+	class Monitor extends NullProgressMonitor {
+
+		int fWorked = 0;
+
+		@Override
+		public void worked(int work) {
+			fWorked += work;
+		}
+	}
+
+	private File fDirectory;
+
+	/**
+	 * @param name
+	 */
+	public LaunchConfigurationLoaderTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fDirectory = File.createTempFile("loader", null); //$NON-NLS-1$
+		fDirectory.delete();
+		fDirectory.mkdirs();
+		for (int i = 0; i < COUNT; i++) {
+			// the last file has an unknown type and is not added
+			String type = i == COUNT - 1 ? "missing.type" : LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE; //$NON-NLS-1$
+			String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" + //$NON-NLS-1$
+					"<launchConfiguration type=\"" + type + "\">\n" + //$NON-NLS-1$ //$NON-NLS-2$
+					"<intAttribute key=\"index\" value=\"" + i + "\"/>\n" + //$NON-NLS-1$ //$NON-NLS-2$
+					"</launchConfiguration>\n"; //$NON-NLS-1$
+			OutputStream stream = new FileOutputStream(new File(fDirectory, "Loader" + i + ".launch")); //$NON-NLS-1$ //$NON-NLS-2$
+			try {
+				stream.write(xml.getBytes("UTF8")); //$NON-NLS-1$
+			} finally {
+				stream.close();
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		setParallel(true);
+		File[] files = fDirectory.listFiles();
+		for (int i = 0; i < files.length; i++) {
+			files[i].delete();
+		}
+		fDirectory.delete();
+		super.tearDown();
+	}
+
+	private void setParallel(boolean parallel) {
+		Preferences.setBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_PARALLEL_LAUNCH_CONFIGURATION_LOADING, parallel, InstanceScope.INSTANCE);
+	}
+
+	/**
+	 * Imports the files twice, so configurations are added and then changed,
+	 * and returns the notifications received. Imported configurations are
+	 * deleted afterwards.
+	 */
+	private List<String> importFiles() throws Exception {
+		LaunchManager manager = (LaunchManager) getLaunchManager();
+		Recorder recorder = new Recorder();
+		manager.addLaunchConfigurationListener(recorder);
+		try {
+			for (int pass = 0; pass < 2; pass++) {
+				Monitor monitor = new Monitor();
+				manager.importConfigurations(fDirectory.listFiles(), monitor);
+				assertEquals("All files should be reported worked", COUNT, monitor.fWorked); //$NON-NLS-1$
+			}
+			for (int i = 0; i < COUNT - 1; i++) {
+				ILaunchConfiguration config = manager.findLaunchConfiguration("Loader" + i); //$NON-NLS-1$
+				assertNotNull("Missing configuration", config); //$NON-NLS-1$
+				assertEquals(i, config.getAttribute("index", -1)); //$NON-NLS-1$
+			}
+			assertNull("Configuration of unknown type should not be added", manager.findLaunchConfiguration("Loader" + (COUNT - 1))); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			manager.removeLaunchConfigurationListener(recorder);
+			deleteImported(manager);
+		}
+		return recorder.fEvents;
+	}
+
+	/**
+	 * Deletes the configurations imported from the files.
+	 */
+	private void deleteImported(LaunchManager manager) throws Exception {
+		for (int i = 0; i < COUNT; i++) {
+			ILaunchConfiguration config = manager.findLaunchConfiguration("Loader" + i); //$NON-NLS-1$
+			if (config != null) {
+				config.delete();
+			}
+		}
+		LaunchManager.LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH.append("Loader" + (COUNT - 1) + ".launch").toFile().delete(); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Sets the given field of the launch manager to <code>null</code>.
+	 */
+	private void reset(LaunchManager manager, String name) throws Exception {
+		Field field = LaunchManager.class.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(manager, null);
+	}
+
+	/**
+	 * Importing concurrently notifies the same changes in the same order as
+	 * importing sequentially.
+	 *
+	 * @throws Exception
+	 */
+	public void testImportMatchesSequential() throws Exception {
+		setParallel(false);
+		List<String> sequential = importFiles();
+		setParallel(true);
+		List<String> parallel = importFiles();
+		assertEquals("Each configuration should be added, then changed", 2 * (COUNT - 1), sequential.size()); //$NON-NLS-1$
+		assertEquals("added Loader0", sequential.get(0)); //$NON-NLS-1$
+		assertEquals("changed Loader0", sequential.get(COUNT - 1)); //$NON-NLS-1$
+		assertEquals(sequential, parallel);
+	}
+
+	/**
+	 * Enumerating configurations concurrently before the launch configuration
+	 * types are initialized completes, as on the first enumeration after
+	 * startup.
+	 *
+	 * @throws Exception
+	 */
+	public void testEnumerateBeforeTypesInitialized() throws Exception {
+		final LaunchManager manager = (LaunchManager) getLaunchManager();
+		manager.importConfigurations(fDirectory.listFiles(), new NullProgressMonitor());
+		try {
+			// forget the configurations and types, and do not restore a saved index
+			reset(manager, "fLaunchConfigurationIndex"); //$NON-NLS-1$
+			reset(manager, "fLaunchConfigurationTypes"); //$NON-NLS-1$
+			reset(manager, "fSavedState"); //$NON-NLS-1$
+			final List<ILaunchConfiguration> found = new ArrayList<ILaunchConfiguration>();
+			final Throwable[] failure = new Throwable[1];
+			Thread enumerate = new Thread("Enumerate launch configurations") { //$NON-NLS-1$
+				@Override
+				public void run() {
+					try {
+						found.addAll(Arrays.asList(manager.getLaunchConfigurations()));
+					} catch (Throwable e) {
+						failure[0] = e;
+					}
+				}
+			};
+			enumerate.setDaemon(true);
+			enumerate.start();
+			enumerate.join(20000);
+			assertFalse("Enumerating configurations did not complete", enumerate.isAlive()); //$NON-NLS-1$
+			assertNull(failure[0]);
+			List<String> names = new ArrayList<String>();
+			for (ILaunchConfiguration config : found) {
+				names.add(config.getName());
+			}
+			for (int i = 0; i < COUNT - 1; i++) {
+				assertTrue("Missing configuration", names.contains("Loader" + i)); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			assertFalse("Configuration of unknown type should not be found", names.contains("Loader" + (COUNT - 1))); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			deleteImported(manager);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.debug.internal.core.LaunchManager;
+
+/**
+ * Tests the launch manager answers queries by type, name and mapped resource
+ * from its indexes, and keeps the indexes up to date as configurations change.
+ */
+public class LaunchConfigurationLookupTests extends AbstractLaunchTest {
+
+	/**
+	 * @param name
+	 */
+	public LaunchConfigurationLookupTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Tests queries before and after the mapped resources of a configuration
+	 * change, and after the configuration is deleted.
+	 *
+	 * @throws Exception
+	 */
+	public void testQueries() throws Exception {
+		LaunchManager manager = (LaunchManager) getLaunchManager();
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		IResource first = root.getProject("LookupFirst"); //$NON-NLS-1$
+		IResource second = root.getFolder(root.getProject("LookupSecond").getFullPath().append("folder")); //$NON-NLS-1$ //$NON-NLS-2$
+		ILaunchConfigurationType type = manager.getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE);
+		ILaunchConfigurationWorkingCopy wc = type.newInstance(null, "LookupConfiguration"); //$NON-NLS-1$
+		wc.setMappedResources(new IResource[] {first});
+		ILaunchConfiguration config = wc.doSave();
+		try {
+			assertTrue(Arrays.asList(manager.getLaunchConfigurations(type)).contains(config));
+			assertEquals(config, manager.findLaunchConfiguration("LookupConfiguration")); //$NON-NLS-1$
+			assertNull(manager.findLaunchConfiguration("LookupMissing")); //$NON-NLS-1$
+			List<ILaunchConfiguration> mapped = Arrays.asList(manager.getMappedConfigurations(first));
+			assertTrue(mapped.contains(config));
+			assertEquals(0, manager.getMappedConfigurations(second).length);
+
+			wc = config.getWorkingCopy();
+			wc.setMappedResources(new IResource[] {second});
+			config = wc.doSave();
+			assertFalse(Arrays.asList(manager.getMappedConfigurations(first)).contains(config));
+			assertTrue(Arrays.asList(manager.getMappedConfigurations(second)).contains(config));
+		} finally {
+			config.delete();
+		}
+		assertFalse(Arrays.asList(manager.getLaunchConfigurations(type)).contains(config));
+		assertNull(manager.findLaunchConfiguration("LookupConfiguration")); //$NON-NLS-1$
+		assertEquals(0, manager.getMappedConfigurations(second).length);
+	}
+}
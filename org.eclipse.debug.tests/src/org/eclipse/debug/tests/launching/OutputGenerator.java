@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+/**
+ * Writes the requested number of lines to standard out and standard error.
+ * Used by {@link StreamPumpPerformanceTests}.
+ */
+public class OutputGenerator {
+	public static void main(String[] args) {
+		int lines = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		for (int i = 0; i < lines; i++) {
+			System.out.println("output line " + i); //$NON-NLS-1$
+			if (i % 10 == 0) {
+				System.err.println("error line " + i); //$NON-NLS-1$
+			}
+		}
+	}
+}
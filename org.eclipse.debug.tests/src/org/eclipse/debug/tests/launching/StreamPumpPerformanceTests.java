@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.URIUtil;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IStreamListener;
+import org.eclipse.debug.core.model.IStreamMonitor;
+import org.eclipse.debug.internal.core.StreamPump;
+import org.eclipse.debug.internal.core.StreamsProxy;
+import org.eclipse.debug.tests.TestsPlugin;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+
+/**
+ * Measures reading the output of many concurrently running processes, with
+ * dedicated stream threads and with the shared stream pump. Besides the time
+ * and the memory recorded by the performance meter, the peak number of
+ * threads and the peak heap used while the processes run are sampled and
+ * logged, and the shared pump is checked to read all streams with its fixed
+ * number of threads.
+ */
+public class StreamPumpPerformanceTests extends TestCase {
+
+	/**
+	 * Number of processes launched concurrently
+	 */
+	private static final int PROCESSES = 50;
+
+	/**
+	 * Lines written to standard out by each process
+	 */
+	private static final int LINES = 20000;
+
+	/**
+	 * Threads of the shared pump
+	 */
+	private static final int PUMP_THREADS = 4;
+
+	/**
+	 * Samples the threads and heap used while processes run.
+	 */
+	static class Sampler extends Thread {
+
+		private final StreamPump fPump;
+		private final ThreadMXBean fThreads = ManagementFactory.getThreadMXBean();
+		private final int fBaseThreads;
+		private volatile boolean fDone = false;
+		private int fPeakPumpThreads = 0;
+		private long fPeakHeap = 0;
+
+		Sampler(StreamPump pump) {
+			super("Stream pump sampler"); //$NON-NLS-1$
+			setDaemon(true);
+			fPump = pump;
+			fBaseThreads = fThreads.getThreadCount();
+			fThreads.resetPeakThreadCount();
+		}
+
+		@Override
+		public void run() {
+			Runtime runtime = Runtime.getRuntime();
+			while (!fDone) {
+				if (fPump != null) {
+					fPeakPumpThreads = Math.max(fPeakPumpThreads, fPump.getThreadCount());
+				}
+				fPeakHeap = Math.max(fPeakHeap, runtime.totalMemory() - runtime.freeMemory());
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}
+
+		void finish() throws InterruptedException {
+			fDone = true;
+			join();
+		}
+
+		/**
+		 * @return the peak number of threads the pump used
+		 */
+		int getPeakPumpThreads() {
+			return fPeakPumpThreads;
+		}
+
+		/**
+		 * @return the peak number of threads started beside the ones running
+		 *         when sampling started
+		 */
+		int getPeakAddedThreads() {
+			return fThreads.getPeakThreadCount() - fBaseThreads;
+		}
+
+		/**
+		 * @return the peak number of bytes of heap used
+		 */
+		long getPeakHeap() {
+			return fPeakHeap;
+		}
+
+		@Override
+		public String toString() {
+			return "threads added=" + getPeakAddedThreads() + " pump threads=" + fPeakPumpThreads //$NON-NLS-1$ //$NON-NLS-2$
+					+ " heap=" + (fPeakHeap / 1024) + "KB"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	public StreamPumpPerformanceTests(String name) {
+		super(name);
+	}
+
+	public void testDedicatedThreads() throws Exception {
+		Sampler sampler = runProcesses(null);
+		assertTrue("Expected a thread per stream: " + sampler, sampler.getPeakAddedThreads() >= PROCESSES); //$NON-NLS-1$
+	}
+
+	public void testSharedPump() throws Exception {
+		StreamPump pump = new StreamPump(PUMP_THREADS);
+		try {
+			Sampler sampler = runProcesses(pump);
+			assertTrue("Pump did not run: " + sampler, sampler.getPeakPumpThreads() > 0); //$NON-NLS-1$
+			assertTrue("Pump used too many threads: " + sampler, sampler.getPeakPumpThreads() <= PUMP_THREADS); //$NON-NLS-1$
+			assertTrue("Threads were started per stream: " + sampler, sampler.getPeakAddedThreads() < PROCESSES); //$NON-NLS-1$
+		} finally {
+			pump.dispose();
+		}
+	}
+
+	/**
+	 * Runs the processes, reading their output with the given pump or with
+	 * dedicated threads if <code>null</code>, and returns the sampler of the
+	 * last pass.
+	 */
+	private Sampler runProcesses(StreamPump pump) throws Exception {
+		String[] cmdLine = getCommandLine();
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(perf.getDefaultScenarioId(this));
+		Sampler sampler = null;
+		try {
+			for (int pass = 0; pass < 3; pass++) {
+				final AtomicLong chars = new AtomicLong();
+				IStreamListener listener = new IStreamListener() {
+					@Override
+					public void streamAppended(String text, IStreamMonitor monitor) {
+						chars.addAndGet(text.length());
+					}
+				};
+				System.gc();
+				sampler = new Sampler(pump);
+				sampler.start();
+				meter.start();
+				Process[] processes = new Process[PROCESSES];
+				StreamsProxy[] proxies = new StreamsProxy[PROCESSES];
+				for (int i = 0; i < PROCESSES; i++) {
+					processes[i] = DebugPlugin.exec(cmdLine, null);
+					proxies[i] = new StreamsProxy(processes[i], null, pump);
+					proxies[i].getOutputStreamMonitor().addListener(listener);
+					proxies[i].getErrorStreamMonitor().addListener(listener);
+				}
+				for (int i = 0; i < PROCESSES; i++) {
+					processes[i].waitFor();
+					proxies[i].close();
+				}
+				meter.stop();
+				sampler.finish();
+				assertEquals("Output was lost", PROCESSES * getOutputLength(), chars.get()); //$NON-NLS-1$
+			}
+			meter.commit();
+			// report the peaks of the last pass with the results in the log
+			TestsPlugin.getDefault().getLog().log(new Status(IStatus.INFO, TestsPlugin.PLUGIN_ID, getName() + ": " + sampler)); //$NON-NLS-1$
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+		return sampler;
+	}
+
+	/**
+	 * Returns the number of characters {@link OutputGenerator} writes.
+	 */
+	private long getOutputLength() {
+		int separator = System.getProperty("line.separator").length(); //$NON-NLS-1$
+		long length = 0;
+		for (int i = 0; i < LINES; i++) {
+			length += ("output line " + i).length() + separator; //$NON-NLS-1$
+			if (i % 10 == 0) {
+				length += ("error line " + i).length() + separator; //$NON-NLS-1$
+			}
+		}
+		return length;
+	}
+
+	private String[] getCommandLine() throws Exception {
+		URL classPathUrl = FileLocator.find(TestsPlugin.getDefault().getBundle(), new Path("bin/"), null); //$NON-NLS-1$
+		if (classPathUrl == null) { // not running from the workspace, but from the built bundle
+			classPathUrl = FileLocator.find(TestsPlugin.getDefault().getBundle(), Path.ROOT, null);
+		}
+		classPathUrl = FileLocator.toFileURL(classPathUrl);
+		File classPathFile = URIUtil.toFile(URIUtil.toURI(classPathUrl));
+		return new String[] {
+				new Path(System.getProperty("java.home")).append("bin/java").toOSString(), //$NON-NLS-1$ //$NON-NLS-2$
+				"-cp", //$NON-NLS-1$
+				classPathFile.getAbsolutePath(),
+				OutputGenerator.class.getName(),
+				Integer.toString(LINES) };
+	}
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.sourcelookup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.sourcelookup.containers.ExternalArchiveSourceContainer;
+import org.eclipse.debug.core.sourcelookup.containers.ZipEntryStorage;
+import org.eclipse.debug.internal.core.sourcelookup.ArchiveIndex;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
+
+/**
+ * Tests {@link ExternalArchiveSourceContainer} lookups served from the
+ * archive's entry index.
+ */
+public class ExternalArchiveSourceContainerTests extends TestCase {
+
+	private static final String[] ENTRIES = new String[] {
+			"src/org/example/Type.java", //$NON-NLS-1$
+			"src/org/example/Other.java", //$NON-NLS-1$
+			"src/org/sample/Type.java", //$NON-NLS-1$
+			"Root.java", //$NON-NLS-1$
+			"lib/org/example/Library.java", //$NON-NLS-1$
+			"XType.java" }; //$NON-NLS-1$
+
+	private File fArchive;
+
+	/**
+	 * @param name
+	 */
+	public ExternalArchiveSourceContainerTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fArchive = File.createTempFile("sources", ".zip"); //$NON-NLS-1$ //$NON-NLS-2$
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(fArchive));
+		try {
+			for (int i = 0; i < ENTRIES.length; i++) {
+				out.putNextEntry(new ZipEntry(ENTRIES[i]));
+				out.write(ENTRIES[i].getBytes());
+				out.closeEntry();
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	@Override
+	protected void tearDown() throws Exception {
+		SourceLookupUtils.closeArchives();
+		fArchive.delete();
+		super.tearDown();
+	}
+
+	private String[] getNames(Object[] elements) {
+		String[] names = new String[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			names[i] = ((ZipEntryStorage) elements[i]).getZipEntry().getName();
+		}
+		return names;
+	}
+
+	/**
+	 * Tests lookups by simple and qualified names without root detection.
+	 *
+	 * @throws Exception
+	 */
+	public void testSuffixLookup() throws Exception {
+		ExternalArchiveSourceContainer container = new ExternalArchiveSourceContainer(fArchive.getAbsolutePath(), false);
+		assertEquals(1, container.findSourceElements("Root.java").length); //$NON-NLS-1$
+		assertEquals("src/org/example/Type.java", getNames(container.findSourceElements("Type.java"))[0]); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("src/org/sample/Type.java", getNames(container.findSourceElements("org\\sample\\Type.java"))[0]); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(0, container.findSourceElements("Missing.java").length); //$NON-NLS-1$
+		assertEquals(0, container.findSourceElements("ype.java").length); //$NON-NLS-1$
+		container.setFindDuplicates(true);
+		String[] names = getNames(container.findSourceElements("Type.java")); //$NON-NLS-1$
+		assertEquals(2, names.length);
+		assertEquals("src/org/example/Type.java", names[0]); //$NON-NLS-1$
+		assertEquals("src/org/sample/Type.java", names[1]); //$NON-NLS-1$
+		container.dispose();
+	}
+
+	/**
+	 * Tests lookups of qualified names with root detection.
+	 *
+	 * @throws Exception
+	 */
+	public void testRootDetection() throws Exception {
+		ExternalArchiveSourceContainer container = new ExternalArchiveSourceContainer(fArchive.getAbsolutePath(), true);
+		assertEquals("src/org/example/Type.java", getNames(container.findSourceElements("org/example/Type.java"))[0]); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("src/org/sample/Type.java", getNames(container.findSourceElements("org/sample/Type.java"))[0]); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("lib/org/example/Library.java", getNames(container.findSourceElements("org/example/Library.java"))[0]); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(0, container.findSourceElements("example/Type.java").length); //$NON-NLS-1$
+		assertEquals(0, container.findSourceElements("org/example/Missing.java").length); //$NON-NLS-1$
+		container.dispose();
+	}
+
+	/**
+	 * Tests an index persisted to disk is read back and is rejected once the
+	 * archive changes.
+	 *
+	 * @throws Exception
+	 */
+	public void testPersistedIndex() throws Exception {
+		ZipFile zip = SourceLookupUtils.getZipFile(fArchive.getAbsolutePath());
+		ArchiveIndex index = SourceLookupUtils.getArchiveIndex(fArchive.getAbsolutePath(), zip);
+		assertSame("Index should be cached", index, SourceLookupUtils.getArchiveIndex(fArchive.getAbsolutePath(), zip)); //$NON-NLS-1$
+		assertEquals(ENTRIES.length, index.size());
+		File file = File.createTempFile("sources", ".idx"); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			index.write(file, fArchive);
+			ArchiveIndex read = ArchiveIndex.read(file, fArchive);
+			assertNotNull("Index should be read", read); //$NON-NLS-1$
+			assertEquals(ENTRIES.length, read.size());
+			for (int i = 0; i < ENTRIES.length; i++) {
+				assertTrue(read.contains(ENTRIES[i]));
+			}
+			String[] types = read.getEntries("Type.java"); //$NON-NLS-1$
+			assertEquals(2, types.length);
+			assertEquals("src/org/example/Type.java", types[0]); //$NON-NLS-1$
+			assertEquals("src/org/sample/Type.java", types[1]); //$NON-NLS-1$
+			assertTrue(fArchive.setLastModified(fArchive.lastModified() - 10000));
+			assertNull("Stale index should be rejected", ArchiveIndex.read(file, fArchive)); //$NON-NLS-1$
+		} finally {
+			file.delete();
+		}
+	}
+}
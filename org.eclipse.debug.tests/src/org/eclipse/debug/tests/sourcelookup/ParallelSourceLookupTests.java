@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.sourcelookup;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.sourcelookup.ISourceContainer;
+import org.eclipse.debug.core.sourcelookup.ISourceContainerType;
+import org.eclipse.debug.core.sourcelookup.containers.AbstractSourceContainer;
+import org.eclipse.debug.internal.core.sourcelookup.ParallelSourceLookup;
+import org.eclipse.debug.tests.TestsPlugin;
+
+/**
+ * Tests {@link ParallelSourceLookup} combines results in the order the
+ * containers are declared, regardless of the order searches complete in.
+ */
+public class ParallelSourceLookupTests extends TestCase {
+
+	private static final Object[] EMPTY = new Object[0];
+
+	/**
+	 * Container that answers with fixed elements after a delay, or fails.
+	 */
+	class DelayedContainer extends AbstractSourceContainer {
+		private Object[] fElements;
+		private long fDelay;
+		private boolean fFail;
+
+		DelayedContainer(long delay, Object[] elements, boolean fail) {
+			fDelay = delay;
+			fElements = elements;
+			fFail = fail;
+		}
+
+		@Override
+		public Object[] findSourceElements(String name) throws CoreException {
+			try {
+				Thread.sleep(fDelay);
+			} catch (InterruptedException e) {
+				// continue
+			}
+			if (fFail) {
+				throw new CoreException(new Status(IStatus.ERROR, TestsPlugin.PLUGIN_ID, "Lookup failed")); //$NON-NLS-1$
+			}
+			return fElements;
+		}
+
+		@Override
+		public String getName() {
+			return "Delayed"; //$NON-NLS-1$
+		}
+
+		@Override
+		public ISourceContainerType getType() {
+			return null;
+		}
+	}
+
+	/**
+	 * @param name
+	 */
+	public ParallelSourceLookupTests(String name) {
+		super(name);
+	}
+
+	private ISourceContainer[] createContainers() {
+		return new ISourceContainer[] {
+				new DelayedContainer(200, EMPTY, false),
+				new DelayedContainer(100, new Object[] {"b1", "b2"}, false), //$NON-NLS-1$ //$NON-NLS-2$
+				new DelayedContainer(0, new Object[] {"c"}, false), //$NON-NLS-1$
+				new DelayedContainer(0, null, true),
+				new DelayedContainer(50, new Object[] {"e"}, false) }; //$NON-NLS-1$
+	}
+
+	/**
+	 * The first container with a match in declared order wins, even though a
+	 * later container answers first.
+	 *
+	 * @throws Exception
+	 */
+	public void testFirstMatch() throws Exception {
+		Object[] elements = ParallelSourceLookup.findSourceElements("Name", createContainers(), false); //$NON-NLS-1$
+		assertEquals(1, elements.length);
+		assertEquals("b1", elements[0]); //$NON-NLS-1$
+	}
+
+	/**
+	 * All results are returned in declared order and failures are ignored.
+	 *
+	 * @throws Exception
+	 */
+	public void testDuplicates() throws Exception {
+		Object[] elements = ParallelSourceLookup.findSourceElements("Name", createContainers(), true); //$NON-NLS-1$
+		assertEquals(4, elements.length);
+		assertEquals("b1", elements[0]); //$NON-NLS-1$
+		assertEquals("b2", elements[1]); //$NON-NLS-1$
+		assertEquals("c", elements[2]); //$NON-NLS-1$
+		assertEquals("e", elements[3]); //$NON-NLS-1$
+	}
+
+	/**
+	 * A failure is reported when no container has a match.
+	 *
+	 * @throws Exception
+	 */
+	public void testFailure() throws Exception {
+		ISourceContainer[] containers = new ISourceContainer[] {
+				new DelayedContainer(10, EMPTY, false),
+				new DelayedContainer(0, null, true),
+				null };
+		try {
+			ParallelSourceLookup.findSourceElements("Name", containers, false); //$NON-NLS-1$
+			fail("Lookup should fail"); //$NON-NLS-1$
+		} catch (CoreException e) {
+			assertEquals("Lookup failed", e.getStatus().getMessage()); //$NON-NLS-1$
+		}
+	}
+}
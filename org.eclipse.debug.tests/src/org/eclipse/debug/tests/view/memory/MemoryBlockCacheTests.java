@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import java.math.BigInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.model.MemoryBuffer;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryBlockCache;
+
+/**
+ * Tests the page cache shared by the table renderings of a memory block
+ */
+public class MemoryBlockCacheTests extends TestCase {
+
+	private static final int PAGE = MemoryBlockCache.PAGE_SIZE;
+
+	private MemoryBlockExtension fBlock;
+	private MemoryBlockCache fCache;
+
+	public MemoryBlockCacheTests(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fBlock = new MemoryBlockExtension();
+		fCache = MemoryBlockCache.getCache(fBlock);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		Job.getJobManager().cancel(fCache);
+		Job.getJobManager().join(fCache, null);
+		MemoryBlockCache.dispose(fBlock);
+		super.tearDown();
+	}
+
+	/**
+	 * Tests that memory is retrieved in whole pages and served from the
+	 * cache afterwards.
+	 */
+	public void testPageHit() throws Exception {
+		MemoryBuffer buffer = fCache.getBuffer(BigInteger.valueOf(PAGE + 16), 32);
+		assertEquals(32, buffer.getLength());
+		assertEquals((byte) (PAGE + 16), buffer.getValue(0));
+		assertEquals((byte) (PAGE + 47), buffer.getValue(31));
+		long[] first = fBlock.getRetrievals().get(0);
+		assertEquals("retrieval should start at the page boundary", PAGE, first[0]); //$NON-NLS-1$
+		assertEquals("retrieval should cover a page", PAGE, first[1]); //$NON-NLS-1$
+
+		Job.getJobManager().join(fCache, null);
+		int retrievals = fBlock.getRetrievals().size();
+		buffer = fCache.getBuffer(BigInteger.valueOf(PAGE + 64), 64);
+		assertEquals((byte) (PAGE + 64), buffer.getValue(0));
+		assertEquals("cached page should not be retrieved again", retrievals, fBlock.getRetrievals().size()); //$NON-NLS-1$
+		assertTrue(fCache.getHitCount() > 0);
+	}
+
+	/**
+	 * Tests that a range spanning pages is assembled from each page.
+	 */
+	public void testRangeAcrossPages() throws Exception {
+		MemoryBuffer buffer = fCache.getBuffer(BigInteger.valueOf(PAGE - 8), 16);
+		for (int i = 0; i < 16; i++) {
+			assertEquals((byte) (PAGE - 8 + i), buffer.getValue(i));
+		}
+		assertEquals("consecutive missing pages should be retrieved at once", 1, countRetrievals(0, 2 * PAGE)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that the pages following a retrieval are read ahead.
+	 */
+	public void testReadAhead() throws Exception {
+		fCache.getBuffer(BigInteger.ZERO, 16);
+		Job.getJobManager().join(fCache, null);
+		assertEquals("following pages should be read ahead", 1, countRetrievals(PAGE, 2 * PAGE)); //$NON-NLS-1$
+		MemoryBuffer buffer = fCache.getBuffer(BigInteger.valueOf(2 * PAGE), 16);
+		Job.getJobManager().join(fCache, null);
+		assertEquals((byte) (2 * PAGE), buffer.getValue(0));
+		assertEquals("read-ahead page should be cached", 0, countRetrievals(2 * PAGE, PAGE)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that changes made to a returned buffer do not affect the cache
+	 * and that invalidation discards the pages.
+	 */
+	public void testInvalidate() throws Exception {
+		MemoryBuffer buffer = fCache.getBuffer(BigInteger.ZERO, 16);
+		buffer.setValue(0, (byte) 99);
+		buffer.addFlags(1, MemoryByte.CHANGED);
+		buffer = fCache.getBuffer(BigInteger.ZERO, 16);
+		assertEquals(0, buffer.getValue(0));
+		assertFalse(buffer.hasFlags(1, MemoryByte.CHANGED));
+
+		Job.getJobManager().join(fCache, null);
+		fBlock.setDelta((byte) 1);
+		MemoryBlockCache.invalidate(fBlock);
+		buffer = fCache.getBuffer(BigInteger.ZERO, 16);
+		assertEquals("invalidated pages should be retrieved again", 1, buffer.getValue(0)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that a range whose pages reach beyond the retrievable memory is
+	 * retrieved on its own.
+	 */
+	public void testPagesOutOfRange() throws Exception {
+		fBlock.setEnd(PAGE + 64);
+		MemoryBuffer buffer = fCache.getBuffer(BigInteger.valueOf(PAGE + 16), 32);
+		assertEquals(32, buffer.getLength());
+		assertEquals((byte) (PAGE + 16), buffer.getValue(0));
+		assertEquals("the requested range should be retrieved after the page failed", 1, countRetrievals(PAGE + 16, 32)); //$NON-NLS-1$
+	}
+
+	private int countRetrievals(long address, long units) {
+		int count = 0;
+		for (long[] retrieval : fBlock.getRetrievals()) {
+			if (retrieval[0] == address && retrieval[1] == units) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
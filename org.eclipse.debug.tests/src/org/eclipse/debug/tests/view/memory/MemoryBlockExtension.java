@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.IMemoryBlockRetrieval;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.tests.TestsPlugin;
+
+/**
+ * Dummy extended memory block whose bytes hold the low byte of their
+ * address, and that records the ranges retrieved from it.
+ *
+ * @since 3.10
+ */
+public class MemoryBlockExtension extends MemoryBlock implements IMemoryBlockExtension {
+
+	/**
+	 * Start address and number of units of each retrieval
+	 */
+	private final List<long[]> fRetrievals = new ArrayList<long[]>();
+
+	/**
+	 * Value added to every byte
+	 */
+	private byte fDelta = 0;
+
+	/**
+	 * Address from which retrievals fail, or -1 if all memory is retrievable
+	 */
+	private long fEnd = -1;
+
+	synchronized List<long[]> getRetrievals() {
+		return new ArrayList<long[]>(fRetrievals);
+	}
+
+	synchronized void setDelta(byte delta) {
+		fDelta = delta;
+	}
+
+	synchronized void setEnd(long end) {
+		fEnd = end;
+	}
+
+	@Override
+	public String getExpression() {
+		return "0x0"; //$NON-NLS-1$
+	}
+
+	@Override
+	public BigInteger getBigBaseAddress() throws DebugException {
+		return BigInteger.ZERO;
+	}
+
+	@Override
+	public BigInteger getMemoryBlockStartAddress() throws DebugException {
+		return null;
+	}
+
+	@Override
+	public BigInteger getMemoryBlockEndAddress() throws DebugException {
+		return null;
+	}
+
+	@Override
+	public BigInteger getBigLength() throws DebugException {
+		return BigInteger.valueOf(-1);
+	}
+
+	@Override
+	public int getAddressSize() throws DebugException {
+		return 4;
+	}
+
+	@Override
+	public boolean supportBaseAddressModification() throws DebugException {
+		return false;
+	}
+
+	@Override
+	public boolean supportsChangeManagement() {
+		return false;
+	}
+
+	@Override
+	public void setBaseAddress(BigInteger address) throws DebugException {
+	}
+
+	@Override
+	public MemoryByte[] getBytesFromOffset(BigInteger unitOffset, long addressableUnits) throws DebugException {
+		return getBytesFromAddress(unitOffset, addressableUnits);
+	}
+
+	@Override
+	public synchronized MemoryByte[] getBytesFromAddress(BigInteger address, long units) throws DebugException {
+		fRetrievals.add(new long[] { address.longValue(), units });
+		if (fEnd >= 0 && address.longValue() + units > fEnd) {
+			throw new DebugException(new Status(IStatus.ERROR, TestsPlugin.PLUGIN_ID, "Address out of range")); //$NON-NLS-1$
+		}
+		MemoryByte[] bytes = new MemoryByte[(int) units];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = new MemoryByte((byte) (address.longValue() + i + fDelta));
+		}
+		return bytes;
+	}
+
+	@Override
+	public void setValue(BigInteger offset, byte[] bytes) throws DebugException {
+	}
+
+	@Override
+	public void connect(Object client) {
+	}
+
+	@Override
+	public void disconnect(Object client) {
+	}
+
+	@Override
+	public Object[] getConnections() {
+		return new Object[0];
+	}
+
+	@Override
+	public void dispose() throws DebugException {
+	}
+
+	@Override
+	public IMemoryBlockRetrieval getMemoryBlockRetrieval() {
+		return null;
+	}
+
+	@Override
+	public int getAddressableSize() throws DebugException {
+		return 1;
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.model.MemoryBuffer;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryBufferDiff;
+
+/**
+ * Tests the comparison of memory snapshots
+ */
+public class MemoryBufferDiffTests extends TestCase {
+
+	private static final byte RW = MemoryByte.READABLE | MemoryByte.WRITABLE;
+
+	public MemoryBufferDiffTests(String name) {
+		super(name);
+	}
+
+	private MemoryBuffer newBuffer(int length) {
+		byte[] values = new byte[length];
+		for (int i = 0; i < length; i++) {
+			values[i] = (byte) i;
+		}
+		return new MemoryBuffer(values, RW);
+	}
+
+	private MemoryBuffer copy(MemoryBuffer buffer) {
+		MemoryBuffer copy = new MemoryBuffer(buffer.getLength());
+		buffer.copyTo(0, copy, 0, buffer.getLength());
+		return copy;
+	}
+
+	private void assertRanges(int[] expected, int[] actual) {
+		assertTrue("expected " + Arrays.toString(expected) + " but was " + Arrays.toString(actual), Arrays.equals(expected, actual)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	public void testNoChanges() {
+		MemoryBuffer oldBytes = newBuffer(100);
+		assertRanges(new int[0], MemoryBufferDiff.getChangedRanges(oldBytes, copy(oldBytes)));
+	}
+
+	public void testChangedValues() {
+		MemoryBuffer oldBytes = newBuffer(100);
+		MemoryBuffer newBytes = copy(oldBytes);
+		newBytes.setValue(3, (byte) -1);
+		newBytes.setValue(4, (byte) -1);
+		newBytes.setValue(7, (byte) -1);
+		newBytes.setValue(8, (byte) -1);
+		newBytes.setValue(99, (byte) -1);
+		assertRanges(new int[] { 3, 5, 7, 9, 99, 100 }, MemoryBufferDiff.getChangedRanges(oldBytes, newBytes));
+	}
+
+	public void testChangedReadability() {
+		MemoryBuffer oldBytes = newBuffer(20);
+		MemoryBuffer newBytes = copy(oldBytes);
+		newBytes.setFlags(10, MemoryByte.WRITABLE);
+		// attributes other than readability are not changes
+		newBytes.setFlags(12, (byte) (RW | MemoryByte.ENDIANESS_KNOWN));
+		assertRanges(new int[] { 10, 11 }, MemoryBufferDiff.getChangedRanges(oldBytes, newBytes));
+	}
+
+	public void testUnreadableValuesIgnored() {
+		MemoryBuffer oldBytes = new MemoryBuffer(16);
+		MemoryBuffer newBytes = new MemoryBuffer(16);
+		newBytes.setValue(5, (byte) 1);
+		assertRanges(new int[0], MemoryBufferDiff.getChangedRanges(oldBytes, newBytes));
+	}
+
+	public void testSlices() {
+		MemoryBuffer oldBytes = newBuffer(40).slice(3, 30);
+		MemoryBuffer newBytes = copy(newBuffer(40)).slice(5, 30);
+		// every value differs by two
+		assertRanges(new int[] { 0, 30 }, MemoryBufferDiff.getChangedRanges(oldBytes, newBytes));
+		assertRanges(new int[0], MemoryBufferDiff.getChangedRanges(oldBytes, copy(oldBytes)));
+	}
+
+	public void testMarkChanges() {
+		MemoryBuffer oldBytes = newBuffer(10);
+		MemoryBuffer newBytes = copy(oldBytes);
+		newBytes.setValue(2, (byte) -1);
+		assertTrue(MemoryBufferDiff.markChanges(oldBytes, newBytes));
+		for (int i = 0; i < newBytes.getLength(); i++) {
+			assertTrue(newBytes.hasFlags(i, MemoryByte.HISTORY_KNOWN));
+			assertEquals(i == 2, newBytes.hasFlags(i, MemoryByte.CHANGED));
+		}
+		assertFalse(MemoryBufferDiff.markChanges(oldBytes, copy(oldBytes)));
+	}
+
+	public void testIsIdentical() {
+		MemoryBuffer oldBytes = newBuffer(21);
+		MemoryBuffer newBytes = copy(oldBytes);
+		assertTrue(MemoryBufferDiff.isIdentical(oldBytes, newBytes));
+		newBytes.addFlags(20, MemoryByte.CHANGED);
+		assertFalse(MemoryBufferDiff.isIdentical(oldBytes, newBytes));
+		assertFalse(MemoryBufferDiff.isIdentical(oldBytes, newBuffer(20)));
+	}
+
+	public void testDifferentLengths() {
+		try {
+			MemoryBufferDiff.getChangedRanges(newBuffer(8), newBuffer(9));
+			fail("snapshots of different lengths should not be compared"); //$NON-NLS-1$
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.model.MemoryBuffer;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemorySegment;
+
+/**
+ * Tests the packed memory buffer
+ */
+public class MemoryBufferTests extends TestCase {
+
+	private static final byte RW = MemoryByte.READABLE | MemoryByte.WRITABLE;
+
+	public MemoryBufferTests(String name) {
+		super(name);
+	}
+
+	public void testValueOf() {
+		MemoryByte[] bytes = new MemoryByte[] {
+				new MemoryByte((byte) 1), new MemoryByte((byte) 2, (byte) 0) };
+		MemoryBuffer buffer = MemoryBuffer.valueOf(bytes);
+		assertEquals(2, buffer.getLength());
+		assertEquals(1, buffer.getValue(0));
+		assertEquals(bytes[0].getFlags(), buffer.getFlags(0));
+		assertEquals(2, buffer.getValue(1));
+		assertFalse(buffer.hasFlags(1, MemoryByte.READABLE));
+
+		MemoryByte[] copy = buffer.getMemoryBytes(0, 2);
+		assertEquals(bytes[0].getValue(), copy[0].getValue());
+		assertEquals(bytes[1].getFlags(), copy[1].getFlags());
+		copy[0].setValue((byte) 9);
+		assertEquals("memory bytes should not write through", 1, buffer.getValue(0)); //$NON-NLS-1$
+	}
+
+	public void testNewBufferIsUnreadable() {
+		MemoryBuffer buffer = new MemoryBuffer(3);
+		for (int i = 0; i < buffer.getLength(); i++) {
+			assertEquals(0, buffer.getValue(i));
+			assertEquals(0, buffer.getFlags(i));
+		}
+	}
+
+	public void testSliceSharesBytes() {
+		MemoryBuffer buffer = new MemoryBuffer(new byte[] { 0, 1, 2, 3, 4, 5 }, RW);
+		MemoryBuffer slice = buffer.slice(2, 3);
+		assertEquals(3, slice.getLength());
+		assertEquals(2, slice.getValue(0));
+		slice.setValue(1, (byte) 7);
+		slice.addFlags(2, MemoryByte.CHANGED);
+		assertEquals(7, buffer.getValue(3));
+		assertTrue(buffer.hasFlags(4, MemoryByte.CHANGED));
+		try {
+			slice.getValue(3);
+			fail("index beyond the slice should be rejected"); //$NON-NLS-1$
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	public void testClearFlagsWithinSlice() {
+		byte flags = RW | MemoryByte.CHANGED | MemoryByte.HISTORY_KNOWN;
+		MemoryBuffer buffer = new MemoryBuffer(new byte[4], flags);
+		buffer.slice(1, 2).clearFlags((byte) (MemoryByte.CHANGED | MemoryByte.HISTORY_KNOWN));
+		assertEquals(flags, buffer.getFlags(0));
+		assertEquals(RW, buffer.getFlags(1));
+		assertEquals(RW, buffer.getFlags(2));
+		assertEquals(flags, buffer.getFlags(3));
+	}
+
+	public void testCopyTo() {
+		MemoryBuffer source = new MemoryBuffer(new byte[] { 1, 2, 3 }, RW);
+		MemoryBuffer destination = new MemoryBuffer(5);
+		source.copyTo(1, destination, 3, 2);
+		assertEquals(0, destination.getFlags(2));
+		assertEquals(2, destination.getValue(3));
+		assertEquals(3, destination.getValue(4));
+		assertEquals(RW, destination.getFlags(4));
+	}
+
+	public void testValuesView() {
+		MemoryBuffer buffer = new MemoryBuffer(new byte[] { 0, 1, 2, 3 }, RW).slice(1, 2);
+		ByteBuffer values = buffer.getValues();
+		assertEquals(2, values.remaining());
+		assertEquals(1, values.get(0));
+		assertEquals(2, values.get(1));
+		try {
+			values.put(0, (byte) 5);
+			fail("values view should be read-only"); //$NON-NLS-1$
+		} catch (ReadOnlyBufferException e) {
+			// expected
+		}
+	}
+
+	public void testSegmentBytesWriteThrough() {
+		MemoryBuffer buffer = new MemoryBuffer(new byte[] { 0, 1, 2, 3 }, RW);
+		MemorySegment segment = new MemorySegment(BigInteger.ZERO, buffer.slice(1, 3), 3);
+		MemoryByte[] bytes = segment.getBytes(1, 2);
+		assertEquals(2, bytes.length);
+		assertEquals(2, bytes[0].getValue());
+		assertTrue(bytes[1].isWritable());
+
+		bytes[0].setValue((byte) 9);
+		bytes[0].setChanged(true);
+		bytes[1].setWritable(false);
+		assertEquals(9, buffer.getValue(2));
+		assertTrue(buffer.hasFlags(2, MemoryByte.CHANGED));
+		assertEquals(MemoryByte.READABLE, buffer.getFlags(3));
+
+		// changes made to the buffer are seen through bytes returned earlier
+		buffer.addFlags(3, MemoryByte.HISTORY_KNOWN);
+		assertTrue(bytes[1].isHistoryKnown());
+		assertTrue(segment.getBytes()[1].isChanged());
+	}
+}
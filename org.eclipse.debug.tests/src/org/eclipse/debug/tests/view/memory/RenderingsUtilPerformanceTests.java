@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.internal.ui.views.memory.renderings.RenderingsUtil;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+
+/**
+ * Formats the cells of a page of memory as the signed integer, unsigned
+ * integer and hex renderings do, comparing the conversions through
+ * BigInteger with the primitive ones that replaced them.
+ */
+public class RenderingsUtilPerformanceTests extends TestCase {
+
+	/**
+	 * Bytes in a page: 64 rows of 16 bytes
+	 */
+	private static final int PAGE = 64 * 16;
+
+	/**
+	 * Pages formatted per run
+	 */
+	private static final int PAGES = 500;
+
+	private byte[] fBytes;
+	private MemoryByte[] fMemoryBytes;
+
+	public RenderingsUtilPerformanceTests(String name) {
+		super(name);
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fBytes = new byte[PAGE];
+		new Random(3).nextBytes(fBytes);
+		fMemoryBytes = new MemoryByte[PAGE];
+		for (int i = 0; i < PAGE; i++) {
+			fMemoryBytes[i] = new MemoryByte(fBytes[i]);
+		}
+	}
+
+	public void testSignedBigInteger() {
+		for (int size = 1; size <= 8; size *= 2) {
+			final int columnSize = size;
+			measure("signed" + size, new Runnable() { //$NON-NLS-1$
+				@Override
+				public void run() {
+					for (int i = 0; i < PAGE; i += columnSize) {
+						byte[] cell = new byte[columnSize];
+						System.arraycopy(fBytes, i, cell, 0, columnSize);
+						RenderingsUtil.convertByteArrayToSignedBigInt(cell, RenderingsUtil.LITTLE_ENDIAN, columnSize).toString();
+					}
+				}
+			});
+		}
+	}
+
+	public void testSignedPrimitive() {
+		for (int size = 1; size <= 8; size *= 2) {
+			final int columnSize = size;
+			measure("signed" + size, new Runnable() { //$NON-NLS-1$
+				@Override
+				public void run() {
+					for (int i = 0; i < PAGE; i += columnSize) {
+						long value = RenderingsUtil.convertByteArrayToLong(fBytes, i, columnSize, RenderingsUtil.LITTLE_ENDIAN, true);
+						RenderingsUtil.convertLongToDecimalString(value, false);
+					}
+				}
+			});
+		}
+	}
+
+	public void testUnsignedBigInteger() {
+		for (int size = 1; size <= 8; size *= 2) {
+			final int columnSize = size;
+			measure("unsigned" + size, new Runnable() { //$NON-NLS-1$
+				@Override
+				public void run() {
+					for (int i = 0; i < PAGE; i += columnSize) {
+						byte[] cell = new byte[columnSize];
+						System.arraycopy(fBytes, i, cell, 0, columnSize);
+						RenderingsUtil.convertByteArrayToUnsignedBigInt(cell, RenderingsUtil.BIG_ENDIAN, columnSize).toString();
+					}
+				}
+			});
+		}
+	}
+
+	public void testUnsignedPrimitive() {
+		for (int size = 1; size <= 8; size *= 2) {
+			final int columnSize = size;
+			measure("unsigned" + size, new Runnable() { //$NON-NLS-1$
+				@Override
+				public void run() {
+					for (int i = 0; i < PAGE; i += columnSize) {
+						long value = RenderingsUtil.convertByteArrayToLong(fBytes, i, columnSize, RenderingsUtil.BIG_ENDIAN, false);
+						RenderingsUtil.convertLongToDecimalString(value, true);
+					}
+				}
+			});
+		}
+	}
+
+	public void testHexPerByte() {
+		measure("hex", new Runnable() { //$NON-NLS-1$
+			@Override
+			public void run() {
+				for (int i = 0; i < PAGE; i += 4) {
+					StringBuffer strBuffer = new StringBuffer();
+					for (int j = i; j < i + 4; j++) {
+						strBuffer.append(new String(RenderingsUtil.convertByteToCharArray(fMemoryBytes[j].getValue())));
+					}
+					strBuffer.toString().toUpperCase();
+				}
+			}
+		});
+	}
+
+	public void testHexBuffer() {
+		final MemoryByte[] cell = new MemoryByte[4];
+		measure("hex", new Runnable() { //$NON-NLS-1$
+			@Override
+			public void run() {
+				for (int i = 0; i < PAGE; i += 4) {
+					System.arraycopy(fMemoryBytes, i, cell, 0, 4);
+					RenderingsUtil.convertMemoryBytesToHexString(cell, false, "??"); //$NON-NLS-1$
+				}
+			}
+		});
+	}
+
+	private void measure(String cells, Runnable page) {
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(perf.getDefaultScenarioId(this, cells));
+		try {
+			// warm up
+			for (int i = 0; i < PAGES; i++) {
+				page.run();
+			}
+			for (int pass = 0; pass < 5; pass++) {
+				meter.start();
+				long start = System.nanoTime();
+				for (int i = 0; i < PAGES; i++) {
+					page.run();
+				}
+				long elapsed = Math.max(1, System.nanoTime() - start);
+				meter.stop();
+				System.out.println(getName() + ": cells=" + cells //$NON-NLS-1$
+						+ " pages/s=" + (PAGES * 1000000000L / elapsed)); //$NON-NLS-1$
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.internal.ui.views.memory.renderings.RenderingsUtil;
+
+/**
+ * Tests the conversions of the integer and hex renderings against the
+ * BigInteger conversions
+ */
+public class RenderingsUtilTests extends TestCase {
+
+	public RenderingsUtilTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Tests reading integers of every size up to 8 bytes in both byte orders,
+	 * from bytes and from memory bytes.
+	 */
+	public void testConvertByteArrayToLong() {
+		Random random = new Random(17);
+		int[] endianess = new int[] { RenderingsUtil.LITTLE_ENDIAN, RenderingsUtil.BIG_ENDIAN };
+		for (int size = 1; size <= 8; size++) {
+			for (int run = 0; run < 100; run++) {
+				byte[] bytes = new byte[size];
+				random.nextBytes(bytes);
+				byte[] array = new byte[size + 3];
+				System.arraycopy(bytes, 0, array, 2, size);
+				MemoryByte[] data = new MemoryByte[array.length];
+				for (int i = 0; i < data.length; i++) {
+					data[i] = new MemoryByte(array[i]);
+				}
+				for (int e = 0; e < endianess.length; e++) {
+					String signed = RenderingsUtil.convertByteArrayToSignedBigInt(bytes, endianess[e], size).toString();
+					String unsigned = RenderingsUtil.convertByteArrayToUnsignedBigInt(bytes, endianess[e], size).toString();
+					long value = RenderingsUtil.convertByteArrayToLong(array, 2, size, endianess[e], true);
+					assertEquals(signed, RenderingsUtil.convertLongToDecimalString(value, false));
+					value = RenderingsUtil.convertByteArrayToLong(array, 2, size, endianess[e], false);
+					assertEquals(unsigned, RenderingsUtil.convertLongToDecimalString(value, true));
+					value = RenderingsUtil.convertMemoryBytesToLong(data, 2, size, endianess[e], true);
+					assertEquals(signed, RenderingsUtil.convertLongToDecimalString(value, false));
+					value = RenderingsUtil.convertMemoryBytesToLong(data, 2, size, endianess[e], false);
+					assertEquals(unsigned, RenderingsUtil.convertLongToDecimalString(value, true));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests formatting the limits of 64-bit integers.
+	 */
+	public void testConvertLongToDecimalString() {
+		assertEquals("0", RenderingsUtil.convertLongToDecimalString(0, false)); //$NON-NLS-1$
+		assertEquals("0", RenderingsUtil.convertLongToDecimalString(0, true)); //$NON-NLS-1$
+		assertEquals(Long.toString(Long.MIN_VALUE), RenderingsUtil.convertLongToDecimalString(Long.MIN_VALUE, false));
+		assertEquals(Long.toString(Long.MAX_VALUE), RenderingsUtil.convertLongToDecimalString(Long.MAX_VALUE, true));
+		assertEquals("18446744073709551615", RenderingsUtil.convertLongToDecimalString(-1, true)); //$NON-NLS-1$
+		assertEquals("9223372036854775808", RenderingsUtil.convertLongToDecimalString(Long.MIN_VALUE, true)); //$NON-NLS-1$
+		assertEquals("-1", RenderingsUtil.convertLongToDecimalString(-1, false)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests hex formatting with unreadable bytes and reversed order.
+	 */
+	public void testConvertMemoryBytesToHexString() {
+		MemoryByte[] bytes = new MemoryByte[] {
+				new MemoryByte((byte) 0x0a), new MemoryByte((byte) 0xff),
+				new MemoryByte((byte) 0, (byte) 0), new MemoryByte((byte) 0x10) };
+		assertEquals("0AFF??10", RenderingsUtil.convertMemoryBytesToHexString(bytes, false, "??")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("10--FF0A", RenderingsUtil.convertMemoryBytesToHexString(bytes, true, "--")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("0AFFXYZ10", RenderingsUtil.convertMemoryBytesToHexString(bytes, false, "xyz")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		MemoryByte[] many = new MemoryByte[100];
+		for (int i = 0; i < many.length; i++) {
+			many[i] = new MemoryByte((byte) 0, (byte) 0);
+		}
+		assertEquals(400, RenderingsUtil.convertMemoryBytesToHexString(many, false, "????").length()); //$NON-NLS-1$
+	}
+}
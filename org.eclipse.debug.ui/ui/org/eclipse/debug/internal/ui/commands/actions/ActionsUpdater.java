@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2009 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -30,6 +30,16 @@ public class ActionsUpdater {
 		fNumVoters = numVoters;
 	}
 
+	/**
+	 * Returns the actions updated by this updater.
+	 *
+	 * @return the actions
+	 * @since 3.10
+	 */
+	public IEnabledTarget[] getActions() {
+		return fActions;
+	}
+
 	public synchronized void setEnabled(boolean result) {
 		fNumOfVotes++;
 		if (fEnabled) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2009 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.debug.internal.ui.commands.actions;
 
+import java.util.Arrays;
+
 import org.eclipse.debug.core.commands.IEnabledStateRequest;
 import org.eclipse.debug.internal.core.commands.DebugCommandRequest;
 
@@ -38,6 +40,15 @@ public class UpdateActionsRequest extends DebugCommandRequest implements IEnable
 		fEnabled = result;
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.debug.internal.core.commands.DebugCommandRequest#getCoalescingKey()
+	 */
+	@Override
+	public Object getCoalescingKey() {
+		// updates for the same actions supersede each other
+		return Arrays.asList(fActions);
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.core.runtime.IProgressMonitor#done()
 	 */
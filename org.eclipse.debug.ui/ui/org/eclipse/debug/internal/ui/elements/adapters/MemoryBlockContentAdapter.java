@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,7 +14,6 @@
 package org.eclipse.debug.internal.ui.elements.adapters;
 
 import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.Vector;
 
 import org.eclipse.core.runtime.CoreException;
@@ -22,6 +21,7 @@ import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IMemoryBlock;
 import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.MemoryBuffer;
 import org.eclipse.debug.core.model.MemoryByte;
 import org.eclipse.debug.internal.ui.DebugUIMessages;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
@@ -30,6 +30,7 @@ import org.eclipse.debug.internal.ui.memory.provisional.MemoryViewPresentationCo
 import org.eclipse.debug.internal.ui.viewers.model.provisional.IPresentationContext;
 import org.eclipse.debug.internal.ui.viewers.provisional.AsynchronousContentAdapter;
 import org.eclipse.debug.internal.ui.views.memory.MemoryViewUtil;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryBlockCache;
 import org.eclipse.debug.internal.ui.views.memory.renderings.MemorySegment;
 import org.eclipse.debug.internal.ui.views.memory.renderings.TableRenderingContentDescriptor;
 import org.eclipse.debug.ui.memory.IMemoryRendering;
@@ -257,7 +258,7 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 		}
 
 		IMemoryBlockExtension extMemoryBlock = null;
-		MemoryByte[] memoryBuffer = null;
+		MemoryBuffer memoryBuffer = null;
 
 		long reqNumBytes = 0;
 		try {
@@ -269,7 +270,7 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 				long reqNumberOfUnits = tableRendering.getAddressableUnitPerLine() * numberOfLines;
 
-				memoryBuffer = extMemoryBlock.getBytesFromAddress(startAddress, reqNumberOfUnits);
+				memoryBuffer = MemoryBlockCache.getCache(extMemoryBlock).getBuffer(startAddress, reqNumberOfUnits);
 
 				if (memoryBuffer == null) {
 					DebugException e = new DebugException(DebugUIPlugin.newErrorStatus(DebugUIMessages.MemoryViewContentProvider_Unable_to_retrieve_content, null));
@@ -304,40 +305,13 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 				numberOfLines = reqNumBytes / tableRendering.getBytesPerLine();
 
-				// create memory byte for IMemoryBlock
-				memoryBuffer = new MemoryByte[(int) reqNumBytes];
-
-				// prefill buffer to ensure double-word alignment
-				for (int i = 0; i < prefillNumBytes; i++) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue((byte) 0);
-					tmp.setWritable(false);
-					tmp.setReadable(false);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[i] = tmp;
-				}
+				// the bytes prefilled to ensure double-word alignment and
+				// appended to fill up the entire line are not readable
+				memoryBuffer = new MemoryBuffer((int) reqNumBytes);
 
 				// fill buffer with memory returned by debug adapter
-				int j = prefillNumBytes; // counter for memoryBuffer
-				for (int i = 0; i < memory.length; i++) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue(memory[i]);
-					tmp.setReadable(true);
-					tmp.setWritable(true);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[j] = tmp;
-					j++;
-				}
-
-				// append to buffer to fill up the entire line
-				for (int i = j; i < memoryBuffer.length; i++) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue((byte) 0);
-					tmp.setWritable(false);
-					tmp.setReadable(false);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[i] = tmp;
-				}
+				MemoryBuffer content = new MemoryBuffer(memory, (byte) (MemoryByte.READABLE | MemoryByte.WRITABLE));
+				content.copyTo(0, memoryBuffer, prefillNumBytes, memory.length);
 			}
 		} catch (DebugException e) {
 			memoryBuffer = makeDummyContent(numberOfLines, tableRendering.getBytesPerLine());
@@ -353,23 +327,10 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 		}
 
 		// if debug adapter did not return enough memory, create dummy memory
-		if (memoryBuffer.length < reqNumBytes) {
-			ArrayList<MemoryByte> newBuffer = new ArrayList<MemoryByte>();
-
-			for (int i = 0; i < memoryBuffer.length; i++) {
-				newBuffer.add(memoryBuffer[i]);
-			}
-
-			for (int i = memoryBuffer.length; i < reqNumBytes; i++) {
-				MemoryByte mb = new MemoryByte();
-				mb.setReadable(false);
-				mb.setWritable(false);
-				mb.setEndianessKnown(false);
-				newBuffer.add(mb);
-			}
-
-			memoryBuffer = newBuffer.toArray(new MemoryByte[newBuffer.size()]);
-
+		if (memoryBuffer.getLength() < reqNumBytes) {
+			MemoryBuffer newBuffer = new MemoryBuffer((int) reqNumBytes);
+			memoryBuffer.copyTo(0, newBuffer, 0, memoryBuffer.getLength());
+			memoryBuffer = newBuffer;
 		}
 
 		boolean manageDelta = true;
@@ -390,7 +351,7 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 	}
 
-	private Object[] organizeLines(long numberOfLines, MemoryByte[] memoryBuffer, BigInteger address, boolean manageDelta, MemoryViewPresentationContext context) {
+	private Object[] organizeLines(long numberOfLines, MemoryBuffer memoryBuffer, BigInteger address, boolean manageDelta, MemoryViewPresentationContext context) {
 		Vector<MemorySegment> lineCache = new Vector<MemorySegment>();
 		IMemoryRendering rendering = context.getRendering();
 		if (!(rendering instanceof AbstractAsyncTableRendering)) {
@@ -400,34 +361,17 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 		AbstractAsyncTableRendering tableRendering = (AbstractAsyncTableRendering) rendering;
 		int addressableUnit = tableRendering.getBytesPerLine() / tableRendering.getAddressableSize();
 
-		for (int i = 0; i < numberOfLines; i++) {
-			int bytesPerLine = tableRendering.getBytesPerLine();
-			MemoryByte[] memory = new MemoryByte[bytesPerLine];
-
-			// counter for memory, starts from 0 to number of bytes per line
-			int k = 0;
-			// j is the counter for memArray, memory returned by debug adapter
-			for (int j = i * bytesPerLine; j < i * bytesPerLine + bytesPerLine; j++) {
-
-				byte changeFlag = memoryBuffer[j].getFlags();
-				if (manageDelta) {
-					// turn off both change and known bits to make sure that
-					// the change bits returned by debug adapters do not take
-					// any effect
-
-					changeFlag |= MemoryByte.HISTORY_KNOWN;
-					changeFlag ^= MemoryByte.HISTORY_KNOWN;
-
-					changeFlag |= MemoryByte.CHANGED;
-					changeFlag ^= MemoryByte.CHANGED;
-				}
-
-				MemoryByte newByteObj = new MemoryByte(memoryBuffer[j].getValue(), changeFlag);
-				memory[k] = newByteObj;
-				k++;
-			}
+		if (manageDelta) {
+			// turn off both change and known bits to make sure that
+			// the change bits returned by debug adapters do not take
+			// any effect
+			memoryBuffer.clearFlags((byte) (MemoryByte.HISTORY_KNOWN | MemoryByte.CHANGED));
+		}
 
-			MemorySegment newLine = new MemorySegment(address, memory, addressableUnit);
+		int bytesPerLine = tableRendering.getBytesPerLine();
+		for (int i = 0; i < numberOfLines; i++) {
+			// lines share the buffer returned by the debug adapter
+			MemorySegment newLine = new MemorySegment(address, memoryBuffer.slice(i * bytesPerLine, bytesPerLine), addressableUnit);
 			lineCache.add(newLine);
 			address = address.add(BigInteger.valueOf(addressableUnit));
 		}
@@ -436,24 +380,12 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 	/**
 	 * @param numberOfLines
-	 * @return an array of dummy MemoryByte
+	 * @return a buffer of dummy memory
 	 */
-	private MemoryByte[] makeDummyContent(long numberOfLines, int bytesPerLine) {
-		MemoryByte[] memoryBuffer;
+	private MemoryBuffer makeDummyContent(long numberOfLines, int bytesPerLine) {
 		// make up dummy memory, needed for recovery in case the debug adapter
 		// is capable of retrieving memory again
-
-		int numBytes = (int) (bytesPerLine * numberOfLines);
-		memoryBuffer = new MemoryByte[numBytes];
-
-		for (int i = 0; i < memoryBuffer.length; i++) {
-			memoryBuffer[i] = new MemoryByte();
-			memoryBuffer[i].setValue((byte) 0);
-			memoryBuffer[i].setWritable(false);
-			memoryBuffer[i].setReadable(false);
-			memoryBuffer[i].setEndianessKnown(false);
-		}
-		return memoryBuffer;
+		return new MemoryBuffer((int) (bytesPerLine * numberOfLines));
 	}
 
 	protected AbstractAsyncTableRendering getTableRendering(MemoryViewPresentationContext context) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2007 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -112,7 +112,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 			if (element instanceof MemorySegment)
 			{
 				MemorySegment segment = (MemorySegment)element;
-				if (segment.getBytes().length != tableRendering.getBytesPerLine())
+				if (segment.getNumBytes() != tableRendering.getBytesPerLine())
 					return IInternalDebugCoreConstants.EMPTY_STRING;
 			}
 			
@@ -170,7 +170,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 		if (element instanceof MemorySegment)
 		{
 			MemorySegment segment = (MemorySegment)element;
-			if (segment.getBytes().length != tableRendering.getBytesPerLine())
+			if (segment.getNumBytes() != tableRendering.getBytesPerLine())
 				return null;
 			
 			ILabelProvider labelProvider = (ILabelProvider)tableRendering.getAdapter(ILabelProvider.class);
@@ -240,7 +240,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 		if (element instanceof MemorySegment)
 		{	
 			MemorySegment segment = (MemorySegment)element;
-			if (segment.getBytes().length != tableRendering.getBytesPerLine())
+			if (segment.getNumBytes() != tableRendering.getBytesPerLine())
 				return null;
 			
 			IFontProvider fontProvider = (IFontProvider)tableRendering.getAdapter(IFontProvider.class);
@@ -293,7 +293,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 		if (element instanceof MemorySegment)
 		{	
 			MemorySegment segment = (MemorySegment)element;
-			if (segment.getBytes().length != tableRendering.getBytesPerLine())
+			if (segment.getNumBytes() != tableRendering.getBytesPerLine())
 				return null;
 			
 			IColorProvider colorProvider = (IColorProvider)tableRendering.getAdapter(IColorProvider.class);
@@ -318,7 +318,7 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 		if (element instanceof MemorySegment)
 		{	
 			MemorySegment segment = (MemorySegment)element;
-			if (segment.getBytes().length != tableRendering.getBytesPerLine())
+			if (segment.getNumBytes() != tableRendering.getBytesPerLine())
 				return null;
 			
 			IColorProvider colorProvider = (IColorProvider)tableRendering.getAdapter(IColorProvider.class);
@@ -410,13 +410,11 @@ public class MemorySegmentLabelAdapter extends AsynchronousLabelAdapter {
 	
 	private MemoryRenderingElement getMemoryRenderingElement(MemorySegment line, BigInteger lineAddress, int offset, AbstractBaseTableRendering rendering) {
 		BigInteger cellAddress = lineAddress.add(BigInteger.valueOf(offset));
+		// the segment returns new memory bytes, clients cannot overwrite
+		// its content
 		MemoryByte[] bytes = line.getBytes(offset, rendering.getBytesPerColumn());
-		// make a copy to ensure that the memory bytes are not overwritten
-		// by clients
-		MemoryByte[] copy = new MemoryByte[bytes.length];
-		System.arraycopy(bytes, 0, copy, 0, bytes.length);
 		MemoryRenderingElement renderingElement = new MemoryRenderingElement(
-				rendering, cellAddress, copy);
+				rendering, cellAddress, bytes);
 		return renderingElement;
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2006, 2013 IBM Corporation and others.
+ *  Copyright (c) 2006, 2014 IBM Corporation and others.
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v1.0
  *  which accompanies this distribution, and is available at
@@ -56,6 +56,7 @@ import org.eclipse.debug.internal.ui.views.memory.renderings.GoToAddressAction;
 import org.eclipse.debug.internal.ui.views.memory.renderings.GoToAddressComposite;
 import org.eclipse.debug.internal.ui.views.memory.renderings.IPresentationErrorListener;
 import org.eclipse.debug.internal.ui.views.memory.renderings.IVirtualContentListener;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryBlockCache;
 import org.eclipse.debug.internal.ui.views.memory.renderings.MemorySegment;
 import org.eclipse.debug.internal.ui.views.memory.renderings.PendingPropertyChanges;
 import org.eclipse.debug.internal.ui.views.memory.renderings.PrintTableRenderingAction;
@@ -2176,6 +2177,8 @@ public abstract class AbstractAsyncTableRendering extends AbstractBaseTableRende
 			return;
 		}
 
+		// retrieve the content from the memory block again
+		MemoryBlockCache.invalidate(getMemoryBlock());
 		fTableViewer.refresh();
 	}
 
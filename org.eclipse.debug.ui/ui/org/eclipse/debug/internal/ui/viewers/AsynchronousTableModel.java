@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -195,4 +195,32 @@ public class AsynchronousTableModel extends AsynchronousModel {
     		}
     	}
 	}	
-}
+
+	/**
+	 * Replaces the elements of the given nodes, refreshing only the rows of
+	 * those nodes rather than all children of their parent.
+	 * 
+	 * @param nodes nodes whose elements are replaced
+	 * @param replacements the new element of each node
+	 */
+	protected void replaceElements(final ModelNode[] nodes, Object[] replacements) {
+		synchronized (this) {
+			if (isDisposed()) {
+				return;
+			}
+			for (int i = 0; i < nodes.length; i++) {
+				unmapNode(nodes[i]);
+				mapElement(replacements[i], nodes[i]);
+			}
+		}
+		final AsynchronousViewer viewer = getViewer();
+		preservingSelection(new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < nodes.length; i++) {
+					viewer.nodeChanged(nodes[i]);
+				}
+			}
+		});
+	}
+}
\ No newline at end of file
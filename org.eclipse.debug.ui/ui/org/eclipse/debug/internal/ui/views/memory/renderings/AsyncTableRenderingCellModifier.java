@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2011 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -252,6 +252,7 @@ public class AsyncTableRenderingCellModifier implements ICellModifier {
 		                ((IMemoryBlockExtension) memoryBlk).setValue(offsetFromMBBase, newByteValues);
 		            else
 		                memoryBlk.setValue(offsetFromMBBase.longValue(), newByteValues);				
+		            MemoryBlockCache.invalidate(memoryBlk);
 		        } catch (DebugException e) {
 		            MemoryViewUtil.openError(DebugUIMessages.MemoryViewCellModifier_failure_title, DebugUIMessages.MemoryViewCellModifier_failed, e);
 		        } catch (NumberFormatException e) {
@@ -0,0 +1,474 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventFilter;
+import org.eclipse.debug.core.IMemoryBlockListener;
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.debug.core.model.IMemoryBlock;
+import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.MemoryBuffer;
+
+/**
+ * Cache of the memory retrieved from an extended memory block, shared by all
+ * table renderings of the memory block. Memory is retrieved and cached in
+ * address-aligned pages of {@link #PAGE_SIZE} bytes, the least recently used
+ * pages being discarded first. After each retrieval, the pages following the
+ * retrieved range in the direction the renderings scroll are read ahead in
+ * the background.
+ * <p>
+ * The pages of a memory block are discarded when the memory block changes,
+ * when its debug target suspends or resumes, and when its content is
+ * modified or refreshed by a rendering. The cache of a memory block is disposed when the
+ * memory block is removed or its debug target terminates.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class MemoryBlockCache {
+
+	/**
+	 * Number of bytes in a page
+	 */
+	public static final int PAGE_SIZE = 4096;
+
+	/**
+	 * Maximum number of pages cached per memory block
+	 */
+	private static final int MAX_PAGES = 256;
+
+	/**
+	 * Number of pages to read ahead
+	 */
+	private static final int READ_AHEAD_PAGES = 2;
+
+	/**
+	 * Caches by memory block, guarded by the class
+	 */
+	private static final Map<IMemoryBlock, MemoryBlockCache> fgCaches = new HashMap<IMemoryBlock, MemoryBlockCache>();
+
+	/**
+	 * Discards pages as memory blocks and targets change. Events are observed
+	 * with a filter rather than a listener so that pages are discarded before
+	 * any listener reloads the content of a rendering.
+	 */
+	private static final IDebugEventFilter fgEventFilter = new IDebugEventFilter() {
+		@Override
+		public DebugEvent[] filterDebugEvents(DebugEvent[] events) {
+			for (int i = 0; i < events.length; i++) {
+				handleDebugEvent(events[i]);
+			}
+			return events;
+		}
+	};
+
+	private static final IMemoryBlockListener fgMemoryBlockListener = new IMemoryBlockListener() {
+		@Override
+		public void memoryBlocksAdded(IMemoryBlock[] memory) {
+		}
+
+		@Override
+		public void memoryBlocksRemoved(IMemoryBlock[] memory) {
+			for (int i = 0; i < memory.length; i++) {
+				dispose(memory[i]);
+			}
+		}
+	};
+
+	/**
+	 * Reads pages ahead of the renderings.
+	 */
+	class ReadAheadJob extends Job {
+
+		/**
+		 * First page and number of pages to read, guarded by the cache
+		 */
+		private BigInteger fFirstPage;
+		private int fNumPages;
+
+		ReadAheadJob() {
+			super("Memory read-ahead"); //$NON-NLS-1$
+			setSystem(true);
+		}
+
+		void schedule(BigInteger firstPage, int numPages) {
+			synchronized (MemoryBlockCache.this) {
+				fFirstPage = firstPage;
+				fNumPages = numPages;
+			}
+			schedule();
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			BigInteger firstPage;
+			int numPages;
+			synchronized (MemoryBlockCache.this) {
+				firstPage = fFirstPage;
+				numPages = fNumPages;
+			}
+			if (monitor.isCanceled() || isDisposed()) {
+				return Status.CANCEL_STATUS;
+			}
+			try {
+				getPages(firstPage, numPages);
+			} catch (DebugException e) {
+				// the renderings report failures when they need the memory
+			}
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == MemoryBlockCache.this;
+		}
+	}
+
+	private final IMemoryBlockExtension fMemoryBlock;
+
+	/**
+	 * Pages by page number, in access order, guarded by this cache
+	 */
+	private final LinkedHashMap<Object, MemoryBuffer> fPages = new LinkedHashMap<Object, MemoryBuffer>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Entry<Object, MemoryBuffer> eldest) {
+			return size() > MAX_PAGES;
+		}
+	};
+
+	/**
+	 * Incremented as pages are discarded, so that pages retrieved before are
+	 * not cached. Guarded by this cache.
+	 */
+	private long fGeneration = 0;
+
+	/**
+	 * Start address of the last range retrieved, to tell the direction the
+	 * renderings scroll in. Guarded by this cache.
+	 */
+	private BigInteger fLastAddress;
+
+	private boolean fDisposed = false;
+
+	private final ReadAheadJob fReadAheadJob = new ReadAheadJob();
+
+	/**
+	 * Number of pages found in and missing from the cache, guarded by this
+	 * cache
+	 */
+	private long fHits = 0;
+	private long fMisses = 0;
+
+	private MemoryBlockCache(IMemoryBlockExtension memoryBlock) {
+		fMemoryBlock = memoryBlock;
+	}
+
+	/**
+	 * Returns the cache of the given memory block, creating it if needed.
+	 *
+	 * @param memoryBlock memory block
+	 * @return the cache of the memory block
+	 */
+	public static MemoryBlockCache getCache(IMemoryBlockExtension memoryBlock) {
+		synchronized (MemoryBlockCache.class) {
+			MemoryBlockCache cache = fgCaches.get(memoryBlock);
+			if (cache == null) {
+				if (fgCaches.isEmpty()) {
+					DebugPlugin.getDefault().addDebugEventFilter(fgEventFilter);
+					DebugPlugin.getDefault().getMemoryBlockManager().addListener(fgMemoryBlockListener);
+				}
+				cache = new MemoryBlockCache(memoryBlock);
+				fgCaches.put(memoryBlock, cache);
+			}
+			return cache;
+		}
+	}
+
+	/**
+	 * Discards the pages cached for the given memory block, if any.
+	 *
+	 * @param memoryBlock memory block
+	 */
+	public static void invalidate(IMemoryBlock memoryBlock) {
+		MemoryBlockCache cache;
+		synchronized (MemoryBlockCache.class) {
+			cache = fgCaches.get(memoryBlock);
+		}
+		if (cache != null) {
+			cache.invalidate();
+		}
+	}
+
+	/**
+	 * Disposes the cache of the given memory block, if any.
+	 *
+	 * @param memoryBlock memory block
+	 */
+	public static void dispose(IMemoryBlock memoryBlock) {
+		MemoryBlockCache cache;
+		synchronized (MemoryBlockCache.class) {
+			cache = fgCaches.remove(memoryBlock);
+			if (cache != null && fgCaches.isEmpty()) {
+				DebugPlugin.getDefault().removeDebugEventFilter(fgEventFilter);
+				DebugPlugin.getDefault().getMemoryBlockManager().removeListener(fgMemoryBlockListener);
+			}
+		}
+		if (cache != null) {
+			cache.dispose();
+		}
+	}
+
+	private static void handleDebugEvent(DebugEvent event) {
+		Object source = event.getSource();
+		if (source instanceof IMemoryBlock) {
+			// a state change does not affect the content
+			if (event.getKind() == DebugEvent.CHANGE && event.getDetail() != DebugEvent.STATE) {
+				invalidate((IMemoryBlock) source);
+			}
+			return;
+		}
+		if (!(source instanceof IDebugElement)) {
+			return;
+		}
+		int kind = event.getKind();
+		if (kind != DebugEvent.SUSPEND && kind != DebugEvent.RESUME && !(kind == DebugEvent.TERMINATE && source instanceof IDebugTarget)) {
+			return;
+		}
+		IDebugTarget target = ((IDebugElement) source).getDebugTarget();
+		MemoryBlockCache[] caches;
+		synchronized (MemoryBlockCache.class) {
+			caches = fgCaches.values().toArray(new MemoryBlockCache[fgCaches.size()]);
+		}
+		for (int i = 0; i < caches.length; i++) {
+			if (caches[i].fMemoryBlock.getDebugTarget() == target) {
+				if (kind == DebugEvent.TERMINATE) {
+					dispose(caches[i].fMemoryBlock);
+				} else {
+					caches[i].invalidate();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Retrieves bytes from the memory block, from the cached pages where
+	 * possible. Ranges too large to cache, and ranges whose pages cannot be
+	 * retrieved, are retrieved from the memory block directly.
+	 *
+	 * @param address address at which to begin retrieving bytes in terms of
+	 *            addressable units
+	 * @param units number of addressable units of memory to retrieve
+	 * @return a new buffer of the retrieved bytes that belongs to the caller,
+	 *         or <code>null</code> if the memory block returned none
+	 * @throws DebugException if unable to retrieve the bytes
+	 */
+	public MemoryBuffer getBuffer(BigInteger address, long units) throws DebugException {
+		int addressableSize = fMemoryBlock.getAddressableSize();
+		int unitsPerPage = getUnitsPerPage(addressableSize);
+		if (units <= 0 || address.signum() < 0 || units > (long) unitsPerPage * MAX_PAGES / 2) {
+			return MemoryBuffer.getBuffer(fMemoryBlock, address, units);
+		}
+		BigInteger bigUnitsPerPage = BigInteger.valueOf(unitsPerPage);
+		BigInteger firstPage = address.divide(bigUnitsPerPage);
+		BigInteger lastPage = address.add(BigInteger.valueOf(units - 1)).divide(bigUnitsPerPage);
+		int numPages = lastPage.subtract(firstPage).intValue() + 1;
+
+		MemoryBuffer[] pages;
+		try {
+			pages = getPages(firstPage, numPages);
+		} catch (DebugException e) {
+			// the pages may reach beyond the memory the block can retrieve,
+			// retrieve the requested range only
+			pages = null;
+		}
+		if (pages == null) {
+			return MemoryBuffer.getBuffer(fMemoryBlock, address, units);
+		}
+
+		// copy the requested range out of the pages
+		int length = (int) units * addressableSize;
+		MemoryBuffer buffer = new MemoryBuffer(length);
+		int pageOffset = address.subtract(firstPage.multiply(bigUnitsPerPage)).intValue() * addressableSize;
+		int copied = 0;
+		for (int i = 0; i < pages.length && copied < length; i++) {
+			int count = Math.min(pages[i].getLength() - pageOffset, length - copied);
+			pages[i].copyTo(pageOffset, buffer, copied, count);
+			copied += count;
+			pageOffset = 0;
+		}
+
+		readAhead(address, firstPage, lastPage);
+		return buffer;
+	}
+
+	/**
+	 * Returns the given pages, retrieving the ones not cached. Consecutive
+	 * missing pages are retrieved at once.
+	 *
+	 * @param firstPage number of the first page
+	 * @param numPages number of pages
+	 * @return the pages, or <code>null</code> if the memory block did not
+	 *         return whole pages
+	 * @throws DebugException if unable to retrieve the pages
+	 */
+	MemoryBuffer[] getPages(BigInteger firstPage, int numPages) throws DebugException {
+		int addressableSize = fMemoryBlock.getAddressableSize();
+		int unitsPerPage = getUnitsPerPage(addressableSize);
+		int pageLength = unitsPerPage * addressableSize;
+		MemoryBuffer[] pages = new MemoryBuffer[numPages];
+		long generation;
+		synchronized (this) {
+			generation = fGeneration;
+			for (int i = 0; i < numPages; i++) {
+				pages[i] = fPages.get(toKey(firstPage.add(BigInteger.valueOf(i))));
+				if (pages[i] != null) {
+					fHits++;
+				} else {
+					fMisses++;
+				}
+			}
+		}
+		int i = 0;
+		while (i < numPages) {
+			if (pages[i] != null) {
+				i++;
+				continue;
+			}
+			int run = 1;
+			while (i + run < numPages && pages[i + run] == null) {
+				run++;
+			}
+			BigInteger runAddress = firstPage.add(BigInteger.valueOf(i)).multiply(BigInteger.valueOf(unitsPerPage));
+			MemoryBuffer retrieved = MemoryBuffer.getBuffer(fMemoryBlock, runAddress, (long) run * unitsPerPage);
+			if (retrieved == null || retrieved.getLength() != run * pageLength) {
+				return null;
+			}
+			for (int j = 0; j < run; j++) {
+				// copy each page so that it can be discarded on its own
+				MemoryBuffer page = new MemoryBuffer(pageLength);
+				retrieved.copyTo(j * pageLength, page, 0, pageLength);
+				pages[i + j] = page;
+			}
+			synchronized (this) {
+				if (generation == fGeneration && !fDisposed) {
+					for (int j = 0; j < run; j++) {
+						fPages.put(toKey(firstPage.add(BigInteger.valueOf(i + j))), pages[i + j]);
+					}
+				}
+			}
+			i += run;
+		}
+		return pages;
+	}
+
+	/**
+	 * Reads ahead the pages following the given range in the direction of the
+	 * last move.
+	 */
+	private void readAhead(BigInteger address, BigInteger firstPage, BigInteger lastPage) {
+		BigInteger start;
+		synchronized (this) {
+			boolean backward = fLastAddress != null && address.compareTo(fLastAddress) < 0;
+			fLastAddress = address;
+			if (backward) {
+				start = firstPage.subtract(BigInteger.valueOf(READ_AHEAD_PAGES));
+				if (start.signum() < 0) {
+					start = BigInteger.ZERO;
+				}
+			} else {
+				start = lastPage.add(BigInteger.ONE);
+			}
+			int count = 0;
+			for (int i = 0; i < READ_AHEAD_PAGES; i++) {
+				if (fPages.containsKey(toKey(start.add(BigInteger.valueOf(i))))) {
+					break;
+				}
+				count++;
+			}
+			if (backward) {
+				// read the pages adjacent to the range
+				count = Math.min(count, firstPage.subtract(start).intValue());
+			}
+			if (count == 0) {
+				return;
+			}
+			fReadAheadJob.schedule(start, count);
+		}
+	}
+
+	/**
+	 * Discards all pages.
+	 */
+	public void invalidate() {
+		fReadAheadJob.cancel();
+		synchronized (this) {
+			fPages.clear();
+			fGeneration++;
+			fLastAddress = null;
+		}
+	}
+
+	private void dispose() {
+		synchronized (this) {
+			fDisposed = true;
+		}
+		invalidate();
+	}
+
+	private synchronized boolean isDisposed() {
+		return fDisposed;
+	}
+
+	/**
+	 * @return the number of pages found in the cache
+	 */
+	public synchronized long getHitCount() {
+		return fHits;
+	}
+
+	/**
+	 * @return the number of pages retrieved from the memory block
+	 */
+	public synchronized long getMissCount() {
+		return fMisses;
+	}
+
+	private static int getUnitsPerPage(int addressableSize) {
+		return Math.max(1, PAGE_SIZE / Math.max(1, addressableSize));
+	}
+
+	/**
+	 * Page numbers are keyed by a <code>Long</code> when they fit, to keep
+	 * lookups cheap for the common address spaces.
+	 */
+	private static Object toKey(BigInteger page) {
+		if (page.bitLength() < 64) {
+			return Long.valueOf(page.longValue());
+		}
+		return page;
+	}
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.eclipse.debug.core.model.MemoryBuffer;
+import org.eclipse.debug.core.model.MemoryByte;
+
+/**
+ * Compares two snapshots of the same range of memory. The snapshots are
+ * compared eight bytes at a time, bytes being examined one by one only in
+ * the words that differ.
+ *
+ * @since 3.10
+ */
+public class MemoryBufferDiff {
+
+	/**
+	 * Number of bytes compared at a time
+	 */
+	private static final int WORD_SIZE = 8;
+
+	/**
+	 * The <code>READABLE</code> attribute of each byte of a word
+	 */
+	private static final long READABLE_MASK = 0x0101010101010101L * MemoryByte.READABLE;
+
+	private MemoryBufferDiff() {
+	}
+
+	/**
+	 * Returns the ranges of bytes that changed between the given snapshots. A
+	 * byte has changed when it became readable or unreadable, or when it is
+	 * readable in both snapshots and its value differs.
+	 *
+	 * @param oldBytes previous snapshot
+	 * @param newBytes current snapshot
+	 * @return the changed ranges in increasing order, as pairs of the index of
+	 *         the first byte of a range and the index following its last byte;
+	 *         an empty array when no byte changed
+	 * @exception IllegalArgumentException if the snapshots differ in length
+	 */
+	public static int[] getChangedRanges(MemoryBuffer oldBytes, MemoryBuffer newBytes) {
+		int length = checkLength(oldBytes, newBytes);
+		ByteBuffer oldValues = oldBytes.getValues();
+		ByteBuffer newValues = newBytes.getValues();
+		ByteBuffer oldFlags = oldBytes.getFlags();
+		ByteBuffer newFlags = newBytes.getFlags();
+
+		int[] ranges = new int[0];
+		int count = 0;
+		for (int i = 0; i < length; i += WORD_SIZE) {
+			int end = i + WORD_SIZE;
+			if (end <= length) {
+				if (oldValues.getLong(i) == newValues.getLong(i) && ((oldFlags.getLong(i) ^ newFlags.getLong(i)) & READABLE_MASK) == 0) {
+					continue;
+				}
+			} else {
+				end = length;
+			}
+			// the word differs, or is a partial word at the end
+			for (int j = i; j < end; j++) {
+				if (isChanged(oldValues, newValues, oldFlags, newFlags, j)) {
+					if (count > 0 && ranges[count - 1] == j) {
+						ranges[count - 1] = j + 1;
+					} else {
+						if (count == ranges.length) {
+							ranges = Arrays.copyOf(ranges, Math.max(8, count * 2));
+						}
+						ranges[count++] = j;
+						ranges[count++] = j + 1;
+					}
+				}
+			}
+		}
+		return count == ranges.length ? ranges : Arrays.copyOf(ranges, count);
+	}
+
+	/**
+	 * Turns the <code>HISTORY_KNOWN</code> attribute on for every byte of the
+	 * current snapshot, and the <code>CHANGED</code> attribute on for the bytes
+	 * that changed since the previous snapshot.
+	 *
+	 * @param oldBytes previous snapshot
+	 * @param newBytes current snapshot, whose attributes are updated
+	 * @return whether any byte changed
+	 * @exception IllegalArgumentException if the snapshots differ in length
+	 */
+	public static boolean markChanges(MemoryBuffer oldBytes, MemoryBuffer newBytes) {
+		int[] ranges = getChangedRanges(oldBytes, newBytes);
+		newBytes.addFlags(MemoryByte.HISTORY_KNOWN);
+		for (int i = 0; i < ranges.length; i += 2) {
+			for (int j = ranges[i]; j < ranges[i + 1]; j++) {
+				newBytes.addFlags(j, MemoryByte.CHANGED);
+			}
+		}
+		return ranges.length > 0;
+	}
+
+	/**
+	 * Returns whether the given buffers hold the same values with the same
+	 * attributes.
+	 *
+	 * @param bytes1 a buffer
+	 * @param bytes2 another buffer
+	 * @return whether the buffers are identical
+	 */
+	public static boolean isIdentical(MemoryBuffer bytes1, MemoryBuffer bytes2) {
+		if (bytes1.getLength() != bytes2.getLength()) {
+			return false;
+		}
+		return isIdentical(bytes1.getValues(), bytes2.getValues()) && isIdentical(bytes1.getFlags(), bytes2.getFlags());
+	}
+
+	private static boolean isIdentical(ByteBuffer buffer1, ByteBuffer buffer2) {
+		int length = buffer1.limit();
+		int i = 0;
+		for (; i + WORD_SIZE <= length; i += WORD_SIZE) {
+			if (buffer1.getLong(i) != buffer2.getLong(i)) {
+				return false;
+			}
+		}
+		for (; i < length; i++) {
+			if (buffer1.get(i) != buffer2.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isChanged(ByteBuffer oldValues, ByteBuffer newValues, ByteBuffer oldFlags, ByteBuffer newFlags, int index) {
+		boolean readable = (newFlags.get(index) & MemoryByte.READABLE) != 0;
+		if (readable != ((oldFlags.get(index) & MemoryByte.READABLE) != 0)) {
+			return true;
+		}
+		return readable && oldValues.get(index) != newValues.get(index);
+	}
+
+	private static int checkLength(MemoryBuffer oldBytes, MemoryBuffer newBytes) {
+		if (oldBytes.getLength() != newBytes.getLength()) {
+			throw new IllegalArgumentException("snapshots differ in length"); //$NON-NLS-1$
+		}
+		return oldBytes.getLength();
+	}
+}
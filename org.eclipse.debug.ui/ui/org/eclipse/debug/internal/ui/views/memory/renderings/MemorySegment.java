@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,22 +12,137 @@
 package org.eclipse.debug.internal.ui.views.memory.renderings;
 
 import java.math.BigInteger;
-import java.util.ArrayList;
 
 import org.eclipse.core.runtime.PlatformObject;
+import org.eclipse.debug.core.model.MemoryBuffer;
 import org.eclipse.debug.core.model.MemoryByte;
 
 public class MemorySegment extends PlatformObject {
 	
+	/**
+	 * A memory byte that reads and writes a byte of the segment's buffer, so
+	 * changes made to it are reflected in the segment.
+	 */
+	private static class SegmentByte extends MemoryByte {
+		
+		private final MemoryBuffer fBytes;
+		private final int fIndex;
+		
+		SegmentByte(MemoryBuffer bytes, int index) {
+			fBytes = bytes;
+			fIndex = index;
+		}
+		
+		private boolean is(byte mask) {
+			return fBytes.hasFlags(fIndex, mask);
+		}
+		
+		private void set(byte mask, boolean set) {
+			byte current = fBytes.getFlags(fIndex);
+			fBytes.setFlags(fIndex, (byte) (set ? current | mask : current & ~mask));
+		}
+		
+		@Override
+		public byte getFlags() {
+			return fBytes.getFlags(fIndex);
+		}
+		
+		@Override
+		public void setFlags(byte flags) {
+			fBytes.setFlags(fIndex, flags);
+		}
+		
+		@Override
+		public byte getValue() {
+			return fBytes.getValue(fIndex);
+		}
+		
+		@Override
+		public void setValue(byte value) {
+			fBytes.setValue(fIndex, value);
+		}
+		
+		@Override
+		public boolean isReadable() {
+			return is(READABLE);
+		}
+		
+		@Override
+		public void setReadable(boolean readable) {
+			set(READABLE, readable);
+		}
+		
+		@Override
+		public boolean isWritable() {
+			return is(WRITABLE);
+		}
+		
+		@Override
+		public void setWritable(boolean writable) {
+			set(WRITABLE, writable);
+		}
+		
+		@Override
+		public boolean isChanged() {
+			return is(CHANGED);
+		}
+		
+		@Override
+		public void setChanged(boolean changed) {
+			set(CHANGED, changed);
+		}
+		
+		@Override
+		public boolean isHistoryKnown() {
+			return is(HISTORY_KNOWN);
+		}
+		
+		@Override
+		public void setHistoryKnown(boolean known) {
+			set(HISTORY_KNOWN, known);
+		}
+		
+		@Override
+		public boolean isBigEndian() {
+			return is(BIG_ENDIAN);
+		}
+		
+		@Override
+		public void setBigEndian(boolean isBigEndian) {
+			set(BIG_ENDIAN, isBigEndian);
+		}
+		
+		@Override
+		public boolean isEndianessKnown() {
+			return is(ENDIANESS_KNOWN);
+		}
+		
+		@Override
+		public void setEndianessKnown(boolean isEndianessKnown) {
+			set(ENDIANESS_KNOWN, isEndianessKnown);
+		}
+	}
+	
 	private BigInteger fAddress;
 	private BigInteger fEndAddress;
-	private MemoryByte[] fBytes;
+	private MemoryBuffer fBuffer;
 	private int fNumAddressableUnits;
 	
 	public MemorySegment(BigInteger address, MemoryByte[] bytes, int numAddressableUnits)
+	{
+		this(address, MemoryBuffer.valueOf(bytes), numAddressableUnits);
+	}
+	
+	/**
+	 * @param address - address of the first byte
+	 * @param buffer - bytes of the segment, typically a slice of the buffer
+	 *  the memory was retrieved in
+	 * @param numAddressableUnits - number of addressable units in the segment
+	 */
+	public MemorySegment(BigInteger address, MemoryBuffer buffer, int numAddressableUnits)
 	{
 		fAddress = address;
-		fBytes = bytes;
+		fBuffer = buffer;
 		fNumAddressableUnits = numAddressableUnits;
 	}
 	
@@ -35,8 +150,28 @@ public class MemorySegment extends PlatformObject {
 		return fAddress;
 	}
 	
+	/**
+	 * Returns the bytes of this segment. The bytes are backed by the buffer of
+	 * this segment, changes made to them are reflected in this segment.
+	 * 
+	 * @return the bytes of this segment
+	 */
 	public MemoryByte[] getBytes() {
-		return fBytes;
+		return getSegmentBytes(0, fBuffer.getLength());
+	}
+	
+	/**
+	 * @return the bytes of this segment
+	 */
+	public MemoryBuffer getBuffer() {
+		return fBuffer;
+	}
+	
+	/**
+	 * @return the number of bytes in this segment
+	 */
+	public int getNumBytes() {
+		return fBuffer.getLength();
 	}
 	
 	public int getNumAddressableUnits() {
@@ -62,23 +197,26 @@ public class MemorySegment extends PlatformObject {
 	/**
 	 * @param start - zero-based start offset
 	 * @param length - number of bytes to get
-	 * @return the bytes from start offset to the end.
+	 * @return the bytes from start offset to the end, backed by the buffer of
+	 *  this segment
 	 */
 	public MemoryByte[] getBytes(int start, int length)
 	{
 		if (start < 0)
 			return new MemoryByte[0];
 		
-		if (start + length > fBytes.length)
+		if (start + length > fBuffer.getLength())
 			return new MemoryByte[0];
 		
-		ArrayList<MemoryByte> ret = new ArrayList<MemoryByte>();
-		
-		for (int i=start; i< start+length; i++)
-		{
-			ret.add(fBytes[i]);
+		return getSegmentBytes(start, length);
+	}
+	
+	private MemoryByte[] getSegmentBytes(int start, int length) {
+		MemoryByte[] bytes = new MemoryByte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = new SegmentByte(fBuffer, start + i);
 		}
-		return ret.toArray(new MemoryByte[ret.size()]);
+		return bytes;
 	}
 	
 }
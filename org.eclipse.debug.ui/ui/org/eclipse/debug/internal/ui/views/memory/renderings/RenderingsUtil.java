@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2007 IBM Corporation and others.
+ * Copyright (c) 2004, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,6 +12,7 @@ package org.eclipse.debug.internal.ui.views.memory.renderings;
 
 import java.math.BigInteger;
 
+import org.eclipse.debug.core.model.MemoryByte;
 
 /**
  * Util functions for data conversions
@@ -22,6 +23,19 @@ public class RenderingsUtil {
 	public static final int BIG_ENDIAN = 1;
 	public static final int ENDIANESS_UNKNOWN = 2;
 
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray(); //$NON-NLS-1$
+
+	/**
+	 * Buffer cells are formatted into, per thread since labels are computed
+	 * by concurrent jobs
+	 */
+	private static final ThreadLocal<char[]> fgCharBuffer = new ThreadLocal<char[]>() {
+		@Override
+		protected char[] initialValue() {
+			return new char[64];
+		}
+	};
+
 	/**
 	 * Pad byte array with zero's with the byte array's length
 	 * is shorter that what's expected the conversion functions.
@@ -104,6 +118,177 @@ public class RenderingsUtil {
 		return value;
 	}
 	
+	/**
+	 * Reads an integer of up to 8 bytes from the given slice of an array,
+	 * without allocating.
+	 * 
+	 * @param array the bytes
+	 * @param offset index of the first byte of the integer
+	 * @param length number of bytes of the integer, from 1 to 8
+	 * @param endianess <code>LITTLE_ENDIAN</code> or <code>BIG_ENDIAN</code>
+	 * @param signed whether to sign-extend the integer
+	 * @return the integer
+	 */
+	static public long convertByteArrayToLong(byte[] array, int offset, int length, int endianess, boolean signed)
+	{
+		long value = 0;
+		if (endianess == RenderingsUtil.LITTLE_ENDIAN)
+		{
+			for (int i = length - 1; i >= 0; i--)
+			{
+				value = (value << 8) | (array[offset + i] & 0xff);
+			}
+		}
+		else
+		{
+			for (int i = 0; i < length; i++)
+			{
+				value = (value << 8) | (array[offset + i] & 0xff);
+			}
+		}
+		if (signed && length < 8)
+		{
+			int shift = 64 - length * 8;
+			value = (value << shift) >> shift;
+		}
+		return value;
+	}
+	
+	/**
+	 * Reads an integer of up to 8 bytes from the given slice of an array of
+	 * memory bytes, without copying their values.
+	 * 
+	 * @param data the memory bytes
+	 * @param offset index of the first byte of the integer
+	 * @param length number of bytes of the integer, from 1 to 8
+	 * @param endianess <code>LITTLE_ENDIAN</code> or <code>BIG_ENDIAN</code>
+	 * @param signed whether to sign-extend the integer
+	 * @return the integer
+	 */
+	static public long convertMemoryBytesToLong(MemoryByte[] data, int offset, int length, int endianess, boolean signed)
+	{
+		long value = 0;
+		if (endianess == RenderingsUtil.LITTLE_ENDIAN)
+		{
+			for (int i = length - 1; i >= 0; i--)
+			{
+				value = (value << 8) | (data[offset + i].getValue() & 0xff);
+			}
+		}
+		else
+		{
+			for (int i = 0; i < length; i++)
+			{
+				value = (value << 8) | (data[offset + i].getValue() & 0xff);
+			}
+		}
+		if (signed && length < 8)
+		{
+			int shift = 64 - length * 8;
+			value = (value << shift) >> shift;
+		}
+		return value;
+	}
+	
+	/**
+	 * Formats the given integer in decimal.
+	 * 
+	 * @param value the integer
+	 * @param unsigned whether to interpret the integer as an unsigned 64-bit
+	 *  integer
+	 * @return the decimal representation
+	 */
+	static public String convertLongToDecimalString(long value, boolean unsigned)
+	{
+		char[] buffer = fgCharBuffer.get();
+		int pos = buffer.length;
+		boolean negative = !unsigned && value < 0;
+		if (unsigned && value < 0)
+		{
+			// divide the unsigned value by 10 once, the quotient is positive
+			long quotient = (value >>> 1) / 5;
+			buffer[--pos] = (char) ('0' + (value - quotient * 10));
+			value = quotient;
+		}
+		if (negative)
+		{
+			// accumulate on the negative side so that Long.MIN_VALUE works
+			do
+			{
+				buffer[--pos] = (char) ('0' - (value % 10));
+				value /= 10;
+			}
+			while (value != 0);
+			buffer[--pos] = '-';
+		}
+		else
+		{
+			do
+			{
+				buffer[--pos] = (char) ('0' + (value % 10));
+				value /= 10;
+			}
+			while (value != 0);
+		}
+		return new String(buffer, pos, buffer.length - pos);
+	}
+	
+	/**
+	 * Formats the given memory bytes in upper case hex, two digits per byte.
+	 * Bytes that are not readable are represented by the given padding.
+	 * 
+	 * @param data the bytes
+	 * @param reverse whether to format the bytes in reverse order
+	 * @param paddedStr representation of bytes that are not readable
+	 * @return the hex representation
+	 */
+	static public String convertMemoryBytesToHexString(MemoryByte[] data, boolean reverse, String paddedStr)
+	{
+		char[] buffer = getCharBuffer(data.length * 2, 0);
+		String padding = null;
+		int pos = 0;
+		for (int i = 0; i < data.length; i++)
+		{
+			MemoryByte b = data[reverse ? data.length - 1 - i : i];
+			if (b.isReadable())
+			{
+				int value = b.getValue() & 0xff;
+				buffer[pos++] = HEX_DIGITS[value >> 4];
+				buffer[pos++] = HEX_DIGITS[value & 0x0f];
+			}
+			else
+			{
+				if (padding == null)
+					padding = paddedStr.toUpperCase();
+				buffer = getCharBuffer(pos + padding.length() + (data.length - 1 - i) * 2, pos);
+				padding.getChars(0, padding.length(), buffer, pos);
+				pos += padding.length();
+			}
+		}
+		return new String(buffer, 0, pos);
+	}
+	
+	/**
+	 * Returns the buffer of the calling thread, grown to the given capacity
+	 * if needed.
+	 * 
+	 * @param capacity number of characters needed
+	 * @param used number of characters to keep when growing
+	 * @return the buffer
+	 */
+	private static char[] getCharBuffer(int capacity, int used)
+	{
+		char[] buffer = fgCharBuffer.get();
+		if (buffer.length < capacity)
+		{
+			char[] grown = new char[Math.max(capacity, buffer.length * 2)];
+			System.arraycopy(buffer, 0, grown, 0, used);
+			buffer = grown;
+			fgCharBuffer.set(buffer);
+		}
+		return buffer;
+	}
+	
 	/**
 	 * Convert byte array to long.
 	 * @param array
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2005 IBM Corporation and others.
+ * Copyright (c) 2004, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -213,6 +213,7 @@ public class TableRenderingCellModifier implements ICellModifier {
                 ((IMemoryBlockExtension) memoryBlk).setValue(offset, bytes);
             else
                 memoryBlk.setValue(offset.longValue(), bytes);
+            MemoryBlockCache.invalidate(memoryBlk);
         } catch (DebugException e) {
             MemoryViewUtil.openError(DebugUIMessages.MemoryViewCellModifier_failure_title, DebugUIMessages.MemoryViewCellModifier_failed, e);
         } catch (NumberFormatException e) {
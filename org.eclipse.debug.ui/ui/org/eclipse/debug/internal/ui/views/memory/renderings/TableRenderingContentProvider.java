@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2010 IBM Corporation and others.
+ * Copyright (c) 2004, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,6 +24,7 @@ import org.eclipse.debug.core.model.IDebugElement;
 import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IMemoryBlock;
 import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.MemoryBuffer;
 import org.eclipse.debug.core.model.MemoryByte;
 import org.eclipse.debug.internal.ui.DebugUIMessages;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
@@ -325,7 +326,7 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 		}
 
 		IMemoryBlockExtension extMemoryBlock = null;
-		MemoryByte[] memoryBuffer = null;
+		MemoryBuffer memoryBuffer = null;
 		
 		String paddedString = DebugUIPlugin.getDefault().getPreferenceStore().getString(IDebugUIConstants.PREF_PADDED_STR);
 		
@@ -340,7 +341,7 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 				
 				long reqNumberOfUnits = getTableRendering(fInput).getAddressableUnitPerLine() * numberOfLines;
 						
-				memoryBuffer =	extMemoryBlock.getBytesFromAddress(startingAddress,	reqNumberOfUnits);
+				memoryBuffer = MemoryBlockCache.getCache(extMemoryBlock).getBuffer(startingAddress, reqNumberOfUnits);
 		
 				if(memoryBuffer == null)
 				{
@@ -380,43 +381,13 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 				
 				numberOfLines = reqNumBytes / getTableRendering(fInput).getBytesPerLine();
 				
-				// create memory byte for IMemoryBlock
-				memoryBuffer = new MemoryByte[(int)reqNumBytes];
-				
-				// prefill buffer to ensure double-word alignment
-				for (int i=0; i<prefillNumBytes; i++)
-				{
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue((byte)0);
-					tmp.setWritable(false);
-					tmp.setReadable(false);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[i] = tmp;
-				}
+				// the bytes prefilled to ensure double-word alignment and
+				// appended to fill up the entire line are not readable
+				memoryBuffer = new MemoryBuffer((int)reqNumBytes);
 				
 				// fill buffer with memory returned by debug adapter
-				int j = prefillNumBytes; 							// counter for memoryBuffer
-				for (int i=0; i<memory.length; i++)
-				{
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue(memory[i]);
-					tmp.setReadable(true);
-					tmp.setWritable(true);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[j] = tmp;
-					j++;
-				}
-				
-				// append to buffer to fill up the entire line
-				for (int i=j; i<memoryBuffer.length; i++)
-				{
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue((byte)0);
-					tmp.setWritable(false);
-					tmp.setReadable(false);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[i] = tmp;
-				}
+				MemoryBuffer content = new MemoryBuffer(memory, (byte)(MemoryByte.READABLE | MemoryByte.WRITABLE));
+				content.copyTo(0, memoryBuffer, prefillNumBytes, memory.length);
 			}
 		}
 		catch (DebugException e)
@@ -436,26 +407,11 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 		}
 		
 		// if debug adapter did not return enough memory, create dummy memory
-		if (memoryBuffer.length < reqNumBytes)
+		if (memoryBuffer.getLength() < reqNumBytes)
 		{
-			ArrayList<MemoryByte> newBuffer = new ArrayList<MemoryByte>();
-			
-			for (int i=0; i<memoryBuffer.length; i++)
-			{
-				newBuffer.add(memoryBuffer[i]);
-			}
-			
-			for (int i=memoryBuffer.length; i<reqNumBytes; i++)
-			{
-				MemoryByte mb = new MemoryByte();
-				mb.setReadable(false);
-				mb.setWritable(false);
-				mb.setEndianessKnown(false);
-				newBuffer.add(mb);
-			}
-			
-			memoryBuffer = newBuffer.toArray(new MemoryByte[newBuffer.size()]);
-			
+			MemoryBuffer newBuffer = new MemoryBuffer((int)reqNumBytes);
+			memoryBuffer.copyTo(0, newBuffer, 0, memoryBuffer.getLength());
+			memoryBuffer = newBuffer;
 		}
 		
 		// clear line cache
@@ -485,8 +441,16 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 		}
 	}
 
-	private void organizeLines(long numberOfLines, boolean updateDelta, int addressLength, MemoryByte[] memoryBuffer, String paddedString, String address, boolean manageDelta) 
+	private void organizeLines(long numberOfLines, boolean updateDelta, int addressLength, MemoryBuffer memoryBuffer, String paddedString, String address, boolean manageDelta) 
 	{
+		if (manageDelta)
+		{
+			// turn off both change and known bits to make sure that
+			// the change bits returned by debug adapters do not take
+			// any effect
+			memoryBuffer.clearFlags((byte)(MemoryByte.HISTORY_KNOWN | MemoryByte.CHANGED));
+		}
+		
 		for (int i = 0; i < numberOfLines; i++)
 		{   //chop the raw memory up 
 			String tmpAddress = address.toUpperCase();
@@ -498,43 +462,15 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 				}
 			}
 			int bytesPerLine = getTableRendering(fInput).getBytesPerLine();
-			MemoryByte[] memory = new MemoryByte[bytesPerLine];
+			MemoryByte[] memory = memoryBuffer.getMemoryBytes(i * bytesPerLine, bytesPerLine);
 			boolean isMonitored = true;
 			
-			// counter for memory, starts from 0 to number of bytes per line
-			int k = 0;
-			// j is the counter for memArray, memory returned by debug adapter
-			for (int j = i * bytesPerLine;
-				j < i * bytesPerLine + bytesPerLine;
-				j++)
+			if (!manageDelta)
 			{
-				
-				byte changeFlag = memoryBuffer[j].getFlags();
-				if (manageDelta)
+				// If a byte is marked as unknown, the line is not monitored
+				for (int j = i * bytesPerLine; j < i * bytesPerLine + bytesPerLine && isMonitored; j++)
 				{
-					// turn off both change and known bits to make sure that
-					// the change bits returned by debug adapters do not take
-					// any effect
-					
-					changeFlag |= MemoryByte.HISTORY_KNOWN;
-					changeFlag ^= MemoryByte.HISTORY_KNOWN;
-					
-					changeFlag |= MemoryByte.CHANGED;
-					changeFlag ^= MemoryByte.CHANGED;
-				}
-				
-				MemoryByte newByteObj = new MemoryByte(memoryBuffer[j].getValue(), changeFlag);
-				memory[k] =  newByteObj;
-				k++;
-				
-				
-				if (!manageDelta)
-				{
-					// If the byte is marked as unknown, the line is not monitored
-					if (!memoryBuffer[j].isHistoryKnown())
-					{
-						isMonitored = false;
-					}
+					isMonitored = memoryBuffer.hasFlags(j, MemoryByte.HISTORY_KNOWN);
 				}
 			}
 			
@@ -600,24 +536,12 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 	
 	/**
 	 * @param numberOfLines
-	 * @return an array of dummy MemoryByte
+	 * @return a buffer of dummy memory
 	 */
-	private MemoryByte[] makeDummyContent(long numberOfLines) {
-		MemoryByte[] memoryBuffer;
+	private MemoryBuffer makeDummyContent(long numberOfLines) {
 		// make up dummy memory, needed for recovery in case the debug adapter
 		// is capable of retrieving memory again
-
-		int numBytes = (int)(getTableRendering(fInput).getBytesPerLine() * numberOfLines);
-		memoryBuffer = new MemoryByte[numBytes];
-		
-		for (int i=0; i<memoryBuffer.length; i++){
-			memoryBuffer[i] = new MemoryByte();
-			memoryBuffer[i].setValue((byte)0);
-			memoryBuffer[i].setWritable(false);
-			memoryBuffer[i].setReadable(false);
-			memoryBuffer[i].setEndianessKnown(false);
-		}
-		return memoryBuffer;
+		return new MemoryBuffer((int)(getTableRendering(fInput).getBytesPerLine() * numberOfLines));
 	}
 
 	/* (non-Javadoc)
@@ -883,12 +807,12 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 		if (objs.length > 0)
 		{
 			TableRenderingLine[] renderingLines = lines.toArray(new TableRenderingLine[lines.size()]);
-			MemoryByte[] buffer = convertLinesToBytes(renderingLines);
+			MemoryBuffer buffer = MemoryBuffer.valueOf(convertLinesToBytes(renderingLines));
 			BigInteger lineAddress = new BigInteger(renderingLines[0].getAddress(), 16);
-			int numberOfLines = buffer.length / numBytesPerLine;
+			int numberOfLines = buffer.getLength() / numBytesPerLine;
 			boolean updateDelta = false;
 			int addressLength = getAddressSize(lineAddress) * IInternalDebugUIConstants.CHAR_PER_BYTE;
-			MemoryByte[] memoryBuffer = buffer;
+			MemoryBuffer memoryBuffer = buffer;
 			String address =renderingLines[0].getAddress();
 			String paddedString = DebugUITools.getPreferenceStore().getString(IDebugUIConstants.PREF_PADDED_STR);
 			
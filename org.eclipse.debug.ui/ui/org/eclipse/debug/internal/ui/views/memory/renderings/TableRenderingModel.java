@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,7 +25,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.model.IMemoryBlock;
 import org.eclipse.debug.core.model.IMemoryBlockExtension;
-import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.MemoryBuffer;
 import org.eclipse.debug.internal.ui.memory.provisional.AbstractAsyncTableRendering;
 import org.eclipse.debug.internal.ui.memory.provisional.MemoryViewPresentationContext;
 import org.eclipse.debug.internal.ui.viewers.AsynchronousTableViewer;
@@ -190,22 +190,8 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 				MemorySegment oldSegment = (MemorySegment) fCache.get(newSegment.getAddress());
 
 				if (oldSegment != null) {
-					if (oldSegment.getNumAddressableUnits() == newSegment.getNumAddressableUnits()) {
-						MemoryByte[] newBytes = newSegment.getBytes();
-						MemoryByte[] oldBytes = oldSegment.getBytes();
-
-						for (int i = 0; i < newBytes.length; i++) {
-							newBytes[i].setHistoryKnown(true);
-
-							if (newBytes[i].isReadable() != oldBytes[i].isReadable()) {
-								newBytes[i].setChanged(true);
-								continue;
-							}
-
-							if (newBytes[i].isReadable() && oldBytes[i].isReadable() && (newBytes[i].getValue() != oldBytes[i].getValue())) {
-								newBytes[i].setChanged(true);
-							}
-						}
+					if (oldSegment.getNumAddressableUnits() == newSegment.getNumAddressableUnits() && oldSegment.getNumBytes() == newSegment.getNumBytes()) {
+						MemoryBufferDiff.markChanges(oldSegment.getBuffer(), newSegment.getBuffer());
 					}
 				}
 			}
@@ -255,7 +241,7 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 			}
 		}
 
-		MemoryByte[] bytes = convertSegmentsToBytes(segments.toArray(new MemorySegment[0]));
+		MemoryBuffer bytes = convertSegmentsToBytes(segments.toArray(new MemorySegment[0]));
 
 		int bytesPerLine = rendering.getBytesPerLine();
 		int numAddressableUnitPerLine = rendering.getAddressableUnitPerLine();
@@ -293,7 +279,7 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 			}
 		}
 
-		MemoryByte[] bytes = convertSegmentsToBytes(segments.toArray(new MemorySegment[segments.size()]));
+		MemoryBuffer bytes = convertSegmentsToBytes(segments.toArray(new MemorySegment[segments.size()]));
 
 		int bytesPerLine = rendering.getBytesPerLine();
 		int numAddressableUnitPerLine = rendering.getAddressableUnitPerLine();
@@ -312,24 +298,28 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 		add(newSegments);
 	}
 
-	private MemoryByte[] convertSegmentsToBytes(MemorySegment[] segments) {
-		ArrayList<MemoryByte> toReturn = new ArrayList<MemoryByte>();
+	private MemoryBuffer convertSegmentsToBytes(MemorySegment[] segments) {
+		int length = 0;
 		for (int i = 0; i < segments.length; i++) {
-			MemoryByte[] temp = segments[i].getBytes();
-			for (int j = 0; j < temp.length; j++) {
-				toReturn.add(temp[j]);
-			}
+			length += segments[i].getNumBytes();
+		}
+		MemoryBuffer toReturn = new MemoryBuffer(length);
+		int idx = 0;
+		for (int i = 0; i < segments.length; i++) {
+			MemoryBuffer temp = segments[i].getBuffer();
+			temp.copyTo(0, toReturn, idx, temp.getLength());
+			idx += temp.getLength();
 		}
-		return toReturn.toArray(new MemoryByte[0]);
+		return toReturn;
 	}
 
-	private MemorySegment[] convertMemoryBytesToSegments(BigInteger address, MemoryByte[] bytes, int bytesPerLine, int numAddressableUnitPerLine, int addressableSize, boolean alignAddress) {
+	private MemorySegment[] convertMemoryBytesToSegments(BigInteger address, MemoryBuffer bytes, int bytesPerLine, int numAddressableUnitPerLine, int addressableSize, boolean alignAddress) {
 
 		Assert.isTrue(bytesPerLine > 0);
 		Assert.isTrue(numAddressableUnitPerLine > 0);
 
 		ArrayList<MemorySegment> segments = new ArrayList<MemorySegment>();
-		MemoryByte[] temp = bytes;
+		int numBytesBefore = 0;
 
 		if (alignAddress) {
 			BigInteger alignedAddress = MemoryViewUtil.alignToBoundary(address, numAddressableUnitPerLine);
@@ -343,42 +333,26 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 				// do not want to have negative addresses
 				if (tempAddress.compareTo(BigInteger.ZERO) >= 0) {
 					address = alignedAddress;
-					int numBytesNeeded = unitsToSetBack.intValue() * addressableSize;
-					temp = new MemoryByte[bytes.length + numBytesNeeded];
-
-					for (int i = 0; i < numBytesNeeded; i++) {
-						temp[i] = new MemoryByte();
-						temp[i].setReadable(false);
-						temp[i].setWritable(false);
-						temp[i].setEndianessKnown(false);
-					}
-
-					System.arraycopy(bytes, 0, temp, numBytesNeeded, bytes.length);
-					bytes = temp;
+					numBytesBefore = unitsToSetBack.intValue() * addressableSize;
 				}
 			}
 		}
 
-		if (bytes.length % bytesPerLine != 0) {
-			int numBytesNeeded = bytesPerLine - (bytes.length % bytesPerLine);
-			temp = new MemoryByte[bytes.length + numBytesNeeded];
-			System.arraycopy(bytes, 0, temp, 0, bytes.length);
+		int numBytes = numBytesBefore + bytes.getLength();
+		if (numBytes % bytesPerLine != 0) {
+			numBytes += bytesPerLine - (numBytes % bytesPerLine);
+		}
 
-			for (int i = bytes.length; i < temp.length; i++) {
-				temp[i] = new MemoryByte();
-				temp[i].setReadable(false);
-				temp[i].setWritable(false);
-				temp[i].setEndianessKnown(false);
-			}
+		// prepended and appended bytes are not readable
+		if (numBytes != bytes.getLength()) {
+			MemoryBuffer temp = new MemoryBuffer(numBytes);
+			bytes.copyTo(0, temp, numBytesBefore, bytes.getLength());
 			bytes = temp;
 		}
 
 		int idx = 0;
-		while (idx < bytes.length && (idx + bytesPerLine) <= bytes.length) {
-			MemoryByte[] newBytes = new MemoryByte[bytesPerLine];
-			System.arraycopy(bytes, idx, newBytes, 0, bytesPerLine);
-
-			MemorySegment segment = new MemorySegment(address, newBytes, numAddressableUnitPerLine);
+		while (idx < bytes.getLength() && (idx + bytesPerLine) <= bytes.getLength()) {
+			MemorySegment segment = new MemorySegment(address, bytes.slice(idx, bytesPerLine), numAddressableUnitPerLine);
 			segments.add(segment);
 
 			address = address.add(BigInteger.valueOf(numAddressableUnitPerLine));
@@ -397,16 +371,70 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 
 		if (computeChanges()) {
 			Object[] newContent = compare(kids.toArray());
+			if (updateChangedLines(parentNode, newContent)) {
+				return;
+			}
 			ArrayList<Object> newList = new ArrayList<Object>();
 			for (int i = 0; i < newContent.length; i++) {
 				newList.add(newContent[i]);
 			}
 			super.setChildren(parentNode, newList);
 		} else {
+			if (updateChangedLines(parentNode, kids.toArray())) {
+				return;
+			}
 			super.setChildren(parentNode, kids);
 		}
 	}
 
+	/**
+	 * Replaces the lines displayed with the given lines when both cover the
+	 * same addresses, so that only the lines whose bytes or attributes changed
+	 * are refreshed.
+	 * 
+	 * @param parentNode the parent of the lines
+	 * @param newContent the new lines
+	 * @return whether the lines were replaced, <code>false</code> if all
+	 *         children of the parent must be set
+	 */
+	private boolean updateChangedLines(ModelNode parentNode, Object[] newContent) {
+		if (getViewer().getSorter() != null) {
+			return false;
+		}
+		Object[] children = filter(parentNode.getElement(), newContent);
+		if (children.length != newContent.length) {
+			return false;
+		}
+
+		ArrayList<ModelNode> changedNodes = new ArrayList<ModelNode>();
+		ArrayList<Object> changedLines = new ArrayList<Object>();
+		synchronized (this) {
+			ModelNode[] nodes = parentNode.getChildrenNodes();
+			if (nodes == null || nodes.length != children.length) {
+				return false;
+			}
+			for (int i = 0; i < children.length; i++) {
+				Object element = nodes[i].getElement();
+				if (!(element instanceof MemorySegment) || !(children[i] instanceof MemorySegment)) {
+					return false;
+				}
+				MemorySegment oldSegment = (MemorySegment) element;
+				MemorySegment newSegment = (MemorySegment) children[i];
+				if (!oldSegment.getAddress().equals(newSegment.getAddress()) || oldSegment.getNumAddressableUnits() != newSegment.getNumAddressableUnits()) {
+					return false;
+				}
+				if (!MemoryBufferDiff.isIdentical(oldSegment.getBuffer(), newSegment.getBuffer())) {
+					changedNodes.add(nodes[i]);
+					changedLines.add(newSegment);
+				}
+			}
+		}
+		if (!changedNodes.isEmpty()) {
+			replaceElements(changedNodes.toArray(new ModelNode[changedNodes.size()]), changedLines.toArray());
+		}
+		return true;
+	}
+
 	private boolean computeChanges() {
 		if (isEmpty()) {
 			return false;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2005 IBM Corporation and others.
+ * Copyright (c) 2004, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -29,43 +29,31 @@ public class UnsignedIntegerRendering extends AbstractIntegerRendering {
 		super(renderingId);
 	}
 
-	private String convertToString(byte[] byteArray, int columnSize, int endianess)
+	private String convertToString(MemoryByte[] data, int offset, int columnSize, int endianess)
 	{
-		String ret;
-		long result = 0;
-		
-		if (columnSize == 1)
+		// columns of up to 8 bytes are read and formatted without BigInteger
+		if (columnSize <= 8)
 		{
-			result = byteArray[0];
-			result &= 0xff;
-		}
-		else if (columnSize == 2)
-		{	
-			result = RenderingsUtil.convertByteArrayToInt(byteArray, endianess);
+			long value = RenderingsUtil.convertMemoryBytesToLong(data, offset, columnSize, endianess, false);
+			return RenderingsUtil.convertLongToDecimalString(value, true);
 		}
-		else if (columnSize == 4)
-		{
-			result = RenderingsUtil.convertByteArrayToLong(byteArray, endianess);
-		}
-		else if (columnSize == 8)
+		
+		byte[] byteArray = new byte[columnSize];
+		for (int i = 0; i < columnSize; i++)
 		{
-			BigInteger value = RenderingsUtil.convertByteArrayToUnsignedLong(byteArray, endianess);
-			return value.toString();				
+			byteArray[i] = data[offset + i].getValue();
 		}
-		else if (columnSize == 16)
+		
+		BigInteger bigRet;
+		if (columnSize == 16)
 		{
-			BigInteger bigRet = RenderingsUtil.convertByteArrayToUnsignedBigInt(byteArray, endianess);
-			return bigRet.toString();
+			bigRet = RenderingsUtil.convertByteArrayToUnsignedBigInt(byteArray, endianess);
 		}
 		else
 		{
-			BigInteger bigRet = RenderingsUtil.convertByteArrayToUnsignedBigInt(byteArray, endianess, columnSize);
-			return bigRet.toString();			
+			bigRet = RenderingsUtil.convertByteArrayToUnsignedBigInt(byteArray, endianess, columnSize);
 		}
-
-		ret = new Long(result).toString();
-		
-		return ret;
+		return bigRet.toString();
 	}	
 	
 	private byte[] convertToBytes(int colSize, String newValue, int endianess)
@@ -146,29 +134,22 @@ public class UnsignedIntegerRendering extends AbstractIntegerRendering {
 			return strBuf.toString();
 		}
 		
-		int columnSize = getBytesPerColumn();
 		int endianess = getDisplayEndianess();
 		if (endianess == RenderingsUtil.ENDIANESS_UNKNOWN)
 			endianess = getBytesEndianess(data);
 		
-		byte[] byteArray = new byte[data.length];
-		for (int i=0; i<byteArray.length;i ++)
-		{
-			byteArray[i] = data[i].getValue();
-		}
-		
 		// if endianess is unknown, do not render, just return padded string		
 		if (RenderingsUtil.ENDIANESS_UNKNOWN == endianess)
 		{
 			StringBuffer strBuf = new StringBuffer();
-			for (int i=0; i<byteArray.length; i++)
+			for (int i=0; i<data.length; i++)
 			{
 				strBuf.append(paddedStr);
 			}
 			return strBuf.toString();
 		}
 		
-		return convertToString(byteArray, columnSize, endianess);
+		return convertToString(data, 0, data.length, endianess);
 	}
 
 	/* (non-Javadoc)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2011 IBM Corporation and others.
+ * Copyright (c) 2004, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -33,6 +33,7 @@ import org.eclipse.debug.internal.ui.views.memory.renderings.CopyTableRenderingT
 import org.eclipse.debug.internal.ui.views.memory.renderings.FormatTableRenderingAction;
 import org.eclipse.debug.internal.ui.views.memory.renderings.FormatTableRenderingDialog;
 import org.eclipse.debug.internal.ui.views.memory.renderings.GoToAddressAction;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemoryBlockCache;
 import org.eclipse.debug.internal.ui.views.memory.renderings.PrintTableRenderingAction;
 import org.eclipse.debug.internal.ui.views.memory.renderings.ReformatAction;
 import org.eclipse.debug.internal.ui.views.memory.renderings.ResetToBaseAddressAction;
@@ -2168,6 +2169,9 @@ public abstract class AbstractTableRendering extends AbstractBaseTableRendering
 		IMemoryBlock mem = getMemoryBlock();
 		BigInteger address;
 		
+		// retrieve the content from the memory block again
+		MemoryBlockCache.invalidate(mem);
+		
 		if (mem instanceof IMemoryBlockExtension)
 		{
 			try {
@@ -227,6 +227,38 @@ public class IOConsole extends TextConsole {
 		partitioner.setWaterMarks(low, high);
 	}
 
+	/**
+	 * Returns the number of characters written to this console that may wait
+	 * to be appended to its document before threads writing to the console
+	 * are blocked.
+	 *
+	 * @return the number of pending characters at which writers are blocked
+	 * @since 3.6
+	 */
+	public int getBackPressureLimit() {
+		return partitioner.getBackPressureLimit();
+	}
+
+	/**
+	 * Sets the number of characters written to this console that may wait to
+	 * be appended to its document. Once more characters are waiting, threads
+	 * writing to this console other than the UI thread are blocked until the
+	 * document catches up, which bounds the memory used when a process writes
+	 * faster than the console displays. The UI thread is never blocked, it
+	 * appends the pending characters itself.
+	 *
+	 * @param limit the number of pending characters at which writers are
+	 *  blocked
+	 * @exception IllegalArgumentException if limit is not positive
+	 * @since 3.6
+	 */
+	public void setBackPressureLimit(int limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Back pressure limit must be positive"); //$NON-NLS-1$
+		}
+		partitioner.setBackPressureLimit(limit);
+	}
+
     /**
      * Check if all streams connected to this console are closed. If so,
      * notify the partitioner that this console is finished.
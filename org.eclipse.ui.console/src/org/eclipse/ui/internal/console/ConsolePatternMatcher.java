@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -62,101 +62,36 @@ public class ConsolePatternMatcher implements IDocumentListener {
         @Override
 		protected IStatus run(IProgressMonitor monitor) {
 			IDocument doc = fConsole.getDocument();
-			String text = null;
-			int prevBaseOffset = -1;
 			if (doc != null && !monitor.isCanceled()) {
 				int endOfSearch = doc.getLength();
 				int indexOfLastChar = endOfSearch;
 				if (indexOfLastChar > 0) {
 					indexOfLastChar--;
 				}
-				int lastLineToSearch = 0;
 				int offsetOfLastLineToSearch = 0;
 				try {
-					lastLineToSearch = doc.getLineOfOffset(indexOfLastChar);
-					offsetOfLastLineToSearch = doc.getLineOffset(lastLineToSearch);
+					offsetOfLastLineToSearch = doc.getLineOffset(doc.getLineOfOffset(indexOfLastChar));
 				} catch (BadLocationException e) {
 					// perhaps the buffer was re-set
 					return Status.OK_STATUS;
 				}
-				Object[] patterns = null;
+				CompiledPatternMatchListener[] patterns = null;
 				synchronized (fPatterns) {
-					patterns = fPatterns.toArray();
+					patterns = fPatterns.toArray(new CompiledPatternMatchListener[fPatterns.size()]);
 				}
+				// fetch the text once, from the earliest offset any listener
+				// still has to search
+				int baseOffset = endOfSearch;
 				for (int i = 0; i < patterns.length; i++) {
-					if (monitor.isCanceled()) {
-						break;
-					}
-					CompiledPatternMatchListener notifier = (CompiledPatternMatchListener) patterns[i];
-					int baseOffset = notifier.end;
-					int lengthToSearch = endOfSearch - baseOffset;
-					if (lengthToSearch > 0) {
-						try {
-							if (prevBaseOffset != baseOffset) {
-								// reuse the text string if possible
-								text = doc.get(baseOffset, lengthToSearch);
-							}
-							if(text == null) {
-								continue;
-							}
-							Matcher reg = notifier.pattern.matcher(text);
-							Matcher quick = null;
-							if (notifier.qualifier != null) {
-								quick = notifier.qualifier.matcher(text);
-							}
-							int startOfNextSearch = 0;
-							int endOfLastMatch = -1;
-							int lineOfLastMatch = -1;
-							while ((startOfNextSearch < lengthToSearch) && !monitor.isCanceled()) {
-								if (quick != null) {
-									if (quick.find(startOfNextSearch)) {
-										// start searching on the beginning
-										// of the line where the potential
-										// match was found, or after the
-										// last match on the same line
-										int matchLine = doc.getLineOfOffset(baseOffset + quick.start());
-										if (lineOfLastMatch == matchLine) {
-											startOfNextSearch = endOfLastMatch;
-										} else {
-											startOfNextSearch = doc.getLineOffset(matchLine) - baseOffset;
-										}
-									} else {
-										startOfNextSearch = lengthToSearch;
-									}
-								}
-								if (startOfNextSearch < 0) {
-									startOfNextSearch = 0;
-								}
-								if (startOfNextSearch < lengthToSearch) {
-									if (reg.find(startOfNextSearch)) {
-										endOfLastMatch = reg.end();
-										lineOfLastMatch = doc.getLineOfOffset(baseOffset + endOfLastMatch - 1);
-										int regStart = reg.start();
-										IPatternMatchListener listener = notifier.listener;
-										if (listener != null && !monitor.isCanceled()) {
-											listener.matchFound(new PatternMatchEvent(fConsole, baseOffset + regStart, endOfLastMatch - regStart));
-										}
-										startOfNextSearch = endOfLastMatch;
-									} else {
-										startOfNextSearch = lengthToSearch;
-									}
-								}
-							}
-							// update start of next search to the last line
-							// searched
-							// or the end of the last match if it was on the
-							// line that
-							// was last searched
-							if (lastLineToSearch == lineOfLastMatch) {
-								notifier.end = baseOffset + endOfLastMatch;
-							} else {
-								notifier.end = offsetOfLastLineToSearch;
-							}
-						} catch (BadLocationException e) {
-							ConsolePlugin.log(e);
-						}
+					baseOffset = Math.min(baseOffset, patterns[i].end);
+				}
+				if (baseOffset < endOfSearch) {
+					try {
+						String text = doc.get(baseOffset, endOfSearch - baseOffset);
+						match(text, baseOffset, offsetOfLastLineToSearch, patterns, monitor);
+					} catch (BadLocationException e) {
+						ConsolePlugin.log(e);
 					}
-					prevBaseOffset = baseOffset;
 				}
 			}
 
@@ -176,28 +111,287 @@ public class ConsolePatternMatcher implements IDocumentListener {
             return family == fConsole;
         }
 
-
+		/**
+		 * Searches the given text for matches of all listeners in a single
+		 * pass. The next position of interest of each listener is either its
+		 * next pending match or the next occurrence of its line qualifier. The
+		 * listener with the earliest such position is serviced next, within
+		 * the line containing that position, so matches are reported in
+		 * document order and each line is visited at most once.
+		 *
+		 * @param text text to search
+		 * @param baseOffset offset of the text in the document
+		 * @param offsetOfLastLine document offset of the last line searched
+		 * @param patterns listeners to match
+		 * @param monitor progress monitor
+		 */
+		private void match(String text, int baseOffset, int offsetOfLastLine, CompiledPatternMatchListener[] patterns, IProgressMonitor monitor) {
+			ArrayList<MatchScan> scans = new ArrayList<MatchScan>(patterns.length);
+			for (int i = 0; i < patterns.length; i++) {
+				if (patterns[i].end < baseOffset + text.length()) {
+					scans.add(new MatchScan(patterns[i], text, baseOffset));
+				}
+			}
+			int lineStart = 0;
+			int lineEnd = nextLineOffset(text, 0);
+			while (!monitor.isCanceled()) {
+				MatchScan next = null;
+				int position = Integer.MAX_VALUE;
+				for (MatchScan scan : scans) {
+					int candidate = scan.candidate();
+					if (candidate >= 0 && candidate < position) {
+						next = scan;
+						position = candidate;
+					}
+				}
+				if (next == null) {
+					break;
+				}
+				while (lineEnd <= position && lineEnd < text.length()) {
+					lineStart = lineEnd;
+					lineEnd = nextLineOffset(text, lineStart);
+				}
+				next.process(lineStart);
+			}
+			for (MatchScan scan : scans) {
+				scan.finish(offsetOfLastLine, monitor.isCanceled());
+			}
+		}
     }
 
+	/**
+	 * Returns the offset of the line following the line starting at the given
+	 * offset, or the length of the text if it is the last line.
+	 */
+	static int nextLineOffset(String text, int offset) {
+		int length = text.length();
+		for (int i = offset; i < length; i++) {
+			char c = text.charAt(i);
+			if (c == '\n') {
+				return i + 1;
+			}
+			if (c == '\r') {
+				if (i + 1 < length && text.charAt(i + 1) == '\n') {
+					return i + 2;
+				}
+				return i + 1;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Returns the literal string matched by the given regular expression, or
+	 * <code>null</code> if the expression matches anything other than a
+	 * single literal string.
+	 *
+	 * @param regex regular expression
+	 * @param flags flags the expression is compiled with
+	 * @return literal string matched by the expression or <code>null</code>
+	 */
+	static String getLiteral(String regex, int flags) {
+		if ((flags & (Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+			return null;
+		}
+		if ((flags & Pattern.LITERAL) != 0) {
+			return regex.length() > 0 ? regex : null;
+		}
+		StringBuffer literal = new StringBuffer(regex.length());
+		int i = 0;
+		while (i < regex.length()) {
+			char c = regex.charAt(i++);
+			if (c == '\\') {
+				if (i == regex.length()) {
+					return null;
+				}
+				char escaped = regex.charAt(i++);
+				if (escaped == 'Q') {
+					int quoteEnd = regex.indexOf("\\E", i); //$NON-NLS-1$
+					if (quoteEnd < 0) {
+						quoteEnd = regex.length();
+					}
+					literal.append(regex.substring(i, quoteEnd));
+					i = Math.min(regex.length(), quoteEnd + 2);
+				} else if (Character.isLetterOrDigit(escaped)) {
+					// character class, back reference or boundary
+					return null;
+				} else {
+					literal.append(escaped);
+				}
+			} else if ("[](){}.*+?^$|".indexOf(c) >= 0) { //$NON-NLS-1$
+				return null;
+			} else {
+				literal.append(c);
+			}
+		}
+		return literal.length() > 0 ? literal.toString() : null;
+	}
+
+	/**
+	 * State of the search for a single listener during one run of the match
+	 * job. Positions are relative to the text being searched.
+	 */
+	private class MatchScan {
+		private final CompiledPatternMatchListener fNotifier;
+		private final String fText;
+		private final int fBaseOffset;
+		private final Matcher fMatcher;
+		private final Matcher fQualifier;
+
+		/**
+		 * Position from which to continue the search
+		 */
+		private int fPosition;
+
+		/**
+		 * Position of the next qualifier occurrence at or after
+		 * <code>fPosition</code>, or -1 if it has to be searched for
+		 */
+		private int fQualifierHit = -1;
+
+		/**
+		 * Whether <code>fMatcher</code> holds a match not yet reported
+		 */
+		private boolean fPending = false;
+
+		private int fEndOfLastMatch = -1;
+		private boolean fDone = false;
+
+		MatchScan(CompiledPatternMatchListener notifier, String text, int baseOffset) {
+			fNotifier = notifier;
+			fText = text;
+			fBaseOffset = baseOffset;
+			fPosition = notifier.end - baseOffset;
+			fMatcher = notifier.pattern.matcher(text);
+			if (notifier.literal == null && notifier.qualifier != null) {
+				fQualifier = notifier.qualifier.matcher(text);
+			} else {
+				fQualifier = null;
+			}
+		}
+
+		/**
+		 * Returns the next position at which this listener needs to be
+		 * serviced, or -1 if there are no further matches.
+		 */
+		int candidate() {
+			if (fDone) {
+				return -1;
+			}
+			if (fPosition > fText.length()) {
+				fDone = true;
+				return -1;
+			}
+			long start = System.nanoTime();
+			int candidate;
+			if (fNotifier.literal == null && fNotifier.qualifier == null) {
+				if (!fPending) {
+					fPending = fMatcher.find(fPosition);
+				}
+				candidate = fPending ? fMatcher.start() : -1;
+			} else {
+				if (fQualifierHit < fPosition) {
+					if (fNotifier.literal != null) {
+						fQualifierHit = fText.indexOf(fNotifier.literal, fPosition);
+					} else {
+						fQualifierHit = fQualifier.find(fPosition) ? fQualifier.start() : -1;
+					}
+				}
+				candidate = fQualifierHit;
+			}
+			fNotifier.statistics.fMatchTime += System.nanoTime() - start;
+			if (candidate < 0) {
+				fDone = true;
+			}
+			return candidate;
+		}
+
+		/**
+		 * Reports the next match, searching from the start of the qualified
+		 * line when this listener has a line qualifier.
+		 *
+		 * @param lineStart start of the line containing the candidate position
+		 */
+		void process(int lineStart) {
+			if (!fPending) {
+				// start searching on the beginning of the line where the
+				// potential match was found, or after the last match on the
+				// same line
+				long start = System.nanoTime();
+				fNotifier.statistics.fQualifiedLines++;
+				fPending = fMatcher.find(Math.max(fPosition, lineStart));
+				fNotifier.statistics.fMatchTime += System.nanoTime() - start;
+				if (!fPending) {
+					fDone = true;
+					return;
+				}
+			}
+			fPending = false;
+			int regStart = fMatcher.start();
+			fEndOfLastMatch = fMatcher.end();
+			// never search the same position twice for an empty match
+			fPosition = fEndOfLastMatch > regStart ? fEndOfLastMatch : fEndOfLastMatch + 1;
+			IPatternMatchListener listener = fNotifier.listener;
+			if (listener != null) {
+				long start = System.nanoTime();
+				listener.matchFound(new PatternMatchEvent(fConsole, fBaseOffset + regStart, fEndOfLastMatch - regStart));
+				fNotifier.statistics.fNotifyTime += System.nanoTime() - start;
+				fNotifier.statistics.fMatches++;
+			}
+		}
+
+		/**
+		 * Updates the offset from which the next run of the match job will
+		 * search for this listener.
+		 *
+		 * @param offsetOfLastLine document offset of the last line searched
+		 * @param canceled whether the search was canceled
+		 */
+		void finish(int offsetOfLastLine, boolean canceled) {
+			int end;
+			if (canceled) {
+				// resume after the last position searched
+				end = fBaseOffset + Math.min(fPosition, fText.length());
+			} else if (fEndOfLastMatch >= 0 && fBaseOffset + fEndOfLastMatch > offsetOfLastLine) {
+				// the last match ended on the line that was last searched
+				end = fBaseOffset + fEndOfLastMatch;
+			} else {
+				end = offsetOfLastLine;
+			}
+			// never search text that has already been searched again
+			fNotifier.end = Math.max(fNotifier.end, end);
+		}
+	}
+
     private class CompiledPatternMatchListener {
         Pattern pattern;
 
         Pattern qualifier;
 
+        /**
+         * Literal string equivalent to the qualifier or <code>null</code>
+         */
+        String literal;
+
         IPatternMatchListener listener;
 
+        PatternMatchStatistics statistics;
+
         int end = 0;
 
-        CompiledPatternMatchListener(Pattern pattern, Pattern qualifier, IPatternMatchListener matchListener) {
+        CompiledPatternMatchListener(Pattern pattern, Pattern qualifier, String literal, IPatternMatchListener matchListener) {
             this.pattern = pattern;
             this.listener = matchListener;
             this.qualifier = qualifier;
+            this.literal = literal;
+            this.statistics = new PatternMatchStatistics(matchListener, pattern.pattern(), literal != null);
         }
 
         public void dispose() {
             listener.disconnect();
             pattern = null;
             qualifier = null;
+            literal = null;
             listener = null;
         }
     }
@@ -224,10 +418,12 @@ public class ConsolePatternMatcher implements IDocumentListener {
             Pattern pattern = Pattern.compile(matchListener.getPattern(), matchListener.getCompilerFlags());
             String qualifier = matchListener.getLineQualifier();
             Pattern qPattern = null;
+            String literal = null;
             if (qualifier != null) {
                 qPattern = Pattern.compile(qualifier, matchListener.getCompilerFlags());
+                literal = getLiteral(qualifier, matchListener.getCompilerFlags());
             }
-            CompiledPatternMatchListener notifier = new CompiledPatternMatchListener(pattern, qPattern, matchListener);
+            CompiledPatternMatchListener notifier = new CompiledPatternMatchListener(pattern, qPattern, literal, matchListener);
             fPatterns.add(notifier);
             matchListener.connect(fConsole);
             fMatchJob.schedule();
@@ -253,6 +449,22 @@ public class ConsolePatternMatcher implements IDocumentListener {
         }
     }
 
+    /**
+     * Returns a snapshot of the time spent matching on behalf of each
+     * registered pattern match listener, for diagnostic purposes.
+     *
+     * @return statistics for each registered pattern match listener
+     */
+    public PatternMatchStatistics[] getStatistics() {
+        synchronized (fPatterns) {
+            PatternMatchStatistics[] statistics = new PatternMatchStatistics[fPatterns.size()];
+            for (int i = 0; i < statistics.length; i++) {
+                statistics[i] = new PatternMatchStatistics(fPatterns.get(i).statistics);
+            }
+            return statistics;
+        }
+    }
+
     public void disconnect() {
         fMatchJob.cancel();
         synchronized (fPatterns) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -44,13 +44,26 @@ import org.eclipse.ui.progress.WorkbenchJob;
  *
  */
 public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocumentPartitionerExtension {
-	private PendingPartition consoleClosedPartition;
+	/**
+	 * Default maximum number of characters appended to the document by the
+	 * update job in one run.
+	 */
+	public static final int DEFAULT_SLICE_SIZE = 64 * 1024;
+	/**
+	 * Default number of pending characters at which threads writing to the
+	 * console are blocked until the update job catches up.
+	 */
+	public static final int DEFAULT_BACK_PRESSURE_LIMIT = 1024 * 1024;
+
 	private IDocument document;
 	private ArrayList<IOConsolePartition> partitions;
 	/**
-	 * Blocks of data that have not yet been appended to the document.
+	 * Slices of data that have not yet been appended to the document. Text is
+	 * collected into size-capped slices by the threads writing to the
+	 * console, so the update job only needs to append one pre-built slice to
+	 * the document each time it runs.
 	 */
-	private ArrayList<PendingPartition> pendingPartitions;
+	private ArrayList<PendingSlice> pendingSlices;
 	/**
 	 * A list of PendingPartitions to be appended by the updateJob
 	 */
@@ -101,6 +114,10 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 
     private int fBuffer;
 
+    private int sliceSize = DEFAULT_SLICE_SIZE;
+
+    private int backPressureLimit = DEFAULT_BACK_PRESSURE_LIMIT;
+
 	public IOConsolePartitioner(IOConsoleInputStream inputStream, IOConsole console) {
 		this.inputStream = inputStream;
 		this.console = console;
@@ -121,7 +138,7 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 		document.setDocumentPartitioner(this);
 		lld = document.getLegalLineDelimiters();
 		partitions = new ArrayList<IOConsolePartition>();
-		pendingPartitions = new ArrayList<PendingPartition>();
+		pendingSlices = new ArrayList<PendingSlice>();
 		inputPartitions = new ArrayList<IOConsolePartition>();
 		queueJob = new QueueProcessingJob();
 		queueJob.setSystem(true);
@@ -138,6 +155,32 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 	    return lowWaterMark;
 	}
 
+	/**
+	 * Sets the number of pending characters at which threads writing to the
+	 * console block until the update job has appended more text to the
+	 * document. The update job appends at most that many characters each time
+	 * it runs in the UI thread.
+	 *
+	 * @param limit number of pending characters at which writers block
+	 */
+	public void setBackPressureLimit(int limit) {
+		synchronized (pendingSlices) {
+			backPressureLimit = Math.max(1, limit);
+			sliceSize = Math.min(DEFAULT_SLICE_SIZE, backPressureLimit);
+		}
+	}
+
+	/**
+	 * Returns the number of pending characters at which threads writing to
+	 * the console block until the update job has appended more text to the
+	 * document.
+	 *
+	 * @return number of pending characters at which writers block
+	 */
+	public int getBackPressureLimit() {
+		return backPressureLimit;
+	}
+
 	public void setWaterMarks(int low, int high) {
 		lowWaterMark = low;
 		highWaterMark = high;
@@ -153,9 +196,10 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 	 * Notification from the console that all of its streams have been closed.
 	 */
     public void streamsClosed() {
-        consoleClosedPartition = new PendingPartition(null, null);
-        synchronized (pendingPartitions) {
-            pendingPartitions.add(consoleClosedPartition);
+        synchronized (pendingSlices) {
+            PendingSlice slice = new PendingSlice();
+            slice.closed = true;
+            pendingSlices.add(slice);
         }
         queueJob.schedule(); //ensure that all pending partitions are processed.
     }
@@ -219,61 +263,47 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 	@Override
 	public ITypedRegion[] computePartitioning(int offset, int length) {
 		int rangeEnd = offset + length;
-		int left= 0;
-		int right= partitions.size() - 1;
-		int mid= 0;
-		IOConsolePartition position= null;
-
-		if (left == right) {
-		    return new IOConsolePartition[]{partitions.get(0)};
-		}
-		while (left < right) {
-
-			mid= (left + right) / 2;
-
-			position= partitions.get(mid);
-			if (rangeEnd < position.getOffset()) {
-				if (left == mid) {
-					right= left;
-				} else {
-					right= mid -1;
-				}
-			} else if (offset > (position.getOffset() + position.getLength() - 1)) {
-				if (right == mid) {
-					left= right;
-				} else {
-					left= mid  +1;
-				}
-			} else {
-				left= right= mid;
-			}
-		}
-
-
 		List<IOConsolePartition> list = new ArrayList<IOConsolePartition>();
-		int index = left - 1;
-		if (index >= 0) {
-		    position= partitions.get(index);
-			while (index >= 0 && (position.getOffset() + position.getLength()) > offset) {
-				index--;
-				if (index >= 0) {
-					position= partitions.get(index);
-				}
-			}
+		int size = partitions.size();
+		int index = findPartitionIndex(offset);
+		if (index == size && size > 0) {
+			// the range starts at or beyond the end of the document, answer the last partition
+			index = size - 1;
 		}
-		index++;
-		position= partitions.get(index);
-		while (index < partitions.size() && (position.getOffset() < rangeEnd)) {
+		while (index < size) {
+			IOConsolePartition position = partitions.get(index);
+			if (position.getOffset() >= rangeEnd && !list.isEmpty()) {
+				break;
+			}
 			list.add(position);
 			index++;
-			if (index < partitions.size()) {
-				position= partitions.get(index);
-			}
 		}
-
 		return list.toArray(new IOConsolePartition[list.size()]);
 	}
 
+	/**
+	 * Returns the index of the first partition that ends after the given
+	 * offset, or the number of partitions if there is no such partition.
+	 * Partitions are contiguous and ordered by offset, so their end offsets
+	 * are ordered as well and the partition can be found with a binary search.
+	 *
+	 * @param offset document offset
+	 * @return index of the first partition ending after the offset
+	 */
+	private int findPartitionIndex(int offset) {
+		int low = 0;
+		int high = partitions.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			IOConsolePartition partition = partitions.get(mid);
+			if (partition.getOffset() + partition.getLength() > offset) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+		return low;
+	}
 
 	/*
 	 *  (non-Javadoc)
@@ -281,11 +311,10 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 	 */
 	@Override
 	public ITypedRegion getPartition(int offset) {
-		for (int i = 0; i < partitions.size(); i++) {
-			ITypedRegion partition = partitions.get(i);
-			int start = partition.getOffset();
-			int end = start + partition.getLength();
-			if (offset >= start && offset < end) {
+		int index = findPartitionIndex(offset);
+		if (index < partitions.size()) {
+			ITypedRegion partition = partitions.get(index);
+			if (offset >= partition.getOffset()) {
 				return partition;
 			}
 		}
@@ -355,11 +384,7 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 			synchronized(partitions) {
 				if (updatePartitions != null) {
 					for (PendingPartition pp : updatePartitions) {
-						if (pp == consoleClosedPartition) {
-				            continue;
-				        }
-
-				        int ppLen = pp.text.length();
+				        int ppLen = pp.length;
 				        if (lastPartition != null && lastPartition.getStream() == pp.stream) {
 				            int len = lastPartition.getLength();
 				            lastPartition.setLength(len + ppLen);
@@ -452,7 +477,7 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 	}
 
 	/**
-	 * A stream has been appended, add to pendingPartions list and schedule updateJob.
+	 * A stream has been appended, add to the pending slices and schedule updateJob.
 	 * updateJob is scheduled with a slight delay, this allows the console to run the job
 	 * less frequently and update the document with a greater amount of data each time
 	 * the job is run
@@ -463,12 +488,21 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
         if (document == null) {
             throw new IOException("Document is closed"); //$NON-NLS-1$
         }
-		synchronized(pendingPartitions) {
-			PendingPartition last = pendingPartitions.size() > 0 ? pendingPartitions.get(pendingPartitions.size()-1) : null;
-			if (last != null && last.stream == stream) {
-				last.append(s);
-			} else {
-				pendingPartitions.add(new PendingPartition(stream, s));
+		synchronized(pendingSlices) {
+			boolean added = false;
+			int offset = 0;
+			while (offset < s.length()) {
+				PendingSlice slice = pendingSlices.size() > 0 ? pendingSlices.get(pendingSlices.size() - 1) : null;
+				if (slice == null || slice.closed || slice.text.length() >= sliceSize) {
+					slice = new PendingSlice();
+					pendingSlices.add(slice);
+				}
+				int count = Math.min(s.length() - offset, sliceSize - slice.text.length());
+				added |= slice.append(stream, s, offset, offset + count);
+				offset += count;
+			}
+			fBuffer += s.length();
+			if (added) {
                 if (fBuffer > 1000) {
                     queueJob.schedule();
                 } else {
@@ -476,10 +510,10 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
                 }
 			}
 
-            if (fBuffer > 160000) {
+            if (fBuffer > backPressureLimit) {
             	if(Display.getCurrent() == null){
 					try {
-						pendingPartitions.wait();
+						pendingSlices.wait();
 					} catch (InterruptedException e) {
 					}
             	} else {
@@ -487,35 +521,62 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 					 * if we are in UI thread we cannot lock it, so process
 					 * queued output.
 					 */
-            		processQueue();
+            		while (fBuffer > backPressureLimit && processQueue()) {
+            			// continue until below the limit
+            		}
             	}
             }
 		}
 	}
 
 	/**
-	 * Holds data until updateJob can be run and the document can be updated.
+	 * Text written by one stream that has not yet been appended to the document.
 	 */
 	private class PendingPartition {
-		StringBuffer text = new StringBuffer(8192);
 		IOConsoleOutputStream stream;
+		int length;
 
-		PendingPartition(IOConsoleOutputStream stream, String text) {
+		PendingPartition(IOConsoleOutputStream stream) {
 			this.stream = stream;
-			if (text != null) {
-                append(text);
-            }
 		}
+	}
 
-		void append(String moreText) {
-			text.append(moreText);
-            fBuffer += moreText.length();
+	/**
+	 * Holds data until updateJob can be run and the document can be updated.
+	 * The text of a slice is appended to the document in a single update.
+	 */
+	private class PendingSlice {
+		StringBuilder text = new StringBuilder();
+		ArrayList<PendingPartition> partitions = new ArrayList<PendingPartition>();
+		/**
+		 * Whether the console's streams were closed after the text of this slice
+		 * was written
+		 */
+		boolean closed = false;
+
+		/**
+		 * Appends a range of the given text written by the given stream.
+		 *
+		 * @return whether a new partition was started
+		 */
+		boolean append(IOConsoleOutputStream stream, String moreText, int start, int end) {
+			boolean added = false;
+			PendingPartition last = partitions.size() > 0 ? partitions.get(partitions.size() - 1) : null;
+			if (last == null || last.stream != stream) {
+				last = new PendingPartition(stream);
+				partitions.add(last);
+				added = true;
+			}
+			text.append(moreText, start, end);
+			last.length += end - start;
+			return added;
 		}
 	}
 
 	/**
-	 * Updates the document. Will append everything that is available before
-	 * finishing.
+	 * Updates the document. Appends one slice of pending text each time it
+	 * runs and reschedules itself while more text is pending, so the UI thread
+	 * is not occupied for long periods of time.
 	 */
 	private class QueueProcessingJob extends UIJob {
 
@@ -530,68 +591,61 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
         @Override
 		public IStatus runInUIThread(IProgressMonitor monitor) {
         	processQueue();
+        	synchronized (pendingSlices) {
+        		if (pendingSlices.size() > 0) {
+        			schedule();
+        		}
+        	}
         	return Status.OK_STATUS;
         }
 
         /*
-         * Job will process as much as it can each time it's run, but it gets
-         * scheduled everytime a PendingPartition is added to the list, meaning
+         * Job will process one slice each time it's run, but it gets
+         * scheduled everytime a PendingPartition is added, meaning
          * that this job could get scheduled unnecessarily in cases of heavy output.
          * Note however, that schedule() will only reschedule a running/scheduled Job
          * once even if it's called many times.
          */
         @Override
 		public boolean shouldRun() {
-            boolean shouldRun = connected && pendingPartitions != null && pendingPartitions.size() > 0;
+            boolean shouldRun = connected && pendingSlices != null && pendingSlices.size() > 0;
             return shouldRun;
         }
 	}
 
-	void processQueue() {
+	/**
+	 * Appends the oldest pending slice to the document.
+	 *
+	 * @return whether a slice was processed
+	 */
+	boolean processQueue() {
     	synchronized (overflowLock) {
-			ArrayList<PendingPartition> pendingCopy = new ArrayList<PendingPartition>();
-    		StringBuffer buffer = null;
-    		boolean consoleClosed = false;
-			synchronized(pendingPartitions) {
-				pendingCopy.addAll(pendingPartitions);
-				pendingPartitions.clear();
-				fBuffer = 0;
-				pendingPartitions.notifyAll();
-			}
-			// determine buffer size
-			int size = 0;
-			for (PendingPartition pp : pendingCopy) {
-				if (pp != consoleClosedPartition) {
-					size+= pp.text.length();
+    		PendingSlice slice;
+			synchronized(pendingSlices) {
+				if (pendingSlices.isEmpty()) {
+					return false;
 				}
+				slice = pendingSlices.remove(0);
+				fBuffer -= slice.text.length();
+				pendingSlices.notifyAll();
 			}
-			buffer = new StringBuffer(size);
-			for (PendingPartition pp : pendingCopy) {
-				if (pp != consoleClosedPartition) {
-					buffer.append(pp.text);
-				} else {
-					consoleClosed = true;
-				}
-			}
-    		if (connected) {
+    		if (connected && slice.text.length() > 0) {
     			setUpdateInProgress(true);
-    			updatePartitions = pendingCopy;
+    			updatePartitions = slice.partitions;
     			firstOffset = document.getLength();
     			try {
-    				if (buffer != null) {
-    					document.replace(firstOffset, 0, buffer.toString());
-    				}
+    				document.replace(firstOffset, 0, slice.text.toString());
     			} catch (BadLocationException e) {
     			}
     			updatePartitions = null;
     			setUpdateInProgress(false);
     		}
-    		if (consoleClosed) {
+    		if (slice.closed) {
     			console.partitionerFinished();
     		}
     		checkBufferSize();
+    		return true;
     	}
-
 	}
 
     /**
@@ -665,9 +719,7 @@ public class IOConsolePartitioner implements IConsoleDocumentPartitioner, IDocum
 
         					//remove partitions and reset Partition offsets
         					int index = partitions.indexOf(partition);
-        					for (int i = 0; i < index; i++) {
-                                partitions.remove(0);
-                            }
+        					partitions.subList(0, index).clear();
 
         					int offset = 0;
 							for (IOConsolePartition p : partitions) {
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.console;
+
+import org.eclipse.ui.console.IPatternMatchListener;
+
+/**
+ * Time spent and work done on behalf of a single pattern match listener by a
+ * console's pattern matcher. Statistics are collected for diagnostic purposes
+ * and are only updated by the match job.
+ *
+ * @since 3.6
+ */
+public class PatternMatchStatistics {
+
+	private final IPatternMatchListener fListener;
+	private final String fPattern;
+	private final boolean fLiteralQualifier;
+
+	long fMatchTime = 0;
+	long fNotifyTime = 0;
+	long fQualifiedLines = 0;
+	long fMatches = 0;
+
+	PatternMatchStatistics(IPatternMatchListener listener, String pattern, boolean literalQualifier) {
+		fListener = listener;
+		fPattern = pattern;
+		fLiteralQualifier = literalQualifier;
+	}
+
+	PatternMatchStatistics(PatternMatchStatistics statistics) {
+		this(statistics.fListener, statistics.fPattern, statistics.fLiteralQualifier);
+		fMatchTime = statistics.fMatchTime;
+		fNotifyTime = statistics.fNotifyTime;
+		fQualifiedLines = statistics.fQualifiedLines;
+		fMatches = statistics.fMatches;
+	}
+
+	/**
+	 * @return the listener the statistics were collected for
+	 */
+	public IPatternMatchListener getListener() {
+		return fListener;
+	}
+
+	/**
+	 * @return the regular expression matched on behalf of the listener
+	 */
+	public String getPattern() {
+		return fPattern;
+	}
+
+	/**
+	 * @return whether the listener's line qualifier is searched for as a
+	 *         literal string rather than as a regular expression
+	 */
+	public boolean isLiteralQualifier() {
+		return fLiteralQualifier;
+	}
+
+	/**
+	 * @return the time in nanoseconds spent searching for qualified lines and
+	 *         matches
+	 */
+	public long getMatchTime() {
+		return fMatchTime;
+	}
+
+	/**
+	 * @return the time in nanoseconds spent in the listener's
+	 *         <code>matchFound</code> method
+	 */
+	public long getNotifyTime() {
+		return fNotifyTime;
+	}
+
+	/**
+	 * @return the number of lines that contained the listener's qualifier and
+	 *         were searched for the complete pattern
+	 */
+	public long getQualifiedLineCount() {
+		return fQualifiedLines;
+	}
+
+	/**
+	 * @return the number of matches reported to the listener
+	 */
+	public long getMatchCount() {
+		return fMatches;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuffer buffer = new StringBuffer(fPattern);
+		buffer.append(": matches="); //$NON-NLS-1$
+		buffer.append(fMatches);
+		buffer.append(" qualified lines="); //$NON-NLS-1$
+		buffer.append(fQualifiedLines);
+		buffer.append(" match time(us)="); //$NON-NLS-1$
+		buffer.append(fMatchTime / 1000);
+		buffer.append(" notify time(us)="); //$NON-NLS-1$
+		buffer.append(fNotifyTime / 1000);
+		if (fLiteralQualifier) {
+			buffer.append(" (literal qualifier)"); //$NON-NLS-1$
+		}
+		return buffer.toString();
+	}
+}